@@ -12,9 +12,11 @@
 package org.mini2Dx.android.playerdata;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.mini2Dx.core.Mdx;
+import org.mini2Dx.core.serialization.GameDataBufferSerializable;
 import org.mini2Dx.core.serialization.GameDataSerializable;
 import org.mini2Dx.core.playerdata.PlayerData;
 import org.mini2Dx.core.playerdata.PlayerDataException;
@@ -78,7 +80,7 @@ public class AndroidPlayerData implements PlayerData {
             throw new PlayerDataException("No file path specified");
         }
         try {
-            return Mdx.json.fromJson(resolve(filepath).readString(), clazz);
+            return Mdx.json.fromJson(resolve(filepath), clazz);
         } catch (SerializationException e) {
         	throw new PlayerDataException(e);
         }
@@ -92,7 +94,7 @@ public class AndroidPlayerData implements PlayerData {
         try {
 			FileHandle file = resolve(filepath);
 			FileHandle tmpFile = resolveTmp(filepath);
-			tmpFile.writeString(Mdx.json.toJson(object), false);
+			Mdx.json.toJson(tmpFile.writer(false, "UTF-8"), object, false);
 
 	        if(file.file().exists()) {
 		        file.file().delete();
@@ -103,6 +105,38 @@ public class AndroidPlayerData implements PlayerData {
         }
     }
     
+	@Override
+	public <T> T readBinary(Class<T> clazz, String... filepath)
+			throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		try {
+			return Mdx.binary.fromBinary(resolve(filepath), clazz);
+		} catch (SerializationException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public <T> void writeBinary(T object, String... filepath)
+			throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		try {
+			FileHandle file = resolve(filepath);
+			FileHandle tmpFile = resolveTmp(filepath);
+			Mdx.binary.toBinary(tmpFile, object);
+			if(file.file().exists()) {
+				file.file().delete();
+			}
+			tmpFile.file().renameTo(file.file());
+		} catch (SerializationException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
 	@Override
 	public String readString(String... filepath) throws PlayerDataException {
 		if (filepath.length == 0) {
@@ -175,6 +209,40 @@ public class AndroidPlayerData implements PlayerData {
 		}
 	}
 
+	@Override
+	public <T extends GameDataBufferSerializable> void readByteBuffer(T result, String... filepath)
+			throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		try {
+			result.readData(ByteBuffer.wrap(resolve(filepath).readBytes()));
+		} catch (Exception e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public <T extends GameDataBufferSerializable> void writeByteBuffer(T obj, String... filepath)
+			throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		try {
+			FileHandle file = resolve(filepath);
+			FileHandle tmpFile = resolveTmp(filepath);
+			final ByteBuffer buffer = ByteBuffer.allocate(obj.getSerializedSize());
+			obj.writeData(buffer);
+			tmpFile.writeBytes(buffer.array(), 0, buffer.position(), false);
+			if(file.file().exists()) {
+				file.file().delete();
+			}
+			tmpFile.file().renameTo(file.file());
+		} catch (Exception e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
 	@Override
 	public boolean delete(String... path) throws PlayerDataException {
 		if (path.length == 0) {
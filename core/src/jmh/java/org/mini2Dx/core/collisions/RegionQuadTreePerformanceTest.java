@@ -32,23 +32,36 @@ import org.openjdk.jmh.annotations.Threads;
 import com.badlogic.gdx.math.MathUtils;
 
 /**
- * Performance tests for {@link RegionQuadTree}
+ * Performance tests for {@link RegionQuadTree} and {@link SpatialHashGrid}
  */
 @Threads(value=1)
 public class RegionQuadTreePerformanceTest {
 	private static final int ELEMENTS_PER_QUAD = 4;
+	private static final float GRID_CELL_SIZE = 20f;
+	private static final int DENSE_ELEMENTS = 2000;
+	private static final float DENSE_AREA_SIZE = 1000f;
+	private static final float DENSE_ELEMENT_SIZE = 8f;
 	
 	@State(Scope.Thread)
 	public static class TestState {
 		public RegionQuadTree<CollisionBox> emptyQuadTree = new RegionQuadTree<CollisionBox>(ELEMENTS_PER_QUAD, 0f, 0f, 100f, 100f);
 		public RegionQuadTree<CollisionBox> basicQuadTree = new RegionQuadTree<CollisionBox>(ELEMENTS_PER_QUAD, 0f, 0f, 100f, 100f);
 		public RegionQuadTree<CollisionBox> complexQuadTree = new RegionQuadTree<CollisionBox>(ELEMENTS_PER_QUAD, 0f, 0f, 100f, 100f);
+		public RegionQuadTree<CollisionBox> denseQuadTree = new RegionQuadTree<CollisionBox>(ELEMENTS_PER_QUAD, ELEMENTS_PER_QUAD - 1, 0f, 0f, DENSE_AREA_SIZE, DENSE_AREA_SIZE);
+		
+		public SpatialHashGrid<CollisionBox> emptyGrid = new SpatialHashGrid<CollisionBox>(GRID_CELL_SIZE, 0f, 0f, 100f, 100f);
+		public SpatialHashGrid<CollisionBox> basicGrid = new SpatialHashGrid<CollisionBox>(GRID_CELL_SIZE, 0f, 0f, 100f, 100f);
+		public SpatialHashGrid<CollisionBox> complexGrid = new SpatialHashGrid<CollisionBox>(GRID_CELL_SIZE, 0f, 0f, 100f, 100f);
+		public SpatialHashGrid<CollisionBox> denseGrid = new SpatialHashGrid<CollisionBox>(DENSE_ELEMENT_SIZE * 2f, 0f, 0f, DENSE_AREA_SIZE, DENSE_AREA_SIZE);
 		
 		public LineSegment lineSegment = new LineSegment(25f, 25f, 75f, 75f);
 		public Rectangle rectangle = new Rectangle(25f, 25f, 50f, 50f);
 		
 		public Array<CollisionBox> basicCollisions = new Array<CollisionBox>();
 		public Array<CollisionBox> complexCollisions = new Array<CollisionBox>();
+		public Array<CollisionBox> denseQuadTreeCollisions = new Array<CollisionBox>();
+		public Array<CollisionBox> denseGridCollisions = new Array<CollisionBox>();
+		public Rectangle denseRectangle = new Rectangle(450f, 450f, 100f, 100f);
 		
 		{
 			basicCollisions.add(new CollisionBox(0f, 0f, 20f, 20f));
@@ -78,12 +91,25 @@ public class RegionQuadTreePerformanceTest {
 			for(int i = 0; i < (ELEMENTS_PER_QUAD * 2) + 1; i++) {
 				complexCollisions.add(new CollisionBox(MathUtils.random(60f, 80f), MathUtils.random(60f, 80f), 20f, 20f));
 			}
+			
+			//Create densely packed projectiles of the same size
+			for(int i = 0; i < DENSE_ELEMENTS; i++) {
+				float x = MathUtils.random(0f, DENSE_AREA_SIZE - DENSE_ELEMENT_SIZE);
+				float y = MathUtils.random(0f, DENSE_AREA_SIZE - DENSE_ELEMENT_SIZE);
+				denseQuadTreeCollisions.add(new CollisionBox(x, y, DENSE_ELEMENT_SIZE, DENSE_ELEMENT_SIZE));
+				denseGridCollisions.add(new CollisionBox(x, y, DENSE_ELEMENT_SIZE, DENSE_ELEMENT_SIZE));
+			}
 		}
 		
 		@Setup(Level.Iteration)
 		public void setUp() {			
 			basicQuadTree.addAll(basicCollisions);
 			complexQuadTree.addAll(complexCollisions);
+			denseQuadTree.addAll(denseQuadTreeCollisions);
+			
+			basicGrid.addAll(basicCollisions);
+			complexGrid.addAll(complexCollisions);
+			denseGrid.addAll(denseGridCollisions);
 		}
 		
 		@TearDown(Level.Iteration)
@@ -91,6 +117,12 @@ public class RegionQuadTreePerformanceTest {
 			emptyQuadTree.clear();
 			basicQuadTree.clear();
 			complexQuadTree.clear();
+			denseQuadTree.clear();
+			
+			emptyGrid.clear();
+			basicGrid.clear();
+			complexGrid.clear();
+			denseGrid.clear();
 		}
 	}
 	
@@ -156,4 +188,106 @@ public class RegionQuadTreePerformanceTest {
 	public void testComplexRegionQuadTreeIntersectingRectangle(TestState state) {
 		state.complexQuadTree.getElementsWithinArea(state.rectangle);
 	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Empty_Add")
+	public void testAddToEmptySpatialHashGrid(TestState state) {
+		state.emptyGrid.add(new CollisionBox(10f, 10f, 25f, 25f));
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Basic_Add")
+	public void testAddToBasicSpatialHashGrid(TestState state) {
+		state.basicGrid.add(new CollisionBox(10f, 10f, 25f, 25f));
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Complex_Add")
+	public void testAddToComplexSpatialHashGrid(TestState state) {
+		state.complexGrid.add(new CollisionBox(10f, 10f, 25f, 25f));
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Empty")
+	public void testEmptySpatialHashGridIntersectingLineSegment(TestState state) {
+		state.emptyGrid.getElementsIntersectingLineSegment(state.lineSegment);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Basic")
+	public void testBasicSpatialHashGridIntersectingLineSegment(TestState state) {
+		state.basicGrid.getElementsIntersectingLineSegment(state.lineSegment);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Complex")
+	public void testComplexSpatialHashGridIntersectingLineSegment(TestState state) {
+		state.complexGrid.getElementsIntersectingLineSegment(state.lineSegment);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Empty")
+	public void testEmptySpatialHashGridIntersectingRectangle(TestState state) {
+		state.emptyGrid.getElementsWithinArea(state.rectangle);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Basic")
+	public void testBasicSpatialHashGridIntersectingRectangle(TestState state) {
+		state.basicGrid.getElementsWithinArea(state.rectangle);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Complex")
+	public void testComplexSpatialHashGridIntersectingRectangle(TestState state) {
+		state.complexGrid.getElementsWithinArea(state.rectangle);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("RegionQuadTree_Dense")
+	public void testDenseRegionQuadTreeMove(TestState state) {
+		moveDenseCollisions(state.denseQuadTreeCollisions);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("RegionQuadTree_Dense")
+	public void testDenseRegionQuadTreeIntersectingRectangle(TestState state) {
+		state.denseQuadTree.getElementsWithinArea(state.denseRectangle);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Dense")
+	public void testDenseSpatialHashGridMove(TestState state) {
+		moveDenseCollisions(state.denseGridCollisions);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(value=Mode.AverageTime)
+	@Group("SpatialHashGrid_Dense")
+	public void testDenseSpatialHashGridIntersectingRectangle(TestState state) {
+		state.denseGrid.getElementsWithinArea(state.denseRectangle);
+	}
+	
+	private static void moveDenseCollisions(Array<CollisionBox> collisions) {
+		for(int i = 0; i < collisions.size; i++) {
+			CollisionBox collisionBox = collisions.get(i);
+			float x = collisionBox.getX() + DENSE_ELEMENT_SIZE;
+			if(x > DENSE_AREA_SIZE - DENSE_ELEMENT_SIZE) {
+				x = 0f;
+			}
+			collisionBox.set(x, collisionBox.getY());
+		}
+	}
 }
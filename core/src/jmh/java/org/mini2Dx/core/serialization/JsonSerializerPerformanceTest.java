@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2016 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mini2Dx.core.serialization.annotation.Field;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Performance tests for {@link JsonSerializer}. The cold benchmarks use a new
+ * {@link JsonSerializer} each invocation so that all reflection data is
+ * resolved per call as it was prior to serialization plans being cached. The
+ * shared benchmarks use a single {@link JsonSerializer} from all benchmark
+ * threads to measure contention on its caches.
+ */
+public class JsonSerializerPerformanceTest {
+	private static final int TOTAL_ITEMS = 1000;
+
+	@State(Scope.Thread)
+	public static class TestState {
+		public JsonSerializer serializer = new JsonSerializer();
+		public ItemDatabase database = new ItemDatabase();
+		public String json;
+
+		public TestState() {
+			for (int i = 0; i < TOTAL_ITEMS; i++) {
+				Item item = new Item();
+				item.id = i;
+				item.name = "Item " + i;
+				item.weight = i * 0.5f;
+				item.stackable = i % 2 == 0;
+				item.tags = new String[] { "tag" + (i % 10), "tag" + (i % 7) };
+				item.modifiers.add(i);
+				item.modifiers.add(i * 2);
+				database.items.add(item);
+			}
+			try {
+				json = serializer.toJson(database);
+			} catch (SerializationException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class SharedState {
+		public JsonSerializer serializer = new JsonSerializer();
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.Throughput)
+	@Group("JsonSerializerShared")
+	public ItemDatabase testFromJsonShared(SharedState sharedState, TestState state) throws SerializationException {
+		return sharedState.serializer.fromJson(state.json, ItemDatabase.class);
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.Throughput)
+	@Group("JsonSerializerShared")
+	public String testToJsonShared(SharedState sharedState, TestState state) throws SerializationException {
+		return sharedState.serializer.toJson(state.database);
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.AverageTime)
+	@Group("JsonSerializer")
+	public ItemDatabase testFromJson(TestState state) throws SerializationException {
+		return state.serializer.fromJson(state.json, ItemDatabase.class);
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.AverageTime)
+	@Group("JsonSerializer")
+	public ItemDatabase testFromJsonCold(TestState state) throws SerializationException {
+		return new JsonSerializer().fromJson(state.json, ItemDatabase.class);
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.AverageTime)
+	@Group("JsonSerializer")
+	public String testToJson(TestState state) throws SerializationException {
+		return state.serializer.toJson(state.database);
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.AverageTime)
+	@Group("JsonSerializer")
+	public String testToJsonCold(TestState state) throws SerializationException {
+		return new JsonSerializer().toJson(state.database);
+	}
+
+	public static class ItemDatabase {
+		@Field
+		public List<Item> items = new ArrayList<Item>();
+	}
+
+	public static class Item {
+		@Field
+		public int id;
+		@Field
+		public String name;
+		@Field
+		public float weight;
+		@Field
+		public boolean stackable;
+		@Field(optional = true)
+		public String[] tags;
+		@Field
+		public List<Integer> modifiers = new ArrayList<Integer>();
+	}
+}
@@ -15,6 +15,7 @@ import org.mini2Dx.core.audio.Mini2DxAudio;
 import org.mini2Dx.core.controller.ControllerMapping;
 import org.mini2Dx.core.di.DependencyInjection;
 import org.mini2Dx.core.playerdata.PlayerData;
+import org.mini2Dx.core.serialization.BinarySerializer;
 import org.mini2Dx.core.serialization.JsonSerializer;
 import org.mini2Dx.core.serialization.XmlSerializer;
 import org.mini2Dx.core.util.PerformanceTracker;
@@ -60,6 +61,11 @@ public class Mdx {
 	 */
 	public static JsonSerializer json = new JsonSerializer();
 	
+	/**
+	 * Binary serialization
+	 */
+	public static BinarySerializer binary = new BinarySerializer();
+	
 	/**
 	 * XML serialization
 	 */
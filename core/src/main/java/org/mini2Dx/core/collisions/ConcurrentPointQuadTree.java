@@ -26,6 +26,9 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 /**
  * Implements a thread-safe point quadtree
  * 
+ * Note: Unlike {@link PointQuadTree}, batched relocation is not supported.
+ * Elements are relocated as soon as they notify the quad of a position change.
+ * 
  * @see <a href="http://en.wikipedia.org/wiki/Quadtree#Point_quadtree">
  *      Wikipedia: Point Quad Tree</a>
  */
@@ -655,6 +658,242 @@ public class ConcurrentPointQuadTree<T extends Positionable> extends Rectangle i
 		lock.readLock().unlock();
 	}
 
+	@Override
+	public boolean forEachWithinArea(Shape area, QuadTreeVisitor<T> visitor) {
+		boolean result = true;
+		lock.readLock().lock();
+		try {
+			if (topLeft != null) {
+				result = topLeft.forEachWithinArea(area, visitor) && topRight.forEachWithinArea(area, visitor)
+						&& bottomLeft.forEachWithinArea(area, visitor) && bottomRight.forEachWithinArea(area, visitor);
+			} else {
+				for (int i = elements.size - 1; i >= 0; i--) {
+					T element = elements.get(i);
+					if (element != null && area.contains(element.getX(), element.getY()) && !visitor.visit(element)) {
+						result = false;
+						break;
+					}
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
+	@Override
+	public boolean forEachContainingPoint(Point point, QuadTreeVisitor<T> visitor) {
+		boolean result = true;
+		lock.readLock().lock();
+		try {
+			if (topLeft != null) {
+				result = (!topLeft.contains(point) || topLeft.forEachContainingPoint(point, visitor))
+						&& (!topRight.contains(point) || topRight.forEachContainingPoint(point, visitor))
+						&& (!bottomLeft.contains(point) || bottomLeft.forEachContainingPoint(point, visitor))
+						&& (!bottomRight.contains(point) || bottomRight.forEachContainingPoint(point, visitor));
+			} else {
+				for (int i = elements.size - 1; i >= 0; i--) {
+					T element = elements.get(i);
+					if (element == null) {
+						continue;
+					}
+					if (element.getX() != point.x) {
+						continue;
+					}
+					if (element.getY() != point.y) {
+						continue;
+					}
+					if (!visitor.visit(element)) {
+						result = false;
+						break;
+					}
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
+	@Override
+	public boolean forEachIntersectingLineSegment(LineSegment lineSegment, QuadTreeVisitor<T> visitor) {
+		boolean result = true;
+		lock.readLock().lock();
+		try {
+			if (topLeft != null) {
+				result = (!PointQuadTree.isQuadIntersectingLineSegment(topLeft, lineSegment)
+						|| topLeft.forEachIntersectingLineSegment(lineSegment, visitor))
+						&& (!PointQuadTree.isQuadIntersectingLineSegment(topRight, lineSegment)
+								|| topRight.forEachIntersectingLineSegment(lineSegment, visitor))
+						&& (!PointQuadTree.isQuadIntersectingLineSegment(bottomLeft, lineSegment)
+								|| bottomLeft.forEachIntersectingLineSegment(lineSegment, visitor))
+						&& (!PointQuadTree.isQuadIntersectingLineSegment(bottomRight, lineSegment)
+								|| bottomRight.forEachIntersectingLineSegment(lineSegment, visitor));
+			} else {
+				for (int i = elements.size - 1; i >= 0; i--) {
+					T element = elements.get(i);
+					if (element != null && lineSegment.contains(element.getX(), element.getY())
+							&& !visitor.visit(element)) {
+						result = false;
+						break;
+					}
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the element nearest to a coordinate
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @return Null if this quad contains no elements
+	 */
+	public T getNearestElement(float x, float y) {
+		return getNearestElement(x, y, Float.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the element nearest to a coordinate within a maximum distance
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param maxDistance
+	 *            The maximum distance from the coordinate to an element
+	 * @return Null if no element is within the maximum distance
+	 */
+	public T getNearestElement(float x, float y, float maxDistance) {
+		FloatPriorityQueue<T> elementQueue = findNearestElements(x, y, 1, maxDistance);
+		if (elementQueue.isEmpty()) {
+			return null;
+		}
+		return elementQueue.poll();
+	}
+
+	/**
+	 * Returns the k elements nearest to a coordinate, ordered from nearest to
+	 * furthest
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param k
+	 *            The maximum number of elements to return
+	 * @return An {@link Array} of up to k elements
+	 */
+	public Array<T> getNearestElements(float x, float y, int k) {
+		Array<T> result = new Array<T>();
+		getNearestElements(result, x, y, k, Float.MAX_VALUE);
+		return result;
+	}
+
+	/**
+	 * Returns the k elements nearest to a coordinate within a maximum
+	 * distance, ordered from nearest to furthest
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param k
+	 *            The maximum number of elements to return
+	 * @param maxDistance
+	 *            The maximum distance from the coordinate to an element
+	 * @return An {@link Array} of up to k elements
+	 */
+	public Array<T> getNearestElements(float x, float y, int k, float maxDistance) {
+		Array<T> result = new Array<T>();
+		getNearestElements(result, x, y, k, maxDistance);
+		return result;
+	}
+
+	/**
+	 * Stores the k elements nearest to a coordinate in an {@link Array},
+	 * ordered from nearest to furthest
+	 * 
+	 * @param result
+	 *            The {@link Array} to append the elements to
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param k
+	 *            The maximum number of elements to store
+	 */
+	public void getNearestElements(Array<T> result, float x, float y, int k) {
+		getNearestElements(result, x, y, k, Float.MAX_VALUE);
+	}
+
+	/**
+	 * Stores the k elements nearest to a coordinate within a maximum distance
+	 * in an {@link Array}, ordered from nearest to furthest
+	 * 
+	 * @param result
+	 *            The {@link Array} to append the elements to
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param k
+	 *            The maximum number of elements to store
+	 * @param maxDistance
+	 *            The maximum distance from the coordinate to an element
+	 */
+	public void getNearestElements(Array<T> result, float x, float y, int k, float maxDistance) {
+		if (k <= 0) {
+			return;
+		}
+		PointQuadTree.drainNearestElements(findNearestElements(x, y, k, maxDistance), result);
+	}
+
+	/**
+	 * Performs a best-first search, visiting quads in order of their distance
+	 * to the coordinate. Each quad is read locked only while its elements and
+	 * child quads are read.
+	 */
+	private FloatPriorityQueue<T> findNearestElements(float x, float y, int k, float maxDistance) {
+		final FloatPriorityQueue<ConcurrentPointQuadTree<T>> quadQueue = new FloatPriorityQueue<ConcurrentPointQuadTree<T>>(
+				false, 16);
+		final FloatPriorityQueue<T> elementQueue = new FloatPriorityQueue<T>(true, Math.min(k, 16));
+
+		final float maxDistanceSquared = maxDistance * maxDistance;
+		quadQueue.add(this, PointQuadTree.getDistanceSquaredToQuad(this, x, y));
+
+		while (!quadQueue.isEmpty()) {
+			final float quadDistance = quadQueue.peekPriority();
+			if (quadDistance > maxDistanceSquared) {
+				break;
+			}
+			if (elementQueue.size() == k && quadDistance >= elementQueue.peekPriority()) {
+				break;
+			}
+			final ConcurrentPointQuadTree<T> quad = quadQueue.poll();
+			quad.lock.readLock().lock();
+			if (quad.elements != null) {
+				for (int i = quad.elements.size - 1; i >= 0; i--) {
+					PointQuadTree.offerNearestElement(elementQueue, quad.elements.get(i), x, y, k,
+							maxDistanceSquared);
+				}
+			}
+			if (quad.topLeft != null) {
+				quadQueue.add(quad.topLeft, PointQuadTree.getDistanceSquaredToQuad(quad.topLeft, x, y));
+				quadQueue.add(quad.topRight, PointQuadTree.getDistanceSquaredToQuad(quad.topRight, x, y));
+				quadQueue.add(quad.bottomLeft, PointQuadTree.getDistanceSquaredToQuad(quad.bottomLeft, x, y));
+				quadQueue.add(quad.bottomRight, PointQuadTree.getDistanceSquaredToQuad(quad.bottomRight, x, y));
+			}
+			quad.lock.readLock().unlock();
+		}
+		return elementQueue;
+	}
+
 	public Array<T> getElements() {
 		Array<T> result = new Array<T>();
 		getElements(result);
@@ -22,6 +22,9 @@ import org.mini2Dx.core.graphics.Graphics;
 /**
  * Implements a thread-safe region quadtree
  * 
+ * Note: Unlike {@link RegionQuadTree}, batched relocation is not supported.
+ * Elements are relocated as soon as they notify the quad of a position change.
+ * 
  * @see <a href="http://en.wikipedia.org/wiki/Quadtree#The_region_quadtree">
  *      Wikipedia: Region Quad Tree</a>
  */
@@ -529,6 +532,85 @@ public class ConcurrentRegionQuadTree<T extends CollisionShape> extends Concurre
 		lock.readLock().unlock();
 	}
 
+	@Override
+	public boolean forEachWithinArea(Shape area, QuadTreeVisitor<T> visitor) {
+		boolean result = true;
+		lock.readLock().lock();
+		try {
+			if (topLeft != null) {
+				result = (!(topLeft.contains(area) || topLeft.intersects(area))
+						|| topLeft.forEachWithinArea(area, visitor))
+						&& (!(topRight.contains(area) || topRight.intersects(area))
+								|| topRight.forEachWithinArea(area, visitor))
+						&& (!(bottomLeft.contains(area) || bottomLeft.intersects(area))
+								|| bottomLeft.forEachWithinArea(area, visitor))
+						&& (!(bottomRight.contains(area) || bottomRight.intersects(area))
+								|| bottomRight.forEachWithinArea(area, visitor));
+			}
+			for (int i = elements.size - 1; result && i >= 0; i--) {
+				T element = elements.get(i);
+				if (element == null)
+					continue;
+				if (area.contains(element.getShape()) || area.intersects(element.getShape())) {
+					result = visitor.visit(element);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
+	@Override
+	public boolean forEachContainingPoint(Point point, QuadTreeVisitor<T> visitor) {
+		boolean result = true;
+		lock.readLock().lock();
+		try {
+			if (topLeft != null) {
+				result = (!topLeft.contains(point) || topLeft.forEachContainingPoint(point, visitor))
+						&& (!topRight.contains(point) || topRight.forEachContainingPoint(point, visitor))
+						&& (!bottomLeft.contains(point) || bottomLeft.forEachContainingPoint(point, visitor))
+						&& (!bottomRight.contains(point) || bottomRight.forEachContainingPoint(point, visitor));
+			}
+			for (int i = elements.size - 1; result && i >= 0; i--) {
+				T element = elements.get(i);
+				if (element != null && element.contains(point)) {
+					result = visitor.visit(element);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
+	@Override
+	public boolean forEachIntersectingLineSegment(LineSegment lineSegment, QuadTreeVisitor<T> visitor) {
+		boolean result = true;
+		lock.readLock().lock();
+		try {
+			if (topLeft != null) {
+				result = (!PointQuadTree.isQuadIntersectingLineSegment(topLeft, lineSegment)
+						|| topLeft.forEachIntersectingLineSegment(lineSegment, visitor))
+						&& (!PointQuadTree.isQuadIntersectingLineSegment(topRight, lineSegment)
+								|| topRight.forEachIntersectingLineSegment(lineSegment, visitor))
+						&& (!PointQuadTree.isQuadIntersectingLineSegment(bottomLeft, lineSegment)
+								|| bottomLeft.forEachIntersectingLineSegment(lineSegment, visitor))
+						&& (!PointQuadTree.isQuadIntersectingLineSegment(bottomRight, lineSegment)
+								|| bottomRight.forEachIntersectingLineSegment(lineSegment, visitor));
+			}
+			for (int i = elements.size - 1; result && i >= 0; i--) {
+				T element = elements.get(i);
+				if (element != null && element.intersects(lineSegment)) {
+					result = visitor.visit(element);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
 	@Override
 	public Array<T> getElements() {
 		Array<T> result = new Array<T>();
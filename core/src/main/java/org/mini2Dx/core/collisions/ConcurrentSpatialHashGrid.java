@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.collisions;
+
+import com.badlogic.gdx.utils.Array;
+import org.mini2Dx.core.engine.geom.CollisionShape;
+import org.mini2Dx.core.geom.LineSegment;
+import org.mini2Dx.core.geom.Point;
+import org.mini2Dx.core.geom.Shape;
+import org.mini2Dx.core.graphics.Graphics;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implements a thread-safe {@link SpatialHashGrid}. Queries share a read lock
+ * while additions, removals and element movements take the write lock.
+ */
+public class ConcurrentSpatialHashGrid<T extends CollisionShape> extends SpatialHashGrid<T> {
+	private static final long serialVersionUID = 6652314796410567416L;
+
+	protected final ReadWriteLock lock = new ReentrantReadWriteLock(false);
+
+	/**
+	 * Constructs a {@link ConcurrentSpatialHashGrid} with square cells of
+	 * {@link #DEFAULT_CELL_SIZE}
+	 * 
+	 * @param x
+	 *            The x coordinate of the {@link ConcurrentSpatialHashGrid}
+	 * @param y
+	 *            The y coordinate of the {@link ConcurrentSpatialHashGrid}
+	 * @param width
+	 *            The width of the {@link ConcurrentSpatialHashGrid}
+	 * @param height
+	 *            The height of the {@link ConcurrentSpatialHashGrid}
+	 */
+	public ConcurrentSpatialHashGrid(float x, float y, float width, float height) {
+		super(x, y, width, height);
+	}
+
+	/**
+	 * Constructs a {@link ConcurrentSpatialHashGrid} with square cells
+	 * 
+	 * @param cellSize
+	 *            The width and height of each cell
+	 * @param x
+	 *            The x coordinate of the {@link ConcurrentSpatialHashGrid}
+	 * @param y
+	 *            The y coordinate of the {@link ConcurrentSpatialHashGrid}
+	 * @param width
+	 *            The width of the {@link ConcurrentSpatialHashGrid}
+	 * @param height
+	 *            The height of the {@link ConcurrentSpatialHashGrid}
+	 */
+	public ConcurrentSpatialHashGrid(float cellSize, float x, float y, float width, float height) {
+		super(cellSize, x, y, width, height);
+	}
+
+	/**
+	 * Constructs a {@link ConcurrentSpatialHashGrid} with a specified cell size
+	 * 
+	 * @param cellWidth
+	 *            The width of each cell
+	 * @param cellHeight
+	 *            The height of each cell
+	 * @param x
+	 *            The x coordinate of the {@link ConcurrentSpatialHashGrid}
+	 * @param y
+	 *            The y coordinate of the {@link ConcurrentSpatialHashGrid}
+	 * @param width
+	 *            The width of the {@link ConcurrentSpatialHashGrid}
+	 * @param height
+	 *            The height of the {@link ConcurrentSpatialHashGrid}
+	 */
+	public ConcurrentSpatialHashGrid(float cellWidth, float cellHeight, float x, float y, float width,
+			float height) {
+		super(cellWidth, cellHeight, x, y, width, height);
+	}
+
+	@Override
+	public void debugRender(Graphics g) {
+		lock.readLock().lock();
+		try {
+			super.debugRender(g);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean add(T element) {
+		lock.writeLock().lock();
+		try {
+			return super.add(element);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void addAll(Array<T> elements) {
+		lock.writeLock().lock();
+		try {
+			super.addAll(elements);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(T element) {
+		lock.writeLock().lock();
+		try {
+			return super.remove(element);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void removeAll(Array<T> elements) {
+		lock.writeLock().lock();
+		try {
+			super.removeAll(elements);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			super.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void positionChanged(T moved) {
+		lock.writeLock().lock();
+		try {
+			super.positionChanged(moved);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void sizeChanged(T changed) {
+		lock.writeLock().lock();
+		try {
+			super.sizeChanged(changed);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void getElementsWithinArea(Array<T> result, Shape area) {
+		lock.readLock().lock();
+		try {
+			super.getElementsWithinArea(result, area);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void getElementsIntersectingLineSegment(Array<T> result, LineSegment lineSegment) {
+		lock.readLock().lock();
+		try {
+			super.getElementsIntersectingLineSegment(result, lineSegment);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void getElementsContainingPoint(Array<T> result, Point point) {
+		lock.readLock().lock();
+		try {
+			super.getElementsContainingPoint(result, point);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean forEachWithinArea(Shape area, QuadTreeVisitor<T> visitor) {
+		lock.readLock().lock();
+		try {
+			return super.forEachWithinArea(area, visitor);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean forEachIntersectingLineSegment(LineSegment lineSegment, QuadTreeVisitor<T> visitor) {
+		lock.readLock().lock();
+		try {
+			return super.forEachIntersectingLineSegment(lineSegment, visitor);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean forEachContainingPoint(Point point, QuadTreeVisitor<T> visitor) {
+		lock.readLock().lock();
+		try {
+			return super.forEachContainingPoint(point, visitor);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void getElements(Array<T> result) {
+		lock.readLock().lock();
+		try {
+			super.getElements(result);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public int getTotalElements() {
+		lock.readLock().lock();
+		try {
+			return super.getTotalElements();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.collisions;
+
+/**
+ * A binary heap of items ordered by a primitive float priority. Used by
+ * nearest neighbour queries to order quads and candidate elements by their
+ * squared distance without boxing.
+ */
+final class FloatPriorityQueue<E> {
+	private final boolean maxHeap;
+	private float[] priorities;
+	private Object[] items;
+	private int size;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param maxHeap
+	 *            True if the highest priority should be at the head of the
+	 *            queue, false if the lowest priority should be
+	 * @param initialCapacity
+	 *            The initial capacity of the queue
+	 */
+	FloatPriorityQueue(boolean maxHeap, int initialCapacity) {
+		this.maxHeap = maxHeap;
+		initialCapacity = Math.max(1, initialCapacity);
+		priorities = new float[initialCapacity];
+		items = new Object[initialCapacity];
+	}
+
+	void add(E item, float priority) {
+		if (size == items.length) {
+			int newCapacity = size << 1;
+			float[] newPriorities = new float[newCapacity];
+			Object[] newItems = new Object[newCapacity];
+			System.arraycopy(priorities, 0, newPriorities, 0, size);
+			System.arraycopy(items, 0, newItems, 0, size);
+			priorities = newPriorities;
+			items = newItems;
+		}
+		int index = size++;
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!isBefore(priority, priorities[parent])) {
+				break;
+			}
+			priorities[index] = priorities[parent];
+			items[index] = items[parent];
+			index = parent;
+		}
+		priorities[index] = priority;
+		items[index] = item;
+	}
+
+	@SuppressWarnings("unchecked")
+	E poll() {
+		E result = (E) items[0];
+		size--;
+		float priority = priorities[size];
+		Object item = items[size];
+		items[size] = null;
+		if (size == 0) {
+			return result;
+		}
+
+		int index = 0;
+		int half = size >>> 1;
+		while (index < half) {
+			int child = (index << 1) + 1;
+			int right = child + 1;
+			if (right < size && isBefore(priorities[right], priorities[child])) {
+				child = right;
+			}
+			if (!isBefore(priorities[child], priority)) {
+				break;
+			}
+			priorities[index] = priorities[child];
+			items[index] = items[child];
+			index = child;
+		}
+		priorities[index] = priority;
+		items[index] = item;
+		return result;
+	}
+
+	float peekPriority() {
+		return priorities[0];
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			items[i] = null;
+		}
+		size = 0;
+	}
+
+	private boolean isBefore(float priority, float otherPriority) {
+		return maxHeap ? priority > otherPriority : priority < otherPriority;
+	}
+}
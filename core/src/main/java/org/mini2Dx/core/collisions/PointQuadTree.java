@@ -20,9 +20,18 @@ import org.mini2Dx.core.geom.Rectangle;
 import org.mini2Dx.core.geom.Shape;
 import org.mini2Dx.core.graphics.Graphics;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 /**
  * Implements a point quadtree
  * 
+ * By default, elements are relocated as soon as they notify the quad of a
+ * position change. When batched relocation is enabled via
+ * {@link #setBatchedRelocation(boolean)}, moved elements are only marked as
+ * dirty and are relocated once each when {@link #flushRelocations()} is
+ * called, e.g. at the end of update.
+ * 
  * @see <a href="http://en.wikipedia.org/wiki/Quadtree#Point_quadtree">
  *      Wikipedia: Point Quad Tree</a>
  */
@@ -42,6 +51,14 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 
 	protected int totalElementsCache = -1;
 
+	protected boolean batchedRelocation = false;
+	protected Map<T, PointQuadTree<T>> pendingRelocations;
+	protected Array<T> relocatedElements;
+	protected Array<PointQuadTree<T>> relocationSourceQuads;
+
+	private transient FloatPriorityQueue<PointQuadTree<T>> nearestQuadQueue;
+	private transient FloatPriorityQueue<T> nearestElementQueue;
+
 	/**
 	 * Constructs a {@link PointQuadTree} with a specified element limit and
 	 * watermark
@@ -190,6 +207,7 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 		if (elementsToAdd == null || elementsToAdd.size == 0) {
 			return;
 		}
+		flushPendingRelocations();
 
 		Array<T> elementsWithinQuad = new Array<T>();
 		for (T element : elementsToAdd) {
@@ -219,6 +237,7 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 	public boolean add(T element) {
 		if (element == null)
 			return false;
+		flushPendingRelocations();
 
 		if (!this.contains(element.getX(), element.getY())) {
 			return false;
@@ -338,6 +357,7 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 		if (elementsToRemove == null || elementsToRemove.size == 0) {
 			return;
 		}
+		flushPendingRelocations();
 
 		Array<T> elementsWithinQuad = new Array<T>();
 		for (T element : elementsToRemove) {
@@ -372,6 +392,7 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 	public boolean remove(T element) {
 		if (element == null)
 			return false;
+		flushPendingRelocations();
 
 		if (!this.contains(element.getX(), element.getY())) {
 			return false;
@@ -385,6 +406,9 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 	}
 
 	public void clear() {
+		if (pendingRelocations != null) {
+			pendingRelocations.clear();
+		}
 		if (topLeft != null) {
 			topLeft.clear();
 			topRight.clear();
@@ -522,6 +546,289 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 		}
 	}
 
+	@Override
+	public boolean forEachWithinArea(Shape area, QuadTreeVisitor<T> visitor) {
+		if (topLeft != null) {
+			return topLeft.forEachWithinArea(area, visitor) && topRight.forEachWithinArea(area, visitor)
+					&& bottomLeft.forEachWithinArea(area, visitor) && bottomRight.forEachWithinArea(area, visitor);
+		}
+		for (int i = elements.size - 1; i >= 0; i--) {
+			T element = elements.get(i);
+			if (element != null && area.contains(element.getX(), element.getY()) && !visitor.visit(element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean forEachContainingPoint(Point point, QuadTreeVisitor<T> visitor) {
+		if (topLeft != null) {
+			if (topLeft.contains(point) && !topLeft.forEachContainingPoint(point, visitor)) {
+				return false;
+			}
+			if (topRight.contains(point) && !topRight.forEachContainingPoint(point, visitor)) {
+				return false;
+			}
+			if (bottomLeft.contains(point) && !bottomLeft.forEachContainingPoint(point, visitor)) {
+				return false;
+			}
+			if (bottomRight.contains(point) && !bottomRight.forEachContainingPoint(point, visitor)) {
+				return false;
+			}
+			return true;
+		}
+		for (int i = elements.size - 1; i >= 0; i--) {
+			T element = elements.get(i);
+			if (element == null) {
+				continue;
+			}
+			if (element.getX() != point.x) {
+				continue;
+			}
+			if (element.getY() != point.y) {
+				continue;
+			}
+			if (!visitor.visit(element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean forEachIntersectingLineSegment(LineSegment lineSegment, QuadTreeVisitor<T> visitor) {
+		if (topLeft != null) {
+			if (isQuadIntersectingLineSegment(topLeft, lineSegment)
+					&& !topLeft.forEachIntersectingLineSegment(lineSegment, visitor)) {
+				return false;
+			}
+			if (isQuadIntersectingLineSegment(topRight, lineSegment)
+					&& !topRight.forEachIntersectingLineSegment(lineSegment, visitor)) {
+				return false;
+			}
+			if (isQuadIntersectingLineSegment(bottomLeft, lineSegment)
+					&& !bottomLeft.forEachIntersectingLineSegment(lineSegment, visitor)) {
+				return false;
+			}
+			if (isQuadIntersectingLineSegment(bottomRight, lineSegment)
+					&& !bottomRight.forEachIntersectingLineSegment(lineSegment, visitor)) {
+				return false;
+			}
+			return true;
+		}
+		for (int i = elements.size - 1; i >= 0; i--) {
+			T element = elements.get(i);
+			if (element != null && lineSegment.contains(element.getX(), element.getY()) && !visitor.visit(element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected static boolean isQuadIntersectingLineSegment(Rectangle quad, LineSegment lineSegment) {
+		return quad.intersects(lineSegment) || quad.contains(lineSegment.getPointA())
+				|| quad.contains(lineSegment.getPointB());
+	}
+
+	/**
+	 * Returns the element nearest to a coordinate
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @return Null if this quad contains no elements
+	 */
+	public T getNearestElement(float x, float y) {
+		return getNearestElement(x, y, Float.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the element nearest to a coordinate within a maximum distance
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param maxDistance
+	 *            The maximum distance from the coordinate to an element
+	 * @return Null if no element is within the maximum distance
+	 */
+	public T getNearestElement(float x, float y, float maxDistance) {
+		FloatPriorityQueue<T> elementQueue = findNearestElements(x, y, 1, maxDistance);
+		if (elementQueue.isEmpty()) {
+			return null;
+		}
+		return elementQueue.poll();
+	}
+
+	/**
+	 * Returns the k elements nearest to a coordinate, ordered from nearest to
+	 * furthest
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param k
+	 *            The maximum number of elements to return
+	 * @return An {@link Array} of up to k elements
+	 */
+	public Array<T> getNearestElements(float x, float y, int k) {
+		Array<T> result = new Array<T>();
+		getNearestElements(result, x, y, k, Float.MAX_VALUE);
+		return result;
+	}
+
+	/**
+	 * Returns the k elements nearest to a coordinate within a maximum
+	 * distance, ordered from nearest to furthest
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param k
+	 *            The maximum number of elements to return
+	 * @param maxDistance
+	 *            The maximum distance from the coordinate to an element
+	 * @return An {@link Array} of up to k elements
+	 */
+	public Array<T> getNearestElements(float x, float y, int k, float maxDistance) {
+		Array<T> result = new Array<T>();
+		getNearestElements(result, x, y, k, maxDistance);
+		return result;
+	}
+
+	/**
+	 * Stores the k elements nearest to a coordinate in an {@link Array},
+	 * ordered from nearest to furthest
+	 * 
+	 * @param result
+	 *            The {@link Array} to append the elements to
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param k
+	 *            The maximum number of elements to store
+	 */
+	public void getNearestElements(Array<T> result, float x, float y, int k) {
+		getNearestElements(result, x, y, k, Float.MAX_VALUE);
+	}
+
+	/**
+	 * Stores the k elements nearest to a coordinate within a maximum distance
+	 * in an {@link Array}, ordered from nearest to furthest
+	 * 
+	 * @param result
+	 *            The {@link Array} to append the elements to
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param k
+	 *            The maximum number of elements to store
+	 * @param maxDistance
+	 *            The maximum distance from the coordinate to an element
+	 */
+	public void getNearestElements(Array<T> result, float x, float y, int k, float maxDistance) {
+		if (k <= 0) {
+			return;
+		}
+		drainNearestElements(findNearestElements(x, y, k, maxDistance), result);
+	}
+
+	/**
+	 * Performs a best-first search, visiting quads in order of their distance
+	 * to the coordinate and stopping once no remaining quad can contain a
+	 * nearer element than the current k nearest.
+	 */
+	private FloatPriorityQueue<T> findNearestElements(float x, float y, int k, float maxDistance) {
+		if (nearestQuadQueue == null) {
+			nearestQuadQueue = new FloatPriorityQueue<PointQuadTree<T>>(false, 16);
+			nearestElementQueue = new FloatPriorityQueue<T>(true, 16);
+		}
+		final FloatPriorityQueue<PointQuadTree<T>> quadQueue = nearestQuadQueue;
+		final FloatPriorityQueue<T> elementQueue = nearestElementQueue;
+		elementQueue.clear();
+
+		final float maxDistanceSquared = maxDistance * maxDistance;
+		quadQueue.add(this, getDistanceSquaredToQuad(this, x, y));
+
+		while (!quadQueue.isEmpty()) {
+			final float quadDistance = quadQueue.peekPriority();
+			if (quadDistance > maxDistanceSquared) {
+				break;
+			}
+			if (elementQueue.size() == k && quadDistance >= elementQueue.peekPriority()) {
+				break;
+			}
+			final PointQuadTree<T> quad = quadQueue.poll();
+			if (quad.elements != null) {
+				for (int i = quad.elements.size - 1; i >= 0; i--) {
+					offerNearestElement(elementQueue, quad.elements.get(i), x, y, k, maxDistanceSquared);
+				}
+			}
+			if (quad.topLeft != null) {
+				quadQueue.add(quad.topLeft, getDistanceSquaredToQuad(quad.topLeft, x, y));
+				quadQueue.add(quad.topRight, getDistanceSquaredToQuad(quad.topRight, x, y));
+				quadQueue.add(quad.bottomLeft, getDistanceSquaredToQuad(quad.bottomLeft, x, y));
+				quadQueue.add(quad.bottomRight, getDistanceSquaredToQuad(quad.bottomRight, x, y));
+			}
+		}
+		quadQueue.clear();
+		return elementQueue;
+	}
+
+	protected static <T extends Positionable> void offerNearestElement(FloatPriorityQueue<T> elementQueue, T element,
+			float x, float y, int k, float maxDistanceSquared) {
+		if (element == null) {
+			return;
+		}
+		final float dx = element.getX() - x;
+		final float dy = element.getY() - y;
+		final float distanceSquared = (dx * dx) + (dy * dy);
+		if (distanceSquared > maxDistanceSquared) {
+			return;
+		}
+		if (elementQueue.size() < k) {
+			elementQueue.add(element, distanceSquared);
+		} else if (distanceSquared < elementQueue.peekPriority()) {
+			elementQueue.poll();
+			elementQueue.add(element, distanceSquared);
+		}
+	}
+
+	protected static <T extends Positionable> void drainNearestElements(FloatPriorityQueue<T> elementQueue,
+			Array<T> result) {
+		final int startIndex = result.size;
+		while (!elementQueue.isEmpty()) {
+			result.add(elementQueue.poll());
+		}
+		// Queue is furthest first, reverse to nearest first
+		for (int i = startIndex, j = result.size - 1; i < j; i++, j--) {
+			result.swap(i, j);
+		}
+	}
+
+	protected static float getDistanceSquaredToQuad(Rectangle quad, float x, float y) {
+		float dx = 0f;
+		if (x < quad.getX()) {
+			dx = quad.getX() - x;
+		} else if (x > quad.getMaxX()) {
+			dx = x - quad.getMaxX();
+		}
+		float dy = 0f;
+		if (y < quad.getY()) {
+			dy = quad.getY() - y;
+		} else if (y > quad.getMaxY()) {
+			dy = y - quad.getMaxY();
+		}
+		return (dx * dx) + (dy * dy);
+	}
+
 	public Array<T> getElements() {
 		Array<T> result = new Array<T>();
 		getElements(result);
@@ -574,6 +881,8 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 	public void positionChanged(T moved) {
 		if (this.contains(moved.getX(), moved.getY()))
 			return;
+		if (deferRelocation(moved))
+			return;
 
 		removeElement(moved);
 
@@ -586,6 +895,128 @@ public class PointQuadTree<T extends Positionable> extends Rectangle implements
 		}
 	}
 
+	/**
+	 * Returns if an element is still within the bounds of this quad and does
+	 * not need to be relocated
+	 * 
+	 * @param element
+	 *            The element to check
+	 * @return True if the element does not need to be relocated
+	 */
+	protected boolean isWithinQuad(T element) {
+		return this.contains(element.getX(), element.getY());
+	}
+
+	/**
+	 * Marks an element as requiring relocation if batched relocation is
+	 * enabled on the root quad
+	 * 
+	 * @param moved
+	 *            The element that moved
+	 * @return True if relocation was deferred until
+	 *         {@link #flushRelocations()}, false if the element should be
+	 *         relocated immediately
+	 */
+	protected boolean deferRelocation(T moved) {
+		final PointQuadTree<T> root = getRoot();
+		if (!root.batchedRelocation) {
+			return false;
+		}
+		root.pendingRelocations.put(moved, this);
+		return true;
+	}
+
+	/**
+	 * Relocates all elements that have moved since the last flush. Each moved
+	 * element is relocated at most once regardless of how many position
+	 * changes it notified. Has no effect if batched relocation is disabled.
+	 */
+	public void flushRelocations() {
+		getRoot().flushPendingRelocations();
+	}
+
+	protected void flushPendingRelocations() {
+		if (pendingRelocations == null || pendingRelocations.isEmpty()) {
+			return;
+		}
+		for (Map.Entry<T, PointQuadTree<T>> entry : pendingRelocations.entrySet()) {
+			final T element = entry.getKey();
+			final PointQuadTree<T> quad = entry.getValue();
+			if (quad.isWithinQuad(element)) {
+				continue;
+			}
+			if (quad.elements == null || !quad.elements.removeValue(element, true)) {
+				continue;
+			}
+			element.removePositionChangeListener(quad);
+
+			PointQuadTree<T> parentQuad = quad;
+			while (parentQuad != null) {
+				parentQuad.clearTotalElementsCache();
+				parentQuad = parentQuad.parent;
+			}
+			relocatedElements.add(element);
+			relocationSourceQuads.add(quad);
+		}
+		pendingRelocations.clear();
+
+		for (int i = 0; i < relocatedElements.size; i++) {
+			add(relocatedElements.get(i));
+		}
+		for (int i = 0; i < relocationSourceQuads.size; i++) {
+			final PointQuadTree<T> quadParent = relocationSourceQuads.get(i).parent;
+			if (quadParent != null && quadParent.isMergable()) {
+				quadParent.merge();
+			}
+		}
+		relocatedElements.clear();
+		relocationSourceQuads.clear();
+	}
+
+	/**
+	 * Returns if elements are relocated in a batch via
+	 * {@link #flushRelocations()} rather than immediately
+	 * 
+	 * @return False by default
+	 */
+	public boolean isBatchedRelocation() {
+		return getRoot().batchedRelocation;
+	}
+
+	/**
+	 * Sets if elements are relocated in a batch via
+	 * {@link #flushRelocations()} rather than immediately. While batched
+	 * relocation is enabled, queries reflect element positions as of the last
+	 * flush. Disabling batched relocation flushes any pending relocations.
+	 * 
+	 * @param batchedRelocation
+	 *            True if elements should be relocated in a batch
+	 */
+	public void setBatchedRelocation(boolean batchedRelocation) {
+		final PointQuadTree<T> root = getRoot();
+		if (root.batchedRelocation == batchedRelocation) {
+			return;
+		}
+		if (batchedRelocation) {
+			if (root.pendingRelocations == null) {
+				root.pendingRelocations = new IdentityHashMap<T, PointQuadTree<T>>();
+				root.relocatedElements = new Array<T>();
+				root.relocationSourceQuads = new Array<PointQuadTree<T>>();
+			}
+		} else {
+			root.flushPendingRelocations();
+		}
+		root.batchedRelocation = batchedRelocation;
+	}
+
+	protected PointQuadTree<T> getRoot() {
+		PointQuadTree<T> result = this;
+		while (result.parent != null) {
+			result = result.parent;
+		}
+		return result;
+	}
+
 	public QuadTree<T> getParent() {
 		return parent;
 	}
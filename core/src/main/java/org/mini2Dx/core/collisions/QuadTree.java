@@ -22,6 +22,10 @@ import org.mini2Dx.core.graphics.Graphics;
 
 /**
  * Common interface for <a href="http://en.wikipedia.org/wiki/Quadtree">Quad Tree</a> implementation
+ * 
+ * Batched relocation of moved elements is only supported by {@link PointQuadTree}
+ * and {@link RegionQuadTree}. The concurrent implementations always relocate
+ * elements as soon as they notify a position change.
  */
 public interface QuadTree<T extends Positionable> extends PositionChangeListener<T>, Parallelogram {
 	public void debugRender(Graphics g);
@@ -68,6 +72,30 @@ public interface QuadTree<T extends Positionable> extends PositionChangeListener
 	public Array<T> getElementsContainingPoint(Point point);
 	
 	public void getElementsContainingPoint(Array<T> result, Point point);
+
+	/**
+	 * Visits all elements within or intersecting an area without collecting them
+	 * @param area The area to query
+	 * @param visitor The {@link QuadTreeVisitor} to pass each element to
+	 * @return False if the {@link QuadTreeVisitor} stopped the query early
+	 */
+	public boolean forEachWithinArea(Shape area, QuadTreeVisitor<T> visitor);
+
+	/**
+	 * Visits all elements intersecting a {@link LineSegment} without collecting them
+	 * @param lineSegment The {@link LineSegment} to query
+	 * @param visitor The {@link QuadTreeVisitor} to pass each element to
+	 * @return False if the {@link QuadTreeVisitor} stopped the query early
+	 */
+	public boolean forEachIntersectingLineSegment(LineSegment lineSegment, QuadTreeVisitor<T> visitor);
+
+	/**
+	 * Visits all elements containing a {@link Point} without collecting them
+	 * @param point The {@link Point} to query
+	 * @param visitor The {@link QuadTreeVisitor} to pass each element to
+	 * @return False if the {@link QuadTreeVisitor} stopped the query early
+	 */
+	public boolean forEachContainingPoint(Point point, QuadTreeVisitor<T> visitor);
 	
 	public Array<T> getElements();
 	
@@ -164,6 +164,7 @@ public class RegionQuadTree<T extends CollisionShape> extends PointQuadTree<T> {
 		if (elementsToAdd == null || elementsToAdd.size == 0) {
 			return;
 		}
+		flushPendingRelocations();
 		clearTotalElementsCache();
 
 		Array<T> elementsWithinQuad = new Array<T>();
@@ -189,6 +190,7 @@ public class RegionQuadTree<T extends CollisionShape> extends PointQuadTree<T> {
 	public boolean add(T element) {
 		if (element == null)
 			return false;
+		flushPendingRelocations();
 
 		if (!this.intersects(element.getShape()) && !this.contains(element.getShape())) {
 			return false;
@@ -246,6 +248,7 @@ public class RegionQuadTree<T extends CollisionShape> extends PointQuadTree<T> {
 	public boolean remove(T element) {
 		if (element == null)
 			return false;
+		flushPendingRelocations();
 
 		if (!this.intersects(element.getShape()) && !this.contains(element.getShape())) {
 			return false;
@@ -263,6 +266,9 @@ public class RegionQuadTree<T extends CollisionShape> extends PointQuadTree<T> {
 
 	@Override
 	public void clear() {
+		if (pendingRelocations != null) {
+			pendingRelocations.clear();
+		}
 		if (topLeft != null) {
 			topLeft.clear();
 			topRight.clear();
@@ -368,6 +374,78 @@ public class RegionQuadTree<T extends CollisionShape> extends PointQuadTree<T> {
 		}
 	}
 
+	@Override
+	public boolean forEachWithinArea(Shape area, QuadTreeVisitor<T> visitor) {
+		if (topLeft != null) {
+			if ((topLeft.contains(area) || topLeft.intersects(area)) && !topLeft.forEachWithinArea(area, visitor))
+				return false;
+			if ((topRight.contains(area) || topRight.intersects(area)) && !topRight.forEachWithinArea(area, visitor))
+				return false;
+			if ((bottomLeft.contains(area) || bottomLeft.intersects(area))
+					&& !bottomLeft.forEachWithinArea(area, visitor))
+				return false;
+			if ((bottomRight.contains(area) || bottomRight.intersects(area))
+					&& !bottomRight.forEachWithinArea(area, visitor))
+				return false;
+		}
+		for (int i = elements.size - 1; i >= 0; i--) {
+			T element = elements.get(i);
+			if (element == null)
+				continue;
+			if (area.contains(element.getShape()) || area.intersects(element.getShape())) {
+				if (!visitor.visit(element))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean forEachContainingPoint(Point point, QuadTreeVisitor<T> visitor) {
+		if (topLeft != null) {
+			if (topLeft.contains(point) && !topLeft.forEachContainingPoint(point, visitor))
+				return false;
+			if (topRight.contains(point) && !topRight.forEachContainingPoint(point, visitor))
+				return false;
+			if (bottomLeft.contains(point) && !bottomLeft.forEachContainingPoint(point, visitor))
+				return false;
+			if (bottomRight.contains(point) && !bottomRight.forEachContainingPoint(point, visitor))
+				return false;
+		}
+		for (int i = elements.size - 1; i >= 0; i--) {
+			T element = elements.get(i);
+			if (element != null && element.contains(point) && !visitor.visit(element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean forEachIntersectingLineSegment(LineSegment lineSegment, QuadTreeVisitor<T> visitor) {
+		if (topLeft != null) {
+			if (isQuadIntersectingLineSegment(topLeft, lineSegment)
+					&& !topLeft.forEachIntersectingLineSegment(lineSegment, visitor))
+				return false;
+			if (isQuadIntersectingLineSegment(topRight, lineSegment)
+					&& !topRight.forEachIntersectingLineSegment(lineSegment, visitor))
+				return false;
+			if (isQuadIntersectingLineSegment(bottomLeft, lineSegment)
+					&& !bottomLeft.forEachIntersectingLineSegment(lineSegment, visitor))
+				return false;
+			if (isQuadIntersectingLineSegment(bottomRight, lineSegment)
+					&& !bottomRight.forEachIntersectingLineSegment(lineSegment, visitor))
+				return false;
+		}
+		for (int i = elements.size - 1; i >= 0; i--) {
+			T element = elements.get(i);
+			if (element != null && element.intersects(lineSegment) && !visitor.visit(element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public Array<T> getElements() {
 		Array<T> result = new Array<T>();
@@ -403,10 +481,17 @@ public class RegionQuadTree<T extends CollisionShape> extends PointQuadTree<T> {
 		return totalElementsCache;
 	}
 
+	@Override
+	protected boolean isWithinQuad(T element) {
+		return this.contains(element.getShape());
+	}
+
 	@Override
 	public void positionChanged(T moved) {
 		if (this.contains(moved.getShape()))
 			return;
+		if (deferRelocation(moved))
+			return;
 
 		removeElement(moved);
 
@@ -0,0 +1,909 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.collisions;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import org.mini2Dx.core.engine.SizeChangeListener;
+import org.mini2Dx.core.engine.geom.CollisionShape;
+import org.mini2Dx.core.geom.LineSegment;
+import org.mini2Dx.core.geom.Point;
+import org.mini2Dx.core.geom.Rectangle;
+import org.mini2Dx.core.geom.Shape;
+import org.mini2Dx.core.graphics.Graphics;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implements a thread-safe region quadtree that is rebuilt in bulk once per
+ * tick instead of being updated on every change.
+ * 
+ * Writers (add, remove and position changes) only append to a lock-free
+ * staging buffer. Calling {@link #rebuild()} applies the staged changes and
+ * publishes a new immutable snapshot of the tree. Queries always run against
+ * the most recently published snapshot and never take a lock, so any number of
+ * threads can query while other threads move elements.
+ * 
+ * Query results reflect element positions and shapes as of the last
+ * {@link #rebuild()}. Each element's shape is copied into the snapshot when it
+ * is added or notifies a position or size change, and queries only test
+ * against those copies, never the live shapes.
+ * 
+ * Snapshots are double-buffered; the buffer published two rebuilds ago is
+ * reused unless a query is still reading from it. {@link #rebuild()} must only
+ * be called from one thread at a time.
+ */
+public class SnapshotRegionQuadTree<T extends CollisionShape> extends Rectangle
+		implements QuadTree<T>, SizeChangeListener<T> {
+	private static final long serialVersionUID = 4573981553407376281L;
+
+	public static Color QUAD_COLOR = new Color(1f, 0f, 0f, 0.5f);
+	public static Color ELEMENT_COLOR = new Color(0f, 0f, 1f, 0.5f);
+
+	private static final int OPERATION_ADD = 0;
+	private static final int OPERATION_REMOVE = 1;
+	private static final int OPERATION_CLEAR = 2;
+	private static final int OPERATION_CHANGE = 3;
+
+	private static final byte QUADRANT_NONE = 0;
+	private static final byte QUADRANT_TOP_LEFT = 1;
+	private static final byte QUADRANT_TOP_RIGHT = 2;
+	private static final byte QUADRANT_BOTTOM_LEFT = 3;
+	private static final byte QUADRANT_BOTTOM_RIGHT = 4;
+
+	protected final int elementLimitPerQuad;
+	protected final float minimumQuadWidth, minimumQuadHeight;
+
+	private final ConcurrentLinkedQueue<StagedOperation<T>> stagingBuffer = new ConcurrentLinkedQueue<StagedOperation<T>>();
+	private final Array<T> members = new Array<T>(false, 32);
+	private final Map<T, Shape> memberShapes = new IdentityHashMap<T, Shape>();
+
+	private volatile Snapshot<T> currentSnapshot;
+	private Snapshot<T> backSnapshot;
+
+	private float[] scratchBounds = new float[0];
+	private int[] scratchOrder = new int[0];
+	private int[] scratchPartition = new int[0];
+	private byte[] scratchQuadrants = new byte[0];
+
+	/**
+	 * Constructs a {@link SnapshotRegionQuadTree} with a specified element limit
+	 * 
+	 * @param elementLimitPerQuad
+	 *            The maximum number of elements in a quad before it is split
+	 *            into 4 child quads
+	 * @param x
+	 *            The x coordinate of the {@link SnapshotRegionQuadTree}
+	 * @param y
+	 *            The y coordiante of the {@link SnapshotRegionQuadTree}
+	 * @param width
+	 *            The width of the {@link SnapshotRegionQuadTree}
+	 * @param height
+	 *            The height of the {@link SnapshotRegionQuadTree}
+	 */
+	public SnapshotRegionQuadTree(int elementLimitPerQuad, float x, float y, float width, float height) {
+		this(PointQuadTree.DEFAULT_MINIMUM_QUAD_SIZE, PointQuadTree.DEFAULT_MINIMUM_QUAD_SIZE, elementLimitPerQuad, x,
+				y, width, height);
+	}
+
+	/**
+	 * Constructs a {@link SnapshotRegionQuadTree} with a specified minimum quad
+	 * size and element limit
+	 * 
+	 * @param minimumQuadWidth
+	 *            The minimum width of quads. Quads will not subdivide smaller
+	 *            than this width.
+	 * @param minimumQuadHeight
+	 *            The minimum height of quads. Quads will not subdivide smaller
+	 *            than this height.
+	 * @param elementLimitPerQuad
+	 *            The maximum number of elements in a quad before it is split
+	 *            into 4 child quads
+	 * @param x
+	 *            The x coordinate of the {@link SnapshotRegionQuadTree}
+	 * @param y
+	 *            The y coordiante of the {@link SnapshotRegionQuadTree}
+	 * @param width
+	 *            The width of the {@link SnapshotRegionQuadTree}
+	 * @param height
+	 *            The height of the {@link SnapshotRegionQuadTree}
+	 */
+	public SnapshotRegionQuadTree(float minimumQuadWidth, float minimumQuadHeight, int elementLimitPerQuad, float x,
+			float y, float width, float height) {
+		super(x, y, width, height);
+		this.elementLimitPerQuad = elementLimitPerQuad;
+		this.minimumQuadWidth = minimumQuadWidth;
+		this.minimumQuadHeight = minimumQuadHeight;
+
+		backSnapshot = new Snapshot<T>();
+		Snapshot<T> initialSnapshot = new Snapshot<T>();
+		buildSnapshot(initialSnapshot);
+		currentSnapshot = initialSnapshot;
+	}
+
+	/**
+	 * Applies all staged changes and publishes a new snapshot for queries to
+	 * use. This should be called once per tick, e.g. at the end of update,
+	 * from a single thread.
+	 * 
+	 * @return False if nothing had changed since the previous rebuild and the
+	 *         current snapshot was kept
+	 */
+	public boolean rebuild() {
+		if (!applyStagedOperations()) {
+			return false;
+		}
+
+		Snapshot<T> result = backSnapshot;
+		if (result.activeQueries.get() > 0) {
+			// A slow query is still reading the previous back buffer
+			result = new Snapshot<T>();
+		}
+		buildSnapshot(result);
+		backSnapshot = currentSnapshot;
+		currentSnapshot = result;
+		return true;
+	}
+
+	private boolean applyStagedOperations() {
+		boolean result = false;
+		StagedOperation<T> operation;
+		while ((operation = stagingBuffer.poll()) != null) {
+			result = true;
+			switch (operation.type) {
+			case OPERATION_ADD:
+				memberShapes.remove(operation.element);
+				members.add(operation.element);
+				operation.element.addPostionChangeListener(this);
+				operation.element.addSizeChangeListener(this);
+				break;
+			case OPERATION_REMOVE:
+				if (members.removeValue(operation.element, true)) {
+					operation.element.removePositionChangeListener(this);
+					operation.element.removeSizeChangeListener(this);
+				}
+				memberShapes.remove(operation.element);
+				break;
+			case OPERATION_CHANGE:
+				// Snapshotted shapes are never modified, the element's shape is copied again
+				memberShapes.remove(operation.element);
+				break;
+			case OPERATION_CLEAR:
+				for (int i = members.size - 1; i >= 0; i--) {
+					members.get(i).removePositionChangeListener(this);
+					members.get(i).removeSizeChangeListener(this);
+				}
+				members.clear();
+				memberShapes.clear();
+				break;
+			}
+		}
+		return result;
+	}
+
+	private void buildSnapshot(Snapshot<T> snapshot) {
+		ensureScratchCapacity(members.size);
+
+		final float rootMinX = getX();
+		final float rootMinY = getY();
+		final float rootMaxX = getMaxX();
+		final float rootMaxY = getMaxY();
+
+		for (int i = members.size - 1; i >= 0; i--) {
+			T element = members.get(i);
+			Shape shape = memberShapes.get(element);
+			if (shape == null) {
+				shape = element.getShape().copy();
+				memberShapes.put(element, shape);
+			}
+			float minX = shape.getMinX();
+			float minY = shape.getMinY();
+			float maxX = shape.getMaxX();
+			float maxY = shape.getMaxY();
+
+			if (maxX < rootMinX || minX > rootMaxX || maxY < rootMinY || minY > rootMaxY) {
+				// Element has moved outside of the tree's bounds
+				members.removeIndex(i);
+				memberShapes.remove(element);
+				element.removePositionChangeListener(this);
+				element.removeSizeChangeListener(this);
+			}
+		}
+		final int totalElements = members.size;
+		for (int i = 0; i < members.size; i++) {
+			Shape shape = memberShapes.get(members.get(i));
+			int boundsIndex = i * 4;
+			scratchBounds[boundsIndex] = shape.getMinX();
+			scratchBounds[boundsIndex + 1] = shape.getMinY();
+			scratchBounds[boundsIndex + 2] = shape.getMaxX();
+			scratchBounds[boundsIndex + 3] = shape.getMaxY();
+			scratchOrder[i] = i;
+		}
+
+		snapshot.reset(totalElements);
+		int rootNode = snapshot.allocateNodes(1);
+		snapshot.setNodeBounds(rootNode, rootMinX, rootMinY, rootMaxX, rootMaxY);
+		buildNode(snapshot, rootNode, 0, totalElements);
+
+		for (int i = 0; i < totalElements; i++) {
+			int memberIndex = scratchOrder[i];
+			snapshot.elements[i] = members.get(memberIndex);
+			snapshot.shapes[i] = memberShapes.get(members.get(memberIndex));
+			System.arraycopy(scratchBounds, memberIndex * 4, snapshot.elementBounds, i * 4, 4);
+		}
+	}
+
+	private void buildNode(Snapshot<T> snapshot, int node, int start, int end) {
+		int nodeBoundsIndex = node * 4;
+		float minX = snapshot.nodeBounds[nodeBoundsIndex];
+		float minY = snapshot.nodeBounds[nodeBoundsIndex + 1];
+		float maxX = snapshot.nodeBounds[nodeBoundsIndex + 2];
+		float maxY = snapshot.nodeBounds[nodeBoundsIndex + 3];
+		float halfWidth = (maxX - minX) * 0.5f;
+		float halfHeight = (maxY - minY) * 0.5f;
+
+		if (end - start <= elementLimitPerQuad || halfWidth < minimumQuadWidth || halfHeight < minimumQuadHeight) {
+			snapshot.setNodeElements(node, -1, start, end - start);
+			return;
+		}
+
+		float midX = minX + halfWidth;
+		float midY = minY + halfHeight;
+
+		int totalTopLeft = 0, totalTopRight = 0, totalBottomLeft = 0, totalBottomRight = 0;
+		for (int i = start; i < end; i++) {
+			int boundsIndex = scratchOrder[i] * 4;
+			byte quadrant = getQuadrant(scratchBounds[boundsIndex], scratchBounds[boundsIndex + 1],
+					scratchBounds[boundsIndex + 2], scratchBounds[boundsIndex + 3], minX, minY, midX, midY, maxX,
+					maxY);
+			scratchQuadrants[i] = quadrant;
+			switch (quadrant) {
+			case QUADRANT_TOP_LEFT:
+				totalTopLeft++;
+				break;
+			case QUADRANT_TOP_RIGHT:
+				totalTopRight++;
+				break;
+			case QUADRANT_BOTTOM_LEFT:
+				totalBottomLeft++;
+				break;
+			case QUADRANT_BOTTOM_RIGHT:
+				totalBottomRight++;
+				break;
+			}
+		}
+		int totalRemaining = (end - start) - totalTopLeft - totalTopRight - totalBottomLeft - totalBottomRight;
+		if (totalRemaining == end - start) {
+			// No element fits inside a child quad so subdividing is pointless
+			snapshot.setNodeElements(node, -1, start, end - start);
+			return;
+		}
+
+		final int topLeftStart = start + totalRemaining;
+		final int topRightStart = topLeftStart + totalTopLeft;
+		final int bottomLeftStart = topRightStart + totalTopRight;
+		final int bottomRightStart = bottomLeftStart + totalBottomLeft;
+
+		int remainingCursor = start, topLeftCursor = topLeftStart, topRightCursor = topRightStart,
+				bottomLeftCursor = bottomLeftStart, bottomRightCursor = bottomRightStart;
+		for (int i = start; i < end; i++) {
+			switch (scratchQuadrants[i]) {
+			case QUADRANT_TOP_LEFT:
+				scratchPartition[topLeftCursor++] = scratchOrder[i];
+				break;
+			case QUADRANT_TOP_RIGHT:
+				scratchPartition[topRightCursor++] = scratchOrder[i];
+				break;
+			case QUADRANT_BOTTOM_LEFT:
+				scratchPartition[bottomLeftCursor++] = scratchOrder[i];
+				break;
+			case QUADRANT_BOTTOM_RIGHT:
+				scratchPartition[bottomRightCursor++] = scratchOrder[i];
+				break;
+			default:
+				scratchPartition[remainingCursor++] = scratchOrder[i];
+				break;
+			}
+		}
+		System.arraycopy(scratchPartition, start, scratchOrder, start, end - start);
+
+		int firstChild = snapshot.allocateNodes(4);
+		snapshot.setNodeElements(node, firstChild, start, totalRemaining);
+		snapshot.setNodeBounds(firstChild, minX, minY, midX, midY);
+		snapshot.setNodeBounds(firstChild + 1, midX, minY, maxX, midY);
+		snapshot.setNodeBounds(firstChild + 2, minX, midY, midX, maxY);
+		snapshot.setNodeBounds(firstChild + 3, midX, midY, maxX, maxY);
+
+		buildNode(snapshot, firstChild, topLeftStart, topRightStart);
+		buildNode(snapshot, firstChild + 1, topRightStart, bottomLeftStart);
+		buildNode(snapshot, firstChild + 2, bottomLeftStart, bottomRightStart);
+		buildNode(snapshot, firstChild + 3, bottomRightStart, end);
+	}
+
+	private static byte getQuadrant(float elementMinX, float elementMinY, float elementMaxX, float elementMaxY,
+			float minX, float minY, float midX, float midY, float maxX, float maxY) {
+		if (elementMinX >= minX && elementMaxX <= midX) {
+			if (elementMinY >= minY && elementMaxY <= midY) {
+				return QUADRANT_TOP_LEFT;
+			}
+			if (elementMinY >= midY && elementMaxY <= maxY) {
+				return QUADRANT_BOTTOM_LEFT;
+			}
+		} else if (elementMinX >= midX && elementMaxX <= maxX) {
+			if (elementMinY >= minY && elementMaxY <= midY) {
+				return QUADRANT_TOP_RIGHT;
+			}
+			if (elementMinY >= midY && elementMaxY <= maxY) {
+				return QUADRANT_BOTTOM_RIGHT;
+			}
+		}
+		return QUADRANT_NONE;
+	}
+
+	private Snapshot<T> acquireSnapshot() {
+		while (true) {
+			Snapshot<T> result = currentSnapshot;
+			result.activeQueries.incrementAndGet();
+			if (result == currentSnapshot) {
+				return result;
+			}
+			// A rebuild was published in between, retry against the new snapshot
+			result.activeQueries.decrementAndGet();
+		}
+	}
+
+	private void ensureScratchCapacity(int size) {
+		if (scratchOrder.length >= size) {
+			return;
+		}
+		int capacity = Math.max(size, scratchOrder.length * 2);
+		scratchBounds = new float[capacity * 4];
+		scratchOrder = new int[capacity];
+		scratchPartition = new int[capacity];
+		scratchQuadrants = new byte[capacity];
+	}
+
+	@Override
+	public void debugRender(Graphics g) {
+		Snapshot<T> snapshot = acquireSnapshot();
+		try {
+			debugRender(g, snapshot);
+		} finally {
+			snapshot.activeQueries.decrementAndGet();
+		}
+	}
+
+	private void debugRender(Graphics g, Snapshot<T> snapshot) {
+		Color tmp = g.getColor();
+		for (int node = 0; node < snapshot.nodeCount; node++) {
+			int boundsIndex = node * 4;
+			float minX = snapshot.nodeBounds[boundsIndex];
+			float minY = snapshot.nodeBounds[boundsIndex + 1];
+			float maxX = snapshot.nodeBounds[boundsIndex + 2];
+			float maxY = snapshot.nodeBounds[boundsIndex + 3];
+
+			if (minX - g.getTranslationX() > g.getViewportWidth()) {
+				continue;
+			}
+			if (minY - g.getTranslationY() > g.getViewportHeight()) {
+				continue;
+			}
+			if (maxX - g.getTranslationX() < 0f) {
+				continue;
+			}
+			if (maxY - g.getTranslationY() < 0f) {
+				continue;
+			}
+
+			int dataIndex = node * 3;
+			if (snapshot.nodeData[dataIndex] < 0) {
+				g.setColor(QUAD_COLOR);
+				g.drawRect(minX, minY, maxX - minX, maxY - minY);
+			}
+
+			g.setColor(ELEMENT_COLOR);
+			int elementStart = snapshot.nodeData[dataIndex + 1];
+			int elementEnd = elementStart + snapshot.nodeData[dataIndex + 2];
+			for (int i = elementStart; i < elementEnd; i++) {
+				int elementBoundsIndex = i * 4;
+				g.drawRect(snapshot.elementBounds[elementBoundsIndex], snapshot.elementBounds[elementBoundsIndex + 1],
+						snapshot.elementBounds[elementBoundsIndex + 2] - snapshot.elementBounds[elementBoundsIndex],
+						snapshot.elementBounds[elementBoundsIndex + 3] - snapshot.elementBounds[elementBoundsIndex + 1]);
+			}
+		}
+		g.setColor(tmp);
+	}
+
+	/**
+	 * Stages an element to be added on the next {@link #rebuild()}
+	 * 
+	 * @param element
+	 *            The element to add
+	 * @return False if the element exists outside of this
+	 *         {@link SnapshotRegionQuadTree}'s bounds and was not staged
+	 */
+	@Override
+	public boolean add(T element) {
+		if (element == null) {
+			return false;
+		}
+		if (!this.intersects(element.getShape()) && !this.contains(element.getShape())) {
+			return false;
+		}
+		stagingBuffer.offer(new StagedOperation<T>(OPERATION_ADD, element));
+		return true;
+	}
+
+	/**
+	 * Stages an element to be removed on the next {@link #rebuild()}
+	 * 
+	 * @param element
+	 *            The element to remove
+	 * @return True if the removal was staged
+	 */
+	@Override
+	public boolean remove(T element) {
+		if (element == null) {
+			return false;
+		}
+		stagingBuffer.offer(new StagedOperation<T>(OPERATION_REMOVE, element));
+		return true;
+	}
+
+	@Override
+	public void addAll(Array<T> elements) {
+		if (elements == null || elements.size == 0) {
+			return;
+		}
+		for (int i = 0; i < elements.size; i++) {
+			add(elements.get(i));
+		}
+	}
+
+	@Override
+	public void removeAll(Array<T> elements) {
+		if (elements == null || elements.size == 0) {
+			return;
+		}
+		for (int i = 0; i < elements.size; i++) {
+			remove(elements.get(i));
+		}
+	}
+
+	/**
+	 * Stages the removal of all elements on the next {@link #rebuild()}
+	 */
+	@Override
+	public void clear() {
+		stagingBuffer.offer(new StagedOperation<T>(OPERATION_CLEAR, null));
+	}
+
+	@Override
+	public void positionChanged(T moved) {
+		stagingBuffer.offer(new StagedOperation<T>(OPERATION_CHANGE, moved));
+	}
+
+	@Override
+	public void sizeChanged(T changed) {
+		stagingBuffer.offer(new StagedOperation<T>(OPERATION_CHANGE, changed));
+	}
+
+	@Override
+	public Array<T> getElementsWithinArea(Shape area) {
+		Array<T> result = new Array<T>();
+		getElementsWithinArea(result, area);
+		return result;
+	}
+
+	@Override
+	public void getElementsWithinArea(Array<T> result, Shape area) {
+		Snapshot<T> snapshot = acquireSnapshot();
+		try {
+			getElementsWithinArea(snapshot, 0, result, area, area.getMinX(), area.getMinY(), area.getMaxX(),
+					area.getMaxY());
+		} finally {
+			snapshot.activeQueries.decrementAndGet();
+		}
+	}
+
+	private void getElementsWithinArea(Snapshot<T> snapshot, int node, Array<T> result, Shape area, float minX,
+			float minY, float maxX, float maxY) {
+		if (node != 0 && !snapshot.nodeOverlaps(node, minX, minY, maxX, maxY)) {
+			return;
+		}
+		int dataIndex = node * 3;
+		int elementStart = snapshot.nodeData[dataIndex + 1];
+		int elementEnd = elementStart + snapshot.nodeData[dataIndex + 2];
+		for (int i = elementStart; i < elementEnd; i++) {
+			if (!snapshot.elementOverlaps(i, minX, minY, maxX, maxY)) {
+				continue;
+			}
+			Shape shape = snapshot.shapes[i];
+			if (area.contains(shape) || area.intersects(shape)) {
+				result.add(snapshot.getElement(i));
+			}
+		}
+
+		int firstChild = snapshot.nodeData[dataIndex];
+		if (firstChild < 0) {
+			return;
+		}
+		for (int i = 0; i < 4; i++) {
+			getElementsWithinArea(snapshot, firstChild + i, result, area, minX, minY, maxX, maxY);
+		}
+	}
+
+	@Override
+	public Array<T> getElementsIntersectingLineSegment(LineSegment lineSegment) {
+		Array<T> result = new Array<T>();
+		getElementsIntersectingLineSegment(result, lineSegment);
+		return result;
+	}
+
+	@Override
+	public void getElementsIntersectingLineSegment(Array<T> result, LineSegment lineSegment) {
+		Snapshot<T> snapshot = acquireSnapshot();
+		try {
+			getElementsIntersectingLineSegment(snapshot, 0, result, lineSegment, lineSegment.getMinX(),
+					lineSegment.getMinY(), lineSegment.getMaxX(), lineSegment.getMaxY());
+		} finally {
+			snapshot.activeQueries.decrementAndGet();
+		}
+	}
+
+	private void getElementsIntersectingLineSegment(Snapshot<T> snapshot, int node, Array<T> result,
+			LineSegment lineSegment, float minX, float minY, float maxX, float maxY) {
+		if (node != 0 && !snapshot.nodeOverlaps(node, minX, minY, maxX, maxY)) {
+			return;
+		}
+		int dataIndex = node * 3;
+		int elementStart = snapshot.nodeData[dataIndex + 1];
+		int elementEnd = elementStart + snapshot.nodeData[dataIndex + 2];
+		for (int i = elementStart; i < elementEnd; i++) {
+			if (!snapshot.elementOverlaps(i, minX, minY, maxX, maxY)) {
+				continue;
+			}
+			if (snapshot.shapes[i].intersects(lineSegment)) {
+				result.add(snapshot.getElement(i));
+			}
+		}
+
+		int firstChild = snapshot.nodeData[dataIndex];
+		if (firstChild < 0) {
+			return;
+		}
+		for (int i = 0; i < 4; i++) {
+			getElementsIntersectingLineSegment(snapshot, firstChild + i, result, lineSegment, minX, minY, maxX,
+					maxY);
+		}
+	}
+
+	@Override
+	public Array<T> getElementsContainingPoint(Point point) {
+		Array<T> result = new Array<T>();
+		getElementsContainingPoint(result, point);
+		return result;
+	}
+
+	@Override
+	public void getElementsContainingPoint(Array<T> result, Point point) {
+		Snapshot<T> snapshot = acquireSnapshot();
+		try {
+			getElementsContainingPoint(snapshot, 0, result, point);
+		} finally {
+			snapshot.activeQueries.decrementAndGet();
+		}
+	}
+
+	private void getElementsContainingPoint(Snapshot<T> snapshot, int node, Array<T> result, Point point) {
+		if (node != 0 && !snapshot.nodeOverlaps(node, point.x, point.y, point.x, point.y)) {
+			return;
+		}
+		int dataIndex = node * 3;
+		int elementStart = snapshot.nodeData[dataIndex + 1];
+		int elementEnd = elementStart + snapshot.nodeData[dataIndex + 2];
+		for (int i = elementStart; i < elementEnd; i++) {
+			if (!snapshot.elementOverlaps(i, point.x, point.y, point.x, point.y)) {
+				continue;
+			}
+			if (snapshot.shapes[i].contains(point)) {
+				result.add(snapshot.getElement(i));
+			}
+		}
+
+		int firstChild = snapshot.nodeData[dataIndex];
+		if (firstChild < 0) {
+			return;
+		}
+		for (int i = 0; i < 4; i++) {
+			getElementsContainingPoint(snapshot, firstChild + i, result, point);
+		}
+	}
+
+	@Override
+	public boolean forEachWithinArea(Shape area, QuadTreeVisitor<T> visitor) {
+		Snapshot<T> snapshot = acquireSnapshot();
+		try {
+			return forEachWithinArea(snapshot, 0, visitor, area, area.getMinX(), area.getMinY(), area.getMaxX(),
+					area.getMaxY());
+		} finally {
+			snapshot.activeQueries.decrementAndGet();
+		}
+	}
+
+	private boolean forEachWithinArea(Snapshot<T> snapshot, int node, QuadTreeVisitor<T> visitor, Shape area,
+			float minX, float minY, float maxX, float maxY) {
+		if (node != 0 && !snapshot.nodeOverlaps(node, minX, minY, maxX, maxY)) {
+			return true;
+		}
+		int dataIndex = node * 3;
+		int elementStart = snapshot.nodeData[dataIndex + 1];
+		int elementEnd = elementStart + snapshot.nodeData[dataIndex + 2];
+		for (int i = elementStart; i < elementEnd; i++) {
+			if (!snapshot.elementOverlaps(i, minX, minY, maxX, maxY)) {
+				continue;
+			}
+			Shape shape = snapshot.shapes[i];
+			if ((area.contains(shape) || area.intersects(shape)) && !visitor.visit(snapshot.getElement(i))) {
+				return false;
+			}
+		}
+
+		int firstChild = snapshot.nodeData[dataIndex];
+		if (firstChild < 0) {
+			return true;
+		}
+		for (int i = 0; i < 4; i++) {
+			if (!forEachWithinArea(snapshot, firstChild + i, visitor, area, minX, minY, maxX, maxY)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean forEachIntersectingLineSegment(LineSegment lineSegment, QuadTreeVisitor<T> visitor) {
+		Snapshot<T> snapshot = acquireSnapshot();
+		try {
+			return forEachIntersectingLineSegment(snapshot, 0, visitor, lineSegment, lineSegment.getMinX(),
+					lineSegment.getMinY(), lineSegment.getMaxX(), lineSegment.getMaxY());
+		} finally {
+			snapshot.activeQueries.decrementAndGet();
+		}
+	}
+
+	private boolean forEachIntersectingLineSegment(Snapshot<T> snapshot, int node, QuadTreeVisitor<T> visitor,
+			LineSegment lineSegment, float minX, float minY, float maxX, float maxY) {
+		if (node != 0 && !snapshot.nodeOverlaps(node, minX, minY, maxX, maxY)) {
+			return true;
+		}
+		int dataIndex = node * 3;
+		int elementStart = snapshot.nodeData[dataIndex + 1];
+		int elementEnd = elementStart + snapshot.nodeData[dataIndex + 2];
+		for (int i = elementStart; i < elementEnd; i++) {
+			if (!snapshot.elementOverlaps(i, minX, minY, maxX, maxY)) {
+				continue;
+			}
+			if (snapshot.shapes[i].intersects(lineSegment) && !visitor.visit(snapshot.getElement(i))) {
+				return false;
+			}
+		}
+
+		int firstChild = snapshot.nodeData[dataIndex];
+		if (firstChild < 0) {
+			return true;
+		}
+		for (int i = 0; i < 4; i++) {
+			if (!forEachIntersectingLineSegment(snapshot, firstChild + i, visitor, lineSegment, minX, minY, maxX,
+					maxY)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean forEachContainingPoint(Point point, QuadTreeVisitor<T> visitor) {
+		Snapshot<T> snapshot = acquireSnapshot();
+		try {
+			return forEachContainingPoint(snapshot, 0, visitor, point);
+		} finally {
+			snapshot.activeQueries.decrementAndGet();
+		}
+	}
+
+	private boolean forEachContainingPoint(Snapshot<T> snapshot, int node, QuadTreeVisitor<T> visitor, Point point) {
+		if (node != 0 && !snapshot.nodeOverlaps(node, point.x, point.y, point.x, point.y)) {
+			return true;
+		}
+		int dataIndex = node * 3;
+		int elementStart = snapshot.nodeData[dataIndex + 1];
+		int elementEnd = elementStart + snapshot.nodeData[dataIndex + 2];
+		for (int i = elementStart; i < elementEnd; i++) {
+			if (!snapshot.elementOverlaps(i, point.x, point.y, point.x, point.y)) {
+				continue;
+			}
+			if (snapshot.shapes[i].contains(point) && !visitor.visit(snapshot.getElement(i))) {
+				return false;
+			}
+		}
+
+		int firstChild = snapshot.nodeData[dataIndex];
+		if (firstChild < 0) {
+			return true;
+		}
+		for (int i = 0; i < 4; i++) {
+			if (!forEachContainingPoint(snapshot, firstChild + i, visitor, point)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Array<T> getElements() {
+		Array<T> result = new Array<T>();
+		getElements(result);
+		return result;
+	}
+
+	@Override
+	public void getElements(Array<T> result) {
+		Snapshot<T> snapshot = acquireSnapshot();
+		try {
+			for (int i = 0; i < snapshot.elementCount; i++) {
+				result.add(snapshot.getElement(i));
+			}
+		} finally {
+			snapshot.activeQueries.decrementAndGet();
+		}
+	}
+
+	@Override
+	public int getTotalQuads() {
+		return currentSnapshot.totalQuads;
+	}
+
+	@Override
+	public int getTotalElements() {
+		return currentSnapshot.elementCount;
+	}
+
+	/**
+	 * Returns if there are staged changes or element movements that have not
+	 * been published yet
+	 * 
+	 * @return True if the next {@link #rebuild()} will publish a new snapshot
+	 */
+	public boolean isRebuildRequired() {
+		return !stagingBuffer.isEmpty();
+	}
+
+	@Override
+	public QuadTree<T> getParent() {
+		return null;
+	}
+
+	public int getElementLimitPerQuad() {
+		return elementLimitPerQuad;
+	}
+
+	@Override
+	public float getMinimumQuadWidth() {
+		return minimumQuadWidth;
+	}
+
+	@Override
+	public float getMinimumQuadHeight() {
+		return minimumQuadHeight;
+	}
+
+	private static class StagedOperation<T> {
+		final int type;
+		final T element;
+
+		StagedOperation(int type, T element) {
+			this.type = type;
+			this.element = element;
+		}
+	}
+
+	/**
+	 * A flattened, array-backed region quadtree. Node i's bounds are stored at
+	 * nodeBounds[i * 4] (minX, minY, maxX, maxY) and its first child index,
+	 * element start and element count at nodeData[i * 3]. Child nodes are
+	 * always allocated in groups of 4 (top-left, top-right, bottom-left,
+	 * bottom-right) and a node's elements are stored contiguously.
+	 */
+	private static class Snapshot<T> {
+		final AtomicInteger activeQueries = new AtomicInteger();
+
+		float[] nodeBounds = new float[4 * 5];
+		int[] nodeData = new int[3 * 5];
+		int nodeCount;
+		int totalQuads;
+
+		Object[] elements = new Object[0];
+		Shape[] shapes = new Shape[0];
+		float[] elementBounds = new float[0];
+		int elementCount;
+
+		void reset(int elementCount) {
+			if (elements.length < elementCount) {
+				elements = new Object[elementCount];
+				shapes = new Shape[elementCount];
+				elementBounds = new float[elementCount * 4];
+			} else {
+				for (int i = elementCount; i < this.elementCount; i++) {
+					elements[i] = null;
+					shapes[i] = null;
+				}
+			}
+			this.elementCount = elementCount;
+			nodeCount = 0;
+			totalQuads = 1;
+		}
+
+		int allocateNodes(int amount) {
+			int result = nodeCount;
+			nodeCount += amount;
+			if (nodeCount * 3 > nodeData.length) {
+				int capacity = Math.max(nodeCount, (nodeData.length / 3) * 2);
+				float[] newNodeBounds = new float[capacity * 4];
+				int[] newNodeData = new int[capacity * 3];
+				System.arraycopy(nodeBounds, 0, newNodeBounds, 0, result * 4);
+				System.arraycopy(nodeData, 0, newNodeData, 0, result * 3);
+				nodeBounds = newNodeBounds;
+				nodeData = newNodeData;
+			}
+			if (amount == 4) {
+				totalQuads += 3;
+			}
+			return result;
+		}
+
+		void setNodeBounds(int node, float minX, float minY, float maxX, float maxY) {
+			int index = node * 4;
+			nodeBounds[index] = minX;
+			nodeBounds[index + 1] = minY;
+			nodeBounds[index + 2] = maxX;
+			nodeBounds[index + 3] = maxY;
+		}
+
+		void setNodeElements(int node, int firstChild, int elementStart, int elementCount) {
+			int index = node * 3;
+			nodeData[index] = firstChild;
+			nodeData[index + 1] = elementStart;
+			nodeData[index + 2] = elementCount;
+		}
+
+		boolean nodeOverlaps(int node, float minX, float minY, float maxX, float maxY) {
+			int index = node * 4;
+			return maxX >= nodeBounds[index] && minX <= nodeBounds[index + 2] && maxY >= nodeBounds[index + 1]
+					&& minY <= nodeBounds[index + 3];
+		}
+
+		boolean elementOverlaps(int element, float minX, float minY, float maxX, float maxY) {
+			int index = element * 4;
+			return maxX >= elementBounds[index] && minX <= elementBounds[index + 2]
+					&& maxY >= elementBounds[index + 1] && minY <= elementBounds[index + 3];
+		}
+
+		@SuppressWarnings("unchecked")
+		T getElement(int index) {
+			return (T) elements[index];
+		}
+	}
+}
@@ -0,0 +1,607 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.collisions;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import org.mini2Dx.core.engine.SizeChangeListener;
+import org.mini2Dx.core.engine.geom.CollisionShape;
+import org.mini2Dx.core.geom.LineSegment;
+import org.mini2Dx.core.geom.Point;
+import org.mini2Dx.core.geom.Rectangle;
+import org.mini2Dx.core.geom.Shape;
+import org.mini2Dx.core.graphics.Graphics;
+
+/**
+ * Implements a uniform grid for broad-phase collision detection. The grid
+ * never subdivides or merges, making it suited to large amounts of densely
+ * packed elements of a similar size.
+ * 
+ * Cells are addressed by a primitive int key (row * columns + column) and
+ * elements are tracked by their id, so each element in the grid must have a
+ * unique id. Elements overlapping multiple cells are stored in each cell but
+ * are only reported once per query.
+ */
+public class SpatialHashGrid<T extends CollisionShape> extends Rectangle
+		implements QuadTree<T>, SizeChangeListener<T> {
+	public static final float DEFAULT_CELL_SIZE = 32f;
+	public static Color CELL_COLOR = new Color(1f, 0f, 0f, 0.5f);
+	public static Color ELEMENT_COLOR = new Color(0f, 0f, 1f, 0.5f);
+
+	private static final long serialVersionUID = -4105626424003489738L;
+
+	protected final float cellWidth, cellHeight;
+	protected final int totalColumns, totalRows;
+
+	private final Array<CellRange<T>>[] cells;
+	private final IntMap<CellRange<T>> cellRanges = new IntMap<CellRange<T>>();
+	private final Array<CellRange<T>> members = new Array<CellRange<T>>(false, 32);
+
+	/**
+	 * Constructs a {@link SpatialHashGrid} with square cells of
+	 * {@link #DEFAULT_CELL_SIZE}
+	 * 
+	 * @param x
+	 *            The x coordinate of the {@link SpatialHashGrid}
+	 * @param y
+	 *            The y coordinate of the {@link SpatialHashGrid}
+	 * @param width
+	 *            The width of the {@link SpatialHashGrid}
+	 * @param height
+	 *            The height of the {@link SpatialHashGrid}
+	 */
+	public SpatialHashGrid(float x, float y, float width, float height) {
+		this(DEFAULT_CELL_SIZE, DEFAULT_CELL_SIZE, x, y, width, height);
+	}
+
+	/**
+	 * Constructs a {@link SpatialHashGrid} with square cells
+	 * 
+	 * @param cellSize
+	 *            The width and height of each cell
+	 * @param x
+	 *            The x coordinate of the {@link SpatialHashGrid}
+	 * @param y
+	 *            The y coordinate of the {@link SpatialHashGrid}
+	 * @param width
+	 *            The width of the {@link SpatialHashGrid}
+	 * @param height
+	 *            The height of the {@link SpatialHashGrid}
+	 */
+	public SpatialHashGrid(float cellSize, float x, float y, float width, float height) {
+		this(cellSize, cellSize, x, y, width, height);
+	}
+
+	/**
+	 * Constructs a {@link SpatialHashGrid} with a specified cell size
+	 * 
+	 * @param cellWidth
+	 *            The width of each cell. Ideally this should be close to the
+	 *            width of the elements stored in the grid.
+	 * @param cellHeight
+	 *            The height of each cell. Ideally this should be close to the
+	 *            height of the elements stored in the grid.
+	 * @param x
+	 *            The x coordinate of the {@link SpatialHashGrid}
+	 * @param y
+	 *            The y coordinate of the {@link SpatialHashGrid}
+	 * @param width
+	 *            The width of the {@link SpatialHashGrid}
+	 * @param height
+	 *            The height of the {@link SpatialHashGrid}
+	 */
+	@SuppressWarnings("unchecked")
+	public SpatialHashGrid(float cellWidth, float cellHeight, float x, float y, float width, float height) {
+		super(x, y, width, height);
+		if (cellWidth <= 0f || cellHeight <= 0f) {
+			throw new IllegalArgumentException("Cell width and height must be greater than 0");
+		}
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		this.totalColumns = Math.max(1, MathUtils.ceil(width / cellWidth));
+		this.totalRows = Math.max(1, MathUtils.ceil(height / cellHeight));
+		this.cells = new Array[totalColumns * totalRows];
+	}
+
+	@Override
+	public void debugRender(Graphics g) {
+		Color tmp = g.getColor();
+		g.setColor(CELL_COLOR);
+		for (int row = 0; row < totalRows; row++) {
+			for (int column = 0; column < totalColumns; column++) {
+				Array<CellRange<T>> cell = cells[getCellKey(column, row)];
+				if (cell == null || cell.size == 0) {
+					continue;
+				}
+				g.drawRect(getX() + (column * cellWidth), getY() + (row * cellHeight), cellWidth, cellHeight);
+			}
+		}
+		g.setColor(ELEMENT_COLOR);
+		for (int i = 0; i < members.size; i++) {
+			T element = members.get(i).element;
+			g.drawRect(element.getX(), element.getY(), element.getWidth(), element.getHeight());
+		}
+		g.setColor(tmp);
+	}
+
+	@Override
+	public boolean add(T element) {
+		if (element == null) {
+			return false;
+		}
+		if (cellRanges.containsKey(element.getId())) {
+			return false;
+		}
+		Shape shape = element.getShape();
+		if (!overlapsGrid(shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY())) {
+			return false;
+		}
+		CellRange<T> cellRange = new CellRange<T>(element);
+		setCellRange(cellRange, shape);
+		insertIntoCells(cellRange);
+
+		cellRange.index = members.size;
+		members.add(cellRange);
+		cellRanges.put(element.getId(), cellRange);
+
+		element.addPostionChangeListener(this);
+		element.addSizeChangeListener(this);
+		return true;
+	}
+
+	@Override
+	public void addAll(Array<T> elements) {
+		if (elements == null) {
+			return;
+		}
+		for (int i = 0; i < elements.size; i++) {
+			add(elements.get(i));
+		}
+	}
+
+	@Override
+	public boolean remove(T element) {
+		if (element == null) {
+			return false;
+		}
+		CellRange<T> cellRange = cellRanges.get(element.getId());
+		if (cellRange == null || cellRange.element != element) {
+			return false;
+		}
+		removeMember(cellRange);
+		return true;
+	}
+
+	@Override
+	public void removeAll(Array<T> elements) {
+		if (elements == null) {
+			return;
+		}
+		for (int i = 0; i < elements.size; i++) {
+			remove(elements.get(i));
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < members.size; i++) {
+			T element = members.get(i).element;
+			element.removePositionChangeListener(this);
+			element.removeSizeChangeListener(this);
+		}
+		for (int i = 0; i < cells.length; i++) {
+			if (cells[i] != null) {
+				cells[i].clear();
+			}
+		}
+		members.clear();
+		cellRanges.clear();
+	}
+
+	@Override
+	public void positionChanged(T moved) {
+		updateCells(moved);
+	}
+
+	@Override
+	public void sizeChanged(T changed) {
+		updateCells(changed);
+	}
+
+	private void updateCells(T element) {
+		CellRange<T> cellRange = cellRanges.get(element.getId());
+		if (cellRange == null) {
+			return;
+		}
+		Shape shape = element.getShape();
+		if (!overlapsGrid(shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY())) {
+			// Element has moved outside of the grid's bounds
+			removeMember(cellRange);
+			return;
+		}
+		int minColumn = toColumn(shape.getMinX());
+		int minRow = toRow(shape.getMinY());
+		int maxColumn = toColumn(shape.getMaxX());
+		int maxRow = toRow(shape.getMaxY());
+		if (minColumn == cellRange.minColumn && minRow == cellRange.minRow && maxColumn == cellRange.maxColumn
+				&& maxRow == cellRange.maxRow) {
+			return;
+		}
+		removeFromCells(cellRange);
+		cellRange.minColumn = minColumn;
+		cellRange.minRow = minRow;
+		cellRange.maxColumn = maxColumn;
+		cellRange.maxRow = maxRow;
+		insertIntoCells(cellRange);
+	}
+
+	private void removeMember(CellRange<T> cellRange) {
+		removeFromCells(cellRange);
+
+		final int index = cellRange.index;
+		final int lastIndex = members.size - 1;
+		if (index != lastIndex) {
+			CellRange<T> last = members.get(lastIndex);
+			members.set(index, last);
+			last.index = index;
+		}
+		members.removeIndex(lastIndex);
+		cellRanges.remove(cellRange.element.getId());
+
+		cellRange.element.removePositionChangeListener(this);
+		cellRange.element.removeSizeChangeListener(this);
+	}
+
+	private void insertIntoCells(CellRange<T> cellRange) {
+		for (int row = cellRange.minRow; row <= cellRange.maxRow; row++) {
+			for (int column = cellRange.minColumn; column <= cellRange.maxColumn; column++) {
+				final int key = getCellKey(column, row);
+				Array<CellRange<T>> cell = cells[key];
+				if (cell == null) {
+					cell = new Array<CellRange<T>>(false, 4);
+					cells[key] = cell;
+				}
+				cell.add(cellRange);
+			}
+		}
+	}
+
+	private void removeFromCells(CellRange<T> cellRange) {
+		for (int row = cellRange.minRow; row <= cellRange.maxRow; row++) {
+			for (int column = cellRange.minColumn; column <= cellRange.maxColumn; column++) {
+				cells[getCellKey(column, row)].removeValue(cellRange, true);
+			}
+		}
+	}
+
+	@Override
+	public Array<T> getElementsWithinArea(Shape area) {
+		Array<T> result = new Array<T>();
+		getElementsWithinArea(result, area);
+		return result;
+	}
+
+	@Override
+	public void getElementsWithinArea(Array<T> result, Shape area) {
+		final float minX = area.getMinX();
+		final float minY = area.getMinY();
+		final float maxX = area.getMaxX();
+		final float maxY = area.getMaxY();
+		if (!overlapsGrid(minX, minY, maxX, maxY)) {
+			return;
+		}
+		final int minColumn = toColumn(minX);
+		final int minRow = toRow(minY);
+		final int maxColumn = toColumn(maxX);
+		final int maxRow = toRow(maxY);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final Array<CellRange<T>> cell = cells[getCellKey(column, row)];
+				if (cell == null) {
+					continue;
+				}
+				for (int i = cell.size - 1; i >= 0; i--) {
+					final CellRange<T> cellRange = cell.get(i);
+					if (!cellRange.isReferenceCell(column, row, minColumn, minRow)) {
+						continue;
+					}
+					final T element = cellRange.element;
+					if (area.contains(element.getShape()) || area.intersects(element.getShape())) {
+						result.add(element);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public Array<T> getElementsIntersectingLineSegment(LineSegment lineSegment) {
+		Array<T> result = new Array<T>();
+		getElementsIntersectingLineSegment(result, lineSegment);
+		return result;
+	}
+
+	@Override
+	public void getElementsIntersectingLineSegment(Array<T> result, LineSegment lineSegment) {
+		final float minX = lineSegment.getMinX();
+		final float minY = lineSegment.getMinY();
+		final float maxX = lineSegment.getMaxX();
+		final float maxY = lineSegment.getMaxY();
+		if (!overlapsGrid(minX, minY, maxX, maxY)) {
+			return;
+		}
+		final int minColumn = toColumn(minX);
+		final int minRow = toRow(minY);
+		final int maxColumn = toColumn(maxX);
+		final int maxRow = toRow(maxY);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final Array<CellRange<T>> cell = cells[getCellKey(column, row)];
+				if (cell == null) {
+					continue;
+				}
+				for (int i = cell.size - 1; i >= 0; i--) {
+					final CellRange<T> cellRange = cell.get(i);
+					if (!cellRange.isReferenceCell(column, row, minColumn, minRow)) {
+						continue;
+					}
+					if (cellRange.element.intersects(lineSegment)) {
+						result.add(cellRange.element);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public Array<T> getElementsContainingPoint(Point point) {
+		Array<T> result = new Array<T>();
+		getElementsContainingPoint(result, point);
+		return result;
+	}
+
+	@Override
+	public void getElementsContainingPoint(Array<T> result, Point point) {
+		if (!overlapsGrid(point.x, point.y, point.x, point.y)) {
+			return;
+		}
+		final Array<CellRange<T>> cell = cells[getCellKey(toColumn(point.x), toRow(point.y))];
+		if (cell == null) {
+			return;
+		}
+		for (int i = cell.size - 1; i >= 0; i--) {
+			final T element = cell.get(i).element;
+			if (element.contains(point)) {
+				result.add(element);
+			}
+		}
+	}
+
+	@Override
+	public boolean forEachWithinArea(Shape area, QuadTreeVisitor<T> visitor) {
+		final float minX = area.getMinX();
+		final float minY = area.getMinY();
+		final float maxX = area.getMaxX();
+		final float maxY = area.getMaxY();
+		if (!overlapsGrid(minX, minY, maxX, maxY)) {
+			return true;
+		}
+		final int minColumn = toColumn(minX);
+		final int minRow = toRow(minY);
+		final int maxColumn = toColumn(maxX);
+		final int maxRow = toRow(maxY);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final Array<CellRange<T>> cell = cells[getCellKey(column, row)];
+				if (cell == null) {
+					continue;
+				}
+				for (int i = cell.size - 1; i >= 0; i--) {
+					final CellRange<T> cellRange = cell.get(i);
+					if (!cellRange.isReferenceCell(column, row, minColumn, minRow)) {
+						continue;
+					}
+					final T element = cellRange.element;
+					if ((area.contains(element.getShape()) || area.intersects(element.getShape()))
+							&& !visitor.visit(element)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean forEachIntersectingLineSegment(LineSegment lineSegment, QuadTreeVisitor<T> visitor) {
+		final float minX = lineSegment.getMinX();
+		final float minY = lineSegment.getMinY();
+		final float maxX = lineSegment.getMaxX();
+		final float maxY = lineSegment.getMaxY();
+		if (!overlapsGrid(minX, minY, maxX, maxY)) {
+			return true;
+		}
+		final int minColumn = toColumn(minX);
+		final int minRow = toRow(minY);
+		final int maxColumn = toColumn(maxX);
+		final int maxRow = toRow(maxY);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final Array<CellRange<T>> cell = cells[getCellKey(column, row)];
+				if (cell == null) {
+					continue;
+				}
+				for (int i = cell.size - 1; i >= 0; i--) {
+					final CellRange<T> cellRange = cell.get(i);
+					if (!cellRange.isReferenceCell(column, row, minColumn, minRow)) {
+						continue;
+					}
+					if (cellRange.element.intersects(lineSegment) && !visitor.visit(cellRange.element)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean forEachContainingPoint(Point point, QuadTreeVisitor<T> visitor) {
+		if (!overlapsGrid(point.x, point.y, point.x, point.y)) {
+			return true;
+		}
+		final Array<CellRange<T>> cell = cells[getCellKey(toColumn(point.x), toRow(point.y))];
+		if (cell == null) {
+			return true;
+		}
+		for (int i = cell.size - 1; i >= 0; i--) {
+			final T element = cell.get(i).element;
+			if (element.contains(point) && !visitor.visit(element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Array<T> getElements() {
+		Array<T> result = new Array<T>();
+		getElements(result);
+		return result;
+	}
+
+	@Override
+	public void getElements(Array<T> result) {
+		result.ensureCapacity(members.size);
+		for (int i = 0; i < members.size; i++) {
+			result.add(members.get(i).element);
+		}
+	}
+
+	/**
+	 * Returns the total amount of cells in this grid
+	 * 
+	 * @return The total columns multiplied by the total rows
+	 */
+	@Override
+	public int getTotalQuads() {
+		return cells.length;
+	}
+
+	@Override
+	public int getTotalElements() {
+		return members.size;
+	}
+
+	/**
+	 * Always returns null as grids are never nested
+	 */
+	@Override
+	public QuadTree<T> getParent() {
+		return null;
+	}
+
+	/**
+	 * Returns the width of each cell
+	 */
+	@Override
+	public float getMinimumQuadWidth() {
+		return cellWidth;
+	}
+
+	/**
+	 * Returns the height of each cell
+	 */
+	@Override
+	public float getMinimumQuadHeight() {
+		return cellHeight;
+	}
+
+	public float getCellWidth() {
+		return cellWidth;
+	}
+
+	public float getCellHeight() {
+		return cellHeight;
+	}
+
+	public int getTotalColumns() {
+		return totalColumns;
+	}
+
+	public int getTotalRows() {
+		return totalRows;
+	}
+
+	/**
+	 * Returns the key of the cell at the specified column and row
+	 * 
+	 * @param column
+	 *            The column index
+	 * @param row
+	 *            The row index
+	 * @return The index of the cell
+	 */
+	public int getCellKey(int column, int row) {
+		return (row * totalColumns) + column;
+	}
+
+	private void setCellRange(CellRange<T> cellRange, Shape shape) {
+		cellRange.minColumn = toColumn(shape.getMinX());
+		cellRange.minRow = toRow(shape.getMinY());
+		cellRange.maxColumn = toColumn(shape.getMaxX());
+		cellRange.maxRow = toRow(shape.getMaxY());
+	}
+
+	private boolean overlapsGrid(float minX, float minY, float maxX, float maxY) {
+		if (maxX < getX() || minX > getMaxX()) {
+			return false;
+		}
+		if (maxY < getY() || minY > getMaxY()) {
+			return false;
+		}
+		return true;
+	}
+
+	private int toColumn(float x) {
+		return MathUtils.clamp((int) ((x - getX()) / cellWidth), 0, totalColumns - 1);
+	}
+
+	private int toRow(float y) {
+		return MathUtils.clamp((int) ((y - getY()) / cellHeight), 0, totalRows - 1);
+	}
+
+	private static class CellRange<T> {
+		final T element;
+		int index;
+		int minColumn, minRow, maxColumn, maxRow;
+
+		CellRange(T element) {
+			this.element = element;
+		}
+
+		/**
+		 * Returns true if the cell is the first cell of this range that a
+		 * query starting at queryMinColumn and queryMinRow visits. Used to
+		 * report an element once without having to track visited elements.
+		 */
+		boolean isReferenceCell(int column, int row, int queryMinColumn, int queryMinRow) {
+			return column == Math.max(minColumn, queryMinColumn) && row == Math.max(minRow, queryMinRow);
+		}
+	}
+}
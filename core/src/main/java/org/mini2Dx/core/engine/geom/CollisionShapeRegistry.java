@@ -0,0 +1,413 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.engine.geom;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.mini2Dx.core.game.GameContainer;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Tracks collision objects so that {@link #preUpdate()} and
+ * {@link #interpolate(GameContainer, float)} can be applied to all of them in
+ * a single call.
+ * 
+ * {@link CollisionBox}, {@link CollisionCircle} and {@link CollisionPoint}
+ * instances are stored in separate arrays so that each loop only ever calls
+ * into a single concrete type. {@link CollisionWorld}s are processed via
+ * their bulk range methods.
+ * 
+ * When a {@link ForkJoinPool} is provided and the total amount of objects
+ * reaches the parallel threshold, the work is split across the pool.
+ * Registration must not occur while {@link #preUpdate()} or
+ * {@link #interpolate(GameContainer, float)} is executing.
+ */
+public class CollisionShapeRegistry {
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+	private static final int MINIMUM_BATCH_SIZE = 256;
+
+	private static final int OPERATION_PRE_UPDATE = 0;
+	private static final int OPERATION_INTERPOLATE = 1;
+
+	private final Array<CollisionBox> boxes = new Array<CollisionBox>(false, 32, CollisionBox.class);
+	private final Array<CollisionCircle> circles = new Array<CollisionCircle>(false, 32, CollisionCircle.class);
+	private final Array<CollisionPoint> points = new Array<CollisionPoint>(false, 32, CollisionPoint.class);
+	private final Array<CollisionShape> shapes = new Array<CollisionShape>(false, 32, CollisionShape.class);
+	private final Array<CollisionWorld> worlds = new Array<CollisionWorld>(false, 1, CollisionWorld.class);
+
+	private ForkJoinPool pool;
+	private int parallelThreshold;
+
+	/**
+	 * Constructs a {@link CollisionShapeRegistry} that always processes
+	 * objects on the calling thread
+	 */
+	public CollisionShapeRegistry() {
+		this(null, DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param pool
+	 *            The {@link ForkJoinPool} to split work across. If null, all
+	 *            work is processed on the calling thread.
+	 * @param parallelThreshold
+	 *            The total amount of objects required before work is split
+	 *            across the pool
+	 */
+	public CollisionShapeRegistry(ForkJoinPool pool, int parallelThreshold) {
+		super();
+		this.pool = pool;
+		setParallelThreshold(parallelThreshold);
+	}
+
+	/**
+	 * Registers a {@link CollisionShape}
+	 * 
+	 * @param shape
+	 *            The {@link CollisionShape} to register
+	 */
+	public void register(CollisionShape shape) {
+		if (shape instanceof CollisionBox) {
+			boxes.add((CollisionBox) shape);
+		} else if (shape instanceof CollisionCircle) {
+			circles.add((CollisionCircle) shape);
+		} else {
+			shapes.add(shape);
+		}
+	}
+
+	/**
+	 * Registers a {@link CollisionPoint}
+	 * 
+	 * @param point
+	 *            The {@link CollisionPoint} to register
+	 */
+	public void register(CollisionPoint point) {
+		points.add(point);
+	}
+
+	/**
+	 * Registers all objects stored in a {@link CollisionWorld}. Objects
+	 * created in or released from the world after registration are tracked
+	 * automatically.
+	 * 
+	 * @param world
+	 *            The {@link CollisionWorld} to register
+	 */
+	public void register(CollisionWorld world) {
+		worlds.add(world);
+	}
+
+	/**
+	 * Unregisters a {@link CollisionShape}
+	 * 
+	 * @param shape
+	 *            The {@link CollisionShape} to unregister
+	 * @return True if the {@link CollisionShape} was registered
+	 */
+	public boolean unregister(CollisionShape shape) {
+		if (shape instanceof CollisionBox) {
+			return boxes.removeValue((CollisionBox) shape, true);
+		} else if (shape instanceof CollisionCircle) {
+			return circles.removeValue((CollisionCircle) shape, true);
+		}
+		return shapes.removeValue(shape, true);
+	}
+
+	/**
+	 * Unregisters a {@link CollisionPoint}
+	 * 
+	 * @param point
+	 *            The {@link CollisionPoint} to unregister
+	 * @return True if the {@link CollisionPoint} was registered
+	 */
+	public boolean unregister(CollisionPoint point) {
+		return points.removeValue(point, true);
+	}
+
+	/**
+	 * Unregisters a {@link CollisionWorld}
+	 * 
+	 * @param world
+	 *            The {@link CollisionWorld} to unregister
+	 * @return True if the {@link CollisionWorld} was registered
+	 */
+	public boolean unregister(CollisionWorld world) {
+		return worlds.removeValue(world, true);
+	}
+
+	/**
+	 * Unregisters all objects
+	 */
+	public void clear() {
+		boxes.clear();
+		circles.clear();
+		points.clear();
+		shapes.clear();
+		worlds.clear();
+	}
+
+	/**
+	 * Calls preUpdate on all registered objects. This needs to be called at
+	 * the start of each frame before any changes are made to the objects.
+	 */
+	public void preUpdate() {
+		execute(OPERATION_PRE_UPDATE, null, 0f);
+	}
+
+	/**
+	 * Interpolates all registered objects
+	 * 
+	 * @param gc
+	 *            The {@link GameContainer} of the game
+	 * @param alpha
+	 *            The interpolation alpha value
+	 */
+	public void interpolate(GameContainer gc, float alpha) {
+		execute(OPERATION_INTERPOLATE, gc, alpha);
+	}
+
+	private void execute(int operation, GameContainer gc, float alpha) {
+		final int totalObjects = getTotalObjects();
+		if (pool == null || totalObjects < parallelThreshold) {
+			processBoxes(operation, gc, alpha, 0, boxes.size);
+			processCircles(operation, gc, alpha, 0, circles.size);
+			processPoints(operation, gc, alpha, 0, points.size);
+			processShapes(operation, gc, alpha, 0, shapes.size);
+			for (int i = 0; i < worlds.size; i++) {
+				processWorld(worlds.items[i], operation, alpha, 0, worlds.items[i].getTotalObjects());
+			}
+			return;
+		}
+		final int batchSize = Math.max(MINIMUM_BATCH_SIZE, totalObjects / (pool.getParallelism() * 4));
+		pool.invoke(new RootTask(operation, gc, alpha, batchSize));
+	}
+
+	private void processBoxes(int operation, GameContainer gc, float alpha, int from, int to) {
+		final CollisionBox[] items = boxes.items;
+		if (operation == OPERATION_PRE_UPDATE) {
+			for (int i = from; i < to; i++) {
+				items[i].preUpdate();
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				items[i].interpolate(gc, alpha);
+			}
+		}
+	}
+
+	private void processCircles(int operation, GameContainer gc, float alpha, int from, int to) {
+		final CollisionCircle[] items = circles.items;
+		if (operation == OPERATION_PRE_UPDATE) {
+			for (int i = from; i < to; i++) {
+				items[i].preUpdate();
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				items[i].interpolate(gc, alpha);
+			}
+		}
+	}
+
+	private void processPoints(int operation, GameContainer gc, float alpha, int from, int to) {
+		final CollisionPoint[] items = points.items;
+		if (operation == OPERATION_PRE_UPDATE) {
+			for (int i = from; i < to; i++) {
+				items[i].preUpdate();
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				items[i].interpolate(gc, alpha);
+			}
+		}
+	}
+
+	private void processShapes(int operation, GameContainer gc, float alpha, int from, int to) {
+		final CollisionShape[] items = shapes.items;
+		if (operation == OPERATION_PRE_UPDATE) {
+			for (int i = from; i < to; i++) {
+				items[i].preUpdate();
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				items[i].interpolate(gc, alpha);
+			}
+		}
+	}
+
+	private void processWorld(CollisionWorld world, int operation, float alpha, int from, int to) {
+		if (operation == OPERATION_PRE_UPDATE) {
+			world.preUpdate(from, to);
+		} else {
+			world.interpolate(from, to, alpha);
+		}
+	}
+
+	/**
+	 * Returns the total amount of objects tracked by this registry, including
+	 * those stored in registered {@link CollisionWorld}s
+	 * 
+	 * @return 0 if no objects are tracked
+	 */
+	public int getTotalObjects() {
+		int result = boxes.size + circles.size + points.size + shapes.size;
+		for (int i = 0; i < worlds.size; i++) {
+			result += worlds.items[i].getTotalObjects();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the {@link ForkJoinPool} work is split across
+	 * 
+	 * @return Null if all work is processed on the calling thread
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Sets the {@link ForkJoinPool} to split work across
+	 * 
+	 * @param pool
+	 *            Null if all work should be processed on the calling thread
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the total amount of objects required before work is split
+	 * across the {@link ForkJoinPool}
+	 * 
+	 * @return {@link #DEFAULT_PARALLEL_THRESHOLD} by default
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Sets the total amount of objects required before work is split across
+	 * the {@link ForkJoinPool}
+	 * 
+	 * @param parallelThreshold
+	 *            The amount of objects
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 1) {
+			throw new IllegalArgumentException("parallelThreshold must be greater than 0");
+		}
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	private class RootTask extends RecursiveAction {
+		private static final long serialVersionUID = -4418366516617658094L;
+
+		private final int operation;
+		private final GameContainer gc;
+		private final float alpha;
+		private final int batchSize;
+
+		public RootTask(int operation, GameContainer gc, float alpha, int batchSize) {
+			this.operation = operation;
+			this.gc = gc;
+			this.alpha = alpha;
+			this.batchSize = batchSize;
+		}
+
+		@Override
+		protected void compute() {
+			final Array<RangeTask> tasks = new Array<RangeTask>(false, 4 + worlds.size, RangeTask.class);
+			addTask(tasks, RangeTask.TYPE_BOXES, null, boxes.size);
+			addTask(tasks, RangeTask.TYPE_CIRCLES, null, circles.size);
+			addTask(tasks, RangeTask.TYPE_POINTS, null, points.size);
+			addTask(tasks, RangeTask.TYPE_SHAPES, null, shapes.size);
+			for (int i = 0; i < worlds.size; i++) {
+				addTask(tasks, RangeTask.TYPE_WORLD, worlds.items[i], worlds.items[i].getTotalObjects());
+			}
+			for (int i = 0; i < tasks.size; i++) {
+				tasks.items[i].fork();
+			}
+			for (int i = 0; i < tasks.size; i++) {
+				tasks.items[i].join();
+			}
+		}
+
+		private void addTask(Array<RangeTask> tasks, int type, CollisionWorld world, int size) {
+			if (size == 0) {
+				return;
+			}
+			tasks.add(new RangeTask(type, world, operation, gc, alpha, batchSize, 0, size));
+		}
+	}
+
+	private class RangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 2887795312542400455L;
+
+		static final int TYPE_BOXES = 0;
+		static final int TYPE_CIRCLES = 1;
+		static final int TYPE_POINTS = 2;
+		static final int TYPE_SHAPES = 3;
+		static final int TYPE_WORLD = 4;
+
+		private final int type;
+		private final CollisionWorld world;
+		private final int operation;
+		private final GameContainer gc;
+		private final float alpha;
+		private final int batchSize;
+		private final int from, to;
+
+		public RangeTask(int type, CollisionWorld world, int operation, GameContainer gc, float alpha,
+				int batchSize, int from, int to) {
+			this.type = type;
+			this.world = world;
+			this.operation = operation;
+			this.gc = gc;
+			this.alpha = alpha;
+			this.batchSize = batchSize;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > batchSize) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new RangeTask(type, world, operation, gc, alpha, batchSize, from, middle),
+						new RangeTask(type, world, operation, gc, alpha, batchSize, middle, to));
+				return;
+			}
+			switch (type) {
+			case TYPE_BOXES:
+				processBoxes(operation, gc, alpha, from, to);
+				break;
+			case TYPE_CIRCLES:
+				processCircles(operation, gc, alpha, from, to);
+				break;
+			case TYPE_POINTS:
+				processPoints(operation, gc, alpha, from, to);
+				break;
+			case TYPE_SHAPES:
+				processShapes(operation, gc, alpha, from, to);
+				break;
+			case TYPE_WORLD:
+				processWorld(world, operation, alpha, from, to);
+				break;
+			}
+		}
+	}
+}
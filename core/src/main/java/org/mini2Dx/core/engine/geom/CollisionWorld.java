@@ -0,0 +1,398 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.engine.geom;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Stores the position, size, previous and render state of many collision
+ * objects in parallel primitive arrays. {@link WorldCollisionBox},
+ * {@link WorldCollisionCircle} and {@link WorldCollisionPoint} instances are
+ * lightweight views onto a slot in these arrays so that {@link #preUpdate()}
+ * and {@link #interpolate(float)} run as tight loops over contiguous memory
+ * instead of one object at a time.
+ * 
+ * Slots are kept densely packed; releasing an object moves the last object
+ * into the released slot. Note that this class is not thread-safe.
+ */
+public class CollisionWorld {
+	public static final int DEFAULT_INITIAL_CAPACITY = 128;
+
+	float[] x, y, width, height;
+	float[] previousX, previousY, previousWidth, previousHeight;
+	float[] renderX, renderY, renderWidth, renderHeight;
+	boolean[] interpolateRequired;
+
+	private WorldCollisionObject[] objects;
+	private int size;
+
+	/**
+	 * Constructs a {@link CollisionWorld} with the default initial capacity
+	 */
+	public CollisionWorld() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructs a {@link CollisionWorld}
+	 * 
+	 * @param initialCapacity
+	 *            The amount of collision objects to allocate storage for
+	 */
+	public CollisionWorld(int initialCapacity) {
+		allocateArrays(Math.max(1, initialCapacity));
+	}
+
+	/**
+	 * Creates a new {@link WorldCollisionBox} stored in this world
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param width
+	 *            The width
+	 * @param height
+	 *            The height
+	 * @return A new {@link WorldCollisionBox}
+	 */
+	public WorldCollisionBox createBox(float x, float y, float width, float height) {
+		return createBox(CollisionIdSequence.nextId(), x, y, width, height);
+	}
+
+	/**
+	 * Creates a new {@link WorldCollisionBox} stored in this world
+	 * 
+	 * @param id
+	 *            The unique id of the box
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param width
+	 *            The width
+	 * @param height
+	 *            The height
+	 * @return A new {@link WorldCollisionBox}
+	 */
+	public WorldCollisionBox createBox(int id, float x, float y, float width, float height) {
+		WorldCollisionBox result = new WorldCollisionBox(this, id);
+		allocate(result, x, y, width, height);
+		return result;
+	}
+
+	/**
+	 * Creates a new {@link WorldCollisionCircle} stored in this world
+	 * 
+	 * @param centerX
+	 *            The center x coordinate
+	 * @param centerY
+	 *            The center y coordinate
+	 * @param radius
+	 *            The radius
+	 * @return A new {@link WorldCollisionCircle}
+	 */
+	public WorldCollisionCircle createCircle(float centerX, float centerY, float radius) {
+		return createCircle(CollisionIdSequence.nextId(), centerX, centerY, radius);
+	}
+
+	/**
+	 * Creates a new {@link WorldCollisionCircle} stored in this world
+	 * 
+	 * @param id
+	 *            The unique id of the circle
+	 * @param centerX
+	 *            The center x coordinate
+	 * @param centerY
+	 *            The center y coordinate
+	 * @param radius
+	 *            The radius
+	 * @return A new {@link WorldCollisionCircle}
+	 */
+	public WorldCollisionCircle createCircle(int id, float centerX, float centerY, float radius) {
+		WorldCollisionCircle result = new WorldCollisionCircle(this, id);
+		allocate(result, centerX, centerY, radius, radius);
+		return result;
+	}
+
+	/**
+	 * Creates a new {@link WorldCollisionPoint} stored in this world
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @return A new {@link WorldCollisionPoint}
+	 */
+	public WorldCollisionPoint createPoint(float x, float y) {
+		return createPoint(CollisionIdSequence.nextId(), x, y);
+	}
+
+	/**
+	 * Creates a new {@link WorldCollisionPoint} stored in this world
+	 * 
+	 * @param id
+	 *            The unique id of the point
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @return A new {@link WorldCollisionPoint}
+	 */
+	public WorldCollisionPoint createPoint(int id, float x, float y) {
+		WorldCollisionPoint result = new WorldCollisionPoint(this, id);
+		allocate(result, x, y, 0f, 0f);
+		return result;
+	}
+
+	/**
+	 * Releases the storage of a collision object. The object must not be used
+	 * after it has been released.
+	 * 
+	 * @param object
+	 *            The {@link WorldCollisionObject} to release
+	 * @return False if the object was not stored in this world
+	 */
+	public boolean release(WorldCollisionObject object) {
+		if (object == null || object.world != this || object.index < 0) {
+			return false;
+		}
+		final int index = object.index;
+		final int last = size - 1;
+		if (index != last) {
+			x[index] = x[last];
+			y[index] = y[last];
+			width[index] = width[last];
+			height[index] = height[last];
+			previousX[index] = previousX[last];
+			previousY[index] = previousY[last];
+			previousWidth[index] = previousWidth[last];
+			previousHeight[index] = previousHeight[last];
+			renderX[index] = renderX[last];
+			renderY[index] = renderY[last];
+			renderWidth[index] = renderWidth[last];
+			renderHeight[index] = renderHeight[last];
+			interpolateRequired[index] = interpolateRequired[last];
+
+			objects[index] = objects[last];
+			objects[index].index = index;
+		}
+		objects[last] = null;
+		object.index = -1;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Stores the current state of all objects as their previous state. This
+	 * needs to be called at the start of each frame before any changes are
+	 * made to objects in this world.
+	 */
+	public void preUpdate() {
+		preUpdate(0, size);
+	}
+
+	/**
+	 * Stores the current state of a range of objects as their previous state
+	 * 
+	 * @param fromIndex
+	 *            The first slot (inclusive)
+	 * @param toIndex
+	 *            The last slot (exclusive)
+	 */
+	public void preUpdate(int fromIndex, int toIndex) {
+		final int length = toIndex - fromIndex;
+		System.arraycopy(x, fromIndex, previousX, fromIndex, length);
+		System.arraycopy(y, fromIndex, previousY, fromIndex, length);
+		System.arraycopy(width, fromIndex, previousWidth, fromIndex, length);
+		System.arraycopy(height, fromIndex, previousHeight, fromIndex, length);
+	}
+
+	/**
+	 * Interpolates the render state of all objects between their previous and
+	 * current state
+	 * 
+	 * @param alpha
+	 *            The interpolation alpha value
+	 */
+	public void interpolate(float alpha) {
+		interpolate(0, size, alpha);
+	}
+
+	/**
+	 * Interpolates the render state of a range of objects between their
+	 * previous and current state
+	 * 
+	 * @param fromIndex
+	 *            The first slot (inclusive)
+	 * @param toIndex
+	 *            The last slot (exclusive)
+	 * @param alpha
+	 *            The interpolation alpha value
+	 */
+	public void interpolate(int fromIndex, int toIndex, float alpha) {
+		final float[] x = this.x;
+		final float[] y = this.y;
+		final float[] width = this.width;
+		final float[] height = this.height;
+		final float[] previousX = this.previousX;
+		final float[] previousY = this.previousY;
+		final float[] previousWidth = this.previousWidth;
+		final float[] previousHeight = this.previousHeight;
+		final float[] renderX = this.renderX;
+		final float[] renderY = this.renderY;
+		final float[] renderWidth = this.renderWidth;
+		final float[] renderHeight = this.renderHeight;
+		final boolean[] interpolateRequired = this.interpolateRequired;
+
+		for (int i = fromIndex; i < toIndex; i++) {
+			if (!interpolateRequired[i]) {
+				continue;
+			}
+			final float currentX = x[i];
+			final float currentY = y[i];
+			final float currentWidth = width[i];
+			final float currentHeight = height[i];
+			final float resultX = previousX[i] + ((currentX - previousX[i]) * alpha);
+			final float resultY = previousY[i] + ((currentY - previousY[i]) * alpha);
+			final float resultWidth = previousWidth[i] + ((currentWidth - previousWidth[i]) * alpha);
+			final float resultHeight = previousHeight[i] + ((currentHeight - previousHeight[i]) * alpha);
+			renderX[i] = resultX;
+			renderY[i] = resultY;
+			renderWidth[i] = resultWidth;
+			renderHeight[i] = resultHeight;
+
+			if (MathUtils.round(resultX) != MathUtils.round(currentX)) {
+				continue;
+			}
+			if (MathUtils.round(resultY) != MathUtils.round(currentY)) {
+				continue;
+			}
+			if (MathUtils.round(resultWidth) != MathUtils.round(currentWidth)) {
+				continue;
+			}
+			if (MathUtils.round(resultHeight) != MathUtils.round(currentHeight)) {
+				continue;
+			}
+			interpolateRequired[i] = false;
+		}
+	}
+
+	/**
+	 * Returns the total collision objects stored in this world
+	 * 
+	 * @return 0 if no objects are stored
+	 */
+	public int getTotalObjects() {
+		return size;
+	}
+
+	/**
+	 * Returns the collision object stored at a slot
+	 * 
+	 * @param index
+	 *            The slot index
+	 * @return The {@link WorldCollisionObject} using the slot
+	 */
+	public WorldCollisionObject getObject(int index) {
+		return objects[index];
+	}
+
+	/**
+	 * Returns the amount of objects this world can store before its arrays
+	 * are resized
+	 * 
+	 * @return The current capacity
+	 */
+	public int getCapacity() {
+		return objects.length;
+	}
+
+	void set(int index, float x, float y, float width, float height) {
+		this.x[index] = x;
+		this.y[index] = y;
+		this.width[index] = width;
+		this.height[index] = height;
+		interpolateRequired[index] = true;
+	}
+
+	void forceTo(int index, float x, float y, float width, float height) {
+		this.x[index] = x;
+		this.y[index] = y;
+		this.width[index] = width;
+		this.height[index] = height;
+		previousX[index] = x;
+		previousY[index] = y;
+		previousWidth[index] = width;
+		previousHeight[index] = height;
+		renderX[index] = x;
+		renderY[index] = y;
+		renderWidth[index] = width;
+		renderHeight[index] = height;
+		interpolateRequired[index] = false;
+	}
+
+	private void allocate(WorldCollisionObject object, float x, float y, float width, float height) {
+		if (size == objects.length) {
+			resize(objects.length * 2);
+		}
+		final int index = size;
+		objects[index] = object;
+		object.index = index;
+		size++;
+		forceTo(index, x, y, width, height);
+	}
+
+	private void allocateArrays(int capacity) {
+		x = new float[capacity];
+		y = new float[capacity];
+		width = new float[capacity];
+		height = new float[capacity];
+		previousX = new float[capacity];
+		previousY = new float[capacity];
+		previousWidth = new float[capacity];
+		previousHeight = new float[capacity];
+		renderX = new float[capacity];
+		renderY = new float[capacity];
+		renderWidth = new float[capacity];
+		renderHeight = new float[capacity];
+		interpolateRequired = new boolean[capacity];
+		objects = new WorldCollisionObject[capacity];
+	}
+
+	private void resize(int capacity) {
+		float[] oldX = x, oldY = y, oldWidth = width, oldHeight = height;
+		float[] oldPreviousX = previousX, oldPreviousY = previousY, oldPreviousWidth = previousWidth,
+				oldPreviousHeight = previousHeight;
+		float[] oldRenderX = renderX, oldRenderY = renderY, oldRenderWidth = renderWidth,
+				oldRenderHeight = renderHeight;
+		boolean[] oldInterpolateRequired = interpolateRequired;
+		WorldCollisionObject[] oldObjects = objects;
+
+		allocateArrays(capacity);
+
+		System.arraycopy(oldX, 0, x, 0, size);
+		System.arraycopy(oldY, 0, y, 0, size);
+		System.arraycopy(oldWidth, 0, width, 0, size);
+		System.arraycopy(oldHeight, 0, height, 0, size);
+		System.arraycopy(oldPreviousX, 0, previousX, 0, size);
+		System.arraycopy(oldPreviousY, 0, previousY, 0, size);
+		System.arraycopy(oldPreviousWidth, 0, previousWidth, 0, size);
+		System.arraycopy(oldPreviousHeight, 0, previousHeight, 0, size);
+		System.arraycopy(oldRenderX, 0, renderX, 0, size);
+		System.arraycopy(oldRenderY, 0, renderY, 0, size);
+		System.arraycopy(oldRenderWidth, 0, renderWidth, 0, size);
+		System.arraycopy(oldRenderHeight, 0, renderHeight, 0, size);
+		System.arraycopy(oldInterpolateRequired, 0, interpolateRequired, 0, size);
+		System.arraycopy(oldObjects, 0, objects, 0, size);
+	}
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.engine.geom;
+
+import com.badlogic.gdx.math.MathUtils;
+import org.mini2Dx.core.geom.Rectangle;
+import org.mini2Dx.core.geom.Shape;
+import org.mini2Dx.core.graphics.Graphics;
+
+/**
+ * A {@link WorldCollisionShape} equivalent of {@link CollisionBox}. Create
+ * instances via {@link CollisionWorld#createBox(float, float, float, float)}.
+ * 
+ * Note that unlike {@link CollisionBox}, this class does not support rotation.
+ */
+public class WorldCollisionBox extends WorldCollisionShape {
+	private Rectangle shape;
+
+	WorldCollisionBox(CollisionWorld world, int id) {
+		super(world, id);
+	}
+
+	@Override
+	public void draw(Graphics g) {
+		g.drawRect(world.renderX[index], world.renderY[index], world.renderWidth[index], world.renderHeight[index]);
+	}
+
+	@Override
+	public void fill(Graphics g) {
+		g.fillRect(world.renderX[index], world.renderY[index], world.renderWidth[index], world.renderHeight[index]);
+	}
+
+	/**
+	 * Sets the x, y, width and height of this box
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param width
+	 *            The width
+	 * @param height
+	 *            The height
+	 */
+	public void set(float x, float y, float width, float height) {
+		boolean notifyPositionListeners = x != world.x[index] || y != world.y[index];
+		boolean notifySizeListeners = width != world.width[index] || height != world.height[index];
+		if (!notifyPositionListeners && !notifySizeListeners) {
+			return;
+		}
+		world.set(index, x, y, width, height);
+
+		if (notifyPositionListeners) {
+			notifyPositionChangeListeners();
+		}
+		if (notifySizeListeners) {
+			notifySizeChangeListeners();
+		}
+	}
+
+	/**
+	 * Sets the current bounds to the specified bounds and force updates the
+	 * rendering bounds to match
+	 * 
+	 * @param x
+	 *            The x coordinate to set
+	 * @param y
+	 *            The y coordinate to set
+	 * @param width
+	 *            The width to set
+	 * @param height
+	 *            The height to set
+	 */
+	public void forceTo(float x, float y, float width, float height) {
+		boolean notifyPositionListeners = x != world.x[index] || y != world.y[index];
+		boolean notifySizeListeners = width != world.width[index] || height != world.height[index];
+		world.forceTo(index, x, y, width, height);
+
+		if (notifyPositionListeners) {
+			notifyPositionChangeListeners();
+		}
+		if (notifySizeListeners) {
+			notifySizeChangeListeners();
+		}
+	}
+
+	public void setWidth(float width) {
+		setSize(width, world.height[index]);
+	}
+
+	public void setHeight(float height) {
+		setSize(world.width[index], height);
+	}
+
+	@Override
+	public void setSize(float width, float height) {
+		super.setSize(width, height);
+	}
+
+	/**
+	 * Stretches this box in/out from its center so that the distance from its
+	 * center to each corner is the specified radius
+	 */
+	@Override
+	public void setRadius(float radius) {
+		float currentWidth = world.width[index];
+		float currentHeight = world.height[index];
+		float currentRadius = (float) Math.sqrt((currentWidth * currentWidth) + (currentHeight * currentHeight))
+				* 0.5f;
+		if (currentRadius == 0f) {
+			return;
+		}
+		scale(radius / currentRadius);
+	}
+
+	@Override
+	public void scale(float scale) {
+		float centerX = getCenterX();
+		float centerY = getCenterY();
+		float width = world.width[index] * scale;
+		float height = world.height[index] * scale;
+		set(centerX - (width * 0.5f), centerY - (height * 0.5f), width, height);
+	}
+
+	@Override
+	public float getDistanceTo(float x, float y) {
+		float distanceX = Math.max(Math.max(getMinX() - x, 0f), x - getMaxX());
+		float distanceY = Math.max(Math.max(getMinY() - y, 0f), y - getMaxY());
+		return (float) Math.sqrt((distanceX * distanceX) + (distanceY * distanceY));
+	}
+
+	@Override
+	public float getWidth() {
+		return world.width[index];
+	}
+
+	@Override
+	public float getHeight() {
+		return world.height[index];
+	}
+
+	@Override
+	public float getMinX() {
+		return world.x[index];
+	}
+
+	@Override
+	public float getMinY() {
+		return world.y[index];
+	}
+
+	@Override
+	public float getMaxX() {
+		return world.x[index] + world.width[index];
+	}
+
+	@Override
+	public float getMaxY() {
+		return world.y[index] + world.height[index];
+	}
+
+	@Override
+	public float getCenterX() {
+		return world.x[index] + (world.width[index] * 0.5f);
+	}
+
+	@Override
+	public float getCenterY() {
+		return world.y[index] + (world.height[index] * 0.5f);
+	}
+
+	@Override
+	public void setCenter(float x, float y) {
+		set(x - (world.width[index] * 0.5f), y - (world.height[index] * 0.5f));
+	}
+
+	@Override
+	public void setCenterX(float x) {
+		setX(x - (world.width[index] * 0.5f));
+	}
+
+	@Override
+	public void setCenterY(float y) {
+		setY(y - (world.height[index] * 0.5f));
+	}
+
+	public int getRenderWidth() {
+		return MathUtils.round(world.renderWidth[index]);
+	}
+
+	public int getRenderHeight() {
+		return MathUtils.round(world.renderHeight[index]);
+	}
+
+	public float getPreviousWidth() {
+		return world.previousWidth[index];
+	}
+
+	public float getPreviousHeight() {
+		return world.previousHeight[index];
+	}
+
+	@Override
+	public Shape getShape() {
+		if (shape == null) {
+			shape = new Rectangle();
+		}
+		shape.set(world.x[index], world.y[index], world.width[index], world.height[index]);
+		return shape;
+	}
+
+	@Override
+	public String toString() {
+		return "WorldCollisionBox [id=" + id + ", x=" + getX() + ", y=" + getY() + ", width=" + getWidth()
+				+ ", height=" + getHeight() + "]";
+	}
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.engine.geom;
+
+import com.badlogic.gdx.math.Vector2;
+import org.mini2Dx.core.geom.Circle;
+import org.mini2Dx.core.geom.Shape;
+import org.mini2Dx.core.graphics.Graphics;
+
+/**
+ * A {@link WorldCollisionShape} equivalent of {@link CollisionCircle}. Create
+ * instances via {@link CollisionWorld#createCircle(float, float, float)}.
+ * 
+ * The x and y coordinate of a {@link WorldCollisionCircle} is its center.
+ */
+public class WorldCollisionCircle extends WorldCollisionShape {
+	private Circle shape;
+
+	WorldCollisionCircle(CollisionWorld world, int id) {
+		super(world, id);
+	}
+
+	@Override
+	public void draw(Graphics g) {
+		g.drawCircle(world.renderX[index], world.renderY[index], world.renderWidth[index]);
+	}
+
+	@Override
+	public void fill(Graphics g) {
+		g.fillCircle(world.renderX[index], world.renderY[index], world.renderWidth[index]);
+	}
+
+	public float getRadius() {
+		return world.width[index];
+	}
+
+	@Override
+	public void setRadius(float radius) {
+		setSize(radius, radius);
+	}
+
+	@Override
+	public void scale(float scale) {
+		setRadius(world.width[index] * scale);
+	}
+
+	@Override
+	public float getDistanceTo(float x, float y) {
+		float result = Vector2.dst(world.x[index], world.y[index], x, y);
+		if (result <= world.width[index]) {
+			return 0f;
+		}
+		return result - world.width[index];
+	}
+
+	@Override
+	public float getWidth() {
+		return world.width[index] * 2f;
+	}
+
+	@Override
+	public float getHeight() {
+		return world.width[index] * 2f;
+	}
+
+	@Override
+	public float getMinX() {
+		return world.x[index] - world.width[index];
+	}
+
+	@Override
+	public float getMinY() {
+		return world.y[index] - world.width[index];
+	}
+
+	@Override
+	public float getMaxX() {
+		return world.x[index] + world.width[index];
+	}
+
+	@Override
+	public float getMaxY() {
+		return world.y[index] + world.width[index];
+	}
+
+	@Override
+	public float getCenterX() {
+		return world.x[index];
+	}
+
+	@Override
+	public float getCenterY() {
+		return world.y[index];
+	}
+
+	@Override
+	public void setCenter(float x, float y) {
+		set(x, y);
+	}
+
+	@Override
+	public void setCenterX(float x) {
+		setX(x);
+	}
+
+	@Override
+	public void setCenterY(float y) {
+		setY(y);
+	}
+
+	public float getRenderRadius() {
+		return world.renderWidth[index];
+	}
+
+	public float getPreviousRadius() {
+		return world.previousWidth[index];
+	}
+
+	@Override
+	public Shape getShape() {
+		if (shape == null) {
+			shape = new Circle(0f);
+		}
+		shape.set(world.x[index], world.y[index]);
+		shape.setRadius(world.width[index]);
+		return shape;
+	}
+
+	@Override
+	public String toString() {
+		return "WorldCollisionCircle [id=" + id + ", x=" + getX() + ", y=" + getY() + ", radius=" + getRadius()
+				+ "]";
+	}
+}
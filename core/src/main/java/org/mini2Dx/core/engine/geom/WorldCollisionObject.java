@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.engine.geom;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import org.mini2Dx.core.engine.PositionChangeListener;
+import org.mini2Dx.core.engine.Positionable;
+import org.mini2Dx.core.game.GameContainer;
+import org.mini2Dx.core.geom.Point;
+
+/**
+ * Base class for collision objects whose state is stored in a
+ * {@link CollisionWorld}. Instances only hold their slot index, id and
+ * listeners; all coordinates are read from and written to the world's arrays.
+ */
+public abstract class WorldCollisionObject implements Positionable {
+	final CollisionWorld world;
+	final int id;
+	int index = -1;
+
+	private Array<PositionChangeListener> positionChangeListeners;
+
+	WorldCollisionObject(CollisionWorld world, int id) {
+		this.world = world;
+		this.id = id;
+	}
+
+	/**
+	 * This method needs to be called at the start of each frame before any
+	 * changes are made to this object. When using many objects, prefer
+	 * {@link CollisionWorld#preUpdate()}.
+	 */
+	public void preUpdate() {
+		world.preUpdate(index, index + 1);
+	}
+
+	@Override
+	public void update(GameContainer gc, float delta) {
+	}
+
+	/**
+	 * Interpolates this object. When using many objects, prefer
+	 * {@link CollisionWorld#interpolate(float)}.
+	 */
+	@Override
+	public void interpolate(GameContainer gc, float alpha) {
+		world.interpolate(index, index + 1, alpha);
+	}
+
+	@Override
+	public int getId() {
+		return id;
+	}
+
+	@Override
+	public float getX() {
+		return world.x[index];
+	}
+
+	@Override
+	public float getY() {
+		return world.y[index];
+	}
+
+	@Override
+	public void setX(float x) {
+		if (x == world.x[index]) {
+			return;
+		}
+		world.x[index] = x;
+		world.interpolateRequired[index] = true;
+		notifyPositionChangeListeners();
+	}
+
+	@Override
+	public void setY(float y) {
+		if (y == world.y[index]) {
+			return;
+		}
+		world.y[index] = y;
+		world.interpolateRequired[index] = true;
+		notifyPositionChangeListeners();
+	}
+
+	/**
+	 * Sets the x and y coordinate of this object
+	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 */
+	public void set(float x, float y) {
+		if (x == world.x[index] && y == world.y[index]) {
+			return;
+		}
+		world.x[index] = x;
+		world.y[index] = y;
+		world.interpolateRequired[index] = true;
+		notifyPositionChangeListeners();
+	}
+
+	/**
+	 * Adds to the x and y coordinate of this object
+	 * 
+	 * @param x
+	 *            The amount to add to the x coordinate
+	 * @param y
+	 *            The amount to add to the y coordinate
+	 */
+	public void add(float x, float y) {
+		set(world.x[index] + x, world.y[index] + y);
+	}
+
+	/**
+	 * Sets the current x and y coordinate to the specified x and y and force
+	 * updates the rendering position to match
+	 * 
+	 * @param x
+	 *            The x coordinate to set
+	 * @param y
+	 *            The y coordinate to set
+	 */
+	public void forceTo(float x, float y) {
+		boolean notifyPositionListeners = x != world.x[index] || y != world.y[index];
+		world.forceTo(index, x, y, world.width[index], world.height[index]);
+		if (notifyPositionListeners) {
+			notifyPositionChangeListeners();
+		}
+	}
+
+	@Override
+	public int getRenderX() {
+		return MathUtils.round(world.renderX[index]);
+	}
+
+	@Override
+	public int getRenderY() {
+		return MathUtils.round(world.renderY[index]);
+	}
+
+	public float getPreviousX() {
+		return world.previousX[index];
+	}
+
+	public float getPreviousY() {
+		return world.previousY[index];
+	}
+
+	public boolean isInterpolateRequired() {
+		return world.interpolateRequired[index];
+	}
+
+	@Override
+	public float getDistanceTo(Positionable positionable) {
+		return getDistanceTo(positionable.getX(), positionable.getY());
+	}
+
+	@Override
+	public float getDistanceTo(Point point) {
+		return getDistanceTo(point.x, point.y);
+	}
+
+	@Override
+	public void moveTowards(float x, float y, float speed) {
+		float distanceX = x - world.x[index];
+		float distanceY = y - world.y[index];
+		float length = (float) Math.sqrt((distanceX * distanceX) + (distanceY * distanceY));
+		if (length == 0f) {
+			return;
+		}
+		set(world.x[index] + ((distanceX / length) * speed), world.y[index] + ((distanceY / length) * speed));
+	}
+
+	@Override
+	public void moveTowards(Positionable positionable, float speed) {
+		moveTowards(positionable.getX(), positionable.getY(), speed);
+	}
+
+	@Override
+	public <T extends Positionable> void addPostionChangeListener(PositionChangeListener<T> listener) {
+		if (positionChangeListeners == null) {
+			positionChangeListeners = new Array<PositionChangeListener>(true, 1);
+		}
+		positionChangeListeners.add(listener);
+	}
+
+	@Override
+	public <T extends Positionable> void removePositionChangeListener(PositionChangeListener<T> listener) {
+		if (positionChangeListeners == null) {
+			return;
+		}
+		positionChangeListeners.removeValue(listener, false);
+	}
+
+	protected void notifyPositionChangeListeners() {
+		if (positionChangeListeners == null) {
+			return;
+		}
+		for (int i = positionChangeListeners.size - 1; i >= 0; i--) {
+			if (i >= positionChangeListeners.size) {
+				i = positionChangeListeners.size - 1;
+			}
+			positionChangeListeners.get(i).positionChanged(this);
+		}
+	}
+
+	/**
+	 * Returns the {@link CollisionWorld} this object is stored in
+	 * 
+	 * @return The {@link CollisionWorld} instance
+	 */
+	public CollisionWorld getWorld() {
+		return world;
+	}
+
+	/**
+	 * Returns if this object has been released from its {@link CollisionWorld}
+	 * 
+	 * @return True if this object can no longer be used
+	 */
+	public boolean isReleased() {
+		return index < 0;
+	}
+}
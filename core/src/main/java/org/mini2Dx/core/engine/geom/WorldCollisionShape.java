@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.engine.geom;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import org.mini2Dx.core.engine.SizeChangeListener;
+import org.mini2Dx.core.engine.Sizeable;
+import org.mini2Dx.core.geom.LineSegment;
+import org.mini2Dx.core.geom.Shape;
+import org.mini2Dx.core.graphics.Graphics;
+
+/**
+ * Base class for {@link CollisionShape}s whose state is stored in a
+ * {@link CollisionWorld}. Geometry tests are performed against a {@link Shape}
+ * that is only allocated the first time it is needed and synchronised with
+ * the world's arrays on each use.
+ */
+public abstract class WorldCollisionShape extends WorldCollisionObject implements CollisionShape {
+	private Array<SizeChangeListener> sizeChangeListeners;
+
+	WorldCollisionShape(CollisionWorld world, int id) {
+		super(world, id);
+	}
+
+	/**
+	 * Draws this shape at its render coordinates
+	 * 
+	 * @param g
+	 *            The {@link Graphics} context
+	 */
+	public abstract void draw(Graphics g);
+
+	/**
+	 * Fills this shape at its render coordinates
+	 * 
+	 * @param g
+	 *            The {@link Graphics} context
+	 */
+	public abstract void fill(Graphics g);
+
+	@Override
+	public boolean contains(Shape shape) {
+		return getShape().contains(shape);
+	}
+
+	@Override
+	public boolean contains(Vector2 point) {
+		return getShape().contains(point);
+	}
+
+	@Override
+	public boolean intersects(Shape shape) {
+		return getShape().intersects(shape);
+	}
+
+	@Override
+	public boolean intersects(LineSegment lineSegment) {
+		return getShape().intersects(lineSegment);
+	}
+
+	@Override
+	public boolean intersectsLineSegment(Vector2 pointA, Vector2 pointB) {
+		return getShape().intersectsLineSegment(pointA, pointB);
+	}
+
+	@Override
+	public boolean intersectsLineSegment(float x1, float y1, float x2, float y2) {
+		return getShape().intersectsLineSegment(x1, y1, x2, y2);
+	}
+
+	@Override
+	public <T extends Sizeable> void addSizeChangeListener(SizeChangeListener<T> listener) {
+		if (sizeChangeListeners == null) {
+			sizeChangeListeners = new Array<SizeChangeListener>(true, 1);
+		}
+		sizeChangeListeners.add(listener);
+	}
+
+	@Override
+	public <T extends Sizeable> void removeSizeChangeListener(SizeChangeListener<T> listener) {
+		if (sizeChangeListeners == null) {
+			return;
+		}
+		sizeChangeListeners.removeValue(listener, false);
+	}
+
+	protected void notifySizeChangeListeners() {
+		if (sizeChangeListeners == null) {
+			return;
+		}
+		for (int i = sizeChangeListeners.size - 1; i >= 0; i--) {
+			if (i >= sizeChangeListeners.size) {
+				i = sizeChangeListeners.size - 1;
+			}
+			sizeChangeListeners.get(i).sizeChanged(this);
+		}
+	}
+
+	protected void setSize(float width, float height) {
+		if (width == world.width[index] && height == world.height[index]) {
+			return;
+		}
+		world.width[index] = width;
+		world.height[index] = height;
+		world.interpolateRequired[index] = true;
+		notifySizeChangeListeners();
+	}
+}
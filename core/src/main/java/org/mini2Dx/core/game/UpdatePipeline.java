@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.game;
+
+import org.mini2Dx.core.Mdx;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Runs {@link ApplicationListener#update(float)} on a dedicated worker thread
+ * so that the updates for the next frame can run while the current frame is
+ * rendered.
+ * 
+ * The hand-off is double-buffered: the main thread calls {@link #await()}
+ * before touching game state, interpolates and then {@link #submit(int, float)}s
+ * the ticks for the next frame before rendering. Games must therefore only read
+ * state written during interpolate() while rendering, e.g. the render
+ * coordinates of collision shapes.
+ */
+public class UpdatePipeline implements Runnable {
+	private final ApplicationListener listener;
+	private final Thread thread;
+	private final Object monitor = new Object();
+
+	private int pendingTicks;
+	private float pendingTimestep;
+	private boolean updating = false;
+	private boolean running = true;
+	private Throwable error;
+
+	/**
+	 * Constructor. Starts the worker thread.
+	 * 
+	 * @param listener
+	 *            The {@link ApplicationListener} to update
+	 * @param threadName
+	 *            The name of the worker thread
+	 */
+	public UpdatePipeline(ApplicationListener listener, String threadName) {
+		this.listener = listener;
+		thread = new Thread(this, threadName);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			final int ticks;
+			final float timestep;
+			synchronized (monitor) {
+				while (running && !updating) {
+					try {
+						monitor.wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (!running) {
+					return;
+				}
+				ticks = pendingTicks;
+				timestep = pendingTimestep;
+			}
+
+			Throwable updateError = null;
+			try {
+				for (int i = 0; i < ticks; i++) {
+					Mdx.performanceTracker.markUpdateBegin();
+					listener.update(timestep);
+					Mdx.performanceTracker.markUpdateEnd();
+				}
+			} catch (Throwable t) {
+				updateError = t;
+			}
+
+			synchronized (monitor) {
+				error = updateError;
+				updating = false;
+				monitor.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Hands off update ticks to the worker thread. Returns immediately.
+	 * 
+	 * @param ticks
+	 *            The amount of times to call update
+	 * @param timestep
+	 *            The timestep to pass to update
+	 */
+	public void submit(int ticks, float timestep) {
+		if (ticks <= 0) {
+			return;
+		}
+		synchronized (monitor) {
+			if (updating) {
+				throw new IllegalStateException("Previous updates have not completed. Call await() before submit()");
+			}
+			pendingTicks = ticks;
+			pendingTimestep = timestep;
+			updating = true;
+			monitor.notifyAll();
+		}
+	}
+
+	/**
+	 * Blocks until all submitted updates have completed. Any exception thrown
+	 * during update is re-thrown on the calling thread.
+	 */
+	public void await() {
+		final long waitStart = System.nanoTime();
+		final Throwable updateError;
+		synchronized (monitor) {
+			while (updating) {
+				try {
+					monitor.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			updateError = error;
+			error = null;
+		}
+		Mdx.performanceTracker.markUpdateWait(System.nanoTime() - waitStart);
+
+		if (updateError == null) {
+			return;
+		}
+		if (updateError instanceof RuntimeException) {
+			throw (RuntimeException) updateError;
+		}
+		throw new GdxRuntimeException(updateError);
+	}
+
+	/**
+	 * Waits for any submitted updates to complete and stops the worker thread.
+	 * The worker thread is stopped even if an exception from update is
+	 * re-thrown.
+	 */
+	public void dispose() {
+		try {
+			await();
+		} finally {
+			synchronized (monitor) {
+				running = false;
+				monitor.notifyAll();
+			}
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns if updates are currently running on the worker thread
+	 * 
+	 * @return False if the worker thread is idle
+	 */
+	public boolean isUpdating() {
+		synchronized (monitor) {
+			return updating;
+		}
+	}
+}
@@ -62,7 +62,9 @@ public class LibGdxGraphics implements Graphics {
 
 	private int defaultBlendSrcFunc = GL20.GL_SRC_ALPHA, defaultBlendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
 	private int lineHeight;
-	private boolean rendering, renderingShapes, renderingStage;
+	private boolean rendering, renderingStage;
+	/* Non-null while the ShapeRenderer is active in place of the SpriteBatch */
+	private ShapeType shapeType;
 	private Rectangle clip;
 	
 	private float [] triangleVertices = new float[6];
@@ -137,18 +139,14 @@ public class LibGdxGraphics implements Graphics {
 	@Override
 	public void drawLineSegment(float x1, float y1, float x2, float y2) {
 		beginRendering();
-		endRendering();
 
-		/* TODO: Move all shape rendering over to using ShapeRenderer */
-		renderingShapes = true;
-		shapeRenderer.begin(ShapeType.Filled);
-		Gdx.gl.glEnable(GL20.GL_BLEND);
-	    Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-		shapeRenderer.setColor(color);
-		shapeRenderer.rectLine(x1, y1, x2, y2, lineHeight);
-		shapeRenderer.end();
-
-		beginRendering();
+		final float deltaX = x2 - x1;
+		final float deltaY = y2 - y1;
+		final float length = (float) Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
+		final float halfLineHeight = lineHeight * 0.5f;
+		final float degrees = (float) Math.toDegrees(Math.atan2(deltaY, deltaX));
+		spriteBatch.draw(colorTextureCache.getFilledRectangleTexture(color), x1, y1 - halfLineHeight, 0f,
+				halfLineHeight, length, lineHeight, 1f, 1f, degrees, 0, 0, 1, 1, false, false);
 	}
 
 	@Override
@@ -157,42 +155,31 @@ public class LibGdxGraphics implements Graphics {
 		int roundHeight = MathUtils.round(height);
 		
 		beginRendering();
-		endRendering();
 
-		renderingShapes = true;
-		shapeRenderer.begin(ShapeType.Filled);
-		Gdx.gl.glEnable(GL20.GL_BLEND);
-	    Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-		shapeRenderer.setColor(color);
-		shapeRenderer.rectLine(x, y, x + roundWidth, y, lineHeight);
-		shapeRenderer.rectLine(x, y, x , y + roundHeight, lineHeight);
-		shapeRenderer.rectLine(x + roundWidth, y, x + roundWidth, y + roundHeight, lineHeight);
-		shapeRenderer.rectLine(x, y + roundHeight, x + roundWidth, y + roundHeight, lineHeight);
-		shapeRenderer.end();
-
-		beginRendering();
+		/* Draw each edge as a quad so that no switch to the ShapeRenderer is required */
+		final Texture texture = colorTextureCache.getFilledRectangleTexture(color);
+		final float halfLineHeight = lineHeight * 0.5f;
+		drawQuad(texture, x, y - halfLineHeight, roundWidth, lineHeight);
+		drawQuad(texture, x - halfLineHeight, y, lineHeight, roundHeight);
+		drawQuad(texture, x + roundWidth - halfLineHeight, y, lineHeight, roundHeight);
+		drawQuad(texture, x, y + roundHeight - halfLineHeight, roundWidth, lineHeight);
 	}
 
 	@Override
 	public void fillRect(float x, float y, float width, float height) {
 		beginRendering();
-		
-		spriteBatch.draw(colorTextureCache.getFilledRectangleTexture(color), x, y, 0, 0, width, height, 1f, 1f, 0, 0, 0,
-				1, 1, false, false);
+		drawQuad(colorTextureCache.getFilledRectangleTexture(color), x, y, width, height);
+	}
+
+	private void drawQuad(Texture texture, float x, float y, float width, float height) {
+		spriteBatch.draw(texture, x, y, 0, 0, width, height, 1f, 1f, 0, 0, 0, 1, 1, false, false);
 	}
 
 	@Override
 	public void drawCircle(float centerX, float centerY, int radius) {
-		beginRendering();
-		endRendering();
-		
-		renderingShapes = true;
-		shapeRenderer.begin(ShapeType.Line);
-		Gdx.gl.glEnable(GL20.GL_BLEND);
-	    Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		beginShapeRendering(ShapeType.Line);
 		shapeRenderer.setColor(color);
 		shapeRenderer.circle(centerX, centerY, radius);
-		shapeRenderer.end();
 	}
 	
 	@Override
@@ -202,18 +189,9 @@ public class LibGdxGraphics implements Graphics {
 
 	@Override
 	public void fillCircle(float centerX, float centerY, int radius) {
-		beginRendering();
-		endRendering();
-		
-		renderingShapes = true;
-		shapeRenderer.begin(ShapeType.Filled);
-		Gdx.gl.glEnable(GL20.GL_BLEND);
-	    Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		beginShapeRendering(ShapeType.Filled);
 		shapeRenderer.setColor(color);
 		shapeRenderer.circle(centerX, centerY, radius);
-		shapeRenderer.end();
-		
-		beginRendering();
 	}
 
 	@Override
@@ -245,19 +223,9 @@ public class LibGdxGraphics implements Graphics {
 	
 	@Override
 	public void drawPolygon(float[] vertices) {
-		beginRendering();
-		endRendering();
-
-		/* TODO: Move all shape rendering over to using ShapeRenderer */
-		renderingShapes = true;
-		shapeRenderer.begin(ShapeType.Line);
-		Gdx.gl.glEnable(GL20.GL_BLEND);
-	    Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		beginShapeRendering(ShapeType.Line);
 		shapeRenderer.setColor(color);
 		shapeRenderer.polygon(vertices);
-		shapeRenderer.end();
-
-		beginRendering();
 	}
 	
 	@Override
@@ -265,7 +233,6 @@ public class LibGdxGraphics implements Graphics {
 		beginRendering();
 		endRendering();
 		
-		renderingShapes = true;
 		if(vertices.length * 5 > polygonRenderData.length) {
 			polygonRenderData = new float[vertices.length * 5];
 		}
@@ -665,7 +632,11 @@ public class LibGdxGraphics implements Graphics {
 
 	@Override
 	public void flush() {
-		spriteBatch.flush();
+		if (shapeType != null) {
+			shapeRenderer.flush();
+		} else {
+			spriteBatch.flush();
+		}
 	}
 
 	/**
@@ -673,6 +644,10 @@ public class LibGdxGraphics implements Graphics {
 	 * {@link SpriteBatch} begins
 	 */
 	private void beginRendering() {
+		if (shapeType != null) {
+			endShapeRendering();
+			return;
+		}
 		if (!rendering) {
 			if(!renderingStage) {
 				applyTransformations();
@@ -714,9 +689,10 @@ public class LibGdxGraphics implements Graphics {
 		if (rendering) {
 			if(!renderingStage) {
 				undoTransformations();
-				spriteBatch.end();
-				if (renderingShapes) {
+				if (shapeType != null) {
 					shapeRenderer.end();
+				} else {
+					spriteBatch.end();
 				}
 
 				if (clip != null) {
@@ -727,7 +703,41 @@ public class LibGdxGraphics implements Graphics {
 			}
 		}
 		rendering = false;
-		renderingShapes = false;
+		shapeType = null;
+	}
+
+	/**
+	 * Switches from the {@link SpriteBatch} to the {@link ShapeRenderer}.
+	 * Consecutive shape calls share a single {@link ShapeRenderer} batch
+	 * until a texture is drawn or rendering ends.
+	 * 
+	 * @param shapeType
+	 *            The {@link ShapeType} required by the next shape
+	 */
+	private void beginShapeRendering(ShapeType shapeType) {
+		if (this.shapeType == shapeType) {
+			return;
+		}
+		if (this.shapeType != null) {
+			shapeRenderer.set(shapeType);
+			this.shapeType = shapeType;
+			return;
+		}
+		beginRendering();
+		spriteBatch.end();
+		shapeRenderer.begin(shapeType);
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		this.shapeType = shapeType;
+	}
+
+	/**
+	 * Switches from the {@link ShapeRenderer} back to the {@link SpriteBatch}
+	 */
+	private void endShapeRendering() {
+		shapeRenderer.end();
+		spriteBatch.begin();
+		shapeType = null;
 	}
 
 	/**
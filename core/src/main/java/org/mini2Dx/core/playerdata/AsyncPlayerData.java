@@ -0,0 +1,594 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.playerdata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.mini2Dx.core.Mdx;
+import org.mini2Dx.core.serialization.GameDataBufferSerializable;
+import org.mini2Dx.core.serialization.GameDataSerializable;
+import org.mini2Dx.core.serialization.SerializationException;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Wraps a {@link PlayerData} implementation so that writes do not block the
+ * calling thread.
+ * 
+ * Objects are serialized on the calling thread and the resulting data is
+ * written to disk by a dedicated background thread using the wrapped
+ * {@link PlayerData}, so each file is still written to a temporary file and
+ * then renamed. If a file is written again before a previous write to it has
+ * started, only the latest data is written.
+ * 
+ * Reads of a file wait for any pending write to that file. Call
+ * {@link #flush()} before the game exits to ensure all data has been written,
+ * e.g. <code>Mdx.playerData = new AsyncPlayerData(Mdx.playerData);</code>
+ */
+public class AsyncPlayerData implements PlayerData, Runnable {
+	private final PlayerData playerData;
+	private final Thread thread;
+	private final Object monitor = new Object();
+	private final LinkedHashMap<String, PendingWrite> pendingWrites = new LinkedHashMap<String, PendingWrite>();
+
+	private PendingWrite currentWrite;
+	private PlayerDataException error;
+	private PlayerDataException threadError;
+	private boolean running = true;
+
+	/**
+	 * Constructor. Starts the background I/O thread.
+	 * 
+	 * @param playerData
+	 *            The {@link PlayerData} to read from and write to
+	 */
+	public AsyncPlayerData(PlayerData playerData) {
+		this.playerData = playerData;
+		thread = new Thread(this, "mini2Dx-PlayerData");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void run() {
+		try {
+			processWrites();
+		} catch (Throwable t) {
+			synchronized (monitor) {
+				threadError = new PlayerDataException("Background I/O thread stopped unexpectedly", t);
+			}
+		} finally {
+			synchronized (monitor) {
+				if (running && threadError == null) {
+					threadError = new PlayerDataException("Background I/O thread was interrupted");
+				}
+				currentWrite = null;
+				monitor.notifyAll();
+			}
+		}
+	}
+
+	private void processWrites() {
+		while (true) {
+			final PendingWrite write;
+			synchronized (monitor) {
+				while (running && pendingWrites.isEmpty()) {
+					try {
+						monitor.wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (pendingWrites.isEmpty()) {
+					return;
+				}
+				final Iterator<PendingWrite> iterator = pendingWrites.values().iterator();
+				write = iterator.next();
+				iterator.remove();
+				currentWrite = write;
+			}
+
+			PlayerDataException writeError = null;
+			PlayerDataException listenerError = null;
+			try {
+				try {
+					if (write.content != null) {
+						playerData.writeString(write.content, write.filepath);
+					} else {
+						playerData.writeBytes(new RawBytes(write.bytes), write.filepath);
+					}
+				} catch (PlayerDataException e) {
+					writeError = e;
+				} catch (Exception e) {
+					writeError = new PlayerDataException(e);
+				}
+
+				for (int i = 0; i < write.listeners.size; i++) {
+					try {
+						if (writeError == null) {
+							write.listeners.get(i).onWriteCompleted(write.filepath);
+						} else {
+							write.listeners.get(i).onWriteFailed(writeError, write.filepath);
+						}
+					} catch (Throwable t) {
+						if (listenerError == null) {
+							listenerError = new PlayerDataException(
+									"PlayerDataWriteListener failed for " + write.key, t);
+						}
+					}
+				}
+			} finally {
+				synchronized (monitor) {
+					if (error == null) {
+						if (writeError != null && write.listeners.size == 0) {
+							error = writeError;
+						} else if (listenerError != null) {
+							error = listenerError;
+						}
+					}
+					currentWrite = null;
+					monitor.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Blocks until all queued writes have been written. Must not be called
+	 * from a {@link PlayerDataWriteListener}.
+	 * 
+	 * @throws PlayerDataException
+	 *             Thrown if a write without a {@link PlayerDataWriteListener}
+	 *             failed or a {@link PlayerDataWriteListener} threw an
+	 *             exception since the last flush, or if the background I/O
+	 *             thread has stopped unexpectedly
+	 */
+	public void flush() throws PlayerDataException {
+		final PlayerDataException writeError;
+		synchronized (monitor) {
+			awaitWrites(null);
+			writeError = error;
+			error = null;
+			checkThread();
+		}
+		if (writeError != null) {
+			throw writeError;
+		}
+	}
+
+	/**
+	 * Writes all queued data and stops the background I/O thread
+	 * 
+	 * @throws PlayerDataException
+	 *             Thrown if a write without a {@link PlayerDataWriteListener}
+	 *             failed or a {@link PlayerDataWriteListener} threw an
+	 *             exception since the last flush, or if the background I/O
+	 *             thread has stopped unexpectedly
+	 */
+	public void dispose() throws PlayerDataException {
+		synchronized (monitor) {
+			running = false;
+			monitor.notifyAll();
+		}
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+	}
+
+	/**
+	 * Returns if writes are queued or being written
+	 * 
+	 * @return False if all data has been written
+	 */
+	public boolean isWriting() {
+		synchronized (monitor) {
+			return currentWrite != null || !pendingWrites.isEmpty();
+		}
+	}
+
+	/**
+	 * Waits for pending writes while holding the monitor
+	 * 
+	 * @param key
+	 *            The file to wait for or null to wait for all files
+	 */
+	private void awaitWrites(String key) {
+		while (isPending(key)) {
+			if (!thread.isAlive()) {
+				return;
+			}
+			try {
+				monitor.wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Throws if the background I/O thread stopped before dispose() while
+	 * holding the monitor
+	 */
+	private void checkThread() throws PlayerDataException {
+		if (threadError != null) {
+			throw threadError;
+		}
+	}
+
+	private boolean isPending(String key) {
+		if (key == null) {
+			return currentWrite != null || !pendingWrites.isEmpty();
+		}
+		if (currentWrite != null && currentWrite.key.equals(key)) {
+			return true;
+		}
+		return pendingWrites.containsKey(key);
+	}
+
+	private void awaitWrite(String... filepath) {
+		final String key = toKey(filepath);
+		synchronized (monitor) {
+			awaitWrites(key);
+		}
+	}
+
+	private void awaitAllWrites() {
+		synchronized (monitor) {
+			awaitWrites(null);
+		}
+	}
+
+	private void queue(String content, byte[] bytes, PlayerDataWriteListener listener,
+			String... filepath) throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		final String key = toKey(filepath);
+		synchronized (monitor) {
+			if (!running) {
+				throw new PlayerDataException("Cannot write to " + key + " after dispose()");
+			}
+			checkThread();
+			PendingWrite write = pendingWrites.get(key);
+			if (write == null) {
+				write = new PendingWrite(key, filepath.clone());
+				pendingWrites.put(key, write);
+			}
+			write.content = content;
+			write.bytes = bytes;
+			if (listener != null) {
+				write.listeners.add(listener);
+			}
+			monitor.notifyAll();
+		}
+	}
+
+	private static String toKey(String... filepath) {
+		final StringBuilder result = new StringBuilder();
+		for (int i = 0; i < filepath.length; i++) {
+			if (i > 0) {
+				result.append('/');
+			}
+			result.append(filepath[i]);
+		}
+		return result.toString();
+	}
+
+	@Override
+	public FileHandle getFileHandle(String... filepath) {
+		return playerData.getFileHandle(filepath);
+	}
+
+	@Override
+	public String readString(String... filepath) throws PlayerDataException {
+		awaitWrite(filepath);
+		return playerData.readString(filepath);
+	}
+
+	@Override
+	public void writeString(String content, String... filepath) throws PlayerDataException {
+		writeString(content, null, filepath);
+	}
+
+	/**
+	 * Queues a {@link String} to be written to a file
+	 * 
+	 * @param content
+	 *            The {@link String} to write
+	 * @param listener
+	 *            The {@link PlayerDataWriteListener} to notify when the write
+	 *            completes. May be null.
+	 * @param filepath
+	 *            The path to the file. This will be resolved as a path within
+	 *            the player data location.
+	 * @throws PlayerDataException
+	 *             Thrown if no path is specified
+	 */
+	public void writeString(String content, PlayerDataWriteListener listener, String... filepath)
+			throws PlayerDataException {
+		if (content == null) {
+			throw new PlayerDataException("Cannot write null content");
+		}
+		queue(content, null, listener, filepath);
+	}
+
+	@Override
+	public <T extends GameDataSerializable> void readBytes(T result, String... filepath) throws PlayerDataException {
+		awaitWrite(filepath);
+		playerData.readBytes(result, filepath);
+	}
+
+	@Override
+	public <T extends GameDataSerializable> void writeBytes(T obj, String... filepath) throws PlayerDataException {
+		writeBytes(obj, null, filepath);
+	}
+
+	/**
+	 * Serializes a {@link GameDataSerializable} and queues it to be written
+	 * to a file
+	 * 
+	 * @param obj
+	 *            The {@link GameDataSerializable} to write
+	 * @param listener
+	 *            The {@link PlayerDataWriteListener} to notify when the write
+	 *            completes. May be null.
+	 * @param filepath
+	 *            The path to the file. This will be resolved as a path within
+	 *            the player data location.
+	 * @throws PlayerDataException
+	 *             Thrown if no path is specified or the object cannot be
+	 *             serialized
+	 */
+	public <T extends GameDataSerializable> void writeBytes(T obj, PlayerDataWriteListener listener,
+			String... filepath) throws PlayerDataException {
+		try {
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+			obj.writeData(dataOutputStream);
+			dataOutputStream.flush();
+			queue(null, outputStream.toByteArray(), listener, filepath);
+		} catch (IOException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public <T extends GameDataBufferSerializable> void readByteBuffer(T result, String... filepath)
+			throws PlayerDataException {
+		awaitWrite(filepath);
+		playerData.readByteBuffer(result, filepath);
+	}
+
+	@Override
+	public <T extends GameDataBufferSerializable> void writeByteBuffer(T obj, String... filepath)
+			throws PlayerDataException {
+		writeByteBuffer(obj, null, filepath);
+	}
+
+	/**
+	 * Serializes a {@link GameDataBufferSerializable} and queues it to be
+	 * written to a file
+	 * 
+	 * @param obj
+	 *            The {@link GameDataBufferSerializable} to write
+	 * @param listener
+	 *            The {@link PlayerDataWriteListener} to notify when the write
+	 *            completes. May be null.
+	 * @param filepath
+	 *            The path to the file. This will be resolved as a path within
+	 *            the player data location.
+	 * @throws PlayerDataException
+	 *             Thrown if no path is specified or the object cannot be
+	 *             serialized
+	 */
+	public <T extends GameDataBufferSerializable> void writeByteBuffer(T obj, PlayerDataWriteListener listener,
+			String... filepath) throws PlayerDataException {
+		try {
+			final ByteBuffer buffer = ByteBuffer.allocate(obj.getSerializedSize());
+			obj.writeData(buffer);
+			queue(null, Arrays.copyOf(buffer.array(), buffer.position()), listener, filepath);
+		} catch (IOException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public <T> T readXml(Class<T> clazz, String... filepath) throws PlayerDataException {
+		awaitWrite(filepath);
+		return playerData.readXml(clazz, filepath);
+	}
+
+	@Override
+	public <T> void writeXml(T object, String... filepath) throws PlayerDataException {
+		writeXml(object, null, filepath);
+	}
+
+	/**
+	 * Converts an object to XML and queues it to be written to a file
+	 * 
+	 * @param object
+	 *            The object to write
+	 * @param listener
+	 *            The {@link PlayerDataWriteListener} to notify when the write
+	 *            completes. May be null.
+	 * @param filepath
+	 *            The path to the file. This will be resolved as a path within
+	 *            the player data location.
+	 * @throws PlayerDataException
+	 *             Thrown if no path is specified or the object cannot be
+	 *             serialized
+	 */
+	public <T> void writeXml(T object, PlayerDataWriteListener listener, String... filepath)
+			throws PlayerDataException {
+		try {
+			queue(Mdx.xml.toXml(object), null, listener, filepath);
+		} catch (SerializationException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public <T> T readJson(Class<T> clazz, String... filepath) throws PlayerDataException {
+		awaitWrite(filepath);
+		return playerData.readJson(clazz, filepath);
+	}
+
+	@Override
+	public <T> void writeJson(T object, String... filepath) throws PlayerDataException {
+		writeJson(object, null, filepath);
+	}
+
+	/**
+	 * Converts an object to JSON and queues it to be written to a file
+	 * 
+	 * @param object
+	 *            The object to write
+	 * @param listener
+	 *            The {@link PlayerDataWriteListener} to notify when the write
+	 *            completes. May be null.
+	 * @param filepath
+	 *            The path to the file. This will be resolved as a path within
+	 *            the player data location.
+	 * @throws PlayerDataException
+	 *             Thrown if no path is specified or the object cannot be
+	 *             serialized
+	 */
+	public <T> void writeJson(T object, PlayerDataWriteListener listener, String... filepath)
+			throws PlayerDataException {
+		try {
+			queue(Mdx.json.toJson(object), null, listener, filepath);
+		} catch (SerializationException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public <T> T readBinary(Class<T> clazz, String... filepath) throws PlayerDataException {
+		awaitWrite(filepath);
+		return playerData.readBinary(clazz, filepath);
+	}
+
+	@Override
+	public <T> void writeBinary(T object, String... filepath) throws PlayerDataException {
+		writeBinary(object, null, filepath);
+	}
+
+	/**
+	 * Converts an object to binary and queues it to be written to a file
+	 * 
+	 * @param object
+	 *            The object to write
+	 * @param listener
+	 *            The {@link PlayerDataWriteListener} to notify when the write
+	 *            completes. May be null.
+	 * @param filepath
+	 *            The path to the file. This will be resolved as a path within
+	 *            the player data location.
+	 * @throws PlayerDataException
+	 *             Thrown if no path is specified or the object cannot be
+	 *             serialized
+	 */
+	public <T> void writeBinary(T object, PlayerDataWriteListener listener, String... filepath)
+			throws PlayerDataException {
+		try {
+			queue(null, Mdx.binary.toBinary(object), listener, filepath);
+		} catch (SerializationException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public boolean hasFile(String... filepath) throws PlayerDataException {
+		awaitWrite(filepath);
+		return playerData.hasFile(filepath);
+	}
+
+	@Override
+	public boolean hasDirectory(String... path) throws PlayerDataException {
+		awaitAllWrites();
+		return playerData.hasDirectory(path);
+	}
+
+	@Override
+	public void createDirectory(String... path) throws PlayerDataException {
+		playerData.createDirectory(path);
+	}
+
+	@Override
+	public boolean delete(String... path) throws PlayerDataException {
+		awaitAllWrites();
+		return playerData.delete(path);
+	}
+
+	@Override
+	public void wipe() throws PlayerDataException {
+		awaitAllWrites();
+		playerData.wipe();
+	}
+
+	/**
+	 * A write waiting for the background I/O thread
+	 */
+	private static class PendingWrite {
+		final String key;
+		final String[] filepath;
+		final Array<PlayerDataWriteListener> listeners = new Array<PlayerDataWriteListener>(1);
+
+		String content;
+		byte[] bytes;
+
+		PendingWrite(String key, String[] filepath) {
+			this.key = key;
+			this.filepath = filepath;
+		}
+	}
+
+	/**
+	 * A raw block of bytes. Used to hand data serialized on the calling thread
+	 * to the wrapped {@link PlayerData}, which writes it as-is.
+	 */
+	private static class RawBytes implements GameDataSerializable {
+		private byte[] bytes;
+
+		RawBytes(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public void writeData(DataOutputStream outputStream) throws IOException {
+			outputStream.write(bytes);
+		}
+
+		@Override
+		public void readData(DataInputStream inputStream) throws IOException {
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[4096];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, read);
+			}
+			bytes = outputStream.toByteArray();
+		}
+	}
+}
@@ -12,6 +12,7 @@
 package org.mini2Dx.core.playerdata;
 
 import com.badlogic.gdx.files.FileHandle;
+import org.mini2Dx.core.serialization.GameDataBufferSerializable;
 import org.mini2Dx.core.serialization.GameDataSerializable;
 import org.mini2Dx.core.serialization.annotation.Field;
 
@@ -80,6 +81,25 @@ public interface PlayerData {
      * @throws PlayerDataException Thrown if the player data location cannot be accessed or the data cannot be written to the file.
      */
     public <T extends GameDataSerializable> void writeBytes(T obj, String... filepath) throws PlayerDataException;
+
+    /**
+     * Reads the contents of a file in the player data location into a {@link GameDataBufferSerializable} object.
+     * Large files are memory-mapped where the platform supports it.
+     * @param result The {@link GameDataBufferSerializable} object to read the data into
+     * @param filepath The path to the file. This will be resolved as a path within the player data location.
+     * @param <T> The type of the object
+     * @throws PlayerDataException Thrown if the player data location cannot be accessed or the data cannot be read from the file.
+     */
+    public <T extends GameDataBufferSerializable> void readByteBuffer(T result, String... filepath) throws PlayerDataException;
+
+    /**
+     * Writes a {@link GameDataBufferSerializable} object to a file in the player data location
+     * @param obj The {@link GameDataBufferSerializable} object to write
+     * @param filepath The path to the file. This will be resolved as a path within the player data location.
+     * @param <T> The type of the object
+     * @throws PlayerDataException Thrown if the player data location cannot be accessed or the data cannot be written to the file.
+     */
+    public <T extends GameDataBufferSerializable> void writeByteBuffer(T obj, String... filepath) throws PlayerDataException;
 	
     /**
      * Converts XML from a file into an object. Note the object must use the
@@ -143,6 +163,37 @@ public interface PlayerData {
      */
     public <T> void writeJson(T object, String... filepath) throws PlayerDataException;
 
+    /**
+     * Converts binary data from a file into an object. Note the object must
+     * use the mini2Dx data annotations.
+     * 
+     * @param clazz
+     *            The object type to convert the binary data into
+     * @param filepath
+     *            The path to the binary file. This will be resolved as a path
+     *            within the player data location.
+     * @return The resulting object
+     * @throws PlayerDataException
+     *             Thrown if the data is invalid, the file does not exist or
+     *             the player data location cannot be accessed.
+     */
+    public <T> T readBinary(Class<T> clazz, String... filepath) throws PlayerDataException;
+
+    /**
+     * Writes an object as binary data to a file. Note the object must use the
+     * mini2Dx data annotations.
+     * 
+     * @param object
+     *            The object to be written to the file
+     * @param filepath
+     *            The path to the binary file. This will be resolved as a path
+     *            within the player data location.
+     * @throws PlayerDataException
+     *             Thrown if the player data location cannot be accessed or the
+     *             data cannot be written to the file.
+     */
+    public <T> void writeBinary(T object, String... filepath) throws PlayerDataException;
+
     /**
      * Checks if the file exists in the player data location
      * 
@@ -0,0 +1,842 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.serialization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+
+import org.mini2Dx.core.serialization.annotation.ConstructorArg;
+import org.mini2Dx.core.serialization.annotation.NonConcrete;
+import org.mini2Dx.core.serialization.collection.DeserializedCollection;
+import org.mini2Dx.core.serialization.collection.SerializedCollection;
+import org.mini2Dx.core.serialization.map.deserialize.DeserializedMap;
+import org.mini2Dx.core.serialization.map.serialize.SerializedMap;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.reflect.ArrayReflection;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+/**
+ * Serializes objects to/from a compact binary format based on
+ * {@link org.mini2Dx.core.serialization.annotation.Field} annotations. Safe
+ * for use by multiple threads.
+ * 
+ * Integers are written as variable-length values and the class and field
+ * names of each serialized class are written once per document. Fields are
+ * matched by name when reading so that fields can be added to or removed from
+ * a class without invalidating previously written data.
+ */
+@SuppressWarnings("unchecked")
+public class BinarySerializer {
+	private static final byte[] MAGIC = { 'M', 'D', 'X', 'B' };
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int TAG_NULL = 0;
+	private static final int TAG_FALSE = 1;
+	private static final int TAG_TRUE = 2;
+	private static final int TAG_VARINT = 3;
+	private static final int TAG_FLOAT = 4;
+	private static final int TAG_DOUBLE = 5;
+	private static final int TAG_STRING = 6;
+	private static final int TAG_ARRAY = 7;
+	private static final int TAG_MAP = 8;
+	private static final int TAG_OBJECT_DEFINITION = 9;
+	private static final int TAG_OBJECT = 10;
+
+	private static final int ENTRY_FIELD = 0;
+	private static final int ENTRY_CONSTRUCTOR_ARG = 1;
+
+	/**
+	 * Reads a binary document and converts it into an object of the specified
+	 * type
+	 * 
+	 * @param fileHandle
+	 *            The {@link FileHandle} for the binary document
+	 * @param clazz
+	 *            The {@link Class} to convert the document to
+	 * @return The object deserialized from binary
+	 * @throws SerializationException
+	 *             Thrown when the data is invalid
+	 */
+	public <T> T fromBinary(FileHandle fileHandle, Class<T> clazz) throws SerializationException {
+		return fromBinary(fileHandle.read(), clazz);
+	}
+
+	/**
+	 * Reads a binary document and converts it into an object of the specified
+	 * type
+	 * 
+	 * @param bytes
+	 *            The binary document
+	 * @param clazz
+	 *            The {@link Class} to convert the document to
+	 * @return The object deserialized from binary
+	 * @throws SerializationException
+	 *             Thrown when the data is invalid
+	 */
+	public <T> T fromBinary(byte[] bytes, Class<T> clazz) throws SerializationException {
+		return fromBinary(new ByteArrayInputStream(bytes), clazz);
+	}
+
+	/**
+	 * Reads a binary document and converts it into an object of the specified
+	 * type
+	 * 
+	 * @param inputStream
+	 *            The {@link InputStream} for the binary document. The stream
+	 *            is closed once the document has been read.
+	 * @param clazz
+	 *            The {@link Class} to convert the document to
+	 * @return The object deserialized from binary
+	 * @throws SerializationException
+	 *             Thrown when the data is invalid
+	 */
+	public <T> T fromBinary(InputStream inputStream, Class<T> clazz) throws SerializationException {
+		final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		try {
+			for (int i = 0; i < MAGIC.length; i++) {
+				if (in.readByte() != MAGIC[i]) {
+					throw new SerializationException("Not a mini2Dx binary document");
+				}
+			}
+			final int version = readLength(in);
+			if (version > FORMAT_VERSION) {
+				throw new SerializationException("Unsupported binary format version " + version);
+			}
+			return (T) readValue(in, new ReadContext(), in.readUnsignedByte(), clazz);
+		} catch (SerializationException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SerializationException(e);
+		} finally {
+			StreamUtils.closeQuietly(in);
+		}
+	}
+
+	/**
+	 * Writes a binary document by searching the object for
+	 * {@link org.mini2Dx.core.serialization.annotation.Field} annotations
+	 * 
+	 * @param fileHandle
+	 *            The {@link FileHandle} to write to
+	 * @param object
+	 *            The object to convert to binary
+	 * @throws SerializationException
+	 *             Thrown when the object is invalid
+	 */
+	public <T> void toBinary(FileHandle fileHandle, T object) throws SerializationException {
+		toBinary(fileHandle.write(false), object);
+	}
+
+	/**
+	 * Writes a binary document by searching the object for
+	 * {@link org.mini2Dx.core.serialization.annotation.Field} annotations
+	 * 
+	 * @param object
+	 *            The object to convert to binary
+	 * @return The object serialized as binary
+	 * @throws SerializationException
+	 *             Thrown when the object is invalid
+	 */
+	public <T> byte[] toBinary(T object) throws SerializationException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		toBinary(outputStream, object);
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Writes a binary document by searching the object for
+	 * {@link org.mini2Dx.core.serialization.annotation.Field} annotations
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to. The stream is closed
+	 *            once the document has been written.
+	 * @param object
+	 *            The object to convert to binary
+	 * @throws SerializationException
+	 *             Thrown when the object is invalid
+	 */
+	public <T> void toBinary(OutputStream outputStream, T object) throws SerializationException {
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		try {
+			out.write(MAGIC);
+			writeVarLong(out, FORMAT_VERSION);
+			writeValue(out, new WriteContext(), null, object);
+			out.flush();
+		} catch (SerializationException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SerializationException(e);
+		} finally {
+			StreamUtils.closeQuietly(out);
+		}
+	}
+
+	private SerializationPlan getPlan(Class<?> clazz) {
+		return SerializationPlan.get(clazz);
+	}
+
+	private <T> void callPostDeserializeMethods(T object, SerializationPlan plan) throws SerializationException {
+		final Method[] methods = plan.postDeserializeMethods;
+		for (int i = 0; i < methods.length; i++) {
+			try {
+				methods[i].invoke(object);
+			} catch (ReflectionException e) {
+				throw new SerializationException(e);
+			}
+		}
+	}
+
+	private void writeValue(DataOutputStream out, WriteContext context, Field fieldDefinition, Object object)
+			throws Exception {
+		if (object == null) {
+			out.writeByte(TAG_NULL);
+			return;
+		}
+		final Class<?> clazz = object.getClass();
+		if (clazz.equals(Boolean.class)) {
+			out.writeByte(((Boolean) object) ? TAG_TRUE : TAG_FALSE);
+			return;
+		}
+		if (clazz.equals(Integer.class) || clazz.equals(Long.class) || clazz.equals(Short.class)
+				|| clazz.equals(Byte.class)) {
+			out.writeByte(TAG_VARINT);
+			writeSignedVarLong(out, ((Number) object).longValue());
+			return;
+		}
+		if (clazz.equals(Character.class)) {
+			out.writeByte(TAG_VARINT);
+			writeSignedVarLong(out, (Character) object);
+			return;
+		}
+		if (clazz.equals(Float.class)) {
+			out.writeByte(TAG_FLOAT);
+			out.writeFloat((Float) object);
+			return;
+		}
+		if (clazz.equals(Double.class)) {
+			out.writeByte(TAG_DOUBLE);
+			out.writeDouble((Double) object);
+			return;
+		}
+		if (clazz.equals(String.class)) {
+			out.writeByte(TAG_STRING);
+			writeString(out, (String) object);
+			return;
+		}
+		if (clazz.isEnum() || clazz.getSuperclass().isEnum()) {
+			out.writeByte(TAG_STRING);
+			writeString(out, ((Enum<?>) object).name());
+			return;
+		}
+		if (clazz.isArray()) {
+			final int length = Array.getLength(object);
+			out.writeByte(TAG_ARRAY);
+			writeVarLong(out, length);
+			for (int i = 0; i < length; i++) {
+				writeValue(out, context, fieldDefinition, Array.get(object, i));
+			}
+			return;
+		}
+		SerializedMap serializedMap = SerializedMap.getImplementation(clazz, object);
+		if (serializedMap != null) {
+			out.writeByte(TAG_MAP);
+			writeVarLong(out, serializedMap.getSize());
+			for (Object key : serializedMap.keys()) {
+				writeValue(out, context, null, key);
+				writeValue(out, context, fieldDefinition, serializedMap.get(key));
+			}
+			return;
+		}
+		SerializedCollection serializedCollection = SerializedCollection.getImplementation(clazz, object);
+		if (serializedCollection != null) {
+			final int length = serializedCollection.getLength();
+			out.writeByte(TAG_ARRAY);
+			writeVarLong(out, length);
+			for (int i = 0; i < length; i++) {
+				writeValue(out, context, fieldDefinition, serializedCollection.get(i));
+			}
+			serializedCollection.dispose();
+			return;
+		}
+		checkNonConcrete(fieldDefinition);
+		writeObject(out, context, object);
+	}
+
+	private void writeObject(DataOutputStream out, WriteContext context, Object object) throws Exception {
+		final Class<?> clazz = object.getClass();
+		final int id = context.classIds.get(clazz, -1);
+		final SerializationPlan.Entry[] entries;
+
+		if (id < 0) {
+			entries = getOrderedEntries(getPlan(clazz));
+			context.classIds.put(clazz, context.classEntries.size);
+			context.classEntries.add(entries);
+
+			out.writeByte(TAG_OBJECT_DEFINITION);
+			writeString(out, clazz.getName());
+			writeVarLong(out, entries.length);
+			for (int i = 0; i < entries.length; i++) {
+				writeString(out, entries[i].name);
+				out.writeByte(entries[i].getter != null ? ENTRY_CONSTRUCTOR_ARG : ENTRY_FIELD);
+			}
+		} else {
+			entries = context.classEntries.get(id);
+			out.writeByte(TAG_OBJECT);
+			writeVarLong(out, id);
+		}
+
+		for (int i = 0; i < entries.length; i++) {
+			final SerializationPlan.Entry entry = entries[i];
+			if (entry.getter != null) {
+				writeValue(out, context, null, entry.getter.invoke(object));
+				continue;
+			}
+			final Object value = entry.field.get(object);
+			if (!entry.optional && value == null) {
+				throw new RequiredFieldException(entry.declaringClass, entry.name);
+			}
+			writeValue(out, context, entry.field, value);
+		}
+	}
+
+	/**
+	 * Orders {@link ConstructorArg} values before fields so that objects can
+	 * be constructed before their fields are read
+	 */
+	private SerializationPlan.Entry[] getOrderedEntries(SerializationPlan plan) {
+		final SerializationPlan.Entry[] writeEntries = plan.writeEntries;
+		final SerializationPlan.Entry[] result = new SerializationPlan.Entry[writeEntries.length];
+		int index = 0;
+		for (int i = 0; i < writeEntries.length; i++) {
+			if (writeEntries[i].getter != null) {
+				result[index++] = writeEntries[i];
+			}
+		}
+		for (int i = 0; i < writeEntries.length; i++) {
+			if (writeEntries[i].getter == null) {
+				result[index++] = writeEntries[i];
+			}
+		}
+		return result;
+	}
+
+	private void checkNonConcrete(Field fieldDefinition) throws SerializationException {
+		if (fieldDefinition == null) {
+			return;
+		}
+		final Class<?> fieldDefinitionClass = fieldDefinition.getType();
+		Class<?> valueClass = null;
+		if (fieldDefinitionClass.isArray()) {
+			valueClass = fieldDefinitionClass.getComponentType();
+		} else if (Collection.class.isAssignableFrom(fieldDefinitionClass)) {
+			valueClass = fieldDefinition.getElementType(0);
+		} else if (Map.class.isAssignableFrom(fieldDefinitionClass)) {
+			valueClass = fieldDefinition.getElementType(1);
+		}
+		if (valueClass != null) {
+			if (valueClass.isInterface() && valueClass.getAnnotation(NonConcrete.class) == null) {
+				throw new SerializationException("Cannot serialize interface unless it has a @" + NonConcrete.class.getSimpleName() + " annotation");
+			}
+			return;
+		}
+		if (fieldDefinitionClass.isInterface() && fieldDefinitionClass.getAnnotation(NonConcrete.class) == null) {
+			throw new SerializationException("Cannot serialize interface unless it has a @" + NonConcrete.class.getSimpleName() + " annotation");
+		}
+		if (Modifier.isAbstract(fieldDefinitionClass.getModifiers())
+				&& fieldDefinitionClass.getAnnotation(NonConcrete.class) == null) {
+			throw new SerializationException("Cannot serialize abstract class unless it has a @" + NonConcrete.class.getSimpleName() + " annotation");
+		}
+	}
+
+	private Object readValue(DataInputStream in, ReadContext context, int tag, Class<?> clazz) throws Exception {
+		switch (tag) {
+		case TAG_NULL:
+			return null;
+		case TAG_FALSE:
+			return Boolean.FALSE;
+		case TAG_TRUE:
+			return Boolean.TRUE;
+		case TAG_VARINT:
+			return toNumber(readSignedVarLong(in), clazz);
+		case TAG_FLOAT: {
+			final float value = in.readFloat();
+			if (clazz.equals(Float.TYPE) || clazz.equals(Float.class) || clazz.equals(Object.class)) {
+				return value;
+			}
+			return toNumber(value, clazz);
+		}
+		case TAG_DOUBLE:
+			return toNumber(in.readDouble(), clazz);
+		case TAG_STRING: {
+			final String value = readString(in);
+			if (clazz.isEnum()) {
+				return Enum.valueOf((Class<Enum>) clazz, value);
+			}
+			if (clazz.equals(Character.TYPE) || clazz.equals(Character.class)) {
+				return value.length() == 0 ? (char) 0 : value.charAt(0);
+			}
+			return value;
+		}
+		case TAG_ARRAY: {
+			if (!clazz.isArray()) {
+				throw new SerializationException("Cannot deserialize array as " + clazz.getName());
+			}
+			final Class<?> componentType = clazz.getComponentType();
+			final int length = readLength(in);
+			final Object result = ArrayReflection.newInstance(componentType, length);
+			for (int i = 0; i < length; i++) {
+				ArrayReflection.set(result, i, readValue(in, context, in.readUnsignedByte(), componentType));
+			}
+			return result;
+		}
+		case TAG_MAP:
+			throw new SerializationException("Cannot deserialize map as " + clazz.getName());
+		case TAG_OBJECT_DEFINITION:
+			return readObject(in, context, readDefinition(in, context), clazz);
+		case TAG_OBJECT:
+			return readObject(in, context, readReference(in, context), clazz);
+		default:
+			throw new SerializationException("Unknown value tag " + tag);
+		}
+	}
+
+	private Object toNumber(long value, Class<?> clazz) {
+		if (clazz.equals(Integer.TYPE) || clazz.equals(Integer.class)) {
+			return (int) value;
+		} else if (clazz.equals(Short.TYPE) || clazz.equals(Short.class)) {
+			return (short) value;
+		} else if (clazz.equals(Byte.TYPE) || clazz.equals(Byte.class)) {
+			return (byte) value;
+		} else if (clazz.equals(Character.TYPE) || clazz.equals(Character.class)) {
+			return (char) value;
+		} else if (clazz.equals(Float.TYPE) || clazz.equals(Float.class)) {
+			return (float) value;
+		} else if (clazz.equals(Double.TYPE) || clazz.equals(Double.class)) {
+			return (double) value;
+		}
+		return value;
+	}
+
+	private Object toNumber(double value, Class<?> clazz) {
+		if (clazz.equals(Float.TYPE) || clazz.equals(Float.class)) {
+			return (float) value;
+		} else if (clazz.equals(Integer.TYPE) || clazz.equals(Integer.class)) {
+			return (int) value;
+		} else if (clazz.equals(Long.TYPE) || clazz.equals(Long.class)) {
+			return (long) value;
+		} else if (clazz.equals(Short.TYPE) || clazz.equals(Short.class)) {
+			return (short) value;
+		} else if (clazz.equals(Byte.TYPE) || clazz.equals(Byte.class)) {
+			return (byte) value;
+		}
+		return value;
+	}
+
+	private ClassDefinition readDefinition(DataInputStream in, ReadContext context) throws IOException,
+			SerializationException {
+		final String className = readString(in);
+		final int totalEntries = readLength(in);
+		final ClassDefinition result = new ClassDefinition(className, totalEntries);
+		for (int i = 0; i < totalEntries; i++) {
+			result.names[i] = readString(in);
+			result.constructorArgs[i] = in.readUnsignedByte() == ENTRY_CONSTRUCTOR_ARG;
+		}
+		context.definitions.add(result);
+		return result;
+	}
+
+	private ClassDefinition readReference(DataInputStream in, ReadContext context) throws IOException,
+			SerializationException {
+		final int id = readLength(in);
+		if (id >= context.definitions.size) {
+			throw new SerializationException("Reference to undefined class " + id);
+		}
+		return context.definitions.get(id);
+	}
+
+	private Object readObject(DataInputStream in, ReadContext context, ClassDefinition definition,
+			Class<?> expectedClass) throws Exception {
+		final Class<?> clazz = resolveClass(definition, expectedClass);
+		final SerializationPlan plan = definition.plan;
+		final SerializationPlan.Entry[] fields = plan.fields;
+		final boolean[] fieldsRead = new boolean[fields.length];
+		final String[] names = definition.names;
+
+		ObjectMap<String, Object> constructorValues = null;
+		Object result = null;
+
+		for (int i = 0; i < names.length; i++) {
+			final int tag = in.readUnsignedByte();
+			if (definition.constructorArgs[i]) {
+				final Class<?> argClass = definition.constructorArgClasses[i];
+				if (result != null || argClass == null || tag == TAG_NULL) {
+					skipValue(in, context, tag);
+					continue;
+				}
+				if (constructorValues == null) {
+					constructorValues = new ObjectMap<String, Object>();
+				}
+				constructorValues.put(names[i], readValue(in, context, tag, argClass));
+				continue;
+			}
+			if (result == null) {
+				result = construct(clazz, plan, constructorValues);
+			}
+			final int index = definition.fieldIndices[i];
+			if (index < 0 || tag == TAG_NULL) {
+				skipValue(in, context, tag);
+				continue;
+			}
+			fieldsRead[index] = true;
+			setField(in, context, tag, result, fields[index].field);
+		}
+		if (result == null) {
+			result = construct(clazz, plan, constructorValues);
+		}
+		for (int i = 0; i < fields.length; i++) {
+			if (!fieldsRead[i] && !fields[i].optional) {
+				throw new RequiredFieldException(fields[i].declaringClass, fields[i].name);
+			}
+		}
+		callPostDeserializeMethods(result, plan);
+		return result;
+	}
+
+	/**
+	 * Resolves the {@link Class} a {@link ClassDefinition} is read into and
+	 * matches its entries against the class' current fields
+	 */
+	private Class<?> resolveClass(ClassDefinition definition, Class<?> expectedClass) throws SerializationException {
+		Class<?> clazz = definition.clazz;
+		if (clazz == null) {
+			try {
+				clazz = ClassReflection.forName(definition.className);
+			} catch (ReflectionException e) {
+				// The class has been renamed, fall back to the field type
+				if (expectedClass.isInterface() || Modifier.isAbstract(expectedClass.getModifiers())) {
+					throw new SerializationException(e);
+				}
+				clazz = expectedClass;
+			}
+		}
+		if (!expectedClass.isAssignableFrom(clazz)) {
+			throw new SerializationException("Cannot deserialize " + clazz.getName() + " as " + expectedClass.getName());
+		}
+		if (definition.clazz == clazz) {
+			return clazz;
+		}
+
+		final SerializationPlan plan = getPlan(clazz);
+		final String[] names = definition.names;
+		for (int i = 0; i < names.length; i++) {
+			if (definition.constructorArgs[i]) {
+				definition.fieldIndices[i] = -1;
+				definition.constructorArgClasses[i] = getConstructorArgClass(plan, names[i]);
+			} else {
+				definition.fieldIndices[i] = plan.fieldIndices.get(names[i], -1);
+				definition.constructorArgClasses[i] = null;
+			}
+		}
+		definition.clazz = clazz;
+		definition.plan = plan;
+		return clazz;
+	}
+
+	private Class<?> getConstructorArgClass(SerializationPlan plan, String name) {
+		for (int i = 0; i < plan.constructorArgs.length; i++) {
+			for (int j = 0; j < plan.constructorArgs[i].length; j++) {
+				final ConstructorArg constructorArg = plan.constructorArgs[i][j];
+				if (constructorArg != null && constructorArg.name().equals(name)) {
+					return constructorArg.clazz();
+				}
+			}
+		}
+		return null;
+	}
+
+	private Object construct(Class<?> clazz, SerializationPlan plan, ObjectMap<String, Object> constructorValues)
+			throws Exception {
+		final Constructor<?>[] constructors = plan.constructors;
+		// Single constructor with no args
+		if (constructors.length == 1 && plan.constructorArgs[0].length == 0) {
+			return clazz.newInstance();
+		}
+
+		Constructor<?> bestMatchedConstructor = null;
+		ConstructorArg[] bestMatchedConstructorArgs = null;
+
+		for (int i = 0; i < constructors.length; i++) {
+			final ConstructorArg[] constructorArgs = plan.constructorArgs[i];
+			boolean allAnnotated = true;
+
+			for (int j = 0; j < constructorArgs.length; j++) {
+				if (constructorArgs[j] == null || constructorValues == null
+						|| !constructorValues.containsKey(constructorArgs[j].name())) {
+					allAnnotated = false;
+					break;
+				}
+			}
+			if (!allAnnotated) {
+				continue;
+			}
+			if (bestMatchedConstructor == null || constructorArgs.length > bestMatchedConstructorArgs.length) {
+				bestMatchedConstructor = constructors[i];
+				bestMatchedConstructorArgs = constructorArgs;
+			}
+		}
+		if (bestMatchedConstructor == null) {
+			throw new SerializationException("Could not find suitable constructor for class " + clazz.getName());
+		}
+		if (bestMatchedConstructorArgs.length == 0) {
+			return clazz.newInstance();
+		}
+
+		final Object[] constructorParameters = new Object[bestMatchedConstructorArgs.length];
+		for (int i = 0; i < bestMatchedConstructorArgs.length; i++) {
+			constructorParameters[i] = constructorValues.get(bestMatchedConstructorArgs[i].name());
+		}
+		return bestMatchedConstructor.newInstance(constructorParameters);
+	}
+
+	private void setField(DataInputStream in, ReadContext context, int tag, Object targetObject, Field field)
+			throws Exception {
+		final Class<?> clazz = field.getType();
+		if (clazz.isArray()) {
+			final Object result = readValue(in, context, tag, clazz);
+			if (field.isFinal()) {
+				Object targetArray = field.get(targetObject);
+				int length = ArrayReflection.getLength(result);
+				for (int i = 0; i < length; i++) {
+					ArrayReflection.set(targetArray, i, ArrayReflection.get(result, i));
+				}
+			} else {
+				field.set(targetObject, result);
+			}
+			return;
+		}
+		if (clazz.isEnum()) {
+			if (field.isFinal()) {
+				throw new SerializationException("Cannot use @Field on final enum fields. Use the @ConstructorArg method instead.");
+			}
+			field.set(targetObject, readValue(in, context, tag, clazz));
+			return;
+		}
+		if (!clazz.isPrimitive()) {
+			if (clazz.equals(String.class)) {
+				if (field.isFinal()) {
+					throw new SerializationException("Cannot use @Field on final String fields. Use the @ConstructorArg method instead.");
+				}
+				field.set(targetObject, readValue(in, context, tag, clazz));
+				return;
+			}
+			DeserializedMap deserializedMap = DeserializedMap.getImplementation(field, clazz, targetObject);
+			if (deserializedMap != null) {
+				if (tag != TAG_MAP) {
+					throw new SerializationException("Expected map value for field " + field.getName());
+				}
+				final Class<?> keyClass = deserializedMap.getKeyClass();
+				final Class<?> valueClass = deserializedMap.getValueClass();
+				final int size = readLength(in);
+				for (int i = 0; i < size; i++) {
+					Object key = readValue(in, context, in.readUnsignedByte(), keyClass);
+					deserializedMap.put(key, readValue(in, context, in.readUnsignedByte(), valueClass));
+				}
+				return;
+			}
+			DeserializedCollection deserializedCollection = DeserializedCollection.getImplementation(field, clazz, targetObject);
+			if (deserializedCollection != null) {
+				if (tag != TAG_ARRAY) {
+					throw new SerializationException("Expected array value for field " + field.getName());
+				}
+				final Class<?> valueClass = deserializedCollection.getValueClass();
+				final int length = readLength(in);
+				for (int i = 0; i < length; i++) {
+					deserializedCollection.add(readValue(in, context, in.readUnsignedByte(), valueClass));
+				}
+				return;
+			}
+			if (field.isFinal()) {
+				throw new SerializationException("Cannot use @Field on final " + clazz.getName() + " fields.");
+			}
+			field.set(targetObject, readValue(in, context, tag, clazz));
+			return;
+		}
+		if (field.isFinal()) {
+			throw new SerializationException("Cannot use @Field on final " + clazz.getName() + " fields. Use the @ConstructorArg method instead.");
+		}
+		field.set(targetObject, readValue(in, context, tag, clazz));
+	}
+
+	private void skipValue(DataInputStream in, ReadContext context, int tag) throws IOException,
+			SerializationException {
+		switch (tag) {
+		case TAG_NULL:
+		case TAG_FALSE:
+		case TAG_TRUE:
+			return;
+		case TAG_VARINT:
+			readVarLong(in);
+			return;
+		case TAG_FLOAT:
+			in.readFloat();
+			return;
+		case TAG_DOUBLE:
+			in.readDouble();
+			return;
+		case TAG_STRING: {
+			int remaining = readLength(in);
+			while (remaining > 0) {
+				final int skipped = in.skipBytes(remaining);
+				if (skipped <= 0) {
+					in.readByte();
+					remaining--;
+				} else {
+					remaining -= skipped;
+				}
+			}
+			return;
+		}
+		case TAG_ARRAY: {
+			final int length = readLength(in);
+			for (int i = 0; i < length; i++) {
+				skipValue(in, context, in.readUnsignedByte());
+			}
+			return;
+		}
+		case TAG_MAP: {
+			final int size = readLength(in);
+			for (int i = 0; i < size * 2; i++) {
+				skipValue(in, context, in.readUnsignedByte());
+			}
+			return;
+		}
+		case TAG_OBJECT_DEFINITION:
+		case TAG_OBJECT: {
+			final ClassDefinition definition = tag == TAG_OBJECT ? readReference(in, context)
+					: readDefinition(in, context);
+			for (int i = 0; i < definition.names.length; i++) {
+				skipValue(in, context, in.readUnsignedByte());
+			}
+			return;
+		}
+		default:
+			throw new SerializationException("Unknown value tag " + tag);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		final byte[] bytes = value.getBytes("UTF-8");
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException, SerializationException {
+		final byte[] bytes = new byte[readLength(in)];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+	private static void writeSignedVarLong(DataOutputStream out, long value) throws IOException {
+		writeVarLong(out, (value << 1) ^ (value >> 63));
+	}
+
+	private static long readSignedVarLong(DataInputStream in) throws IOException, SerializationException {
+		final long value = readVarLong(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException, SerializationException {
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			final int b = in.readUnsignedByte();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new SerializationException("Malformed variable-length integer");
+	}
+
+	private static int readLength(DataInputStream in) throws IOException, SerializationException {
+		final long value = readVarLong(in);
+		if (value < 0 || value > Integer.MAX_VALUE) {
+			throw new SerializationException("Invalid length " + value);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * The classes written so far during a single {@link #toBinary} call
+	 */
+	private static class WriteContext {
+		final ObjectIntMap<Class<?>> classIds = new ObjectIntMap<Class<?>>();
+		final com.badlogic.gdx.utils.Array<SerializationPlan.Entry[]> classEntries = new com.badlogic.gdx.utils.Array<SerializationPlan.Entry[]>();
+	}
+
+	/**
+	 * The class definitions read so far during a single {@link #fromBinary}
+	 * call
+	 */
+	private static class ReadContext {
+		final com.badlogic.gdx.utils.Array<ClassDefinition> definitions = new com.badlogic.gdx.utils.Array<ClassDefinition>();
+	}
+
+	/**
+	 * The class name and entry names written by the serializer, matched
+	 * against the class when the first instance is read
+	 */
+	private static class ClassDefinition {
+		final String className;
+		final String[] names;
+		final boolean[] constructorArgs;
+		final int[] fieldIndices;
+		final Class<?>[] constructorArgClasses;
+
+		Class<?> clazz;
+		SerializationPlan plan;
+
+		ClassDefinition(String className, int totalEntries) {
+			this.className = className;
+			names = new String[totalEntries];
+			constructorArgs = new boolean[totalEntries];
+			fieldIndices = new int[totalEntries];
+			constructorArgClasses = new Class<?>[totalEntries];
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.serialization;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for implementing serializable classes which read/write in binary
+ * formats directly from/to a {@link ByteBuffer}. This avoids the per-value
+ * overhead of {@link GameDataSerializable} streams for large data, e.g. world
+ * chunks. Buffers use {@link java.nio.ByteOrder#BIG_ENDIAN} byte order, the
+ * same as {@link GameDataSerializable}.
+ */
+public interface GameDataBufferSerializable {
+
+	/**
+	 * Returns the amount of bytes {@link #writeData(ByteBuffer)} will write
+	 * @return The size of the serialized data in bytes
+	 */
+	public int getSerializedSize();
+
+	/**
+	 * Serializes this object to a {@link ByteBuffer}
+	 * @param buffer The {@link ByteBuffer} to write to with {@link #getSerializedSize()} bytes remaining
+	 * @throws IOException Thrown if an error occurs during serialization
+	 */
+	public void writeData(ByteBuffer buffer) throws IOException;
+
+	/**
+	 * Deserializes this object from a {@link ByteBuffer}
+	 * @param buffer The {@link ByteBuffer} to read from. The buffer may be a
+	 *            read-only memory-mapped region of the file and must not be
+	 *            retained after this method returns.
+	 * @throws IOException Thrown if an error occurs during deserialization
+	 */
+	public void readData(ByteBuffer buffer) throws IOException;
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.serialization;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Indents compact JSON as it is written to an underlying {@link Writer}
+ */
+final class JsonPrettyPrintWriter extends Writer {
+	private static final int BUFFER_SIZE = 1024;
+
+	private final Writer writer;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int bufferSize;
+
+	private int indent;
+	private boolean inString, escaped, pendingOpen;
+
+	JsonPrettyPrintWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		for (int i = off; i < off + len; i++) {
+			process(cbuf[i]);
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		for (int i = off; i < off + len; i++) {
+			process(str.charAt(i));
+		}
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		process((char) c);
+	}
+
+	private void process(char c) throws IOException {
+		if (inString) {
+			append(c);
+			if (escaped) {
+				escaped = false;
+			} else if (c == '\\') {
+				escaped = true;
+			} else if (c == '"') {
+				inString = false;
+			}
+			return;
+		}
+		if (pendingOpen) {
+			pendingOpen = false;
+			if (c == '}' || c == ']') {
+				// Keep empty objects and arrays on a single line
+				append(c);
+				return;
+			}
+			indent++;
+			newLine();
+		}
+
+		switch (c) {
+		case '"':
+			inString = true;
+			append(c);
+			break;
+		case '{':
+		case '[':
+			append(c);
+			pendingOpen = true;
+			break;
+		case '}':
+		case ']':
+			indent--;
+			newLine();
+			append(c);
+			break;
+		case ',':
+			append(c);
+			newLine();
+			break;
+		case ':':
+			append(c);
+			append(' ');
+			break;
+		default:
+			append(c);
+			break;
+		}
+	}
+
+	private void newLine() throws IOException {
+		append('\n');
+		for (int i = 0; i < indent; i++) {
+			append('\t');
+		}
+	}
+
+	private void append(char c) throws IOException {
+		if (bufferSize == buffer.length) {
+			writer.write(buffer, 0, bufferSize);
+			bufferSize = 0;
+		}
+		buffer[bufferSize++] = c;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (bufferSize > 0) {
+			writer.write(buffer, 0, bufferSize);
+			bufferSize = 0;
+		}
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		writer.close();
+	}
+}
@@ -0,0 +1,470 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.serialization;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonValue.ValueType;
+
+/**
+ * Reads JSON tokens one at a time from a {@link Reader} without building a
+ * document tree. Supports standard JSON plus // and /* comments.
+ */
+final class JsonPullParser {
+	enum Token {
+		BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+	}
+
+	private static final int BUFFER_SIZE = 4096;
+
+	private static final byte CONTEXT_OBJECT_NAME = 0;
+	private static final byte CONTEXT_OBJECT_VALUE = 1;
+	private static final byte CONTEXT_ARRAY = 2;
+
+	private final Reader reader;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position, limit;
+
+	private final StringBuilder text = new StringBuilder();
+	private byte[] contexts = new byte[32];
+	private int depth;
+	private boolean documentRead;
+
+	private Token peeked;
+	private String value;
+
+	JsonPullParser(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Returns the next token without consuming it
+	 * 
+	 * @return The next {@link Token}
+	 */
+	Token peek() throws SerializationException {
+		if (peeked == null) {
+			peeked = readToken();
+		}
+		return peeked;
+	}
+
+	/**
+	 * Consumes the next token. For {@link Token#NAME}, {@link Token#STRING},
+	 * {@link Token#NUMBER} and {@link Token#BOOLEAN} the text is available via
+	 * {@link #getValue()}
+	 * 
+	 * @return The next {@link Token}
+	 */
+	Token next() throws SerializationException {
+		final Token result = peek();
+		peeked = null;
+		return result;
+	}
+
+	/**
+	 * Consumes the next token and throws an exception if it is not the
+	 * expected token
+	 */
+	void expect(Token token) throws SerializationException {
+		final Token result = next();
+		if (result != token) {
+			throw new JsonSyntaxException("Expected " + token + " but found " + result);
+		}
+	}
+
+	/**
+	 * Returns the text of the last consumed token
+	 * 
+	 * @return Null if the token has no text
+	 */
+	String getValue() {
+		return value;
+	}
+
+	/**
+	 * Consumes and discards the next value, including all of its children
+	 */
+	void skipValue() throws SerializationException {
+		int level = 0;
+		do {
+			switch (next()) {
+			case BEGIN_OBJECT:
+			case BEGIN_ARRAY:
+				level++;
+				break;
+			case END_OBJECT:
+			case END_ARRAY:
+				level--;
+				break;
+			case END_DOCUMENT:
+				return;
+			default:
+				break;
+			}
+		} while (level > 0);
+	}
+
+	/**
+	 * Consumes the next value and returns it as a {@link JsonValue} tree
+	 * 
+	 * @return The {@link JsonValue}
+	 */
+	JsonValue readJsonValue() throws SerializationException {
+		final Token token = next();
+		switch (token) {
+		case BEGIN_OBJECT: {
+			final JsonValue result = new JsonValue(ValueType.object);
+			JsonValue last = null;
+			while (peek() != Token.END_OBJECT) {
+				expect(Token.NAME);
+				final String name = value;
+				final JsonValue child = readJsonValue();
+				child.name = name;
+				last = addChild(result, last, child);
+			}
+			next();
+			return result;
+		}
+		case BEGIN_ARRAY: {
+			final JsonValue result = new JsonValue(ValueType.array);
+			JsonValue last = null;
+			while (peek() != Token.END_ARRAY) {
+				last = addChild(result, last, readJsonValue());
+			}
+			next();
+			return result;
+		}
+		case STRING:
+			return new JsonValue(value);
+		case NUMBER:
+			try {
+				if (!isDecimal(value)) {
+					try {
+						return new JsonValue(Long.parseLong(value), value);
+					} catch (NumberFormatException e) {
+						// Integer is outside the range of long
+					}
+				}
+				return new JsonValue(Double.parseDouble(value), value);
+			} catch (NumberFormatException e) {
+				throw new JsonSyntaxException("Invalid number " + value);
+			}
+		case BOOLEAN:
+			return new JsonValue(Boolean.parseBoolean(value));
+		case NULL:
+			return new JsonValue(ValueType.nullValue);
+		default:
+			throw new JsonSyntaxException("Unexpected token " + token + " while reading value");
+		}
+	}
+
+	/**
+	 * Appends a child after the previously appended child
+	 * 
+	 * @return The appended child
+	 */
+	private JsonValue addChild(JsonValue parent, JsonValue last, JsonValue child) {
+		child.parent = parent;
+		if (last == null) {
+			parent.child = child;
+		} else {
+			last.next = child;
+			child.prev = last;
+		}
+		parent.size++;
+		return child;
+	}
+
+	/**
+	 * Returns if the text of a {@link Token#NUMBER} is a decimal value
+	 */
+	static boolean isDecimal(String number) {
+		for (int i = 0; i < number.length(); i++) {
+			switch (number.charAt(i)) {
+			case '.':
+			case 'e':
+			case 'E':
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Token readToken() throws SerializationException {
+		value = null;
+		if (depth == 0) {
+			if (documentRead) {
+				return Token.END_DOCUMENT;
+			}
+			documentRead = true;
+			if (skipWhitespace() < 0) {
+				return Token.END_DOCUMENT;
+			}
+			return readValue();
+		}
+
+		switch (contexts[depth - 1]) {
+		case CONTEXT_OBJECT_NAME: {
+			int c = skipWhitespaceAndComma();
+			if (c == '}') {
+				position++;
+				depth--;
+				return Token.END_OBJECT;
+			}
+			if (c != '"') {
+				throw unexpectedCharacter(c);
+			}
+			position++;
+			value = readString();
+			if (skipWhitespace() != ':') {
+				throw new JsonSyntaxException("Expected ':' after field name " + value);
+			}
+			position++;
+			contexts[depth - 1] = CONTEXT_OBJECT_VALUE;
+			return Token.NAME;
+		}
+		case CONTEXT_OBJECT_VALUE:
+			contexts[depth - 1] = CONTEXT_OBJECT_NAME;
+			if (skipWhitespace() < 0) {
+				throw unexpectedCharacter(-1);
+			}
+			return readValue();
+		default: {
+			int c = skipWhitespaceAndComma();
+			if (c == ']') {
+				position++;
+				depth--;
+				return Token.END_ARRAY;
+			}
+			return readValue();
+		}
+		}
+	}
+
+	private Token readValue() throws SerializationException {
+		final int c = buffer[position];
+		switch (c) {
+		case '{':
+			position++;
+			pushContext(CONTEXT_OBJECT_NAME);
+			return Token.BEGIN_OBJECT;
+		case '[':
+			position++;
+			pushContext(CONTEXT_ARRAY);
+			return Token.BEGIN_ARRAY;
+		case '"':
+			position++;
+			value = readString();
+			return Token.STRING;
+		case 't':
+			readLiteral("true");
+			value = "true";
+			return Token.BOOLEAN;
+		case 'f':
+			readLiteral("false");
+			value = "false";
+			return Token.BOOLEAN;
+		case 'n':
+			readLiteral("null");
+			return Token.NULL;
+		default:
+			if (c == '-' || (c >= '0' && c <= '9')) {
+				value = readNumber();
+				return Token.NUMBER;
+			}
+			throw unexpectedCharacter(c);
+		}
+	}
+
+	private void pushContext(byte context) {
+		if (depth == contexts.length) {
+			byte[] newContexts = new byte[contexts.length * 2];
+			System.arraycopy(contexts, 0, newContexts, 0, contexts.length);
+			contexts = newContexts;
+		}
+		contexts[depth++] = context;
+	}
+
+	private String readString() throws SerializationException {
+		text.setLength(0);
+		while (true) {
+			if (position == limit && !fill()) {
+				throw new JsonSyntaxException("Unterminated string");
+			}
+			final char c = buffer[position++];
+			if (c == '"') {
+				return text.toString();
+			}
+			if (c != '\\') {
+				text.append(c);
+				continue;
+			}
+			if (position == limit && !fill()) {
+				throw new JsonSyntaxException("Unterminated string");
+			}
+			final char escaped = buffer[position++];
+			switch (escaped) {
+			case 'b':
+				text.append('\b');
+				break;
+			case 'f':
+				text.append('\f');
+				break;
+			case 'n':
+				text.append('\n');
+				break;
+			case 'r':
+				text.append('\r');
+				break;
+			case 't':
+				text.append('\t');
+				break;
+			case 'u': {
+				int unicode = 0;
+				for (int i = 0; i < 4; i++) {
+					if (position == limit && !fill()) {
+						throw new JsonSyntaxException("Unterminated string");
+					}
+					int digit = Character.digit(buffer[position++], 16);
+					if (digit < 0) {
+						throw new JsonSyntaxException("Invalid unicode escape sequence");
+					}
+					unicode = (unicode << 4) | digit;
+				}
+				text.append((char) unicode);
+				break;
+			}
+			default:
+				text.append(escaped);
+				break;
+			}
+		}
+	}
+
+	private String readNumber() throws SerializationException {
+		text.setLength(0);
+		while (position < limit || fill()) {
+			final char c = buffer[position];
+			if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+				text.append(c);
+				position++;
+			} else {
+				break;
+			}
+		}
+		return text.toString();
+	}
+
+	private void readLiteral(String literal) throws SerializationException {
+		for (int i = 0; i < literal.length(); i++) {
+			if (position == limit && !fill()) {
+				throw unexpectedCharacter(-1);
+			}
+			if (buffer[position] != literal.charAt(i)) {
+				throw unexpectedCharacter(buffer[position]);
+			}
+			position++;
+		}
+	}
+
+	private int skipWhitespaceAndComma() throws SerializationException {
+		int c = skipWhitespace();
+		if (c == ',') {
+			position++;
+			c = skipWhitespace();
+		}
+		if (c < 0) {
+			throw unexpectedCharacter(c);
+		}
+		return c;
+	}
+
+	/**
+	 * Skips whitespace and comments
+	 * 
+	 * @return The next character (not consumed) or -1 if the end of the
+	 *         document was reached
+	 */
+	private int skipWhitespace() throws SerializationException {
+		while (position < limit || fill()) {
+			final char c = buffer[position];
+			switch (c) {
+			case ' ':
+			case '\t':
+			case '\r':
+			case '\n':
+				position++;
+				break;
+			case '/':
+				position++;
+				skipComment();
+				break;
+			default:
+				return c;
+			}
+		}
+		return -1;
+	}
+
+	private void skipComment() throws SerializationException {
+		if (position == limit && !fill()) {
+			throw unexpectedCharacter(-1);
+		}
+		final char type = buffer[position++];
+		if (type == '/') {
+			while (position < limit || fill()) {
+				if (buffer[position++] == '\n') {
+					return;
+				}
+			}
+			return;
+		}
+		if (type != '*') {
+			throw unexpectedCharacter(type);
+		}
+		boolean asterisk = false;
+		while (position < limit || fill()) {
+			final char c = buffer[position++];
+			if (asterisk && c == '/') {
+				return;
+			}
+			asterisk = c == '*';
+		}
+		throw new JsonSyntaxException("Unterminated comment");
+	}
+
+	private boolean fill() throws SerializationException {
+		try {
+			final int read = reader.read(buffer, 0, buffer.length);
+			if (read <= 0) {
+				position = 0;
+				limit = 0;
+				return false;
+			}
+			position = 0;
+			limit = read;
+			return true;
+		} catch (IOException e) {
+			throw new SerializationException(e);
+		}
+	}
+
+	private JsonSyntaxException unexpectedCharacter(int c) {
+		if (c < 0) {
+			return new JsonSyntaxException("Unexpected end of JSON document");
+		}
+		return new JsonSyntaxException("Unexpected character '" + (char) c + "' in JSON document");
+	}
+}
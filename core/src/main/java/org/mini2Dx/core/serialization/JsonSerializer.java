@@ -12,22 +12,30 @@
 package org.mini2Dx.core.serialization;
 
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.JsonWriter.OutputType;
-import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StreamUtils;
 import com.badlogic.gdx.utils.reflect.*;
 import org.mini2Dx.core.serialization.annotation.ConstructorArg;
 import org.mini2Dx.core.serialization.annotation.NonConcrete;
-import org.mini2Dx.core.serialization.annotation.PostDeserialize;
 import org.mini2Dx.core.serialization.collection.DeserializedCollection;
 import org.mini2Dx.core.serialization.collection.SerializedCollection;
 import org.mini2Dx.core.serialization.map.deserialize.DeserializedMap;
 import org.mini2Dx.core.serialization.map.serialize.SerializedMap;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -36,16 +44,16 @@ import java.util.*;
 
 /**
  * Serializes objects to/from JSON based on
- * {@link org.mini2Dx.core.serialization.annotation.Field} annotations
+ * {@link org.mini2Dx.core.serialization.annotation.Field} annotations. Safe
+ * for use by multiple threads.
  */
 @SuppressWarnings("unchecked")
 public class JsonSerializer {
-	private final ObjectMap<String, Method[]> methodCache = new ObjectMap<String, Method[]>();
-	private final ObjectMap<String, Field[]> fieldCache = new ObjectMap<String, Field[]>();
-
 	/**
-	 * Reads a JSON document and converts it into an object of the specified
-	 * type
+	 * Reads a UTF-8 JSON document and converts it into an object of the
+	 * specified type. Strict JSON is streamed into the object. Documents using
+	 * the relaxed syntax supported by libGDX (e.g. unquoted names) are read via
+	 * a document tree instead.
 	 * 
 	 * @param fileHandle
 	 *            The {@link FileHandle} for the JSON document
@@ -56,12 +64,65 @@ public class JsonSerializer {
 	 *             Thrown when the data is invalid
 	 */
 	public <T> T fromJson(FileHandle fileHandle, Class<T> clazz) throws SerializationException {
-		return deserialize(new JsonReader().parse(fileHandle), clazz);
+		try {
+			return fromJson(fileHandle.reader("UTF-8"), clazz);
+		} catch (JsonSyntaxException e) {
+			return deserialize(new JsonReader().parse(fileHandle), clazz);
+		}
+	}
+
+	/**
+	 * Reads a JSON document and converts it into an object of the specified
+	 * type. The document is streamed into the object without building an
+	 * intermediate document tree so it must be strict JSON (comments are
+	 * allowed).
+	 * 
+	 * @param reader
+	 *            The {@link Reader} for the JSON document. The reader is closed
+	 *            once the document has been read.
+	 * @param clazz
+	 *            The {@link Class} to convert the document to
+	 * @return The object deserialized from JSON
+	 * @throws SerializationException
+	 *             Thrown when the data is invalid
+	 */
+	public <T> T fromJson(Reader reader, Class<T> clazz) throws SerializationException {
+		try {
+			return deserialize(new JsonPullParser(reader), clazz);
+		} finally {
+			StreamUtils.closeQuietly(reader);
+		}
+	}
+
+	/**
+	 * Reads a UTF-8 JSON document and converts it into an object of the
+	 * specified type. The document is streamed into the object without
+	 * building an intermediate document tree so it must be strict JSON
+	 * (comments are allowed).
+	 * 
+	 * @param inputStream
+	 *            The {@link InputStream} for the JSON document. The stream is
+	 *            closed once the document has been read.
+	 * @param clazz
+	 *            The {@link Class} to convert the document to
+	 * @return The object deserialized from JSON
+	 * @throws SerializationException
+	 *             Thrown when the data is invalid
+	 */
+	public <T> T fromJson(InputStream inputStream, Class<T> clazz) throws SerializationException {
+		try {
+			return fromJson(new InputStreamReader(inputStream, "UTF-8"), clazz);
+		} catch (UnsupportedEncodingException e) {
+			StreamUtils.closeQuietly(inputStream);
+			throw new SerializationException(e);
+		}
 	}
 
 	/**
 	 * Reads a JSON document and converts it into an object of the specified
-	 * type
+	 * type. Strict JSON is streamed into the object. Documents using the
+	 * relaxed syntax supported by libGDX (e.g. unquoted names) are read via a
+	 * document tree instead.
 	 * 
 	 * @param json
 	 *            The JSON document
@@ -72,7 +133,11 @@ public class JsonSerializer {
 	 *             Thrown when the data is invalid
 	 */
 	public <T> T fromJson(String json, Class<T> clazz) throws SerializationException {
-		return deserialize(new JsonReader().parse(json), clazz);
+		try {
+			return fromJson(new StringReader(json), clazz);
+		} catch (JsonSyntaxException e) {
+			return deserialize(new JsonReader().parse(json), clazz);
+		}
 	}
 
 	/**
@@ -92,7 +157,9 @@ public class JsonSerializer {
 
 	/**
 	 * Writes a JSON document by searching the object for
-	 * {@link org.mini2Dx.core.serialization.annotation.Field} annotations
+	 * {@link org.mini2Dx.core.serialization.annotation.Field} annotations. The
+	 * document is written to a temporary sibling file which then replaces the
+	 * target, so a failed write leaves any existing file untouched.
 	 * 
 	 * @param fileHandle
 	 *            The {@link FileHandle} to write to
@@ -104,8 +171,72 @@ public class JsonSerializer {
 	 *             Thrown when the object is invalid
 	 */
 	public <T> void toJson(FileHandle fileHandle, T object, boolean prettyPrint) throws SerializationException {
-		String json = toJson(object, prettyPrint);
-		fileHandle.writeString(json, false);
+		FileHandle tmpFileHandle = fileHandle.sibling(fileHandle.name() + ".tmp");
+		try {
+			toJson(tmpFileHandle.writer(false, "UTF-8"), object, prettyPrint);
+			tmpFileHandle.moveTo(fileHandle);
+		} catch (SerializationException e) {
+			tmpFileHandle.delete();
+			throw e;
+		} catch (GdxRuntimeException e) {
+			tmpFileHandle.delete();
+			throw new SerializationException(e);
+		}
+	}
+
+	/**
+	 * Writes a JSON document by searching the object for
+	 * {@link org.mini2Dx.core.serialization.annotation.Field} annotations. The
+	 * document is written incrementally without building it in memory.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to write UTF-8 to. The stream is
+	 *            closed once the document has been written.
+	 * @param object
+	 *            The object to convert to JSON
+	 * @param prettyPrint
+	 *            Set to true if the JSON should be prettified
+	 * @throws SerializationException
+	 *             Thrown when the object is invalid
+	 */
+	public <T> void toJson(OutputStream outputStream, T object, boolean prettyPrint) throws SerializationException {
+		try {
+			toJson(new OutputStreamWriter(outputStream, "UTF-8"), object, prettyPrint);
+		} catch (UnsupportedEncodingException e) {
+			StreamUtils.closeQuietly(outputStream);
+			throw new SerializationException(e);
+		}
+	}
+
+	/**
+	 * Writes a JSON document by searching the object for
+	 * {@link org.mini2Dx.core.serialization.annotation.Field} annotations. The
+	 * document is written incrementally without building it in memory.
+	 * 
+	 * @param writer
+	 *            The {@link Writer} to write to. The writer is closed once the
+	 *            document has been written.
+	 * @param object
+	 *            The object to convert to JSON
+	 * @param prettyPrint
+	 *            Set to true if the JSON should be prettified
+	 * @throws SerializationException
+	 *             Thrown when the object is invalid
+	 */
+	public <T> void toJson(Writer writer, T object, boolean prettyPrint) throws SerializationException {
+		final Writer output = prettyPrint ? new JsonPrettyPrintWriter(writer) : writer;
+		try {
+			Json json = new Json();
+			json.setOutputType(OutputType.json);
+			json.setWriter(output);
+
+			writeObject(null, object, null, json);
+			output.flush();
+		} catch (IOException e) {
+			throw new SerializationException(e);
+		} finally {
+			StreamUtils.closeQuietly(output);
+		}
 	}
 
 	/**
@@ -136,43 +267,22 @@ public class JsonSerializer {
 	 */
 	public <T> String toJson(T object, boolean prettyPrint) throws SerializationException {
 		StringWriter writer = new StringWriter();
-		Json json = new Json();
-		json.setOutputType(OutputType.json);
-		json.setWriter(writer);
-
-		writeObject(null, object, null, json);
-
-		String result = writer.toString();
-		try {
-			writer.close();
-		} catch (IOException e) {
-			throw new SerializationException(e);
-		}
-		if (prettyPrint) {
-			return json.prettyPrint(result);
-		}
-		return result;
+		toJson(writer, object, prettyPrint);
+		return writer.toString();
 	}
 	
-	private <T> void callPostDeserializeMethods(T object, Class<?> clazz) throws SerializationException {
-		Class<?> currentClass = clazz;
-		while (currentClass != null && !currentClass.equals(Object.class)) {
-			final String className = currentClass.getName();
-			if(!methodCache.containsKey(className)) {
-				methodCache.put(className, ClassReflection.getDeclaredMethods(currentClass));
-			}
-			final Method [] methods = methodCache.get(className);
-
-			for(Method method : methods) {
-				if(method.isAnnotationPresent(PostDeserialize.class)) {
-					try {
-						method.invoke(object);
-					} catch (ReflectionException e) {
-						throw new SerializationException(e);
-					}
-				}
+	private SerializationPlan getPlan(Class<?> clazz) {
+		return SerializationPlan.get(clazz);
+	}
+	
+	private <T> void callPostDeserializeMethods(T object, SerializationPlan plan) throws SerializationException {
+		final Method [] methods = plan.postDeserializeMethods;
+		for(int i = 0; i < methods.length; i++) {
+			try {
+				methods[i].invoke(object);
+			} catch (ReflectionException e) {
+				throw new SerializationException(e);
 			}
-			currentClass = currentClass.getSuperclass();
 		}
 	}
 
@@ -314,69 +424,18 @@ public class JsonSerializer {
 			}
 			writeClassFieldIfRequired(fieldDefinition, object, fieldName, json);
 
-			Class<?> currentClass = clazz;
-			while (currentClass != null && !currentClass.equals(Object.class)) {
-				final String className = currentClass.getName();
-				if(!fieldCache.containsKey(className)) {
-					fieldCache.put(className, ClassReflection.getDeclaredFields(currentClass));
-				}
-				if(!methodCache.containsKey(className)) {
-					methodCache.put(className, ClassReflection.getDeclaredMethods(currentClass));
+			final SerializationPlan.Entry [] entries = getPlan(clazz).writeEntries;
+			for (int i = 0; i < entries.length; i++) {
+				final SerializationPlan.Entry entry = entries[i];
+				if (entry.getter != null) {
+					writeObject(null, entry.getter.invoke(object), entry.name, json);
+					continue;
 				}
-
-				final Method [] methods = methodCache.get(className);
-				final Field [] fields = fieldCache.get(className);
-
-				for (Field field : fields) {
-					field.setAccessible(true);
-					Annotation annotation = field
-							.getDeclaredAnnotation(org.mini2Dx.core.serialization.annotation.Field.class);
-
-					if (annotation == null) {
-						continue;
-					}
-					org.mini2Dx.core.serialization.annotation.Field fieldAnnotation = annotation
-							.getAnnotation(org.mini2Dx.core.serialization.annotation.Field.class);
-
-					if (!fieldAnnotation.optional() && field.get(object) == null) {
-						throw new RequiredFieldException(currentClass, field.getName());
-					}
-					writeObject(field, field.get(object), field.getName(), json);
-				}
-				for(Method method : methods) {
-					if(method.getParameterTypes().length > 0) {
-						continue;
-					}
-					Annotation annotation = method.getDeclaredAnnotation(ConstructorArg.class);
-					if(annotation == null) {
-						continue;
-					}
-					ConstructorArg constructorArg = annotation.getAnnotation(ConstructorArg.class);
-					writeObject(null, method.invoke(object), constructorArg.name(), json); ;
-				}
-				currentClass = currentClass.getSuperclass();
-			}
-			
-			//Check for @ConstructorArg annotations in interface methods
-			Class<?> [] interfaces = clazz.getInterfaces();
-			for(int i = 0; i < interfaces.length; i++) {
-				final String className = interfaces[i].getName();
-				if(!methodCache.containsKey(className)) {
-					methodCache.put(className, ClassReflection.getDeclaredMethods(interfaces[i]));
-				}
-				final Method [] methods = methodCache.get(className);
-
-				for(Method method : methods) {
-					if(method.getParameterTypes().length > 0) {
-						continue;
-					}
-					Annotation annotation = method.getDeclaredAnnotation(ConstructorArg.class);
-					if(annotation == null) {
-						continue;
-					}
-					ConstructorArg constructorArg = annotation.getAnnotation(ConstructorArg.class);
-					writeObject(null, method.invoke(object), constructorArg.name(), json); ;
+				final Object value = entry.field.get(object);
+				if (!entry.optional && value == null) {
+					throw new RequiredFieldException(entry.declaringClass, entry.name);
 				}
+				writeObject(entry.field, value, entry.name, json);
 			}
 
 			json.writeObjectEnd();
@@ -387,64 +446,45 @@ public class JsonSerializer {
 		}
 	}
 
-	private <T> T construct(JsonValue objectRoot, Class<?> clazz) throws InstantiationException, IllegalAccessException,
+	private <T> T construct(JsonValue objectRoot, Class<?> clazz, SerializationPlan plan) throws InstantiationException, IllegalAccessException,
 			SerializationException, IllegalArgumentException, InvocationTargetException, ClassNotFoundException {
-		Constructor<?>[] constructors = clazz.getConstructors();
+		Constructor<?>[] constructors = plan.constructors;
 		// Single constructor with no args
-		if (constructors.length == 1 && constructors[0].getParameterAnnotations().length == 0) {
+		if (constructors.length == 1 && plan.constructorArgs[0].length == 0) {
 			return (T) clazz.newInstance();
 		}
 
 		Constructor bestMatchedConstructor = null;
-		List<ConstructorArg> detectedAnnotations = new ArrayList<ConstructorArg>(1);
+		ConstructorArg[] bestMatchedConstructorArgs = null;
 
 		for (int i = 0; i < constructors.length; i++) {
-			detectedAnnotations.clear();
+			final ConstructorArg[] constructorArgs = plan.constructorArgs[i];
 			boolean allAnnotated = true;
 
-			for (int j = 0; j < constructors[i].getParameterAnnotations().length; j++) {
-				java.lang.annotation.Annotation[] annotations = constructors[i].getParameterAnnotations()[j];
-				if (annotations.length == 0) {
+			for (int j = 0; j < constructorArgs.length; j++) {
+				if (constructorArgs[j] == null || objectRoot.get(constructorArgs[j].name()) == null) {
 					allAnnotated = false;
 					break;
 				}
-
-				boolean hasConstructorArgAnnotation = false;
-				for (int k = 0; k < annotations.length; k++) {
-					if (!annotations[i].annotationType().isAssignableFrom(ConstructorArg.class)) {
-						continue;
-					}
-					ConstructorArg constructorArg = (ConstructorArg) annotations[i];
-					if (objectRoot.get(constructorArg.name()) == null) {
-						continue;
-					}
-					detectedAnnotations.add(constructorArg);
-					hasConstructorArgAnnotation = true;
-					break;
-				}
-				if (!hasConstructorArgAnnotation) {
-					allAnnotated = false;
-				}
 			}
 			if (!allAnnotated) {
 				continue;
 			}
-			if (bestMatchedConstructor == null) {
-				bestMatchedConstructor = constructors[i];
-			} else if (detectedAnnotations.size() > bestMatchedConstructor.getParameterAnnotations().length) {
+			if (bestMatchedConstructor == null || constructorArgs.length > bestMatchedConstructorArgs.length) {
 				bestMatchedConstructor = constructors[i];
+				bestMatchedConstructorArgs = constructorArgs;
 			}
 		}
 		if (bestMatchedConstructor == null) {
 			throw new SerializationException("Could not find suitable constructor for class " + clazz.getName());
 		}
-		if (detectedAnnotations.size() == 0) {
+		if (bestMatchedConstructorArgs.length == 0) {
 			return (T) clazz.newInstance();
 		}
 
-		Object[] constructorParameters = new Object[detectedAnnotations.size()];
-		for (int i = 0; i < detectedAnnotations.size(); i++) {
-			ConstructorArg constructorArg = detectedAnnotations.get(i);
+		Object[] constructorParameters = new Object[bestMatchedConstructorArgs.length];
+		for (int i = 0; i < bestMatchedConstructorArgs.length; i++) {
+			ConstructorArg constructorArg = bestMatchedConstructorArgs[i];
 			constructorParameters[i] = deserialize(objectRoot.get(constructorArg.name()), constructorArg.clazz());
 			objectRoot.remove(constructorArg.name());
 		}
@@ -469,32 +509,22 @@ public class JsonSerializer {
 			}
 			if (objectRoot.isObject()) {
 				Class<?> clazz = determineImplementation(objectRoot, fieldClass);
-				T result = construct(objectRoot, clazz);
-				Class<?> currentClass = clazz;
-				while (currentClass != null && !currentClass.equals(Object.class)) {
-					for (Field field : ClassReflection.getDeclaredFields(currentClass)) {
-						field.setAccessible(true);
-						Annotation annotation = field
-								.getDeclaredAnnotation(org.mini2Dx.core.serialization.annotation.Field.class);
-
-						if (annotation == null) {
-							continue;
+				SerializationPlan plan = getPlan(clazz);
+				T result = construct(objectRoot, clazz, plan);
+
+				final SerializationPlan.Entry [] fields = plan.fields;
+				for (int i = 0; i < fields.length; i++) {
+					final SerializationPlan.Entry entry = fields[i];
+					JsonValue value = objectRoot.get(entry.name);
+					if (value == null || value.isNull()) {
+						if (!entry.optional) {
+							throw new RequiredFieldException(entry.declaringClass, entry.name);
 						}
-						org.mini2Dx.core.serialization.annotation.Field fieldAnnotation = annotation
-								.getAnnotation(org.mini2Dx.core.serialization.annotation.Field.class);
-
-						JsonValue value = objectRoot.get(field.getName());
-						if (value == null || value.isNull()) {
-							if (!fieldAnnotation.optional()) {
-								throw new RequiredFieldException(currentClass, field.getName());
-							}
-							continue;
-						}
-						setField(result, field, value);
+						continue;
 					}
-					currentClass = currentClass.getSuperclass();
+					setField(result, entry.field, value);
 				}
-				callPostDeserializeMethods(result, clazz);
+				callPostDeserializeMethods(result, plan);
 				return result;
 			}
 			if (objectRoot.isArray()) {
@@ -536,6 +566,177 @@ public class JsonSerializer {
 		}
 	}
 
+	private <T> T deserialize(JsonPullParser parser, Class<T> fieldClass) throws SerializationException {
+		try {
+			switch (parser.peek()) {
+			case NULL:
+				parser.next();
+				return null;
+			case BEGIN_OBJECT: {
+				if (fieldClass.isInterface() || Modifier.isAbstract(fieldClass.getModifiers())
+						|| !getPlan(fieldClass).streamable) {
+					// Values may be required before the object can be constructed
+					return deserialize(parser.readJsonValue(), fieldClass);
+				}
+				parser.next();
+				final SerializationPlan plan = getPlan(fieldClass);
+				final T result = fieldClass.newInstance();
+				final SerializationPlan.Entry [] fields = plan.fields;
+				final boolean [] fieldsRead = new boolean[fields.length];
+
+				while (parser.next() == JsonPullParser.Token.NAME) {
+					final int index = plan.fieldIndices.get(parser.getValue(), -1);
+					if (index < 0 || parser.peek() == JsonPullParser.Token.NULL) {
+						parser.skipValue();
+						continue;
+					}
+					fieldsRead[index] = true;
+					setField(result, fields[index].field, parser);
+				}
+				for (int i = 0; i < fields.length; i++) {
+					if (!fieldsRead[i] && !fields[i].optional) {
+						throw new RequiredFieldException(fields[i].declaringClass, fields[i].name);
+					}
+				}
+				callPostDeserializeMethods(result, plan);
+				return result;
+			}
+			case BEGIN_ARRAY: {
+				parser.next();
+				final Class<?> arrayType = fieldClass.getComponentType();
+				final com.badlogic.gdx.utils.Array<Object> elements = new com.badlogic.gdx.utils.Array<Object>();
+				while (parser.peek() != JsonPullParser.Token.END_ARRAY) {
+					elements.add(deserialize(parser, arrayType));
+				}
+				parser.next();
+
+				Object array = ArrayReflection.newInstance(arrayType, elements.size);
+				for (int i = 0; i < elements.size; i++) {
+					Array.set(array, i, elements.get(i));
+				}
+				return (T) array;
+			}
+			case NAME:
+			case END_OBJECT:
+			case END_ARRAY:
+			case END_DOCUMENT:
+				throw new SerializationException("Unexpected token " + parser.peek() + " while reading " + fieldClass.getName());
+			default:
+				break;
+			}
+
+			final JsonPullParser.Token token = parser.next();
+			final String value = parser.getValue();
+			if (fieldClass.isEnum()) {
+				return (T) Enum.valueOf((Class<Enum>) fieldClass, value);
+			}
+			if (fieldClass.equals(Boolean.TYPE) || fieldClass.equals(Boolean.class)) {
+				return (T) ((Boolean) value.equalsIgnoreCase("true"));
+			} else if (fieldClass.equals(Byte.TYPE) || fieldClass.equals(Byte.class)) {
+				return (T) ((Byte) (byte) parseLong(value));
+			} else if (fieldClass.equals(Character.TYPE) || fieldClass.equals(Character.class)) {
+				if (token == JsonPullParser.Token.NUMBER) {
+					return (T) ((Character) (char) parseLong(value));
+				}
+				return (T) ((Character) (value.length() == 0 ? 0 : value.charAt(0)));
+			} else if (fieldClass.equals(Double.TYPE) || fieldClass.equals(Double.class)) {
+				return (T) ((Double) Double.parseDouble(value));
+			} else if (fieldClass.equals(Float.TYPE) || fieldClass.equals(Float.class)) {
+				return (T) ((Float) Float.parseFloat(value));
+			} else if (fieldClass.equals(Integer.TYPE) || fieldClass.equals(Integer.class)) {
+				return (T) ((Integer) (int) parseLong(value));
+			} else if (fieldClass.equals(Long.TYPE) || fieldClass.equals(Long.class)) {
+				return (T) ((Long) parseLong(value));
+			} else if (fieldClass.equals(Short.TYPE) || fieldClass.equals(Short.class)) {
+				return (T) ((Short) (short) parseLong(value));
+			} else {
+				return (T) value;
+			}
+		} catch (SerializationException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SerializationException(e);
+		}
+	}
+
+	private long parseLong(String value) {
+		if (JsonPullParser.isDecimal(value)) {
+			return (long) Double.parseDouble(value);
+		}
+		return Long.parseLong(value);
+	}
+
+	private <T> void setField(T targetObject, Field field, JsonPullParser parser) throws SerializationException {
+		try {
+			Class<?> clazz = field.getType();
+			if (clazz.isArray()) {
+				Object result = deserialize(parser, clazz);
+				if(field.isFinal()) {
+					Object targetArray = field.get(targetObject);
+					int length = ArrayReflection.getLength(result);
+					for(int i = 0; i < length; i++) {
+						ArrayReflection.set(targetArray, i, ArrayReflection.get(result, i));
+					}
+				} else {
+					field.set(targetObject, result);
+				}
+				return;
+			}
+			if (clazz.isEnum()) {
+				if(field.isFinal()) {
+					throw new SerializationException("Cannot use @Field on final enum fields. Use the @ConstructorArg method instead.");
+				}
+				field.set(targetObject, deserialize(parser, clazz));
+				return;
+			}
+			if (!clazz.isPrimitive()) {
+				if (clazz.equals(String.class)) {
+					if(field.isFinal()) {
+						throw new SerializationException("Cannot use @Field on final String fields. Use the @ConstructorArg method instead.");
+					}
+					field.set(targetObject, deserialize(parser, clazz));
+					return;
+				}
+				DeserializedMap deserializedMap = DeserializedMap.getImplementation(field, clazz, targetObject);
+				if(deserializedMap != null) {
+					Class<?> keyClass = deserializedMap.getKeyClass();
+					Class<?> valueClass = deserializedMap.getValueClass();
+
+					parser.expect(JsonPullParser.Token.BEGIN_OBJECT);
+					while (parser.next() == JsonPullParser.Token.NAME) {
+						Object key = parseMapKey(parser.getValue(), keyClass);
+						deserializedMap.put(key, deserialize(parser, valueClass));
+					}
+					return;
+				}
+				DeserializedCollection deserializedCollection = DeserializedCollection.getImplementation(field, clazz, targetObject);
+				if(deserializedCollection != null) {
+					Class<?> valueClass = deserializedCollection.getValueClass();
+
+					parser.expect(JsonPullParser.Token.BEGIN_ARRAY);
+					while (parser.peek() != JsonPullParser.Token.END_ARRAY) {
+						deserializedCollection.add(deserialize(parser, valueClass));
+					}
+					parser.next();
+					return;
+				}
+				if(field.isFinal()) {
+					throw new SerializationException("Cannot use @Field on final " + clazz.getName() +" fields.");
+				}
+				field.set(targetObject, deserialize(parser, clazz));
+				return;
+			}
+			if(field.isFinal()) {
+				throw new SerializationException("Cannot use @Field on final " + clazz.getName() +" fields. Use the @ConstructorArg method instead.");
+			}
+			field.set(targetObject, deserialize(parser, clazz));
+		} catch (SerializationException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SerializationException(e);
+		}
+	}
+
 	private <T> void setField(T targetObject, Field field, JsonValue value) throws SerializationException {
 		try {
 			Class<?> clazz = field.getType();
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.serialization;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mini2Dx.core.serialization.annotation.ConstructorArg;
+import org.mini2Dx.core.serialization.annotation.PostDeserialize;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.reflect.Annotation;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+
+/**
+ * The reflection data required to serialize/deserialize a class, resolved once
+ * per class so that annotation lookups and
+ * {@link ClassReflection#getDeclaredFields(Class)} calls are not repeated per
+ * object.
+ */
+final class SerializationPlan {
+	private static final ConcurrentMap<Class<?>, SerializationPlan> CACHE = new ConcurrentHashMap<Class<?>, SerializationPlan>();
+
+	/**
+	 * Fields annotated with
+	 * {@link org.mini2Dx.core.serialization.annotation.Field} in the order they
+	 * are read, from the concrete class up to its superclasses
+	 */
+	final Entry[] fields;
+	/**
+	 * Annotated fields and {@link ConstructorArg} getter methods in the order
+	 * they are written
+	 */
+	final Entry[] writeEntries;
+	/**
+	 * Methods annotated with {@link PostDeserialize}
+	 */
+	final Method[] postDeserializeMethods;
+	/**
+	 * The public constructors of the class
+	 */
+	final Constructor<?>[] constructors;
+	/**
+	 * The {@link ConstructorArg} of each parameter of each constructor or null
+	 * if a parameter is not annotated
+	 */
+	final ConstructorArg[][] constructorArgs;
+	/**
+	 * The index in {@link #fields} of each field name
+	 */
+	final ObjectIntMap<String> fieldIndices;
+	/**
+	 * True if instances can be created before any field values are read, i.e.
+	 * the class is concrete, has a no-arg constructor and does not use
+	 * {@link ConstructorArg}
+	 */
+	final boolean streamable;
+
+	/**
+	 * Returns the {@link SerializationPlan} for a class, resolving it on first
+	 * use. Plans are shared by all {@link JsonSerializer} and
+	 * {@link BinarySerializer} instances.
+	 * 
+	 * @param clazz
+	 *            The class to be serialized/deserialized
+	 * @return The cached {@link SerializationPlan}
+	 */
+	static SerializationPlan get(Class<?> clazz) {
+		SerializationPlan result = CACHE.get(clazz);
+		if (result == null) {
+			result = new SerializationPlan(clazz);
+			SerializationPlan existing = CACHE.putIfAbsent(clazz, result);
+			if (existing != null) {
+				result = existing;
+			}
+		}
+		return result;
+	}
+
+	private SerializationPlan(Class<?> clazz) {
+		final Array<Entry> fields = new Array<Entry>(Entry.class);
+		final Array<Entry> writeEntries = new Array<Entry>(Entry.class);
+		final Array<Method> postDeserializeMethods = new Array<Method>(Method.class);
+
+		Class<?> currentClass = clazz;
+		while (currentClass != null && !currentClass.equals(Object.class)) {
+			for (Field field : ClassReflection.getDeclaredFields(currentClass)) {
+				Annotation annotation = field
+						.getDeclaredAnnotation(org.mini2Dx.core.serialization.annotation.Field.class);
+				if (annotation == null) {
+					continue;
+				}
+				field.setAccessible(true);
+				org.mini2Dx.core.serialization.annotation.Field fieldAnnotation = annotation
+						.getAnnotation(org.mini2Dx.core.serialization.annotation.Field.class);
+
+				Entry entry = new Entry(currentClass, field.getName(), field, null, fieldAnnotation.optional());
+				fields.add(entry);
+				writeEntries.add(entry);
+			}
+
+			for (Method method : ClassReflection.getDeclaredMethods(currentClass)) {
+				if (method.isAnnotationPresent(PostDeserialize.class)) {
+					postDeserializeMethods.add(method);
+				}
+			}
+			addConstructorArgGetters(currentClass, writeEntries);
+			currentClass = currentClass.getSuperclass();
+		}
+
+		final Class<?>[] interfaces = clazz.getInterfaces();
+		for (int i = 0; i < interfaces.length; i++) {
+			addConstructorArgGetters(interfaces[i], writeEntries);
+		}
+
+		this.fields = fields.toArray();
+		this.writeEntries = writeEntries.toArray();
+		this.postDeserializeMethods = postDeserializeMethods.toArray();
+
+		fieldIndices = new ObjectIntMap<String>(this.fields.length);
+		for (int i = this.fields.length - 1; i >= 0; i--) {
+			fieldIndices.put(this.fields[i].name, i);
+		}
+
+		constructors = clazz.getConstructors();
+		constructorArgs = new ConstructorArg[constructors.length][];
+		boolean hasNoArgConstructor = false;
+		boolean hasConstructorArgs = false;
+		for (int i = 0; i < constructors.length; i++) {
+			java.lang.annotation.Annotation[][] parameterAnnotations = constructors[i].getParameterAnnotations();
+			constructorArgs[i] = new ConstructorArg[parameterAnnotations.length];
+			hasNoArgConstructor |= parameterAnnotations.length == 0;
+
+			for (int j = 0; j < parameterAnnotations.length; j++) {
+				for (int k = 0; k < parameterAnnotations[j].length; k++) {
+					if (parameterAnnotations[j][k] instanceof ConstructorArg) {
+						constructorArgs[i][j] = (ConstructorArg) parameterAnnotations[j][k];
+						hasConstructorArgs = true;
+						break;
+					}
+				}
+			}
+		}
+		streamable = !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers()) && hasNoArgConstructor
+				&& !hasConstructorArgs;
+	}
+
+	private static void addConstructorArgGetters(Class<?> clazz, Array<Entry> result) {
+		for (Method method : ClassReflection.getDeclaredMethods(clazz)) {
+			if (method.getParameterTypes().length > 0) {
+				continue;
+			}
+			Annotation annotation = method.getDeclaredAnnotation(ConstructorArg.class);
+			if (annotation == null) {
+				continue;
+			}
+			ConstructorArg constructorArg = annotation.getAnnotation(ConstructorArg.class);
+			result.add(new Entry(clazz, constructorArg.name(), null, method, true));
+		}
+	}
+
+	/**
+	 * A serialized value, backed by either a {@link Field} or a
+	 * {@link ConstructorArg} getter {@link Method}
+	 */
+	static final class Entry {
+		final Class<?> declaringClass;
+		final String name;
+		final Field field;
+		final Method getter;
+		final boolean optional;
+
+		Entry(Class<?> declaringClass, String name, Field field, Method getter, boolean optional) {
+			this.declaringClass = declaringClass;
+			this.name = name;
+			this.field = field;
+			this.getter = getter;
+			this.optional = optional;
+		}
+	}
+}
@@ -24,6 +24,7 @@ import org.mini2Dx.core.graphics.Graphics;
  * <li>Average update durations</li>
  * <li>Frames per second</li>
  * <li>Current memory usage</li>
+ * <li>Average time spent waiting on pipelined updates (if enabled)</li>
  * </ul>
  */
 public class PerformanceTracker {
@@ -31,15 +32,18 @@ public class PerformanceTracker {
 	private static final String UPDATE_PREFIX = "Updates / second:: ";
 	private static final String FRAMES_PREFIX = "Frames / second:: ";
 	private static final String MEMORY_PREFIX = "Memory usage:: ";
+	private static final String UPDATE_WAIT_PREFIX = "Avg update wait:: ";
 	private static final String MS = "ms";
 
 	private final RollingAverage averageUpdateDuration = new RollingAverage(GameContainer.TARGET_FPS);
-	private final String[] messages = new String[4];
+	private final RollingAverage averageUpdateWait = new RollingAverage(GameContainer.TARGET_FPS);
+	private final String[] messages = new String[5];
 	private long lastMessagesUpdate = 0L;
 
 	private long updateSecondStart;
 	private int updates;
-	private int updatesPerSecond;
+	private volatile int updatesPerSecond;
+	private volatile boolean pipelinedUpdates;
 
 	private long updateStart;
 
@@ -82,6 +86,18 @@ public class PerformanceTracker {
 		averageUpdateDuration.mark(updateDuration);
 	}
 
+	/**
+	 * Internal usage only: marks the time the main thread spent waiting on
+	 * pipelined updates to complete
+	 * 
+	 * @param duration
+	 *            The wait duration in nanoseconds
+	 */
+	public void markUpdateWait(long duration) {
+		pipelinedUpdates = true;
+		averageUpdateWait.mark(duration);
+	}
+
 	/**
 	 * Internal usage only: marks a new frame
 	 */
@@ -123,6 +139,26 @@ public class PerformanceTracker {
 		return averageUpdateDuration.getAverage();
 	}
 
+	/**
+	 * Returns the average time the main thread spent waiting on pipelined
+	 * updates each frame
+	 * 
+	 * @return The average duration in nanoseconds, 0 if updates are not
+	 *         pipelined
+	 */
+	public double getAverageUpdateWait() {
+		return averageUpdateWait.getAverage();
+	}
+
+	/**
+	 * Returns if update() is running on a separate thread to render()
+	 * 
+	 * @return True if updates are pipelined
+	 */
+	public boolean isPipelinedUpdates() {
+		return pipelinedUpdates;
+	}
+
 	/**
 	 * Returns the total memory allocated to the JVM
 	 * 
@@ -184,7 +220,7 @@ public class PerformanceTracker {
 		updateMessages();
 		float lineHeight = getLineHeight(g);
 
-		for (int i = 0; i < messages.length; i++) {
+		for (int i = 0; i < getTotalMessages(); i++) {
 			if (targetWidth < 0f) {
 				g.drawString(messages[i], x, y + (lineHeight * i) + (1f * i));
 			} else {
@@ -221,7 +257,7 @@ public class PerformanceTracker {
 	 *            The {@link Graphics} context
 	 */
 	public void drawInBottomLeft(Graphics g) {
-		float textHeight = (getLineHeight(g) * messages.length) + messages.length;
+		float textHeight = (getLineHeight(g) * getTotalMessages()) + getTotalMessages();
 		draw(g, 0f, g.getViewportHeight() - textHeight - 1f, -1f, Align.left);
 	}
 
@@ -233,7 +269,7 @@ public class PerformanceTracker {
 	 */
 	public void drawInBottomRight(Graphics g) {
 		float textWidth = getLineWidth(g);
-		float textHeight = (getLineHeight(g) * messages.length) + messages.length;
+		float textHeight = (getLineHeight(g) * getTotalMessages()) + getTotalMessages();
 		draw(g, g.getViewportWidth() - textWidth - 1f, g.getViewportHeight() - textHeight - 1f, textWidth, Align.right);
 	}
 
@@ -243,7 +279,7 @@ public class PerformanceTracker {
 		}
 
 		float lineWidth = 0f;
-		for (int i = 0; i < messages.length; i++) {
+		for (int i = 0; i < getTotalMessages(); i++) {
 			glyphLayout.setText(messages[i]);
 			if (glyphLayout.getWidth() > lineWidth) {
 				lineWidth = glyphLayout.getWidth();
@@ -258,7 +294,7 @@ public class PerformanceTracker {
 		}
 
 		float lineHeight = 0f;
-		for (int i = 0; i < messages.length; i++) {
+		for (int i = 0; i < getTotalMessages(); i++) {
 			glyphLayout.setText(messages[i]);
 			if (glyphLayout.getHeight() > lineHeight) {
 				lineHeight = glyphLayout.getHeight();
@@ -267,6 +303,10 @@ public class PerformanceTracker {
 		return lineHeight;
 	}
 
+	private int getTotalMessages() {
+		return pipelinedUpdates ? messages.length : messages.length - 1;
+	}
+
 	private String getHumanReadableByteValue(long bytes) {
 		int unit = 1024;
 		if (bytes < unit)
@@ -289,5 +329,6 @@ public class PerformanceTracker {
 		messages[2] = FRAMES_PREFIX + framesPerSecond;
 		messages[3] = MEMORY_PREFIX + getHumanReadableByteValue(getUsedMemory()) + "/"
 				+ getHumanReadableByteValue(getTotalMemory());
+		messages[4] = UPDATE_WAIT_PREFIX + String.format("%.3f", (averageUpdateWait.getAverage() / 1000000)) + MS;
 	}
 }
@@ -19,6 +19,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mini2Dx.core.engine.geom.CollisionPoint;
 import org.mini2Dx.core.geom.LineSegment;
+import org.mini2Dx.core.geom.Point;
 import org.mini2Dx.core.geom.Rectangle;
 
 import java.util.Queue;
@@ -254,6 +255,40 @@ public class ConcurrentPointQuadTreeTest implements Runnable {
 		Assert.assertEquals(true, collisionPoints.contains(point4, false));
 	}
 
+	@Test(timeout = 10000L)
+	public void testVisitorExceptionReleasesLock() {
+		rootQuad.add(point1);
+		rootQuad.add(point2);
+		rootQuad.add(point3);
+		rootQuad.add(point4);
+
+		final QuadTreeVisitor<CollisionPoint> visitor = new QuadTreeVisitor<CollisionPoint>() {
+			@Override
+			public boolean visit(CollisionPoint element) {
+				throw new IllegalStateException();
+			}
+		};
+		try {
+			rootQuad.forEachWithinArea(new Rectangle(0, 0, 128, 128), visitor);
+			Assert.fail("Expected visitor exception");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			rootQuad.forEachContainingPoint(new Point(0, 0), visitor);
+			Assert.fail("Expected visitor exception");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			rootQuad.forEachIntersectingLineSegment(new LineSegment(0, 0, 128, 128), visitor);
+			Assert.fail("Expected visitor exception");
+		} catch (IllegalStateException e) {
+		}
+
+		CollisionPoint point5 = new CollisionPoint(48, 48);
+		rootQuad.add(point5);
+		Assert.assertEquals(true, rootQuad.getElements().contains(point5, false));
+	}
+
 	@Test
 	public void testMergingConcurrency() throws TimeoutException {
 		rootQuad = new ConcurrentPointQuadTree<CollisionPoint>(CONCURRENCY_TEST_WATERMARK * 2,
@@ -317,4 +352,19 @@ public class ConcurrentPointQuadTreeTest implements Runnable {
 		threadCollisions.offer(nextCollision);
 		rootQuad.add(nextCollision);
 	}
+
+	@Test
+	public void testGetNearestElements() {
+		rootQuad.add(point1);
+		rootQuad.add(point2);
+		rootQuad.add(point3);
+		rootQuad.add(point4);
+
+		Assert.assertEquals(point1, rootQuad.getNearestElement(1f, 1f));
+		Assert.assertEquals(null, rootQuad.getNearestElement(TREE_WIDTH / 2f, TREE_HEIGHT / 2f, 1f));
+
+		Array<CollisionPoint> result = rootQuad.getNearestElements(TREE_WIDTH, TREE_HEIGHT, 2);
+		Assert.assertEquals(2, result.size);
+		Assert.assertEquals(point4, result.get(0));
+	}
 }
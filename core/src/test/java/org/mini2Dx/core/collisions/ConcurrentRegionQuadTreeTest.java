@@ -338,6 +338,40 @@ public class ConcurrentRegionQuadTreeTest implements Runnable {
 		Assert.assertEquals(true, collisionBoxs.contains(box4, false));
 	}
 
+	@Test(timeout = 10000L)
+	public void testVisitorExceptionReleasesLock() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.add(box3);
+		rootQuad.add(box4);
+
+		final QuadTreeVisitor<CollisionBox> visitor = new QuadTreeVisitor<CollisionBox>() {
+			@Override
+			public boolean visit(CollisionBox element) {
+				throw new IllegalStateException();
+			}
+		};
+		try {
+			rootQuad.forEachWithinArea(new Rectangle(0, 0, 128, 128), visitor);
+			Assert.fail("Expected visitor exception");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			rootQuad.forEachContainingPoint(new Point(16, 16), visitor);
+			Assert.fail("Expected visitor exception");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			rootQuad.forEachIntersectingLineSegment(new LineSegment(0, 0, 128, 128), visitor);
+			Assert.fail("Expected visitor exception");
+		} catch (IllegalStateException e) {
+		}
+
+		CollisionBox box5 = new CollisionBox(48, 48, 32, 32);
+		rootQuad.add(box5);
+		Assert.assertEquals(true, rootQuad.getElements().contains(box5, false));
+	}
+
 	@Test
 	public void testMergingConcurrency() throws TimeoutException {
 		rootQuad = new ConcurrentRegionQuadTree<CollisionBox>(CONCURRENCY_TEST_ELEMENT_LIMIT,
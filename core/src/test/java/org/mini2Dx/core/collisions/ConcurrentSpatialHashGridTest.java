@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.collisions;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import junit.framework.Assert;
+import net.jodah.concurrentunit.Waiter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.core.engine.geom.CollisionBox;
+import org.mini2Dx.core.geom.Rectangle;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link ConcurrentSpatialHashGrid}
+ */
+public class ConcurrentSpatialHashGridTest implements Runnable {
+	private static final long CONCURRENCY_TEST_TIMEOUT = 20000L;
+	private static final int CONCURRENCY_TEST_ITERATIONS = 2000;
+	private static final float CONCURRENCY_GRID_WIDTH = 4096f;
+	private static final float CONCURRENCY_GRID_HEIGHT = 4096f;
+	private static final float CONCURRENCY_ELEMENT_SIZE = 16f;
+
+	private ConcurrentSpatialHashGrid<CollisionBox> grid;
+
+	private final Waiter waiter = new Waiter();
+	private final AtomicInteger totalThreads = new AtomicInteger();
+	private final AtomicBoolean concurrencyExceptionOccurred = new AtomicBoolean(false);
+	private final AtomicInteger collisionsFound = new AtomicInteger(0);
+	private final AtomicInteger collisionsMoved = new AtomicInteger(0);
+	private final Queue<CollisionBox> threadCollisions = new ConcurrentLinkedQueue<CollisionBox>();
+
+	@Before
+	public void setup() {
+		grid = new ConcurrentSpatialHashGrid<CollisionBox>(CONCURRENCY_ELEMENT_SIZE * 2f, 0, 0,
+				CONCURRENCY_GRID_WIDTH, CONCURRENCY_GRID_HEIGHT);
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		CollisionBox box1 = new CollisionBox(0, 0, 32, 32);
+		CollisionBox box2 = new CollisionBox(96, 0, 32, 32);
+
+		Assert.assertEquals(true, grid.add(box1));
+		Assert.assertEquals(true, grid.add(box2));
+		Assert.assertEquals(2, grid.getTotalElements());
+		Assert.assertEquals(true, grid.remove(box1));
+		Assert.assertEquals(1, grid.getElements().size);
+		grid.clear();
+		Assert.assertEquals(0, grid.getTotalElements());
+	}
+
+	@Test
+	public void testConcurrency() throws TimeoutException {
+		for (int i = 0; i < 5000; i++) {
+			CollisionBox collisionBox = new CollisionBox(
+					MathUtils.random(0f, CONCURRENCY_GRID_WIDTH - CONCURRENCY_ELEMENT_SIZE),
+					MathUtils.random(0f, CONCURRENCY_GRID_HEIGHT - CONCURRENCY_ELEMENT_SIZE), CONCURRENCY_ELEMENT_SIZE,
+					CONCURRENCY_ELEMENT_SIZE);
+			threadCollisions.add(collisionBox);
+			grid.add(collisionBox);
+		}
+
+		int totalThreads = Runtime.getRuntime().availableProcessors();
+		while (totalThreads % 3 != 0) {
+			totalThreads++;
+		}
+		for (int i = 0; i < totalThreads; i++) {
+			new Thread(this).start();
+		}
+		waiter.await(CONCURRENCY_TEST_TIMEOUT, totalThreads);
+
+		Assert.assertEquals(true, collisionsFound.get() > 0);
+		Assert.assertEquals(true, collisionsMoved.get() > 0);
+		Assert.assertEquals(false, concurrencyExceptionOccurred.get());
+	}
+
+	@Override
+	public void run() {
+		final int threadType = totalThreads.incrementAndGet() % 3;
+		Array<CollisionBox> collisions = new Array<CollisionBox>();
+
+		for (int i = 0; i < CONCURRENCY_TEST_ITERATIONS; i++) {
+			try {
+				switch (threadType) {
+				case 0:
+					grid.getElementsWithinArea(collisions,
+							new Rectangle(MathUtils.random(CONCURRENCY_GRID_WIDTH / 2f),
+									MathUtils.random(CONCURRENCY_GRID_HEIGHT / 2f), CONCURRENCY_GRID_WIDTH / 4f,
+									CONCURRENCY_GRID_HEIGHT / 4f));
+					collisionsFound.addAndGet(collisions.size);
+					collisions.clear();
+					break;
+				case 1:
+					CollisionBox removed = threadCollisions.poll();
+					if (removed != null) {
+						grid.remove(removed);
+						grid.add(removed);
+						threadCollisions.offer(removed);
+					}
+					break;
+				default:
+					CollisionBox moved = threadCollisions.poll();
+					if (moved != null) {
+						moved.set(MathUtils.random(0f, CONCURRENCY_GRID_WIDTH - CONCURRENCY_ELEMENT_SIZE),
+								MathUtils.random(0f, CONCURRENCY_GRID_HEIGHT - CONCURRENCY_ELEMENT_SIZE));
+						threadCollisions.offer(moved);
+						collisionsMoved.incrementAndGet();
+					}
+					break;
+				}
+			} catch (Exception e) {
+				e.printStackTrace();
+				concurrencyExceptionOccurred.set(true);
+			}
+		}
+		waiter.resume();
+	}
+}
@@ -17,6 +17,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mini2Dx.core.engine.geom.CollisionPoint;
 import org.mini2Dx.core.geom.LineSegment;
+import org.mini2Dx.core.geom.Point;
 import org.mini2Dx.core.geom.Rectangle;
 
 import java.util.Random;
@@ -130,6 +131,35 @@ public class PointQuadTreeTest {
 		Assert.assertEquals(true, rootQuad.getElements().contains(point1, false));
 	}
 	
+	@Test
+	public void testBatchedRelocation() {
+		PointQuadTree<CollisionPoint> batchedQuad = new PointQuadTree<CollisionPoint>(2, 0, 0, 128, 128);
+		batchedQuad.add(point1);
+		batchedQuad.add(point2);
+		batchedQuad.add(point3);
+		batchedQuad.add(point4);
+		Assert.assertEquals(4, batchedQuad.getTotalQuads());
+
+		batchedQuad.setBatchedRelocation(true);
+		point1.set(32f, 32f);
+		point1.set(100f, 100f);
+		Assert.assertEquals(0, batchedQuad.getElementsContainingPoint(new Point(100, 100)).size);
+
+		batchedQuad.flushRelocations();
+		Assert.assertEquals(4, batchedQuad.getTotalElements());
+		Assert.assertEquals(true, batchedQuad.getElementsContainingPoint(new Point(100, 100)).contains(point1, true));
+
+		point2.set(0f, 127f);
+		Assert.assertEquals(true, batchedQuad.remove(point2));
+		Assert.assertEquals(3, batchedQuad.getTotalElements());
+
+		point1.set(10f, 10f);
+		batchedQuad.flushRelocations();
+		Assert.assertEquals(3, batchedQuad.getTotalElements());
+		Assert.assertEquals(0, batchedQuad.getElementsContainingPoint(new Point(100, 100)).size);
+		Assert.assertEquals(true, batchedQuad.getElementsContainingPoint(new Point(10, 10)).contains(point1, true));
+	}
+
 	@Test
 	public void testGetTotalElements() {
 		rootQuad.add(point1);
@@ -198,4 +228,88 @@ public class PointQuadTreeTest {
 		Assert.assertEquals(false, CollisionPoints.contains(point3, false));
 		Assert.assertEquals(true, CollisionPoints.contains(point4, false));
 	}
+
+	@Test
+	public void testForEachWithinArea() {
+		rootQuad.add(point1);
+		rootQuad.add(point2);
+		rootQuad.add(point3);
+		rootQuad.add(point4);
+
+		final Array<CollisionPoint> visited = new Array<CollisionPoint>();
+		Assert.assertEquals(true, rootQuad.forEachWithinArea(new Rectangle(0, 0, 64, 64), new QuadTreeVisitor<CollisionPoint>() {
+			@Override
+			public boolean visit(CollisionPoint element) {
+				visited.add(element);
+				return true;
+			}
+		}));
+		Assert.assertEquals(1, visited.size);
+		Assert.assertEquals(point1, visited.get(0));
+
+		visited.clear();
+		Assert.assertEquals(false, rootQuad.forEachWithinArea(new Rectangle(0, 0, 128, 128), new QuadTreeVisitor<CollisionPoint>() {
+			@Override
+			public boolean visit(CollisionPoint element) {
+				visited.add(element);
+				return false;
+			}
+		}));
+		Assert.assertEquals(1, visited.size);
+	}
+
+	@Test
+	public void testGetNearestElements() {
+		PointQuadTree<CollisionPoint> nearestQuad = new PointQuadTree<CollisionPoint>(4, 0, 0, 128, 128);
+		Assert.assertEquals(null, nearestQuad.getNearestElement(10f, 10f));
+
+		Random random = new Random();
+		Array<CollisionPoint> collisionPoints = new Array<CollisionPoint>();
+		for (int i = 0; i < 200; i++) {
+			CollisionPoint collisionPoint = new CollisionPoint(random.nextInt(128), random.nextInt(128));
+			collisionPoints.add(collisionPoint);
+			nearestQuad.add(collisionPoint);
+		}
+
+		for (int i = 0; i < 20; i++) {
+			final float x = random.nextInt(128);
+			final float y = random.nextInt(128);
+
+			Array<CollisionPoint> result = nearestQuad.getNearestElements(x, y, 5);
+			Assert.assertEquals(5, result.size);
+			float previousDistance = 0f;
+			for (int j = 0; j < result.size; j++) {
+				float distance = result.get(j).getDistanceTo(x, y);
+				Assert.assertEquals(true, distance >= previousDistance);
+				previousDistance = distance;
+			}
+			int closerElements = 0;
+			for (CollisionPoint collisionPoint : collisionPoints) {
+				if (collisionPoint.getDistanceTo(x, y) < previousDistance) {
+					closerElements++;
+				}
+			}
+			Assert.assertEquals(true, closerElements <= 4);
+			Assert.assertEquals(result.get(0).getDistanceTo(x, y), nearestQuad.getNearestElement(x, y).getDistanceTo(x, y));
+		}
+	}
+
+	@Test
+	public void testGetNearestElementsWithMaxDistance() {
+		PointQuadTree<CollisionPoint> nearestQuad = new PointQuadTree<CollisionPoint>(2, 0, 0, 128, 128);
+		nearestQuad.add(point1);
+		nearestQuad.add(point2);
+		nearestQuad.add(point3);
+		nearestQuad.add(point4);
+
+		Assert.assertEquals(point1, nearestQuad.getNearestElement(10f, 10f));
+		Assert.assertEquals(point1, nearestQuad.getNearestElement(10f, 10f, 20f));
+		Assert.assertEquals(null, nearestQuad.getNearestElement(64f, 64f, 20f));
+
+		Array<CollisionPoint> result = nearestQuad.getNearestElements(0f, 10f, 4, 128f);
+		Assert.assertEquals(3, result.size);
+		Assert.assertEquals(point1, result.get(0));
+		Assert.assertEquals(point3, result.get(1));
+		Assert.assertEquals(point2, result.get(2));
+	}
 }
@@ -18,6 +18,7 @@ import org.junit.Test;
 import org.mini2Dx.core.engine.geom.CollisionBox;
 import org.mini2Dx.core.geom.LineSegment;
 import org.mini2Dx.core.geom.Point;
+import org.mini2Dx.core.geom.Rectangle;
 
 import java.util.Random;
 
@@ -151,6 +152,34 @@ public class RegionQuadTreeTest {
 		Assert.assertEquals(true, rootQuad.getElements().contains(box1, false));
 	}
 	
+	@Test
+	public void testBatchedRelocation() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.add(box3);
+		rootQuad.add(box4);
+		Assert.assertEquals(4, rootQuad.getTotalQuads());
+
+		rootQuad.setBatchedRelocation(true);
+		Assert.assertEquals(true, rootQuad.isBatchedRelocation());
+		box1.set(40f, 40f);
+		box1.set(70f, 70f);
+		Assert.assertEquals(0, rootQuad.getElementsContainingPoint(new Point(80, 80)).size);
+
+		rootQuad.flushRelocations();
+		Assert.assertEquals(4, rootQuad.getTotalElements());
+		Assert.assertEquals(true, rootQuad.getElementsContainingPoint(new Point(80, 80)).contains(box1, true));
+		Assert.assertEquals(0, rootQuad.getElementsContainingPoint(new Point(10, 10)).size);
+
+		box2.set(1f, 1f);
+		Assert.assertEquals(true, rootQuad.remove(box2));
+		Assert.assertEquals(3, rootQuad.getTotalElements());
+
+		box3.set(95f, 1f);
+		rootQuad.setBatchedRelocation(false);
+		Assert.assertEquals(true, rootQuad.getElementsContainingPoint(new Point(100, 10)).contains(box3, true));
+	}
+
 	@Test
 	public void testGetTotalElements() {
 		rootQuad.add(box1);
@@ -265,4 +294,58 @@ public class RegionQuadTreeTest {
 		Assert.assertEquals(1, collisionBoxs.size);
 		Assert.assertEquals(true, collisionBoxs.contains(box4, false));
 	}
+
+	@Test
+	public void testForEachWithinArea() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.add(box3);
+		rootQuad.add(box4);
+		rootQuad.add(new CollisionBox(24, 24, 2, 2));
+
+		final Array<CollisionBox> visited = new Array<CollisionBox>();
+		Assert.assertEquals(true, rootQuad.forEachWithinArea(new Rectangle(0, 0, 64, 64), new QuadTreeVisitor<CollisionBox>() {
+			@Override
+			public boolean visit(CollisionBox element) {
+				visited.add(element);
+				return true;
+			}
+		}));
+		Assert.assertEquals(2, visited.size);
+		Assert.assertEquals(true, visited.contains(box1, true));
+
+		visited.clear();
+		Assert.assertEquals(false, rootQuad.forEachWithinArea(new Rectangle(0, 0, 128, 128), new QuadTreeVisitor<CollisionBox>() {
+			@Override
+			public boolean visit(CollisionBox element) {
+				visited.add(element);
+				return visited.size < 2;
+			}
+		}));
+		Assert.assertEquals(2, visited.size);
+	}
+
+	@Test
+	public void testForEachIntersectingLineSegmentAndContainingPoint() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.add(box3);
+		rootQuad.add(box4);
+
+		final Array<CollisionBox> visited = new Array<CollisionBox>();
+		QuadTreeVisitor<CollisionBox> visitor = new QuadTreeVisitor<CollisionBox>() {
+			@Override
+			public boolean visit(CollisionBox element) {
+				visited.add(element);
+				return true;
+			}
+		};
+		Assert.assertEquals(true, rootQuad.forEachIntersectingLineSegment(new LineSegment(0, 0, 128, 128), visitor));
+		Assert.assertEquals(rootQuad.getElementsIntersectingLineSegment(new LineSegment(0, 0, 128, 128)).size, visited.size);
+
+		visited.clear();
+		Assert.assertEquals(true, rootQuad.forEachContainingPoint(new Point(112, 112), visitor));
+		Assert.assertEquals(1, visited.size);
+		Assert.assertEquals(box4, visited.get(0));
+	}
 }
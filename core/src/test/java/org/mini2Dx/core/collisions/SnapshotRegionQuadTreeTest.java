@@ -0,0 +1,329 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.collisions;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import junit.framework.Assert;
+import net.jodah.concurrentunit.Waiter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.core.engine.geom.CollisionBox;
+import org.mini2Dx.core.geom.LineSegment;
+import org.mini2Dx.core.geom.Point;
+import org.mini2Dx.core.geom.Rectangle;
+
+import java.util.Random;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link SnapshotRegionQuadTree}
+ */
+public class SnapshotRegionQuadTreeTest {
+	private static final long CONCURRENCY_TEST_TIMEOUT = 20000L;
+	private static final int CONCURRENCY_TEST_TICKS = 200;
+	private static final float CONCURRENCY_TREE_WIDTH = 12800f;
+	private static final float CONCURRENCY_TREE_HEIGHT = 7680f;
+
+	private SnapshotRegionQuadTree<CollisionBox> rootQuad;
+	private CollisionBox box1, box2, box3, box4;
+
+	@Before
+	public void setup() {
+		rootQuad = new SnapshotRegionQuadTree<CollisionBox>(2, 0, 0, 128, 128);
+
+		box1 = new CollisionBox(0, 0, 32, 32);
+		box2 = new CollisionBox(96, 0, 32, 32);
+		box3 = new CollisionBox(0, 96, 32, 32);
+		box4 = new CollisionBox(96, 96, 32, 32);
+	}
+
+	@Test
+	public void testAddIsStagedUntilRebuild() {
+		Assert.assertEquals(true, rootQuad.add(box1));
+		Assert.assertEquals(0, rootQuad.getTotalElements());
+		Assert.assertEquals(true, rootQuad.isRebuildRequired());
+
+		Assert.assertEquals(true, rootQuad.rebuild());
+		Assert.assertEquals(1, rootQuad.getTotalElements());
+		Assert.assertEquals(false, rootQuad.isRebuildRequired());
+		Assert.assertEquals(false, rootQuad.rebuild());
+	}
+
+	@Test
+	public void testAddOutsideBounds() {
+		Assert.assertEquals(false, rootQuad.add(new CollisionBox(256, 256, 32, 32)));
+		Assert.assertEquals(false, rootQuad.add(null));
+	}
+
+	@Test
+	public void testAddAll() {
+		Random random = new Random();
+		Array<CollisionBox> rects = new Array<CollisionBox>();
+		for (int i = 0; i < 100; i++) {
+			rects.add(new CollisionBox(random.nextInt(96), random.nextInt(96), 32f, 32f));
+		}
+		rects.add(new CollisionBox(-4f, -4f, 32f, 32f));
+
+		rootQuad.addAll(rects);
+		rootQuad.rebuild();
+		Assert.assertEquals(rects.size, rootQuad.getTotalElements());
+		Assert.assertEquals(rects.size, rootQuad.getElements().size);
+	}
+
+	@Test
+	public void testRemove() {
+		Random random = new Random();
+		Array<CollisionBox> collisionBoxs = new Array<CollisionBox>();
+		for (int i = 0; i < 1000; i++) {
+			collisionBoxs.add(
+					new CollisionBox(random.nextInt(96), random.nextInt(96), random.nextInt(32), random.nextInt(32)));
+		}
+		rootQuad.addAll(collisionBoxs);
+		rootQuad.rebuild();
+		Assert.assertEquals(collisionBoxs.size, rootQuad.getTotalElements());
+
+		for (int i = collisionBoxs.size - 1; i >= 0; i--) {
+			rootQuad.remove(collisionBoxs.get(i));
+			rootQuad.rebuild();
+			Assert.assertEquals(i, rootQuad.getElements().size);
+		}
+	}
+
+	@Test
+	public void testRemoveAll() {
+		Random random = new Random();
+		Array<CollisionBox> rects = new Array<CollisionBox>();
+		for (int i = 0; i < 100; i++) {
+			rects.add(new CollisionBox(random.nextInt(96), random.nextInt(96), random.nextInt(32), random.nextInt(32)));
+		}
+		rootQuad.addAll(rects);
+		rootQuad.rebuild();
+		Assert.assertEquals(rects.size, rootQuad.getTotalElements());
+		rootQuad.removeAll(rects);
+		rootQuad.rebuild();
+		Assert.assertEquals(0, rootQuad.getTotalElements());
+	}
+
+	@Test
+	public void testClear() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.rebuild();
+		Assert.assertEquals(2, rootQuad.getTotalElements());
+
+		rootQuad.clear();
+		rootQuad.add(box3);
+		rootQuad.rebuild();
+		Assert.assertEquals(1, rootQuad.getTotalElements());
+		Assert.assertEquals(true, rootQuad.getElements().contains(box3, true));
+	}
+
+	@Test
+	public void testSubdivide() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.rebuild();
+		Assert.assertEquals(1, rootQuad.getTotalQuads());
+
+		rootQuad.add(box3);
+		rootQuad.rebuild();
+		Assert.assertEquals(4, rootQuad.getTotalQuads());
+
+		rootQuad.add(box4);
+		rootQuad.add(new CollisionBox(48, 48, 32, 32));
+		rootQuad.rebuild();
+		Assert.assertEquals(5, rootQuad.getTotalElements());
+		Assert.assertEquals(4, rootQuad.getTotalQuads());
+	}
+
+	@Test
+	public void testPositionChanged() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.add(box3);
+		rootQuad.add(box4);
+		rootQuad.rebuild();
+
+		Rectangle area = new Rectangle(64, 64, 64, 64);
+		Assert.assertEquals(1, rootQuad.getElementsWithinArea(area).size);
+
+		box1.set(90f, 90f);
+		Assert.assertEquals(true, rootQuad.isRebuildRequired());
+		Assert.assertEquals(1, rootQuad.getElementsWithinArea(area).size);
+
+		rootQuad.rebuild();
+		Array<CollisionBox> collisionBoxs = rootQuad.getElementsWithinArea(area);
+		Assert.assertEquals(2, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box1, true));
+		Assert.assertEquals(true, collisionBoxs.contains(box4, true));
+	}
+
+	@Test
+	public void testQueriesUseSnapshottedShapes() {
+		rootQuad.add(box1);
+		rootQuad.add(box4);
+		rootQuad.rebuild();
+
+		box4.set(0f, 32f);
+		Rectangle area = new Rectangle(64, 64, 64, 64);
+		Assert.assertEquals(true, rootQuad.getElementsWithinArea(area).contains(box4, true));
+		Assert.assertEquals(true,
+				rootQuad.getElementsContainingPoint(new Point(100f, 100f)).contains(box4, true));
+		Assert.assertEquals(0, rootQuad.getElementsContainingPoint(new Point(16f, 48f)).size);
+		Assert.assertEquals(true, rootQuad
+				.getElementsIntersectingLineSegment(new LineSegment(64f, 100f, 127f, 100f)).contains(box4, true));
+
+		rootQuad.rebuild();
+		Assert.assertEquals(0, rootQuad.getElementsWithinArea(area).size);
+		Assert.assertEquals(true,
+				rootQuad.getElementsContainingPoint(new Point(16f, 48f)).contains(box4, true));
+	}
+
+	@Test
+	public void testMovedOutsideBounds() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.rebuild();
+
+		box1.set(512f, 512f);
+		rootQuad.rebuild();
+		Assert.assertEquals(1, rootQuad.getTotalElements());
+		Assert.assertEquals(false, rootQuad.getElements().contains(box1, true));
+	}
+
+	@Test
+	public void testGetElementsWithinRegion() {
+		Random random = new Random();
+		rootQuad = new SnapshotRegionQuadTree<CollisionBox>(4, 0, 0, 1024, 1024);
+		Array<CollisionBox> collisionBoxs = new Array<CollisionBox>();
+		for (int i = 0; i < 1000; i++) {
+			collisionBoxs.add(new CollisionBox(random.nextInt(1000), random.nextInt(1000), 1 + random.nextInt(24),
+					1 + random.nextInt(24)));
+		}
+		rootQuad.addAll(collisionBoxs);
+		rootQuad.rebuild();
+
+		for (int i = 0; i < 100; i++) {
+			Rectangle area = new Rectangle(random.nextInt(900), random.nextInt(900), random.nextInt(200),
+					random.nextInt(200));
+			int expected = 0;
+			for (CollisionBox collisionBox : collisionBoxs) {
+				if (area.contains(collisionBox) || area.intersects(collisionBox)) {
+					expected++;
+				}
+			}
+			Assert.assertEquals(expected, rootQuad.getElementsWithinArea(area).size);
+		}
+	}
+
+	@Test
+	public void testGetElementsIntersectingLineSegment() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.add(box3);
+		rootQuad.add(box4);
+		rootQuad.rebuild();
+
+		Array<CollisionBox> collisionBoxs = rootQuad
+				.getElementsIntersectingLineSegment(new LineSegment(0f, 0f, 128f, 128f));
+		Assert.assertEquals(2, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box1, true));
+		Assert.assertEquals(true, collisionBoxs.contains(box4, true));
+
+		collisionBoxs = rootQuad.getElementsIntersectingLineSegment(new LineSegment(16f, 0f, 16f, 128f));
+		Assert.assertEquals(2, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box1, true));
+		Assert.assertEquals(true, collisionBoxs.contains(box3, true));
+	}
+
+	@Test
+	public void testGetElementsContainingPoint() {
+		rootQuad.add(box1);
+		rootQuad.add(box2);
+		rootQuad.add(box3);
+		rootQuad.add(box4);
+		rootQuad.rebuild();
+
+		Array<CollisionBox> collisionBoxs = rootQuad.getElementsContainingPoint(new Point(16, 16));
+		Assert.assertEquals(1, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box1, true));
+
+		collisionBoxs = rootQuad.getElementsContainingPoint(new Point(112, 112));
+		Assert.assertEquals(1, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box4, true));
+
+		collisionBoxs = rootQuad.getElementsContainingPoint(new Point(64, 64));
+		Assert.assertEquals(0, collisionBoxs.size);
+	}
+
+	@Test
+	public void testConcurrentQueriesDuringRebuild() throws TimeoutException {
+		final SnapshotRegionQuadTree<CollisionBox> snapshotQuad = new SnapshotRegionQuadTree<CollisionBox>(8, 0, 0,
+				CONCURRENCY_TREE_WIDTH, CONCURRENCY_TREE_HEIGHT);
+		final Array<CollisionBox> collisionBoxs = new Array<CollisionBox>();
+		for (int i = 0; i < 2000; i++) {
+			collisionBoxs.add(new CollisionBox(MathUtils.random(CONCURRENCY_TREE_WIDTH - 32f),
+					MathUtils.random(CONCURRENCY_TREE_HEIGHT - 32f), 32f, 32f));
+		}
+		snapshotQuad.addAll(collisionBoxs);
+		snapshotQuad.rebuild();
+
+		final Waiter waiter = new Waiter();
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final AtomicBoolean concurrencyExceptionOccurred = new AtomicBoolean(false);
+		final AtomicInteger collisionsFound = new AtomicInteger();
+
+		int totalReaders = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+		for (int i = 0; i < totalReaders; i++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Array<CollisionBox> result = new Array<CollisionBox>();
+					Rectangle area = new Rectangle();
+					while (running.get()) {
+						try {
+							area.set(MathUtils.random(CONCURRENCY_TREE_WIDTH / 2f),
+									MathUtils.random(CONCURRENCY_TREE_HEIGHT / 2f), CONCURRENCY_TREE_WIDTH / 4f,
+									CONCURRENCY_TREE_HEIGHT / 4f);
+							snapshotQuad.getElementsWithinArea(result, area);
+							collisionsFound.addAndGet(result.size);
+							result.clear();
+						} catch (Exception e) {
+							e.printStackTrace();
+							concurrencyExceptionOccurred.set(true);
+						}
+					}
+					waiter.resume();
+				}
+			}).start();
+		}
+
+		for (int tick = 0; tick < CONCURRENCY_TEST_TICKS; tick++) {
+			for (int i = 0; i < collisionBoxs.size; i++) {
+				CollisionBox collisionBox = collisionBoxs.get(i);
+				collisionBox.preUpdate();
+				collisionBox.set(MathUtils.random(CONCURRENCY_TREE_WIDTH - 32f),
+						MathUtils.random(CONCURRENCY_TREE_HEIGHT - 32f));
+			}
+			snapshotQuad.rebuild();
+			Assert.assertEquals(collisionBoxs.size, snapshotQuad.getTotalElements());
+		}
+		running.set(false);
+
+		waiter.await(CONCURRENCY_TEST_TIMEOUT, totalReaders);
+		Assert.assertEquals(true, collisionsFound.get() > 0);
+		Assert.assertEquals(false, concurrencyExceptionOccurred.get());
+	}
+}
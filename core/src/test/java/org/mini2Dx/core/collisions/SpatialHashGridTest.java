@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.collisions;
+
+import com.badlogic.gdx.utils.Array;
+import junit.framework.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.core.engine.geom.CollisionBox;
+import org.mini2Dx.core.geom.LineSegment;
+import org.mini2Dx.core.geom.Point;
+import org.mini2Dx.core.geom.Rectangle;
+
+import java.util.Random;
+
+/**
+ * Unit tests for {@link SpatialHashGrid}
+ */
+public class SpatialHashGridTest {
+	private SpatialHashGrid<CollisionBox> grid;
+	private CollisionBox box1, box2, box3, box4;
+
+	@Before
+	public void setup() {
+		grid = new SpatialHashGrid<CollisionBox>(32f, 0, 0, 128, 128);
+
+		box1 = new CollisionBox(1, 1, 16, 16);
+		box2 = new CollisionBox(95, 1, 16, 16);
+		box3 = new CollisionBox(1, 95, 16, 16);
+		box4 = new CollisionBox(24, 24, 16, 16);
+	}
+
+	@Test
+	public void testConstructor() {
+		Assert.assertEquals(4, grid.getTotalColumns());
+		Assert.assertEquals(4, grid.getTotalRows());
+		Assert.assertEquals(16, grid.getTotalQuads());
+		Assert.assertEquals(5, grid.getCellKey(1, 1));
+
+		grid = new SpatialHashGrid<CollisionBox>(30f, 20f, 0, 0, 100, 100);
+		Assert.assertEquals(4, grid.getTotalColumns());
+		Assert.assertEquals(5, grid.getTotalRows());
+	}
+
+	@Test
+	public void testAdd() {
+		Random random = new Random();
+		for (int i = 0; i < 100; i++) {
+			CollisionBox rect = new CollisionBox(random.nextInt(96), random.nextInt(96), 32f, 32f);
+			Assert.assertEquals(true, grid.add(rect));
+			Assert.assertEquals(i + 1, grid.getTotalElements());
+		}
+		Assert.assertEquals(false, grid.add(new CollisionBox(200f, 200f, 32f, 32f)));
+		Assert.assertEquals(100, grid.getTotalElements());
+	}
+
+	@Test
+	public void testAddAll() {
+		Random random = new Random();
+		Array<CollisionBox> rects = new Array<CollisionBox>();
+		for (int i = 0; i < 100; i++) {
+			rects.add(new CollisionBox(random.nextInt(96), random.nextInt(96), 32f, 32f));
+		}
+		rects.add(new CollisionBox(-4f, -4f, 32f, 32f));
+
+		grid.addAll(rects);
+		Assert.assertEquals(rects.size, grid.getTotalElements());
+	}
+
+	@Test
+	public void testRemove() {
+		Random random = new Random();
+		Array<CollisionBox> collisionBoxs = new Array<CollisionBox>();
+		for (int i = 0; i < 1000; i++) {
+			collisionBoxs.add(new CollisionBox(random.nextInt(96), random.nextInt(96), random.nextInt(32),
+					random.nextInt(32)));
+		}
+		grid.addAll(collisionBoxs);
+		Assert.assertEquals(1000, grid.getTotalElements());
+
+		for (int i = collisionBoxs.size - 1; i >= 0; i--) {
+			Assert.assertEquals(true, grid.remove(collisionBoxs.get(i)));
+			Assert.assertEquals(i, grid.getElements().size);
+		}
+		Assert.assertEquals(false, grid.remove(box1));
+	}
+
+	@Test
+	public void testRemoveAll() {
+		Random random = new Random();
+		Array<CollisionBox> rects = new Array<CollisionBox>();
+		for (int i = 0; i < 100; i++) {
+			rects.add(new CollisionBox(random.nextInt(96), random.nextInt(96), random.nextInt(32), random.nextInt(32)));
+		}
+		grid.addAll(rects);
+		Assert.assertEquals(rects.size, grid.getTotalElements());
+		grid.removeAll(rects);
+		Assert.assertEquals(0, grid.getTotalElements());
+	}
+
+	@Test
+	public void testGetElementsWithinArea() {
+		grid.add(box1);
+		grid.add(box2);
+		grid.add(box3);
+		grid.add(box4);
+
+		Array<CollisionBox> collisionBoxs = grid.getElementsWithinArea(new Rectangle(0, 0, 64, 64));
+		Assert.assertEquals(2, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box1, true));
+		Assert.assertEquals(true, collisionBoxs.contains(box4, true));
+
+		collisionBoxs = grid.getElementsWithinArea(new Rectangle(0, 0, 128, 128));
+		Assert.assertEquals(4, collisionBoxs.size);
+
+		collisionBoxs = grid.getElementsWithinArea(new Rectangle(200, 200, 16, 16));
+		Assert.assertEquals(0, collisionBoxs.size);
+	}
+
+	@Test
+	public void testGetElementsIntersectingLineSegment() {
+		grid.add(box1);
+		grid.add(box2);
+		grid.add(box3);
+		grid.add(box4);
+
+		Array<CollisionBox> collisionBoxs = grid.getElementsIntersectingLineSegment(new LineSegment(0, 0, 128, 128));
+		Assert.assertEquals(2, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box1, true));
+		Assert.assertEquals(true, collisionBoxs.contains(box4, true));
+
+		collisionBoxs = grid.getElementsIntersectingLineSegment(new LineSegment(100, 0, 100, 128));
+		Assert.assertEquals(1, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box2, true));
+	}
+
+	@Test
+	public void testGetElementsContainingPoint() {
+		grid.add(box1);
+		grid.add(box2);
+		grid.add(box3);
+		grid.add(box4);
+
+		Array<CollisionBox> collisionBoxs = grid.getElementsContainingPoint(new Point(30, 30));
+		Assert.assertEquals(1, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box4, true));
+
+		collisionBoxs = grid.getElementsContainingPoint(new Point(10, 100));
+		Assert.assertEquals(1, collisionBoxs.size);
+		Assert.assertEquals(true, collisionBoxs.contains(box3, true));
+
+		collisionBoxs = grid.getElementsContainingPoint(new Point(64, 64));
+		Assert.assertEquals(0, collisionBoxs.size);
+	}
+
+	@Test
+	public void testPositionChanged() {
+		grid.add(box1);
+		Assert.assertEquals(0, grid.getElementsContainingPoint(new Point(100, 100)).size);
+
+		box1.set(90f, 90f);
+		Assert.assertEquals(true, grid.getElementsContainingPoint(new Point(100, 100)).contains(box1, true));
+		Assert.assertEquals(0, grid.getElementsContainingPoint(new Point(10, 10)).size);
+
+		box1.setSize(36f, 36f);
+		Assert.assertEquals(true, grid.getElementsContainingPoint(new Point(125, 125)).contains(box1, true));
+
+		box1.set(300f, 300f);
+		Assert.assertEquals(0, grid.getTotalElements());
+	}
+
+	@Test
+	public void testForEachWithinArea() {
+		grid.add(box1);
+		grid.add(box2);
+		grid.add(box3);
+		grid.add(box4);
+
+		final Array<CollisionBox> visited = new Array<CollisionBox>();
+		Assert.assertEquals(true, grid.forEachWithinArea(new Rectangle(0, 0, 64, 64), new QuadTreeVisitor<CollisionBox>() {
+			@Override
+			public boolean visit(CollisionBox element) {
+				visited.add(element);
+				return true;
+			}
+		}));
+		Assert.assertEquals(2, visited.size);
+
+		visited.clear();
+		Assert.assertEquals(false, grid.forEachWithinArea(new Rectangle(0, 0, 128, 128), new QuadTreeVisitor<CollisionBox>() {
+			@Override
+			public boolean visit(CollisionBox element) {
+				visited.add(element);
+				return false;
+			}
+		}));
+		Assert.assertEquals(1, visited.size);
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.engine.geom;
+
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CollisionShapeRegistry}
+ */
+public class CollisionShapeRegistryTest {
+	private CollisionShapeRegistry registry;
+	private ForkJoinPool pool;
+
+	@Before
+	public void setUp() {
+		registry = new CollisionShapeRegistry();
+		pool = new ForkJoinPool(2);
+	}
+
+	@After
+	public void teardown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testRegister() {
+		CollisionBox box = new CollisionBox(0f, 0f, 10f, 10f);
+		CollisionCircle circle = new CollisionCircle(5f, 5f, 5f);
+		CollisionPoint point = new CollisionPoint(1f, 1f);
+		CollisionWorld world = new CollisionWorld();
+		world.createBox(0f, 0f, 1f, 1f);
+
+		registry.register(box);
+		registry.register(circle);
+		registry.register(point);
+		registry.register(world);
+		Assert.assertEquals(4, registry.getTotalObjects());
+
+		world.createPoint(2f, 2f);
+		Assert.assertEquals(5, registry.getTotalObjects());
+
+		Assert.assertEquals(true, registry.unregister(circle));
+		Assert.assertEquals(false, registry.unregister(circle));
+		Assert.assertEquals(4, registry.getTotalObjects());
+
+		registry.clear();
+		Assert.assertEquals(0, registry.getTotalObjects());
+	}
+
+	@Test
+	public void testPreUpdateAndInterpolate() {
+		CollisionBox box = new CollisionBox(0f, 0f, 10f, 10f);
+		CollisionPoint point = new CollisionPoint(0f, 0f);
+		registry.register(box);
+		registry.register(point);
+
+		registry.preUpdate();
+		box.set(20f, 20f);
+		point.set(20f, 20f);
+		registry.interpolate(null, 0.5f);
+
+		Assert.assertEquals(10, box.getRenderX());
+		Assert.assertEquals(10, box.getRenderY());
+		Assert.assertEquals(10, point.getRenderX());
+		Assert.assertEquals(10, point.getRenderY());
+	}
+
+	@Test
+	public void testParallelPreUpdateAndInterpolate() {
+		registry.setPool(pool);
+		registry.setParallelThreshold(1);
+
+		CollisionBox[] boxes = new CollisionBox[1000];
+		for (int i = 0; i < boxes.length; i++) {
+			boxes[i] = new CollisionBox((float) i, 0f, 1f, 1f);
+			registry.register(boxes[i]);
+		}
+		CollisionWorld world = new CollisionWorld();
+		WorldCollisionBox worldBox = world.createBox(0f, 0f, 1f, 1f);
+		registry.register(world);
+
+		registry.preUpdate();
+		for (int i = 0; i < boxes.length; i++) {
+			boxes[i].set(i, 100f);
+		}
+		worldBox.set(0f, 100f);
+		registry.interpolate(null, 0.5f);
+
+		for (int i = 0; i < boxes.length; i++) {
+			Assert.assertEquals(i, boxes[i].getRenderX());
+			Assert.assertEquals(50, boxes[i].getRenderY());
+		}
+		Assert.assertEquals(50, worldBox.getRenderY());
+	}
+}
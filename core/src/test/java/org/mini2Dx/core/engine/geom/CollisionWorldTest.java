@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2019 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.engine.geom;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.core.engine.PositionChangeListener;
+import org.mini2Dx.core.engine.SizeChangeListener;
+import org.mini2Dx.core.geom.Rectangle;
+
+/**
+ * Unit tests for {@link CollisionWorld}
+ */
+public class CollisionWorldTest implements PositionChangeListener<WorldCollisionObject>,
+		SizeChangeListener<WorldCollisionShape> {
+	private CollisionWorld world;
+	private int positionNotificationReceived, sizeNotificationReceived;
+
+	@Before
+	public void setUp() {
+		world = new CollisionWorld(2);
+		positionNotificationReceived = 0;
+		sizeNotificationReceived = 0;
+	}
+
+	@Test
+	public void testCreate() {
+		WorldCollisionBox box = world.createBox(10f, 20f, 30f, 40f);
+		WorldCollisionCircle circle = world.createCircle(50f, 60f, 5f);
+		WorldCollisionPoint point = world.createPoint(70f, 80f);
+
+		Assert.assertEquals(3, world.getTotalObjects());
+		Assert.assertEquals(true, world.getCapacity() >= 3);
+		Assert.assertEquals(true, box.getId() != circle.getId());
+		Assert.assertEquals(true, circle.getId() != point.getId());
+
+		Assert.assertEquals(10f, box.getX());
+		Assert.assertEquals(20f, box.getY());
+		Assert.assertEquals(30f, box.getWidth());
+		Assert.assertEquals(40f, box.getHeight());
+		Assert.assertEquals(10, box.getRenderX());
+		Assert.assertEquals(20, box.getRenderY());
+		Assert.assertEquals(30, box.getRenderWidth());
+		Assert.assertEquals(40, box.getRenderHeight());
+
+		Assert.assertEquals(50f, circle.getX());
+		Assert.assertEquals(5f, circle.getRadius());
+		Assert.assertEquals(10f, circle.getWidth());
+		Assert.assertEquals(45f, circle.getMinX());
+
+		Assert.assertEquals(70f, point.getX());
+		Assert.assertEquals(80f, point.getY());
+	}
+
+	@Test
+	public void testRelease() {
+		WorldCollisionBox box1 = world.createBox(0f, 0f, 1f, 1f);
+		WorldCollisionBox box2 = world.createBox(5f, 5f, 2f, 2f);
+		WorldCollisionBox box3 = world.createBox(10f, 10f, 3f, 3f);
+
+		Assert.assertEquals(true, world.release(box1));
+		Assert.assertEquals(false, world.release(box1));
+		Assert.assertEquals(true, box1.isReleased());
+		Assert.assertEquals(2, world.getTotalObjects());
+
+		Assert.assertEquals(5f, box2.getX());
+		Assert.assertEquals(2f, box2.getWidth());
+		Assert.assertEquals(10f, box3.getX());
+		Assert.assertEquals(3f, box3.getWidth());
+		Assert.assertEquals(box3, world.getObject(0));
+		Assert.assertEquals(box2, world.getObject(1));
+	}
+
+	@Test
+	public void testPreUpdateAndInterpolate() {
+		WorldCollisionBox box = world.createBox(0f, 0f, 10f, 10f);
+		world.preUpdate();
+		box.set(10f, 20f);
+		Assert.assertEquals(true, box.isInterpolateRequired());
+
+		world.interpolate(0.5f);
+		Assert.assertEquals(5, box.getRenderX());
+		Assert.assertEquals(10, box.getRenderY());
+		Assert.assertEquals(true, box.isInterpolateRequired());
+		Assert.assertEquals(0f, box.getPreviousX());
+
+		world.interpolate(1f);
+		Assert.assertEquals(10, box.getRenderX());
+		Assert.assertEquals(20, box.getRenderY());
+		Assert.assertEquals(false, box.isInterpolateRequired());
+
+		world.preUpdate();
+		Assert.assertEquals(10f, box.getPreviousX());
+		Assert.assertEquals(20f, box.getPreviousY());
+	}
+
+	@Test
+	public void testForceTo() {
+		WorldCollisionCircle circle = world.createCircle(0f, 0f, 4f);
+		world.preUpdate();
+		circle.forceTo(100f, 100f);
+		Assert.assertEquals(100, circle.getRenderX());
+		Assert.assertEquals(100, circle.getRenderY());
+		Assert.assertEquals(100f, circle.getPreviousX());
+		Assert.assertEquals(false, circle.isInterpolateRequired());
+	}
+
+	@Test
+	public void testNotifications() {
+		WorldCollisionBox box = world.createBox(0f, 0f, 10f, 10f);
+		box.addPostionChangeListener(this);
+		box.addSizeChangeListener(this);
+
+		box.set(0f, 0f);
+		Assert.assertEquals(0, positionNotificationReceived);
+		box.set(5f, 5f);
+		Assert.assertEquals(1, positionNotificationReceived);
+		box.setWidth(20f);
+		Assert.assertEquals(1, sizeNotificationReceived);
+		box.set(1f, 1f, 2f, 2f);
+		Assert.assertEquals(2, positionNotificationReceived);
+		Assert.assertEquals(2, sizeNotificationReceived);
+
+		box.removePositionChangeListener(this);
+		box.removeSizeChangeListener(this);
+		box.set(50f, 50f, 3f, 3f);
+		Assert.assertEquals(2, positionNotificationReceived);
+		Assert.assertEquals(2, sizeNotificationReceived);
+	}
+
+	@Test
+	public void testGeometry() {
+		WorldCollisionBox box = world.createBox(0f, 0f, 10f, 10f);
+		WorldCollisionCircle circle = world.createCircle(20f, 5f, 5f);
+
+		Assert.assertEquals(true, box.intersects(new Rectangle(5f, 5f, 10f, 10f)));
+		Assert.assertEquals(false, box.intersects(circle.getShape()));
+		Assert.assertEquals(true, box.intersectsLineSegment(-5f, 5f, 15f, 5f));
+		Assert.assertEquals(5f, box.getDistanceTo(15f, 5f));
+		Assert.assertEquals(0f, box.getDistanceTo(5f, 5f));
+		Assert.assertEquals(5f, circle.getDistanceTo(10f, 5f));
+
+		box.set(12f, 0f);
+		Assert.assertEquals(true, box.intersects(circle.getShape()));
+	}
+
+	@Override
+	public void positionChanged(WorldCollisionObject moved) {
+		positionNotificationReceived++;
+	}
+
+	@Override
+	public void sizeChanged(WorldCollisionShape changed) {
+		sizeNotificationReceived++;
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * Unit tests for {@link UpdatePipeline}
+ */
+public class UpdatePipelineTest {
+	private CountingListener listener;
+	private UpdatePipeline updatePipeline;
+
+	@Before
+	public void setUp() {
+		listener = new CountingListener();
+		updatePipeline = new UpdatePipeline(listener, "Test Update");
+	}
+
+	@After
+	public void teardown() {
+		updatePipeline.dispose();
+	}
+
+	@Test
+	public void testSubmitAndAwait() {
+		for (int i = 0; i < 100; i++) {
+			updatePipeline.submit(3, 0.5f);
+			updatePipeline.await();
+			Assert.assertFalse(updatePipeline.isUpdating());
+			Assert.assertEquals((i + 1) * 3, listener.updates.get());
+		}
+		Assert.assertEquals(0.5f, listener.lastDelta);
+		Assert.assertNotSame(Thread.currentThread(), listener.updateThread);
+	}
+
+	@Test
+	public void testSubmitZeroTicks() {
+		updatePipeline.submit(0, 0.5f);
+		Assert.assertFalse(updatePipeline.isUpdating());
+		updatePipeline.await();
+		Assert.assertEquals(0, listener.updates.get());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSubmitWhileUpdating() {
+		listener.blockUpdates = true;
+		try {
+			updatePipeline.submit(1, 0.5f);
+			updatePipeline.submit(1, 0.5f);
+		} finally {
+			synchronized (listener) {
+				listener.blockUpdates = false;
+				listener.notifyAll();
+			}
+		}
+	}
+
+	@Test
+	public void testUpdateExceptionRethrown() {
+		listener.failUpdates = true;
+		updatePipeline.submit(1, 0.5f);
+		try {
+			updatePipeline.await();
+			Assert.fail("Expected exception to be re-thrown by await()");
+		} catch (IllegalArgumentException e) {
+		}
+
+		listener.failUpdates = false;
+		updatePipeline.submit(1, 0.5f);
+		updatePipeline.await();
+		Assert.assertEquals(2, listener.updates.get());
+	}
+
+	@Test
+	public void testDisposeStopsWorkerAfterUpdateException() {
+		listener.failUpdates = true;
+		updatePipeline.submit(1, 0.5f);
+		try {
+			updatePipeline.dispose();
+			Assert.fail("Expected exception to be re-thrown by dispose()");
+		} catch (IllegalArgumentException e) {
+		}
+		Assert.assertFalse(listener.updateThread.isAlive());
+	}
+
+	private static class CountingListener implements ApplicationListener {
+		private final AtomicInteger updates = new AtomicInteger();
+		private volatile float lastDelta;
+		private volatile Thread updateThread;
+		private volatile boolean blockUpdates, failUpdates;
+
+		@Override
+		public void update(float delta) {
+			updates.incrementAndGet();
+			lastDelta = delta;
+			updateThread = Thread.currentThread();
+
+			synchronized (this) {
+				while (blockUpdates) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+			if (failUpdates) {
+				throw new IllegalArgumentException();
+			}
+		}
+
+		@Override
+		public void interpolate(float alpha) {
+		}
+
+		@Override
+		public void create() {
+		}
+
+		@Override
+		public void resize(int width, int height) {
+		}
+
+		@Override
+		public void render() {
+		}
+
+		@Override
+		public void pause() {
+		}
+
+		@Override
+		public void resume() {
+		}
+
+		@Override
+		public void dispose() {
+		}
+	}
+}
@@ -19,9 +19,13 @@ import org.junit.Test;
 import org.mini2Dx.core.game.GameWrapper;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.math.Matrix4;
 
 import junit.framework.Assert;
 
@@ -36,6 +40,7 @@ public class LibGdxGraphicsTest {
 	private PolygonSpriteBatch polygonSpriteBatch;
 	private ShapeRenderer shapeRenderer;
 	private com.badlogic.gdx.Graphics gdxGraphics;
+	private GL20 gl;
 	
 	private Graphics graphics;
 	
@@ -49,6 +54,8 @@ public class LibGdxGraphicsTest {
 		shapeRenderer = mockery.mock(ShapeRenderer.class);
 		gdxGraphics = mockery.mock(com.badlogic.gdx.Graphics.class);
 		Gdx.graphics = gdxGraphics;
+		gl = mockery.mock(GL20.class);
+		Gdx.gl = gl;
 		
 		mockery.checking(new Expectations() {
 			{
@@ -94,4 +101,37 @@ public class LibGdxGraphicsTest {
 		Assert.assertNotNull(graphics.getBackgroundColor());
 	}
 
+	@Test
+	public void testConsecutiveShapesShareShapeRenderer() {
+		final float [] vertices = new float[] { 0f, 0f, 10f, 0f, 10f, 10f };
+		mockery.checking(new Expectations() {
+			{
+				ignoring(gl);
+				allowing(spriteBatch).setProjectionMatrix(with(any(Matrix4.class)));
+				allowing(shapeRenderer).setProjectionMatrix(with(any(Matrix4.class)));
+				allowing(polygonSpriteBatch).setProjectionMatrix(with(any(Matrix4.class)));
+				allowing(shapeRenderer).setColor(with(any(Color.class)));
+
+				oneOf(spriteBatch).begin();
+				oneOf(spriteBatch).end();
+				oneOf(shapeRenderer).begin(ShapeType.Line);
+				exactly(100).of(shapeRenderer).circle(100f, 100f, 25f);
+				oneOf(shapeRenderer).set(ShapeType.Filled);
+				exactly(100).of(shapeRenderer).circle(50f, 50f, 10f);
+				oneOf(shapeRenderer).set(ShapeType.Line);
+				exactly(100).of(shapeRenderer).polygon(vertices);
+			}
+		});
+
+		for(int i = 0; i < 100; i++) {
+			graphics.drawCircle(100f, 100f, 25);
+		}
+		for(int i = 0; i < 100; i++) {
+			graphics.fillCircle(50f, 50f, 10);
+		}
+		for(int i = 0; i < 100; i++) {
+			graphics.drawPolygon(vertices);
+		}
+		mockery.assertIsSatisfied();
+	}
 }
@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.playerdata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.core.serialization.GameDataBufferSerializable;
+import org.mini2Dx.core.serialization.GameDataSerializable;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import junit.framework.Assert;
+
+/**
+ * Unit tests for {@link AsyncPlayerData}
+ */
+public class AsyncPlayerDataTest {
+	private static final String BLOCKING_FILENAME = "block.txt";
+	private static final String FAILING_FILENAME = "fail.txt";
+	private static final String CRASHING_FILENAME = "crash.txt";
+	private static final String FILENAME = "test.txt";
+
+	private MemoryPlayerData memoryPlayerData;
+	private AsyncPlayerData asyncPlayerData;
+
+	@Before
+	public void setUp() {
+		memoryPlayerData = new MemoryPlayerData();
+		asyncPlayerData = new AsyncPlayerData(memoryPlayerData);
+	}
+
+	@After
+	public void teardown() throws PlayerDataException {
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.dispose();
+	}
+
+	@Test
+	public void testWriteAndRead() throws PlayerDataException {
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.writeString("content", "saves", FILENAME);
+		Assert.assertEquals("content", asyncPlayerData.readString("saves", FILENAME));
+		Assert.assertNotSame(Thread.currentThread(), memoryPlayerData.writeThread);
+	}
+
+	@Test
+	public void testCoalescedWrites() throws Exception {
+		final CountingListener listener = new CountingListener();
+		asyncPlayerData.writeString("blocking", BLOCKING_FILENAME);
+		memoryPlayerData.blocked.await();
+
+		for (int i = 0; i < 10; i++) {
+			asyncPlayerData.writeString("content" + i, listener, FILENAME);
+		}
+		Assert.assertTrue(asyncPlayerData.isWriting());
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.flush();
+
+		Assert.assertFalse(asyncPlayerData.isWriting());
+		Assert.assertEquals(2, memoryPlayerData.totalWrites.get());
+		Assert.assertEquals("content9", memoryPlayerData.files.get(FILENAME));
+		Assert.assertEquals(10, listener.completed.get());
+		Assert.assertEquals(0, listener.failed.get());
+	}
+
+	@Test
+	public void testWriteBytes() throws PlayerDataException {
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.writeBytes(new TestData(77), FILENAME);
+
+		final TestData result = new TestData(0);
+		asyncPlayerData.readBytes(result, FILENAME);
+		Assert.assertEquals(77, result.value);
+	}
+
+	@Test
+	public void testWriteFailureNotifiesListener() throws PlayerDataException {
+		final CountingListener listener = new CountingListener();
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.writeString("content", listener, FAILING_FILENAME);
+		asyncPlayerData.flush();
+
+		Assert.assertEquals(0, listener.completed.get());
+		Assert.assertEquals(1, listener.failed.get());
+	}
+
+	@Test(expected = PlayerDataException.class)
+	public void testFlushRethrowsWriteFailure() throws PlayerDataException {
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.writeString("content", FAILING_FILENAME);
+		asyncPlayerData.flush();
+	}
+
+	@Test(expected = PlayerDataException.class)
+	public void testWriteAfterDispose() throws PlayerDataException {
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.dispose();
+		asyncPlayerData.writeString("content", FILENAME);
+	}
+
+	@Test
+	public void testListenerExceptionDoesNotStopWrites() throws PlayerDataException {
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.writeString("first", new PlayerDataWriteListener() {
+			@Override
+			public void onWriteCompleted(String... filepath) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void onWriteFailed(PlayerDataException exception, String... filepath) {
+			}
+		}, FILENAME);
+		try {
+			asyncPlayerData.flush();
+			Assert.fail("Expected listener exception to be re-thrown by flush()");
+		} catch (PlayerDataException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		Assert.assertFalse(asyncPlayerData.isWriting());
+
+		asyncPlayerData.writeString("second", FILENAME);
+		asyncPlayerData.flush();
+		Assert.assertEquals("second", memoryPlayerData.files.get(FILENAME));
+	}
+
+	@Test
+	public void testWriteAfterThreadStopped() throws PlayerDataException {
+		memoryPlayerData.unblock.countDown();
+		asyncPlayerData.writeString("content", CRASHING_FILENAME);
+		try {
+			asyncPlayerData.flush();
+			Assert.fail("Expected flush() to fail after the I/O thread stopped");
+		} catch (PlayerDataException e) {
+		}
+		Assert.assertFalse(asyncPlayerData.isWriting());
+		try {
+			asyncPlayerData.writeString("content", FILENAME);
+			Assert.fail("Expected write to fail after the I/O thread stopped");
+		} catch (PlayerDataException e) {
+		}
+		try {
+			asyncPlayerData.dispose();
+			Assert.fail("Expected dispose() to fail after the I/O thread stopped");
+		} catch (PlayerDataException e) {
+		}
+		asyncPlayerData = new AsyncPlayerData(memoryPlayerData);
+	}
+
+	private class CountingListener implements PlayerDataWriteListener {
+		final AtomicInteger completed = new AtomicInteger();
+		final AtomicInteger failed = new AtomicInteger();
+
+		@Override
+		public void onWriteCompleted(String... filepath) {
+			completed.incrementAndGet();
+		}
+
+		@Override
+		public void onWriteFailed(PlayerDataException exception, String... filepath) {
+			failed.incrementAndGet();
+		}
+	}
+
+	private class TestData implements GameDataSerializable {
+		int value;
+
+		TestData(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public void writeData(DataOutputStream outputStream) throws IOException {
+			outputStream.writeInt(value);
+		}
+
+		@Override
+		public void readData(DataInputStream inputStream) throws IOException {
+			value = inputStream.readInt();
+		}
+	}
+
+	private class MemoryPlayerData implements PlayerData {
+		final Map<String, Object> files = new HashMap<String, Object>();
+		final AtomicInteger totalWrites = new AtomicInteger();
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch unblock = new CountDownLatch(1);
+		volatile Thread writeThread;
+
+		private String toKey(String... filepath) {
+			return filepath[filepath.length - 1];
+		}
+
+		private synchronized void write(Object content, String... filepath) throws PlayerDataException {
+			writeThread = Thread.currentThread();
+			if (toKey(filepath).equals(FAILING_FILENAME)) {
+				throw new PlayerDataException("Write failed");
+			}
+			if (toKey(filepath).equals(CRASHING_FILENAME)) {
+				throw new Error("Write crashed");
+			}
+			files.put(toKey(filepath), content);
+			totalWrites.incrementAndGet();
+		}
+
+		@Override
+		public FileHandle getFileHandle(String... filepath) {
+			return null;
+		}
+
+		@Override
+		public synchronized String readString(String... filepath) throws PlayerDataException {
+			return (String) files.get(toKey(filepath));
+		}
+
+		@Override
+		public void writeString(String content, String... filepath) throws PlayerDataException {
+			if (toKey(filepath).equals(BLOCKING_FILENAME)) {
+				blocked.countDown();
+				try {
+					unblock.await();
+				} catch (InterruptedException e) {
+					throw new PlayerDataException(e);
+				}
+			}
+			write(content, filepath);
+		}
+
+		@Override
+		public synchronized <T extends GameDataSerializable> void readBytes(T result, String... filepath)
+				throws PlayerDataException {
+			try {
+				result.readData(new DataInputStream(new ByteArrayInputStream((byte[]) files.get(toKey(filepath)))));
+			} catch (IOException e) {
+				throw new PlayerDataException(e);
+			}
+		}
+
+		@Override
+		public <T extends GameDataSerializable> void writeBytes(T obj, String... filepath)
+				throws PlayerDataException {
+			try {
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				obj.writeData(new DataOutputStream(outputStream));
+				write(outputStream.toByteArray(), filepath);
+			} catch (IOException e) {
+				throw new PlayerDataException(e);
+			}
+		}
+
+		@Override
+		public <T extends GameDataBufferSerializable> void readByteBuffer(T result, String... filepath)
+				throws PlayerDataException {
+			throw new PlayerDataException("Not supported");
+		}
+
+		@Override
+		public <T extends GameDataBufferSerializable> void writeByteBuffer(T obj, String... filepath)
+				throws PlayerDataException {
+			throw new PlayerDataException("Not supported");
+		}
+
+		@Override
+		public <T> T readXml(Class<T> clazz, String... filepath) throws PlayerDataException {
+			throw new PlayerDataException("Not supported");
+		}
+
+		@Override
+		public <T> void writeXml(T object, String... filepath) throws PlayerDataException {
+			throw new PlayerDataException("Not supported");
+		}
+
+		@Override
+		public <T> T readJson(Class<T> clazz, String... filepath) throws PlayerDataException {
+			throw new PlayerDataException("Not supported");
+		}
+
+		@Override
+		public <T> void writeJson(T object, String... filepath) throws PlayerDataException {
+			throw new PlayerDataException("Not supported");
+		}
+
+		@Override
+		public <T> T readBinary(Class<T> clazz, String... filepath) throws PlayerDataException {
+			throw new PlayerDataException("Not supported");
+		}
+
+		@Override
+		public <T> void writeBinary(T object, String... filepath) throws PlayerDataException {
+			throw new PlayerDataException("Not supported");
+		}
+
+		@Override
+		public synchronized boolean hasFile(String... filepath) throws PlayerDataException {
+			return files.containsKey(toKey(filepath));
+		}
+
+		@Override
+		public boolean hasDirectory(String... path) throws PlayerDataException {
+			return false;
+		}
+
+		@Override
+		public void createDirectory(String... path) throws PlayerDataException {
+		}
+
+		@Override
+		public synchronized boolean delete(String... path) throws PlayerDataException {
+			return files.remove(toKey(path)) != null;
+		}
+
+		@Override
+		public synchronized void wipe() throws PlayerDataException {
+			files.clear();
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.core.serialization;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+import org.mini2Dx.core.serialization.JsonPullParser.Token;
+
+import com.badlogic.gdx.utils.JsonValue;
+
+import junit.framework.Assert;
+
+/**
+ * Unit tests for {@link JsonPullParser}
+ */
+public class JsonPullParserTest {
+
+	@Test
+	public void testTokens() throws SerializationException {
+		JsonPullParser parser = new JsonPullParser(new StringReader(
+				"{\"a\": 1, \"b\": [true, false, null], /* comment */ \"c\": \"x\\\"y\\u0041\", \"d\": -1.5e2}"));
+		Assert.assertEquals(Token.BEGIN_OBJECT, parser.next());
+		assertToken(parser, Token.NAME, "a");
+		assertToken(parser, Token.NUMBER, "1");
+		assertToken(parser, Token.NAME, "b");
+		Assert.assertEquals(Token.BEGIN_ARRAY, parser.next());
+		assertToken(parser, Token.BOOLEAN, "true");
+		assertToken(parser, Token.BOOLEAN, "false");
+		Assert.assertEquals(Token.NULL, parser.next());
+		Assert.assertEquals(Token.END_ARRAY, parser.next());
+		assertToken(parser, Token.NAME, "c");
+		assertToken(parser, Token.STRING, "x\"yA");
+		assertToken(parser, Token.NAME, "d");
+		assertToken(parser, Token.NUMBER, "-1.5e2");
+		Assert.assertEquals(Token.END_OBJECT, parser.next());
+		Assert.assertEquals(Token.END_DOCUMENT, parser.next());
+	}
+
+	@Test
+	public void testSkipValue() throws SerializationException {
+		JsonPullParser parser = new JsonPullParser(new StringReader("[{\"a\": [1, {\"b\": 2}]}, 3]"));
+		Assert.assertEquals(Token.BEGIN_ARRAY, parser.next());
+		parser.skipValue();
+		assertToken(parser, Token.NUMBER, "3");
+		Assert.assertEquals(Token.END_ARRAY, parser.next());
+	}
+
+	@Test
+	public void testReadJsonValue() throws SerializationException {
+		JsonPullParser parser = new JsonPullParser(new StringReader("{\"a\": 1, \"b\": [2.5, \"c\"], \"d\": {}}"));
+		JsonValue value = parser.readJsonValue();
+		Assert.assertEquals(3, value.size);
+		Assert.assertEquals(1, value.getInt("a"));
+		Assert.assertEquals(2.5f, value.get("b").getFloat(0));
+		Assert.assertEquals("c", value.get("b").getString(1));
+		Assert.assertTrue(value.get("d").isObject());
+		Assert.assertEquals(Token.END_DOCUMENT, parser.next());
+	}
+
+	@Test
+	public void testReadJsonValueLinksChildrenInOrder() throws SerializationException {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < 100; i++) {
+			json.append(i > 0 ? "," : "").append(i);
+		}
+		JsonPullParser parser = new JsonPullParser(new StringReader(json.append("]").toString()));
+		JsonValue value = parser.readJsonValue();
+		Assert.assertEquals(100, value.size);
+		int expected = 0;
+		for (JsonValue child = value.child; child != null; child = child.next) {
+			Assert.assertEquals(expected, child.asInt());
+			Assert.assertEquals(value, child.parent);
+			if (expected > 0) {
+				Assert.assertEquals(expected - 1, child.prev.asInt());
+			}
+			expected++;
+		}
+		Assert.assertEquals(100, expected);
+	}
+
+	@Test
+	public void testReadJsonValueOutsideLongRange() throws SerializationException {
+		JsonPullParser parser = new JsonPullParser(new StringReader("[92233720368547758070]"));
+		JsonValue value = parser.readJsonValue();
+		Assert.assertEquals(9.2233720368547758070E19, value.getDouble(0));
+	}
+
+	@Test(expected = JsonSyntaxException.class)
+	public void testReadJsonValueInvalidNumber() throws SerializationException {
+		new JsonPullParser(new StringReader("[1-2]")).readJsonValue();
+	}
+
+	@Test(expected = SerializationException.class)
+	public void testUnterminatedObject() throws SerializationException {
+		JsonPullParser parser = new JsonPullParser(new StringReader("{\"a\": 1"));
+		parser.readJsonValue();
+	}
+
+	private void assertToken(JsonPullParser parser, Token expectedToken, String expectedValue)
+			throws SerializationException {
+		Assert.assertEquals(expectedToken, parser.next());
+		Assert.assertEquals(expectedValue, parser.getValue());
+	}
+}
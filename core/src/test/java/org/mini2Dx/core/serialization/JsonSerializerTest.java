@@ -11,8 +11,12 @@
  */
 package org.mini2Dx.core.serialization;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.badlogic.gdx.utils.*;
 import org.junit.Before;
@@ -122,6 +126,87 @@ public class JsonSerializerTest {
 		testJsonSerialization(true);
 	}
 	
+	@Test
+	public void testJsonSerializationRepeated() throws SerializationException {
+		final String json = serializer.toJson(parentObject);
+		for(int i = 0; i < 3; i++) {
+			TestParentObject result = serializer.fromJson(json, TestParentObject.class);
+			Assert.assertTrue(result.isPostDeserializeCalled());
+			Assert.assertEquals(parentObject.getIntValue(), result.getIntValue());
+			Assert.assertTrue(serializer.toJson(result).length() > 2);
+		}
+	}
+	
+	@Test
+	public void testJsonDeserializationFromInputStream() throws SerializationException, UnsupportedEncodingException {
+		String json = serializer.toJson(parentObject, true);
+		json = "// Comments are ignored\n" + json;
+
+		TestParentObject result = serializer.fromJson(new ByteArrayInputStream(json.getBytes("UTF-8")), TestParentObject.class);
+		Assert.assertTrue(result.isPostDeserializeCalled());
+		Assert.assertTrue(result.getChildObject().isPostDeserializeCalled());
+		Assert.assertEquals(parentObject.getSuperField(), result.getSuperField());
+		Assert.assertEquals(parentObject.getIntValue(), result.getIntValue());
+		Assert.assertEquals(parentObject.getStringValue(), result.getStringValue());
+		Assert.assertEquals(parentObject.getChildObject().getIntValue(), result.getChildObject().getIntValue());
+	}
+	
+	@Test
+	public void testJsonSerializationToOutputStream() throws SerializationException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		serializer.toJson(outputStream, parentObject, true);
+		Assert.assertTrue(outputStream.size() > 2);
+
+		TestParentObject result = serializer.fromJson(new ByteArrayInputStream(outputStream.toByteArray()), TestParentObject.class);
+		Assert.assertTrue(result.isPostDeserializeCalled());
+		Assert.assertEquals(parentObject.getIntValue(), result.getIntValue());
+		Assert.assertEquals(parentObject.getStringValue(), result.getStringValue());
+	}
+	
+	@Test
+	public void testConcurrentJsonSerialization() throws Exception {
+		final String json = serializer.toJson(parentObject);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		final Thread [] threads = new Thread[8];
+		for(int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for(int j = 0; j < 50; j++) {
+							TestParentObject result = serializer.fromJson(json, TestParentObject.class);
+							Assert.assertEquals(parentObject.getIntValue(), result.getIntValue());
+							Assert.assertTrue(serializer.toJson(result).length() > 2);
+						}
+					} catch (Throwable t) {
+						error.compareAndSet(null, t);
+					}
+				}
+			};
+		}
+		for(int i = 0; i < threads.length; i++) {
+			threads[i].start();
+		}
+		for(int i = 0; i < threads.length; i++) {
+			threads[i].join();
+		}
+		if(error.get() != null) {
+			throw new AssertionError(error.get());
+		}
+	}
+	
+	@Test
+	public void testJsonDeserializationWithRelaxedSyntax() throws SerializationException {
+		TestChildObject result = serializer.fromJson("{intValue: 12}", TestChildObject.class);
+		Assert.assertEquals(12, result.getIntValue());
+		Assert.assertTrue(result.isPostDeserializeCalled());
+	}
+
+	@Test(expected=JsonSyntaxException.class)
+	public void testJsonDeserializationFromReaderIsStrict() throws SerializationException {
+		serializer.fromJson(new java.io.StringReader("{intValue: 12}"), TestChildObject.class);
+	}
+
 	@Test(expected=RequiredFieldException.class)
 	public void testJsonSerializationWithMissingRequiredField() throws SerializationException {
 		String json = serializer.toJson(parentObject);
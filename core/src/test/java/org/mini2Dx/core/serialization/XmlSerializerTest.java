@@ -13,6 +13,7 @@ package org.mini2Dx.core.serialization;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.badlogic.gdx.utils.*;
 import org.junit.Before;
@@ -134,6 +135,38 @@ public abstract class XmlSerializerTest {
 		Assert.assertEquals(parentObject.getGdxIntIntMap(), result.getGdxIntIntMap());
 	}
 	
+	@Test
+	public void testConcurrentXmlSerialization() throws Exception {
+		final String xml = xmlSerializer.toXml(parentObject);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		final Thread [] threads = new Thread[8];
+		for(int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for(int j = 0; j < 50; j++) {
+							TestParentObject result = xmlSerializer.fromXml(xml, TestParentObject.class);
+							Assert.assertEquals(parentObject.getIntValue(), result.getIntValue());
+							Assert.assertTrue(xmlSerializer.toXml(result).length() > 2);
+						}
+					} catch (Throwable t) {
+						error.compareAndSet(null, t);
+					}
+				}
+			};
+		}
+		for(int i = 0; i < threads.length; i++) {
+			threads[i].start();
+		}
+		for(int i = 0; i < threads.length; i++) {
+			threads[i].join();
+		}
+		if(error.get() != null) {
+			throw new AssertionError(error.get());
+		}
+	}
+	
 	@Test
 	public void testPrettyXmlDeserialization() throws SerializationException {
 		String xml = "<?xml version=\"1.0\"?>\n";
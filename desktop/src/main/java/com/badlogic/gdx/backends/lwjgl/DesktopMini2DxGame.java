@@ -24,6 +24,7 @@ import org.mini2Dx.core.Mdx;
 import org.mini2Dx.core.audio.Mini2DxAudio;
 import org.mini2Dx.core.game.ApplicationListener;
 import org.mini2Dx.core.game.GameContainer;
+import org.mini2Dx.core.game.UpdatePipeline;
 import org.mini2Dx.desktop.DesktopGameWrapper;
 import org.mini2Dx.desktop.DesktopMini2DxConfig;
 
@@ -151,8 +152,17 @@ public class DesktopMini2DxGame implements Application {
 		float accumulator = 0f;
 		float targetTimestep = config.targetTimestep;
 
+		UpdatePipeline updatePipeline = null;
+		float pipelinedAlpha = 0f;
+		if (config.pipelinedUpdates) {
+			updatePipeline = new UpdatePipeline(listener, "LWJGL Update");
+		}
+
 		boolean wasPaused = false;
 		while (running) {
+			if (updatePipeline != null) {
+				updatePipeline.await();
+			}
 			Display.processMessages();
 			if (Display.isCloseRequested()) {
 				exit();
@@ -242,15 +252,33 @@ public class DesktopMini2DxGame implements Application {
 
 				accumulator += delta;
 
-				while (accumulator >= targetTimestep) {
-					Mdx.performanceTracker.markUpdateBegin();
-					input.update();
-					input.processEvents();
-					listener.update(targetTimestep);
-					Mdx.performanceTracker.markUpdateEnd();
-					accumulator -= targetTimestep;
+				if (updatePipeline != null) {
+					// Interpolate the ticks completed during the previous frame
+					listener.interpolate(pipelinedAlpha);
+
+					int ticks = 0;
+					while (accumulator >= targetTimestep) {
+						ticks++;
+						accumulator -= targetTimestep;
+					}
+					pipelinedAlpha = accumulator / targetTimestep;
+					if (ticks > 0) {
+						// Input must be polled on the main thread
+						input.update();
+						input.processEvents();
+					}
+					updatePipeline.submit(ticks, targetTimestep);
+				} else {
+					while (accumulator >= targetTimestep) {
+						Mdx.performanceTracker.markUpdateBegin();
+						input.update();
+						input.processEvents();
+						listener.update(targetTimestep);
+						Mdx.performanceTracker.markUpdateEnd();
+						accumulator -= targetTimestep;
+					}
+					listener.interpolate(accumulator / targetTimestep);
 				}
-				listener.interpolate(accumulator / targetTimestep);
 
 				listener.render();
 				Display.update(false);
@@ -270,6 +298,9 @@ public class DesktopMini2DxGame implements Application {
 				Display.sync(frameRate);
 			}
 		}
+		if (updatePipeline != null) {
+			updatePipeline.dispose();
+		}
 
 		synchronized (lifecycleListeners) {
 			for (LifecycleListener listener : lifecycleListeners) {
@@ -27,6 +27,12 @@ public class DesktopMini2DxConfig extends LwjglApplicationConfiguration {
 	 * The target timestep
 	 */
 	public float targetTimestep = (1f / targetFPS);
+	/**
+	 * True if update() should run on a worker thread while the previous frame
+	 * is rendered. Games must only read state written during interpolate()
+	 * while rendering. Note: Adds one frame of latency.
+	 */
+	public boolean pipelinedUpdates = false;
 	/**
 	 * Pause game and don't render when the window is minimized.
 	 */
@@ -12,23 +12,30 @@
 package org.mini2Dx.desktop.playerdata;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
 import java.util.Arrays;
 
 import org.mini2Dx.core.Mdx;
 import org.mini2Dx.core.playerdata.PlayerData;
 import org.mini2Dx.core.playerdata.PlayerDataException;
+import org.mini2Dx.core.serialization.GameDataBufferSerializable;
 import org.mini2Dx.core.serialization.GameDataSerializable;
 import org.mini2Dx.core.serialization.SerializationException;
+import org.mini2Dx.natives.Os;
 import org.mini2Dx.natives.OsInformation;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
 
 /**
  * Desktop implementation of {@link PlayerData}
  */
 public class DesktopPlayerData implements PlayerData {
+	private static final long MEMORY_MAPPING_THRESHOLD = 1024 * 1024;
+
 	private final String saveDirectory;
 
 	public DesktopPlayerData(String gameIdentifier) {
@@ -114,7 +121,7 @@ public class DesktopPlayerData implements PlayerData {
 			throw new PlayerDataException("No file path specified");
 		}
 		try {
-			return Mdx.json.fromJson(resolve(filepath).readString(), clazz);
+			return Mdx.json.fromJson(resolve(filepath), clazz);
 		} catch (SerializationException e) {
 			throw new PlayerDataException(e);
 		}
@@ -131,7 +138,40 @@ public class DesktopPlayerData implements PlayerData {
 			ensureDirectoryExistsForFile(filepath);
 			FileHandle file = resolve(filepath);
 			FileHandle tmpFile = resolveTmp(filepath);
-			tmpFile.writeString(Mdx.json.toJson(object), false);
+			Mdx.json.toJson(tmpFile.writer(false, "UTF-8"), object, false);
+			if(file.file().exists()) {
+				file.file().delete();
+			}
+			tmpFile.file().renameTo(file.file());
+		} catch (SerializationException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public <T> T readBinary(Class<T> clazz, String... filepath)
+			throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		try {
+			return Mdx.binary.fromBinary(resolve(filepath), clazz);
+		} catch (SerializationException e) {
+			throw new PlayerDataException(e);
+		}
+	}
+
+	@Override
+	public <T> void writeBinary(T object, String... filepath)
+			throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		try {
+			ensureDirectoryExistsForFile(filepath);
+			FileHandle file = resolve(filepath);
+			FileHandle tmpFile = resolveTmp(filepath);
+			Mdx.binary.toBinary(tmpFile, object);
 			if(file.file().exists()) {
 				file.file().delete();
 			}
@@ -213,6 +253,76 @@ public class DesktopPlayerData implements PlayerData {
 		}
 	}
 
+	@Override
+	public <T extends GameDataBufferSerializable> void readByteBuffer(T result, String... filepath)
+			throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		RandomAccessFile file = null;
+		try {
+			file = new RandomAccessFile(resolve(filepath).file(), "r");
+			final FileChannel channel = file.getChannel();
+			final long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new PlayerDataException("Cannot read files larger than 2GB");
+			}
+
+			final ByteBuffer buffer;
+			// Windows prevents a mapped file being replaced until the mapping is garbage collected
+			if (size >= MEMORY_MAPPING_THRESHOLD && OsInformation.getOs() != Os.WINDOWS) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			} else {
+				buffer = ByteBuffer.allocate((int) size);
+				while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				}
+				buffer.flip();
+			}
+			result.readData(buffer);
+		} catch (PlayerDataException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new PlayerDataException(e);
+		} finally {
+			StreamUtils.closeQuietly(file);
+		}
+	}
+
+	@Override
+	public <T extends GameDataBufferSerializable> void writeByteBuffer(T obj, String... filepath)
+			throws PlayerDataException {
+		if (filepath.length == 0) {
+			throw new PlayerDataException("No file path specified");
+		}
+		RandomAccessFile output = null;
+		try {
+			ensureDirectoryExistsForFile(filepath);
+			FileHandle file = resolve(filepath);
+			FileHandle tmpFile = resolveTmp(filepath);
+
+			final ByteBuffer buffer = ByteBuffer.allocate(obj.getSerializedSize());
+			obj.writeData(buffer);
+			buffer.flip();
+
+			output = new RandomAccessFile(tmpFile.file(), "rw");
+			final FileChannel channel = output.getChannel();
+			channel.truncate(0);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			output.close();
+
+			if(file.file().exists()) {
+				file.file().delete();
+			}
+			tmpFile.file().renameTo(file.file());
+		} catch (Exception e) {
+			throw new PlayerDataException(e);
+		} finally {
+			StreamUtils.closeQuietly(output);
+		}
+	}
+
 	@Override
 	public boolean delete(String... path) throws PlayerDataException {
 		if (path.length == 0) {
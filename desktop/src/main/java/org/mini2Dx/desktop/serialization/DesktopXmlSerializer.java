@@ -33,16 +33,18 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Desktop implementation of {@link XmlSerializer}
+ * Desktop implementation of {@link XmlSerializer}. Safe for use by multiple threads.
  */
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class DesktopXmlSerializer implements XmlSerializer {
 	private static final String LOGGING_TAG = DesktopXmlSerializer.class.getSimpleName();
 
-	private final Map<String, Method[]> methodCache = new HashMap<String, Method[]>();
-	private final Map<String, Field[]> fieldCache = new HashMap<String, Field[]>();
+	private final ConcurrentMap<Class<?>, Method[]> methodCache = new ConcurrentHashMap<Class<?>, Method[]>();
+	private final ConcurrentMap<Class<?>, Field[]> fieldCache = new ConcurrentHashMap<Class<?>, Field[]>();
 
 	@Override
 	public <T> T fromXml(String xml, Class<T> clazz) throws SerializationException {
@@ -99,14 +101,34 @@ public class DesktopXmlSerializer implements XmlSerializer {
 		}
 	}
 	
+	private Method[] getDeclaredMethods(Class<?> clazz) {
+		Method[] result = methodCache.get(clazz);
+		if (result == null) {
+			result = ClassReflection.getDeclaredMethods(clazz);
+			Method[] existing = methodCache.putIfAbsent(clazz, result);
+			if (existing != null) {
+				result = existing;
+			}
+		}
+		return result;
+	}
+
+	private Field[] getDeclaredFields(Class<?> clazz) {
+		Field[] result = fieldCache.get(clazz);
+		if (result == null) {
+			result = ClassReflection.getDeclaredFields(clazz);
+			Field[] existing = fieldCache.putIfAbsent(clazz, result);
+			if (existing != null) {
+				result = existing;
+			}
+		}
+		return result;
+	}
+	
 	private <T> void callPostDeserializeMethods(T object, Class<?> clazz) throws SerializationException {
 		Class<?> currentClass = clazz;
 		while (currentClass != null && !currentClass.equals(Object.class)) {
-			final String className = currentClass.getName();
-			if(!methodCache.containsKey(className)) {
-				methodCache.put(className, ClassReflection.getDeclaredMethods(currentClass));
-			}
-			final Method [] methods = methodCache.get(className);
+			final Method [] methods = getDeclaredMethods(currentClass);
 
 			for(Method method : methods) {
 				if(method.isAnnotationPresent(PostDeserialize.class)) {
@@ -226,11 +248,7 @@ public class DesktopXmlSerializer implements XmlSerializer {
 				//Check for @ConstructorArg annotations in interface methods
 				Class<?> [] interfaces = clazz.getInterfaces();
 				for(int i = 0; i < interfaces.length; i++) {
-					final String className = interfaces[i].getName();
-					if(!methodCache.containsKey(className)) {
-						methodCache.put(className, ClassReflection.getDeclaredMethods(interfaces[i]));
-					}
-					final Method [] methods = methodCache.get(className);
+					final Method [] methods = getDeclaredMethods(interfaces[i]);
 
 					for(Method method : methods) {
 						if(method.getParameterTypes().length > 0) {
@@ -248,11 +266,7 @@ public class DesktopXmlSerializer implements XmlSerializer {
 
 			Class<?> currentClass = clazz;
 			while (currentClass != null && !currentClass.equals(Object.class)) {
-				final String className = currentClass.getName();
-				if(!methodCache.containsKey(className)) {
-					methodCache.put(className, ClassReflection.getDeclaredMethods(currentClass));
-				}
-				final Method [] methods = methodCache.get(className);
+				final Method [] methods = getDeclaredMethods(currentClass);
 
 				for (Method method : methods) {
 					if (method.getParameterTypes().length > 0) {
@@ -269,11 +283,7 @@ public class DesktopXmlSerializer implements XmlSerializer {
 			}
 			currentClass = clazz;
 			while(currentClass != null && !currentClass.equals(Object.class)) {
-				final String className = currentClass.getName();
-				if(!fieldCache.containsKey(className)) {
-					fieldCache.put(className, ClassReflection.getDeclaredFields(currentClass));
-				}
-				final Field [] fields = fieldCache.get(className);
+				final Field [] fields = getDeclaredFields(currentClass);
 
 				for (Field field : fields) {
 					field.setAccessible(true);
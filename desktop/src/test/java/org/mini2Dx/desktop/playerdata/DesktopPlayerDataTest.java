@@ -12,7 +12,11 @@
 package org.mini2Dx.desktop.playerdata;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +27,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mini2Dx.core.Mdx;
+import org.mini2Dx.core.serialization.BinarySerializer;
+import org.mini2Dx.core.serialization.GameDataBufferSerializable;
 import org.mini2Dx.core.serialization.JsonSerializer;
 import org.mini2Dx.core.serialization.dummy.TestAbstractImplObject;
 import org.mini2Dx.core.serialization.dummy.TestChildObject;
@@ -46,6 +52,7 @@ public class DesktopPlayerDataTest {
     private static final String TEST_IDENTIFIER = "org.mini2Dx.testgame";
     private static final String XML_FILENAME = "test.xml";
     private static final String JSON_FILENAME = "test.json";
+    private static final String BINARY_FILENAME = "test.bin";
     private static final Random RANDOM = new Random(1209561832);
 
     private static final String MAP_KEY = "test";
@@ -58,6 +65,7 @@ public class DesktopPlayerDataTest {
     public void setUp() {
         Gdx.files = new LwjglFiles();
         Mdx.json = new JsonSerializer();
+        Mdx.binary = new BinarySerializer();
         Mdx.xml = new DesktopXmlSerializer();
         Mdx.di = new DesktopDependencyInjection();
         desktopData = new DesktopPlayerData(TEST_IDENTIFIER);
@@ -105,11 +113,51 @@ public class DesktopPlayerDataTest {
         assertObjectIsAsExpected(result);
     }
     
+    @Test
+    public void testJsonWithNonAsciiValues() throws Exception {
+        final String value = "caf\u00e9 \u00fcber \u65e5\u672c\u8a9e \ud83c\udfae";
+        expectedParentObject.setStringValue(value);
+        expectedParentObject.setSuperField(value);
+        expectedParentObject.getListValues().add(value);
+        desktopData.writeJson(expectedParentObject, JSON_FILENAME);
+
+        byte [] bytes = Files.readAllBytes(new File(desktopData.getSaveDirectoryForGame(TEST_IDENTIFIER), JSON_FILENAME).toPath());
+        Assert.assertEquals(true, new String(bytes, "UTF-8").contains(value));
+
+        TestParentObject result = desktopData.readJson(TestParentObject.class, JSON_FILENAME);
+        assertObjectIsAsExpected(result);
+        Assert.assertEquals(value, result.getStringValue());
+        Assert.assertEquals(value, result.getSuperField());
+    }
+
     @Test(expected=Exception.class)
     public void testReadJsonFromNonExistingFile() throws Exception {
         desktopData.readJson(TestParentObject.class, "blah-" + JSON_FILENAME);
     }
     
+    @Test
+    public void testBinary() throws Exception {
+        desktopData.writeBinary(expectedParentObject, BINARY_FILENAME);
+        
+        TestParentObject result = desktopData.readBinary(TestParentObject.class, BINARY_FILENAME);
+        assertObjectIsAsExpected(result);
+    }
+    
+    @Test(expected=Exception.class)
+    public void testReadBinaryFromNonExistingFile() throws Exception {
+        desktopData.readBinary(TestParentObject.class, "blah-" + BINARY_FILENAME);
+    }
+    
+    @Test
+    public void testByteBuffer() throws Exception {
+        assertByteBufferRoundTrip(16);
+    }
+    
+    @Test
+    public void testMemoryMappedByteBuffer() throws Exception {
+        assertByteBufferRoundTrip(1024 * 1024);
+    }
+    
     @Test
     public void testFileExists() throws Exception {
         desktopData.writeXml(expectedParentObject, XML_FILENAME);
@@ -121,6 +169,19 @@ public class DesktopPlayerDataTest {
         
     }
     
+    private void assertByteBufferRoundTrip(int totalValues) throws Exception {
+        TestBufferData expected = new TestBufferData(totalValues);
+        for (int i = 0; i < totalValues; i++) {
+            expected.values[i] = RANDOM.nextInt();
+        }
+        desktopData.writeByteBuffer(expected, BINARY_FILENAME);
+        Assert.assertEquals(totalValues * 4L + 4L, new File(desktopData.getSaveDirectoryForGame(TEST_IDENTIFIER), BINARY_FILENAME).length());
+        
+        TestBufferData result = new TestBufferData(0);
+        desktopData.readByteBuffer(result, BINARY_FILENAME);
+        Assert.assertEquals(true, Arrays.equals(expected.values, result.values));
+    }
+    
     private void assertObjectIsAsExpected(TestParentObject result) {
         Assert.assertEquals(expectedParentObject.isBooleanValue(), result.isBooleanValue());
         Assert.assertEquals(expectedParentObject.getFloatValue(), result.getFloatValue());
@@ -207,4 +268,30 @@ public class DesktopPlayerDataTest {
         expectedParentObject.getGdxIntIntMap().put(44, 55);
         expectedParentObject.getGdxIntIntMap().put(66, 77);
     }
+
+    private static class TestBufferData implements GameDataBufferSerializable {
+        private int [] values;
+        
+        public TestBufferData(int totalValues) {
+            values = new int[totalValues];
+        }
+
+        @Override
+        public int getSerializedSize() {
+            return (values.length + 1) * 4;
+        }
+
+        @Override
+        public void writeData(ByteBuffer buffer) throws IOException {
+            buffer.putInt(values.length);
+            buffer.asIntBuffer().put(values);
+            buffer.position(buffer.position() + values.length * 4);
+        }
+
+        @Override
+        public void readData(ByteBuffer buffer) throws IOException {
+            values = new int[buffer.getInt()];
+            buffer.asIntBuffer().get(values);
+        }
+    }
 }
@@ -18,6 +18,7 @@ package com.badlogic.gdx.backends.headless;
 import org.mini2Dx.core.Mdx;
 import org.mini2Dx.core.game.ApplicationListener;
 import org.mini2Dx.core.game.GameContainer;
+import org.mini2Dx.core.game.UpdatePipeline;
 import org.mini2Dx.headless.HeadlessGameWrapper;
 import org.mini2Dx.headless.HeadlessMini2DxConfig;
 
@@ -45,7 +46,9 @@ import com.badlogic.gdx.utils.TimeUtils;
  * "https://github.com/libgdx/libgdx/blob/master/backends/gdx-backend-headless/src/com/badlogic/gdx/backends/headless/HeadlessApplication.java">
  * LibGDX's LwjglApplication class</a>
  * 
- * The executeGame loop follows mini2Dx sequence: update, interpolate, render and tries to stay close to targetFps 
+ * The executeGame loop follows mini2Dx sequence: update, interpolate, render and tries to stay close to targetFps.
+ * If {@link HeadlessMini2DxConfig#pipelinedUpdates} is enabled, the updates for the next frame run on a worker
+ * thread while the current frame renders.
  */
 public class HeadlessMini2DxGame implements Application {
 	protected final HeadlessMini2DxConfig config;
@@ -65,10 +68,24 @@ public class HeadlessMini2DxGame implements Application {
 	protected String preferencesdir;
 
 	public HeadlessMini2DxGame(GameContainer game, HeadlessMini2DxConfig config) {
+		this(config, new HeadlessGameWrapper(game, config.gameIdentifier));
+		if(config.runGame) {
+			launchGame();
+		} else {
+			listener.create();
+		}
+	}
+
+	/**
+	 * Initialises LibGDX without creating or launching the {@link ApplicationListener}
+	 * @param config The {@link HeadlessMini2DxConfig} to apply
+	 * @param listener The {@link ApplicationListener}, may be null if the subclass manages its own games
+	 */
+	protected HeadlessMini2DxGame(HeadlessMini2DxConfig config, ApplicationListener listener) {
 		setApplicationLogger(new HeadlessApplicationLogger());
 		
 		this.config = config;
-		listener = new HeadlessGameWrapper(game, config.gameIdentifier);
+		this.listener = listener;
 
 		this.files = new HeadlessFiles();
 		this.net = new HeadlessNet();
@@ -78,11 +95,6 @@ public class HeadlessMini2DxGame implements Application {
 		this.audio = new MockAudio();
 		this.input = new MockInput();
 		initialiseLibGDX();
-		if(config.runGame) {
-			launchGame();
-		} else {
-			listener.create();
-		}
 	}
 
 	private void initialiseLibGDX() {
@@ -124,12 +136,22 @@ public class HeadlessMini2DxGame implements Application {
 		float accumulator = 0f;
 		float targetTimestep = config.targetTimestep;
 
+		UpdatePipeline updatePipeline = null;
+		float pipelinedAlpha = 0f;
+		if (config.pipelinedUpdates) {
+			updatePipeline = new UpdatePipeline(listener, "Headless Update");
+		}
+
 		while (running) {
 
 			graphics.updateTime();
 			Mdx.performanceTracker.markFrame();
 			graphics.incrementFrameId();
 
+			if (updatePipeline != null) {
+				updatePipeline.await();
+			}
+
 			executeRunnables();
 			// If one of the runnables set running to false, for example after
 			// an exit().
@@ -144,13 +166,26 @@ public class HeadlessMini2DxGame implements Application {
 
 			accumulator += delta;
 
-			while (accumulator >= targetTimestep) {
-				Mdx.performanceTracker.markUpdateBegin();
-				listener.update(targetTimestep);
-				Mdx.performanceTracker.markUpdateEnd();
-				accumulator -= targetTimestep;
+			if (updatePipeline != null) {
+				// Interpolate the ticks completed during the previous frame
+				listener.interpolate(pipelinedAlpha);
+
+				int ticks = 0;
+				while (accumulator >= targetTimestep) {
+					ticks++;
+					accumulator -= targetTimestep;
+				}
+				pipelinedAlpha = accumulator / targetTimestep;
+				updatePipeline.submit(ticks, targetTimestep);
+			} else {
+				while (accumulator >= targetTimestep) {
+					Mdx.performanceTracker.markUpdateBegin();
+					listener.update(targetTimestep);
+					Mdx.performanceTracker.markUpdateEnd();
+					accumulator -= targetTimestep;
+				}
+				listener.interpolate(accumulator / targetTimestep);
 			}
-			listener.interpolate(accumulator / targetTimestep);
 
 			listener.render();
 
@@ -158,6 +193,9 @@ public class HeadlessMini2DxGame implements Application {
 				graphics.sleepTillDeltaTime(fpsDeltaNanos);
 			}
 		}
+		if (updatePipeline != null) {
+			updatePipeline.dispose();
+		}
 
 		synchronized (lifecycleListeners) {
 			for (LifecycleListener listener : lifecycleListeners) {
@@ -24,13 +24,32 @@ import org.mini2Dx.desktop.serialization.DesktopXmlSerializer;
  * Headless implementation of {@link GameWrapper}
  */
 public class HeadlessGameWrapper extends GameWrapper {
+	private final boolean sharedInitialisation;
 
 	public HeadlessGameWrapper(GameContainer gc, String gameIdentifier) {
+		this(gc, gameIdentifier, false);
+	}
+
+	/**
+	 * Constructor
+	 * @param gc The {@link GameContainer} which implements the developer's game
+	 * @param gameIdentifier The game identifier
+	 * @param sharedInitialisation True if the Mdx.* statics have already been initialised for all games
+	 */
+	HeadlessGameWrapper(GameContainer gc, String gameIdentifier, boolean sharedInitialisation) {
 		super(gc, gameIdentifier);
+		this.sharedInitialisation = sharedInitialisation;
 	}
 
 	@Override
 	public void initialise(String gameIdentifier) {
+		if (sharedInitialisation) {
+			return;
+		}
+		initialiseMdx(gameIdentifier);
+	}
+
+	static void initialiseMdx(String gameIdentifier) {
 		Mdx.xml = new DesktopXmlSerializer();
 		Mdx.di = new DesktopDependencyInjection();
 		Mdx.playerData = new DesktopPlayerData(gameIdentifier);
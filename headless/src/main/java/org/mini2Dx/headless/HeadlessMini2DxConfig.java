@@ -27,6 +27,12 @@ public class HeadlessMini2DxConfig extends HeadlessApplicationConfiguration {
 	 * The target timestep
 	 */
 	public float targetTimestep = (1f / targetFPS);
+	/**
+	 * True if update() should run on a worker thread while the previous frame
+	 * is rendered. Games must only read state written during interpolate()
+	 * while rendering. Note: Adds one frame of latency.
+	 */
+	public boolean pipelinedUpdates = false;
 	
 	/**
 	 * The mocked window width
@@ -43,6 +49,17 @@ public class HeadlessMini2DxConfig extends HeadlessApplicationConfiguration {
 	 */
 	public boolean runGame = true;
 	
+	/**
+	 * The amount of threads used by HeadlessMini2DxRunner to step its games
+	 */
+	public int runnerThreads = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * True if HeadlessMini2DxRunner should step games as fast as possible
+	 * instead of in real time
+	 */
+	public boolean runAsFastAsPossible = false;
+	
 	public HeadlessMini2DxConfig(String gameIdentifier) {
 		this.gameIdentifier = gameIdentifier;
 	}
@@ -0,0 +1,368 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.headless;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mini2Dx.core.game.ApplicationListener;
+import org.mini2Dx.core.game.GameContainer;
+
+import com.badlogic.gdx.LifecycleListener;
+import com.badlogic.gdx.backends.headless.HeadlessMini2DxGame;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Runs many headless mini2Dx games in a single JVM on a shared thread pool,
+ * e.g. for bot testing or server-authoritative matches.
+ * 
+ * Each game is stepped at its own fixed timestep. Games are never put to sleep;
+ * in real time mode the next step is scheduled on the pool and in
+ * {@link HeadlessMini2DxConfig#runAsFastAsPossible} mode steps are executed
+ * back to back. A game is only ever stepped by one thread at a time.
+ * 
+ * Note: The Gdx.* and Mdx.* statics are shared by all games and are
+ * initialised once by the runner, so all games must use the runner's game
+ * identifier. Runnables posted via Gdx.app.postRunnable() are executed on the
+ * pool in between game steps.
+ */
+public class HeadlessMini2DxRunner extends HeadlessMini2DxGame {
+	/**
+	 * The maximum amount of updates to run per step before yielding the
+	 * thread to other games
+	 */
+	public static final int MAX_UPDATES_PER_STEP = 60;
+
+	private final Array<Instance> instances = new Array<Instance>(false, 16);
+	private final ScheduledThreadPoolExecutor executor;
+	private final Runnable runnablesTask = new Runnable() {
+		@Override
+		public void run() {
+			executeRunnables();
+		}
+	};
+	private boolean stopped = false;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param config
+	 *            The {@link HeadlessMini2DxConfig} to apply
+	 */
+	public HeadlessMini2DxRunner(HeadlessMini2DxConfig config) {
+		super(config, null);
+		HeadlessGameWrapper.initialiseMdx(config.gameIdentifier);
+
+		final AtomicInteger threadId = new AtomicInteger();
+		executor = new ScheduledThreadPoolExecutor(Math.max(1, config.runnerThreads), new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Headless Runner " + threadId.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		executor.scheduleAtFixedRate(runnablesTask, 0L, (long) (config.targetTimestep * 1000000000f),
+				TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Launches a game using the runner's target timestep
+	 * 
+	 * @param game
+	 *            The {@link GameContainer} to run
+	 * @param gameIdentifier
+	 *            The game identifier, must match the runner's game identifier
+	 * @return The {@link Instance} for monitoring and stopping the game
+	 */
+	public Instance launch(GameContainer game, String gameIdentifier) {
+		return launch(game, gameIdentifier, config.targetTimestep);
+	}
+
+	/**
+	 * Launches a game
+	 * 
+	 * @param game
+	 *            The {@link GameContainer} to run
+	 * @param gameIdentifier
+	 *            The game identifier, must match the runner's game identifier
+	 * @param targetTimestep
+	 *            The fixed timestep to update the game with
+	 * @return The {@link Instance} for monitoring and stopping the game
+	 */
+	public Instance launch(GameContainer game, String gameIdentifier, float targetTimestep) {
+		if (targetTimestep <= 0f) {
+			throw new IllegalArgumentException("targetTimestep must be greater than 0");
+		}
+		if (config.gameIdentifier == null ? gameIdentifier != null : !config.gameIdentifier.equals(gameIdentifier)) {
+			throw new IllegalArgumentException("gameIdentifier must match the runner's game identifier "
+					+ config.gameIdentifier + " as Mdx.playerData is shared by all games");
+		}
+		final Instance instance = new Instance(new HeadlessGameWrapper(game, gameIdentifier, true), targetTimestep);
+		synchronized (instances) {
+			instances.add(instance);
+		}
+		executor.execute(instance);
+		return instance;
+	}
+
+	/**
+	 * Stops all games, waits for them to be disposed and shuts down the
+	 * thread pool. Must not be called from a game's thread, games should call
+	 * {@link #exit()} instead.
+	 */
+	@Override
+	public synchronized void stop() {
+		if (stopped) {
+			return;
+		}
+		stopped = true;
+		running = false;
+		stopInstances();
+		while (getTotalInstances() > 0) {
+			synchronized (instances) {
+				try {
+					instances.wait(100L);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(1L, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		synchronized (lifecycleListeners) {
+			for (LifecycleListener listener : lifecycleListeners) {
+				listener.pause();
+				listener.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Stops the runner asynchronously. All games are stopped and disposed, the
+	 * thread pool is shut down and the {@link LifecycleListener}s are notified
+	 * on a separate thread.
+	 */
+	@Override
+	public void exit() {
+		Thread shutdownThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				stop();
+			}
+		}, "Headless Runner Shutdown");
+		shutdownThread.start();
+	}
+
+	private void stopInstances() {
+		synchronized (instances) {
+			for (int i = 0; i < instances.size; i++) {
+				instances.get(i).stop();
+			}
+		}
+	}
+
+	/**
+	 * Returns the amount of games that have not yet been disposed
+	 * 
+	 * @return 0 if no games are running
+	 */
+	public int getTotalInstances() {
+		synchronized (instances) {
+			return instances.size;
+		}
+	}
+
+	/**
+	 * Returns the total update ticks per second of all running games
+	 * 
+	 * @return The sum of each game's ticks per second
+	 */
+	public int getTotalTicksPerSecond() {
+		int result = 0;
+		synchronized (instances) {
+			for (int i = 0; i < instances.size; i++) {
+				result += instances.get(i).getTicksPerSecond();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * A game running inside a {@link HeadlessMini2DxRunner}
+	 */
+	public class Instance implements Runnable {
+		private final ApplicationListener listener;
+		private final float targetTimestep;
+		private final long targetTimestepNanos;
+
+		private volatile boolean active = true;
+		private volatile long totalTicks;
+		private volatile int ticksPerSecond;
+		private volatile Throwable error;
+
+		private boolean created = false;
+		private long nextTickTime;
+		private long tickSecondStart;
+		private int ticks;
+
+		Instance(ApplicationListener listener, float targetTimestep) {
+			this.listener = listener;
+			this.targetTimestep = targetTimestep;
+			this.targetTimestepNanos = (long) (targetTimestep * 1000000000f);
+		}
+
+		@Override
+		public void run() {
+			if (!active) {
+				dispose();
+				return;
+			}
+			try {
+				if (!created) {
+					listener.create();
+					created = true;
+					nextTickTime = System.nanoTime();
+					tickSecondStart = nextTickTime;
+				}
+				step();
+			} catch (Throwable t) {
+				error = t;
+				active = false;
+				HeadlessMini2DxRunner.this.error(HeadlessMini2DxRunner.class.getSimpleName(),
+						"Game stopped due to error", t);
+				dispose();
+				return;
+			}
+			reschedule();
+		}
+
+		private void step() {
+			final long time = System.nanoTime();
+			int updates = MAX_UPDATES_PER_STEP;
+			if (!config.runAsFastAsPossible) {
+				if (time < nextTickTime) {
+					return;
+				}
+				long dueUpdates = ((time - nextTickTime) / targetTimestepNanos) + 1;
+				if (dueUpdates < updates) {
+					updates = (int) dueUpdates;
+				}
+				nextTickTime += updates * targetTimestepNanos;
+				if (time - nextTickTime > targetTimestepNanos * MAX_UPDATES_PER_STEP) {
+					// Too far behind to catch up, skip the missed ticks
+					nextTickTime = time + targetTimestepNanos;
+				}
+			}
+
+			for (int i = 0; i < updates; i++) {
+				listener.update(targetTimestep);
+			}
+			listener.interpolate(1f);
+			listener.render();
+
+			totalTicks += updates;
+			ticks += updates;
+			if (time - tickSecondStart >= 1000000000L) {
+				ticksPerSecond = ticks;
+				ticks = 0;
+				tickSecondStart = time;
+			}
+		}
+
+		private void reschedule() {
+			try {
+				if (config.runAsFastAsPossible) {
+					executor.execute(this);
+				} else {
+					executor.schedule(this, Math.max(0L, nextTickTime - System.nanoTime()), TimeUnit.NANOSECONDS);
+				}
+			} catch (RejectedExecutionException e) {
+				dispose();
+			}
+		}
+
+		private void dispose() {
+			active = false;
+			if (created) {
+				listener.pause();
+				listener.dispose();
+				created = false;
+			}
+			synchronized (instances) {
+				instances.removeValue(this, true);
+				instances.notifyAll();
+			}
+		}
+
+		/**
+		 * Stops the game. The game will be disposed on its next step.
+		 */
+		public void stop() {
+			active = false;
+		}
+
+		/**
+		 * Returns if the game is still running
+		 * 
+		 * @return False if the game was stopped or threw an exception
+		 */
+		public boolean isRunning() {
+			return active;
+		}
+
+		/**
+		 * Returns the total amount of update ticks executed by the game
+		 * 
+		 * @return 0 if the game has not updated yet
+		 */
+		public long getTotalTicks() {
+			return totalTicks;
+		}
+
+		/**
+		 * Returns the amount of update ticks executed during the last second
+		 * 
+		 * @return The tick throughput of the game
+		 */
+		public int getTicksPerSecond() {
+			return ticksPerSecond;
+		}
+
+		/**
+		 * Returns the fixed timestep the game is updated with
+		 * 
+		 * @return The timestep in seconds
+		 */
+		public float getTargetTimestep() {
+			return targetTimestep;
+		}
+
+		/**
+		 * Returns the exception that stopped the game
+		 * 
+		 * @return Null if the game did not throw an exception
+		 */
+		public Throwable getError() {
+			return error;
+		}
+	}
+}
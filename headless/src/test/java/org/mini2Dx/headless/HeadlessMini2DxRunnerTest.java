@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2018 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.headless;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.core.Mdx;
+import org.mini2Dx.core.game.GameContainer;
+import org.mini2Dx.core.graphics.Graphics;
+import org.mini2Dx.core.playerdata.PlayerData;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.LifecycleListener;
+
+import junit.framework.Assert;
+
+/**
+ * Unit tests for {@link HeadlessMini2DxRunner}
+ */
+public class HeadlessMini2DxRunnerTest {
+	private static final String TEST_IDENTIFIER = "org.mini2Dx.testgame";
+	private static final long TIMEOUT_MILLIS = 10000L;
+
+	private HeadlessMini2DxRunner runner;
+
+	@Before
+	public void setUp() {
+		HeadlessMini2DxConfig config = new HeadlessMini2DxConfig(TEST_IDENTIFIER);
+		config.runnerThreads = 2;
+		config.runAsFastAsPossible = true;
+		runner = new HeadlessMini2DxRunner(config);
+	}
+
+	@After
+	public void teardown() {
+		runner.stop();
+	}
+
+	@Test
+	public void testRunAsFastAsPossible() throws InterruptedException {
+		final PlayerData playerData = Mdx.playerData;
+		final CountingGame[] games = new CountingGame[4];
+		final HeadlessMini2DxRunner.Instance[] instances = new HeadlessMini2DxRunner.Instance[games.length];
+		for (int i = 0; i < games.length; i++) {
+			games[i] = new CountingGame(-1);
+			instances[i] = runner.launch(games[i], TEST_IDENTIFIER);
+		}
+		for (int i = 0; i < instances.length; i++) {
+			waitForTicks(instances[i], 1000L);
+		}
+		Assert.assertSame(playerData, Mdx.playerData);
+
+		final CountDownLatch lifecycleLatch = new CountDownLatch(1);
+		runner.addLifecycleListener(new CountDownLifecycleListener(lifecycleLatch));
+		runner.stop();
+
+		Assert.assertEquals(0, runner.getTotalInstances());
+		Assert.assertTrue(lifecycleLatch.await(0L, TimeUnit.MILLISECONDS));
+		for (int i = 0; i < games.length; i++) {
+			Assert.assertFalse(instances[i].isRunning());
+			Assert.assertNull(instances[i].getError());
+			Assert.assertEquals(games[i].updates.get(), instances[i].getTotalTicks());
+			Assert.assertEquals(1, games[i].initialisations.get());
+			Assert.assertEquals(1, games[i].disposals.get());
+		}
+	}
+
+	@Test
+	public void testErrorOnlyStopsFailingGame() throws InterruptedException {
+		final CountingGame game = new CountingGame(-1);
+		final CountingGame failingGame = new CountingGame(10);
+		final HeadlessMini2DxRunner.Instance instance = runner.launch(game, TEST_IDENTIFIER);
+		final HeadlessMini2DxRunner.Instance failingInstance = runner.launch(failingGame, TEST_IDENTIFIER);
+
+		final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (failingInstance.isRunning() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		waitForTicks(instance, 1000L);
+
+		Assert.assertFalse(failingInstance.isRunning());
+		Assert.assertTrue(failingInstance.getError() instanceof IllegalStateException);
+		Assert.assertEquals(10, failingGame.updates.get());
+		Assert.assertTrue(instance.isRunning());
+		Assert.assertNull(instance.getError());
+
+		runner.stop();
+		Assert.assertEquals(1, failingGame.disposals.get());
+		Assert.assertEquals(1, game.disposals.get());
+	}
+
+	@Test
+	public void testStopInstance() throws InterruptedException {
+		final CountingGame game = new CountingGame(-1);
+		final CountingGame stoppedGame = new CountingGame(-1);
+		final HeadlessMini2DxRunner.Instance instance = runner.launch(game, TEST_IDENTIFIER);
+		final HeadlessMini2DxRunner.Instance stoppedInstance = runner.launch(stoppedGame, TEST_IDENTIFIER);
+		waitForTicks(stoppedInstance, 100L);
+
+		stoppedInstance.stop();
+		final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (runner.getTotalInstances() > 1 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		Assert.assertEquals(1, runner.getTotalInstances());
+		Assert.assertEquals(1, stoppedGame.disposals.get());
+		Assert.assertEquals(stoppedGame.updates.get(), stoppedInstance.getTotalTicks());
+
+		final long stoppedTicks = stoppedInstance.getTotalTicks();
+		waitForTicks(instance, instance.getTotalTicks() + 1000L);
+		Assert.assertEquals(stoppedTicks, stoppedInstance.getTotalTicks());
+		Assert.assertTrue(instance.isRunning());
+	}
+
+	@Test
+	public void testExitStopsRunner() throws InterruptedException {
+		final CountDownLatch lifecycleLatch = new CountDownLatch(1);
+		runner.addLifecycleListener(new CountDownLifecycleListener(lifecycleLatch));
+
+		final CountingGame game = new CountingGame(-1);
+		final CountingGame exitingGame = new CountingGame(-1) {
+			@Override
+			public void update(float delta) {
+				super.update(delta);
+				if (updates.get() == 100) {
+					Gdx.app.exit();
+				}
+			}
+		};
+		runner.launch(game, TEST_IDENTIFIER);
+		runner.launch(exitingGame, TEST_IDENTIFIER);
+
+		Assert.assertTrue(lifecycleLatch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		Assert.assertEquals(0, runner.getTotalInstances());
+		Assert.assertEquals(1, game.disposals.get());
+		Assert.assertEquals(1, exitingGame.disposals.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLaunchWithDifferentGameIdentifier() {
+		runner.launch(new CountingGame(-1), "org.mini2Dx.othergame");
+	}
+
+	private void waitForTicks(HeadlessMini2DxRunner.Instance instance, long ticks) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (instance.getTotalTicks() < ticks && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		Assert.assertTrue(instance.getTotalTicks() >= ticks);
+	}
+
+	private class CountingGame extends GameContainer {
+		final AtomicInteger initialisations = new AtomicInteger();
+		final AtomicInteger updates = new AtomicInteger();
+		final AtomicInteger disposals = new AtomicInteger();
+		private final int failAtUpdate;
+
+		CountingGame(int failAtUpdate) {
+			this.failAtUpdate = failAtUpdate;
+		}
+
+		@Override
+		public void initialise() {
+			initialisations.incrementAndGet();
+		}
+
+		@Override
+		public void update(float delta) {
+			if (updates.incrementAndGet() == failAtUpdate) {
+				throw new IllegalStateException();
+			}
+		}
+
+		@Override
+		public void interpolate(float alpha) {
+		}
+
+		@Override
+		public void render(Graphics g) {
+		}
+
+		@Override
+		public void onPause() {
+		}
+
+		@Override
+		public void onResume() {
+		}
+
+		@Override
+		public void dispose() {
+			disposals.incrementAndGet();
+		}
+	}
+
+	private class CountDownLifecycleListener implements LifecycleListener {
+		private final CountDownLatch latch;
+
+		CountDownLifecycleListener(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public void pause() {
+		}
+
+		@Override
+		public void resume() {
+		}
+
+		@Override
+		public void dispose() {
+			latch.countDown();
+		}
+	}
+}
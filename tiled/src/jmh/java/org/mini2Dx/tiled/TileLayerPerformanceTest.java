@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Performance tests for {@link TileLayer}
+ */
+public class TileLayerPerformanceTest {
+	@State(Scope.Thread)
+	public static class TestState {
+		public TileLayer tileLayer = new TileLayer(256, 256);
+
+		@Setup
+		public void setup() {
+			final Random random = new Random(1234);
+			for (int y = 0; y < tileLayer.getHeight(); y++) {
+				for (int x = 0; x < tileLayer.getWidth(); x++) {
+					if (random.nextInt(4) == 0) {
+						continue;
+					}
+					tileLayer.setTileId(x, y, 1 + random.nextInt(256), random.nextBoolean(), random.nextBoolean(),
+							random.nextBoolean());
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.AverageTime)
+	@Group("TileLayer")
+	public int testIterateTileIds(TestState state) {
+		final TileLayer tileLayer = state.tileLayer;
+		int result = 0;
+		for (int y = 0; y < tileLayer.getHeight(); y++) {
+			for (int x = 0; x < tileLayer.getWidth(); x++) {
+				result += tileLayer.getTileId(x, y);
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.AverageTime)
+	@Group("TileLayer")
+	public int testPrepareTilesForRendering(TestState state) {
+		final TileLayer tileLayer = state.tileLayer;
+		int result = 0;
+		for (int y = 0; y < tileLayer.getHeight(); y++) {
+			for (int x = 0; x < tileLayer.getWidth(); x++) {
+				int tileId = tileLayer.getTileId(x, y);
+				if (tileId < 1) {
+					continue;
+				}
+				if (tileLayer.isFlippedHorizontally(x, y)) {
+					result++;
+				}
+				if (tileLayer.isFlippedVertically(x, y)) {
+					result++;
+				}
+				if (tileLayer.isFlippedDiagonally(x, y)) {
+					result++;
+				}
+				result += tileId;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	@BenchmarkMode(value = Mode.AverageTime)
+	@Group("TileLayer")
+	public int testGetTotalFilledTiles(TestState state) {
+		return state.tileLayer.getTotalFilledTiles();
+	}
+}
@@ -13,24 +13,30 @@ package org.mini2Dx.tiled;
 
 import com.badlogic.gdx.math.MathUtils;
 
-import java.util.BitSet;
-
 /**
  * Represents a tile layer with in a {@link TiledMap}
  */
 public class TileLayer extends Layer {
-	private final int[][] tiles;
-	private final BitSet flipHorizontally;
-	private final BitSet flipVertically;
-	private final BitSet flipDiagonally;
+	private static final int FLAG_FLIP_HORIZONTALLY = 0x80000000;
+	private static final int FLAG_FLIP_VERTICALLY = 0x40000000;
+	private static final int FLAG_FLIP_DIAGONALLY = 0x20000000;
+	private static final int MASK_FLAGS = 0xE0000000;
+
+	private final int width, height;
+	/**
+	 * Tile ids stored row by row with the flip flags packed into the high
+	 * bits (the same layout as Tiled's layer data)
+	 */
+	private final int[] tiles;
+
+	private int modificationCount;
 
 	public TileLayer(int width, int height) {
 		super(LayerType.TILE);
 
-		tiles = new int[width][height];
-		flipHorizontally = new BitSet(width * height);
-		flipVertically = new BitSet(width * height);
-		flipDiagonally = new BitSet(width * height);
+		this.width = width;
+		this.height = height;
+		tiles = new int[width * height];
 	}
 
 	/**
@@ -43,7 +49,7 @@ public class TileLayer extends Layer {
 	 * @return 0 if there is no tile
 	 */
 	public int getTileId(int x, int y) {
-		return tiles[x][y];
+		return tiles[getIndex(x, y)] & ~MASK_FLAGS;
 	}
 
 	/**
@@ -57,7 +63,9 @@ public class TileLayer extends Layer {
 	 *            0 if there is no tile
 	 */
 	public void setTileId(int x, int y, int id) {
-		tiles[x][y] = id;
+		final int index = getIndex(x, y);
+		tiles[index] = (tiles[index] & MASK_FLAGS) | (id & ~MASK_FLAGS);
+		modificationCount++;
 	}
 	
 	/**
@@ -74,10 +82,18 @@ public class TileLayer extends Layer {
 	 * @param flipD True if the tile is flipped (anti) diagonally - rotation
 	 */
 	public void setTileId(int x, int y, int id, boolean flipH, boolean flipV, boolean flipD) {
-		tiles[x][y] = id;
-		setFlippedHorizontally(x, y, flipH);
-		setFlippedVertically(x, y, flipV);
-		setFlippedDiagonally(x, y, flipD);
+		int value = id & ~MASK_FLAGS;
+		if (flipH) {
+			value |= FLAG_FLIP_HORIZONTALLY;
+		}
+		if (flipV) {
+			value |= FLAG_FLIP_VERTICALLY;
+		}
+		if (flipD) {
+			value |= FLAG_FLIP_DIAGONALLY;
+		}
+		tiles[getIndex(x, y)] = value;
+		modificationCount++;
 	}
 	
 	/**
@@ -87,7 +103,7 @@ public class TileLayer extends Layer {
 	 * @return True if flipped horizontally
 	 */
 	public boolean isFlippedHorizontally(int x, int y) {
-		return flipHorizontally.get(getBitIndex(x, y));
+		return (tiles[getIndex(x, y)] & FLAG_FLIP_HORIZONTALLY) != 0;
 	}
 	
 	/**
@@ -97,7 +113,7 @@ public class TileLayer extends Layer {
 	 * @param flip True if flipped horizontally
 	 */
 	public void setFlippedHorizontally(int x, int y, boolean flip) {
-		flipHorizontally.set(getBitIndex(x, y), flip);
+		setFlag(x, y, FLAG_FLIP_HORIZONTALLY, flip);
 	}
 	
 	/**
@@ -107,7 +123,7 @@ public class TileLayer extends Layer {
 	 * @return True if flipped vertically
 	 */
 	public boolean isFlippedVertically(int x, int y) {
-		return flipVertically.get(getBitIndex(x, y));
+		return (tiles[getIndex(x, y)] & FLAG_FLIP_VERTICALLY) != 0;
 	}
 	
 	/**
@@ -117,7 +133,7 @@ public class TileLayer extends Layer {
 	 * @param flip True if flipped vertically
 	 */
 	public void setFlippedVertically(int x, int y, boolean flip) {
-		flipVertically.set(getBitIndex(x, y), flip);
+		setFlag(x, y, FLAG_FLIP_VERTICALLY, flip);
 	}
 	
 	/**
@@ -127,7 +143,7 @@ public class TileLayer extends Layer {
 	 * @return True if flipped diagonally
 	 */
 	public boolean isFlippedDiagonally(int x, int y) {
-		return flipDiagonally.get(getBitIndex(x, y));
+		return (tiles[getIndex(x, y)] & FLAG_FLIP_DIAGONALLY) != 0;
 	}
 	
 	/**
@@ -137,7 +153,7 @@ public class TileLayer extends Layer {
 	 * @param flip True if flipped diagonally
 	 */
 	public void setFlippedDiagonally(int x, int y, boolean flip) {
-		flipDiagonally.set(getBitIndex(x, y), flip);
+		setFlag(x, y, FLAG_FLIP_DIAGONALLY, flip);
 	}
 
 	/**
@@ -145,7 +161,7 @@ public class TileLayer extends Layer {
 	 * @return The width in tiles
 	 */
 	public int getWidth() {
-		return tiles.length;
+		return width;
 	}
 
 	/**
@@ -153,11 +169,42 @@ public class TileLayer extends Layer {
 	 * @return The height in tiles
 	 */
 	public int getHeight() {
-		return tiles[0].length;
+		return height;
 	}
 	
-	private int getBitIndex(int x, int y) {
-		return (y * tiles.length) + x;
+	/**
+	 * Returns the number of times tiles on this layer have been modified. Used
+	 * by renderers to determine if cached geometry is out of date.
+	 * @return The modification count
+	 */
+	public int getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Returns the backing array of tile ids, with the flip flags packed into
+	 * the high bits, stored row by row
+	 */
+	int[] getRawTiles() {
+		return tiles;
+	}
+
+	private void setFlag(int x, int y, int flag, boolean value) {
+		final int index = getIndex(x, y);
+		if (value) {
+			tiles[index] |= flag;
+		} else {
+			tiles[index] &= ~flag;
+		}
+		modificationCount++;
+	}
+
+	private int getIndex(int x, int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			throw new ArrayIndexOutOfBoundsException("Tile " + x + "," + y + " is outside of the layer bounds "
+					+ width + "x" + height);
+		}
+		return (y * width) + x;
 	}
 
 	/**
@@ -175,13 +222,11 @@ public class TileLayer extends Layer {
 	public int getTotalEmptyTiles() {
 		int result = 0;
 
-		for(int x = 0; x < getWidth(); x++) {
-			for(int y = 0; y < getHeight(); y++) {
-				if(getTileId(x, y) >= 1) {
-					continue;
-				}
-				result++;
+		for(int i = 0; i < tiles.length; i++) {
+			if((tiles[i] & ~MASK_FLAGS) >= 1) {
+				continue;
 			}
+			result++;
 		}
 		return result;
 	}
@@ -193,13 +238,11 @@ public class TileLayer extends Layer {
 	public int getTotalFilledTiles() {
 		int result = 0;
 
-		for(int x = 0; x < getWidth(); x++) {
-			for(int y = 0; y < getHeight(); y++) {
-				if(getTileId(x, y) < 1) {
-					continue;
-				}
-				result++;
+		for(int i = 0; i < tiles.length; i++) {
+			if((tiles[i] & ~MASK_FLAGS) < 1) {
+				continue;
 			}
+			result++;
 		}
 		return result;
 	}
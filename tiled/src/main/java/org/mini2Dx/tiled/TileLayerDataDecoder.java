@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/**
+ * Decodes TMX layer data straight into a {@link TileLayer}. CSV values are
+ * parsed in place and base64 data is decoded and decompressed as a stream, so
+ * no intermediate copies of the full layer data are created.
+ */
+class TileLayerDataDecoder {
+
+	/**
+	 * Decodes layer data into a {@link TileLayer}
+	 * 
+	 * @param layer
+	 *            The {@link TileLayer} to store the tiles in
+	 * @param encoding
+	 *            The value of the data element's encoding attribute
+	 * @param compression
+	 *            The value of the data element's compression attribute
+	 * @param data
+	 *            The text content of the data element
+	 */
+	static void decode(TileLayer layer, String encoding, String compression, CharSequence data) {
+		if (encoding == null) { // no 'encoding' attribute means that the
+								// encoding is XML
+			throw new GdxRuntimeException("Unsupported encoding (XML) for TMX Layer Data");
+		}
+		if (data == null) {
+			return;
+		}
+		if (encoding.equals("csv")) {
+			decodeCsv(layer, data);
+			return;
+		}
+		if (!encoding.equals("base64")) {
+			// any other value of 'encoding' is one we're not aware of,
+			// probably a feature of a future version of Tiled
+			throw new GdxRuntimeException("Unrecognised encoding (" + encoding + ") for TMX Layer Data");
+		}
+
+		InputStream inputStream = new Base64InputStream(data);
+		try {
+			if ("gzip".equals(compression)) {
+				inputStream = new GZIPInputStream(inputStream);
+			} else if ("zlib".equals(compression)) {
+				inputStream = new InflaterInputStream(inputStream);
+			} else if (compression != null) {
+				throw new GdxRuntimeException("Unrecognised compression (" + compression + ") for TMX Layer Data");
+			}
+			decodeBinary(layer, inputStream);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error Reading TMX Layer Data.", e);
+		} finally {
+			StreamUtils.closeQuietly(inputStream);
+		}
+	}
+
+	private static void decodeCsv(TileLayer layer, CharSequence data) {
+		final int width = layer.getWidth();
+		final int totalTiles = width * layer.getHeight();
+
+		int index = 0;
+		long value = 0;
+		boolean hasValue = false;
+		for (int i = 0, length = data.length(); i <= length; i++) {
+			final char c = i < length ? data.charAt(i) : ',';
+			if (c >= '0' && c <= '9') {
+				value = (value * 10) + (c - '0');
+				hasValue = true;
+				continue;
+			}
+			if (c != ',') {
+				if (Character.isWhitespace(c)) {
+					continue;
+				}
+				throw new GdxRuntimeException("Unexpected character '" + c + "' in TMX Layer Data");
+			}
+			if (!hasValue) {
+				continue;
+			}
+			if (index >= totalTiles) {
+				throw new GdxRuntimeException("TMX Layer Data contains more than " + totalTiles + " tiles");
+			}
+			setTile(layer, index % width, index / width, (int) value);
+			index++;
+			value = 0;
+			hasValue = false;
+		}
+	}
+
+	private static void decodeBinary(TileLayer layer, InputStream inputStream) throws IOException {
+		final byte[] buffer = new byte[4];
+		for (int y = 0; y < layer.getHeight(); y++) {
+			for (int x = 0; x < layer.getWidth(); x++) {
+				int read = 0;
+				while (read < buffer.length) {
+					final int result = inputStream.read(buffer, read, buffer.length - read);
+					if (result < 0) {
+						throw new IOException("Unexpected end of TMX Layer Data");
+					}
+					read += result;
+				}
+				setTile(layer, x, y, TiledParser.unsignedByteToInt(buffer[0])
+						| TiledParser.unsignedByteToInt(buffer[1]) << 8
+						| TiledParser.unsignedByteToInt(buffer[2]) << 16
+						| TiledParser.unsignedByteToInt(buffer[3]) << 24);
+			}
+		}
+	}
+
+	private static void setTile(TileLayer layer, int x, int y, int id) {
+		boolean flipHorizontally = (id & TiledParser.FLAG_FLIP_HORIZONTALLY) != 0;
+		boolean flipVertically = (id & TiledParser.FLAG_FLIP_VERTICALLY) != 0;
+		boolean flipDiagonally = (id & TiledParser.FLAG_FLIP_DIAGONALLY) != 0;
+		layer.setTileId(x, y, id & ~TiledParser.MASK_CLEAR, flipHorizontally, flipVertically, flipDiagonally);
+	}
+
+	/**
+	 * Decodes base64 text as it is read, skipping any whitespace
+	 */
+	private static class Base64InputStream extends InputStream {
+		private final CharSequence data;
+		private final byte[] decoded = new byte[3];
+
+		private int position, decodedPosition, decodedLength;
+
+		public Base64InputStream(CharSequence data) {
+			this.data = data;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (decodedPosition >= decodedLength && !decodeNext()) {
+				return -1;
+			}
+			return decoded[decodedPosition++] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			int result = 0;
+			while (result < len) {
+				if (decodedPosition >= decodedLength && !decodeNext()) {
+					break;
+				}
+				final int count = Math.min(len - result, decodedLength - decodedPosition);
+				System.arraycopy(decoded, decodedPosition, b, off + result, count);
+				decodedPosition += count;
+				result += count;
+			}
+			return result == 0 ? -1 : result;
+		}
+
+		private boolean decodeNext() throws IOException {
+			int bits = 0;
+			int count = 0;
+			int padding = 0;
+			while (count < 4 && position < data.length()) {
+				final char c = data.charAt(position++);
+				if (c == '=') {
+					bits <<= 6;
+					padding++;
+					count++;
+					continue;
+				}
+				if (Character.isWhitespace(c)) {
+					continue;
+				}
+				final int value = decodeCharacter(c);
+				if (value < 0) {
+					throw new IOException("Illegal character '" + c + "' in base64 TMX Layer Data");
+				}
+				bits = (bits << 6) | value;
+				count++;
+			}
+			if (count == 0) {
+				return false;
+			}
+			if (count < 4) {
+				throw new IOException("Truncated base64 TMX Layer Data");
+			}
+			decoded[0] = (byte) (bits >> 16);
+			decoded[1] = (byte) (bits >> 8);
+			decoded[2] = (byte) bits;
+			decodedPosition = 0;
+			decodedLength = 3 - padding;
+			return decodedLength > 0;
+		}
+
+		private static int decodeCharacter(char c) {
+			if (c >= 'A' && c <= 'Z') {
+				return c - 'A';
+			}
+			if (c >= 'a' && c <= 'z') {
+				return c - 'a' + 26;
+			}
+			if (c >= '0' && c <= '9') {
+				return c - '0' + 52;
+			}
+			if (c == '+') {
+				return 62;
+			}
+			if (c == '/') {
+				return 63;
+			}
+			return -1;
+		}
+	}
+}
@@ -34,6 +34,15 @@ public class TiledMap {
 	 * Set to true to optimise CPU time (at cost of memory usage) for rendering tile layers that are mostly empty
 	 */
 	public static boolean FAST_RENDER_EMPTY_LAYERS = false;
+	/**
+	 * The width and height (in tiles) of the chunks tile layers are split into when layer caching is enabled
+	 */
+	public static int CACHED_CHUNK_SIZE = 32;
+	/**
+	 * The approximate amount of memory (in bytes) each map may use for cached tile layer chunks. Once exceeded,
+	 * the least recently rendered chunks are discarded.
+	 */
+	public static int CACHED_CHUNK_MEMORY_BUDGET = 16 * 1024 * 1024;
 
 	private final TiledMapData tiledMapData;
 
@@ -493,6 +502,17 @@ public class TiledMap {
 		return tiledMapData.getTile(tileId);
 	}
 
+	/**
+	 * Returns the {@link Tileset} containing the given tile ID
+	 * 
+	 * @param tileId
+	 *            The tile ID to search for
+	 * @return Null if no {@link Tileset} contains the tile ID
+	 */
+	public Tileset getTileset(int tileId) {
+		return tiledMapData.getTileset(tileId);
+	}
+
 	/**
 	 * Returns the {@link Tile} at the given coordinate on a specific layer
 	 * 
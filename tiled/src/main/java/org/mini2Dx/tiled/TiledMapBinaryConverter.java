@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled;
+
+import java.io.IOException;
+
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Converts TMX files to the binary map format for faster loading at runtime.
+ * Intended to be run as part of a game's build, e.g.
+ * <em>java org.mini2Dx.tiled.TiledMapBinaryConverter maps/level1.tmx maps/level2.tmx</em>
+ */
+public class TiledMapBinaryConverter {
+
+	/**
+	 * Converts a TMX file to a binary map in the same directory
+	 * 
+	 * @param tmxFileHandle
+	 *            The TMX file to convert
+	 * @return The binary map file that was written
+	 * @throws IOException
+	 *             Thrown if the binary map could not be written
+	 */
+	public static FileHandle convert(FileHandle tmxFileHandle) throws IOException {
+		final FileHandle binaryFileHandle = tmxFileHandle
+				.sibling(tmxFileHandle.nameWithoutExtension() + "." + TiledMapBinaryWriter.FILE_EXTENSION);
+		convert(tmxFileHandle, binaryFileHandle);
+		return binaryFileHandle;
+	}
+
+	/**
+	 * Converts a TMX file to a binary map
+	 * 
+	 * @param tmxFileHandle
+	 *            The TMX file to convert
+	 * @param binaryFileHandle
+	 *            The file to write to. Must be in the same directory as the
+	 *            TMX file.
+	 * @throws IOException
+	 *             Thrown if the binary map could not be written
+	 */
+	public static void convert(FileHandle tmxFileHandle, FileHandle binaryFileHandle) throws IOException {
+		final TiledMapData tiledMapData = new TiledMapData(new TiledParser(), tmxFileHandle);
+		new TiledMapBinaryWriter().write(tiledMapData, binaryFileHandle);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("Usage: " + TiledMapBinaryConverter.class.getName() + " <tmx file>...");
+			System.exit(1);
+		}
+		for (String path : args) {
+			final FileHandle binaryFileHandle = convert(new FileHandle(path));
+			System.out.println("Converted " + path + " to " + binaryFileHandle.path());
+		}
+	}
+}
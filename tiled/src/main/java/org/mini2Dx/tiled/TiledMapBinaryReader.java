@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import org.mini2Dx.core.util.FileHandleUtils;
+import org.mini2Dx.tiled.renderer.AnimatedTileRenderer;
+import org.mini2Dx.tiled.renderer.TileFrame;
+import org.mini2Dx.tiled.tileset.ImageTilesetSource;
+import org.mini2Dx.tiled.tileset.TsxTilesetSource;
+
+/**
+ * Reads maps written by {@link TiledMapBinaryWriter} and notifies the
+ * {@link TiledParser}'s listeners in the same order as parsing the original
+ * TMX file
+ */
+class TiledMapBinaryReader {
+	private static final TiledObjectShape[] OBJECT_SHAPES = TiledObjectShape.values();
+
+	private final TiledParser tiledParser;
+
+	TiledMapBinaryReader(TiledParser tiledParser) {
+		this.tiledParser = tiledParser;
+	}
+
+	/**
+	 * Returns if a file is a binary map
+	 * 
+	 * @param fileHandle
+	 *            The file to check
+	 * @return True if the file has the binary map extension
+	 */
+	static boolean isBinaryMap(FileHandle fileHandle) {
+		return fileHandle.extension().equalsIgnoreCase(TiledMapBinaryWriter.FILE_EXTENSION);
+	}
+
+	void read(FileHandle fileHandle) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap(fileHandle.readBytes());
+		try {
+			read(buffer, fileHandle);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Unexpected end of binary map " + fileHandle.path(), e);
+		}
+	}
+
+	private void read(ByteBuffer buffer, FileHandle fileHandle) throws IOException {
+		if (buffer.getInt() != TiledMapBinaryWriter.MAGIC) {
+			throw new IOException(fileHandle.path() + " is not a binary map");
+		}
+		final int version = buffer.getInt();
+		if (version != TiledMapBinaryWriter.VERSION) {
+			throw new IOException("Unsupported binary map version " + version + " in " + fileHandle.path());
+		}
+
+		final String orientation = readString(buffer);
+		final String staggerAxis = readString(buffer);
+		final String staggerIndex = readString(buffer);
+		Color backgroundColor = null;
+		if (readBoolean(buffer)) {
+			backgroundColor = new Color(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+		}
+		final int width = buffer.getInt();
+		final int height = buffer.getInt();
+		final int tileWidth = buffer.getInt();
+		final int tileHeight = buffer.getInt();
+		final int sideLength = buffer.getInt();
+		tiledParser.notifyBeginParsing(orientation, staggerAxis, staggerIndex, backgroundColor, width, height,
+				tileWidth, tileHeight, sideLength);
+
+		final int totalProperties = buffer.getInt();
+		for (int i = 0; i < totalProperties; i++) {
+			tiledParser.notifyMapPropertyParsed(readString(buffer), readString(buffer));
+		}
+
+		final int totalTilesets = buffer.getInt();
+		for (int i = 0; i < totalTilesets; i++) {
+			readTileset(buffer, fileHandle);
+		}
+
+		final Layer[] layers = new Layer[buffer.getInt()];
+		for (int i = 0; i < layers.length; i++) {
+			layers[i] = readLayer(buffer, layers);
+		}
+	}
+
+	private void readTileset(ByteBuffer buffer, FileHandle fileHandle) throws IOException {
+		final int firstGid = buffer.getInt();
+		final byte type = buffer.get();
+		final boolean objectTemplateTileset = readBoolean(buffer);
+
+		final Tileset tileset;
+		switch (type) {
+		case TiledMapBinaryWriter.TILESET_TSX: {
+			final TsxTilesetSource tilesetSource = new TsxTilesetSource(fileHandle, readString(buffer));
+			tileset = new Tileset(firstGid, tilesetSource);
+			tiledParser.notifyTsxTilePropertiesParsed(tilesetSource);
+			break;
+		}
+		case TiledMapBinaryWriter.TILESET_IMAGE: {
+			final ImageTilesetSource tilesetSource = new ImageTilesetSource(buffer.getInt(), buffer.getInt(),
+					buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+			tilesetSource.setName(readString(buffer));
+			tilesetSource.setTilesetImagePath(FileHandleUtils.normalise(fileHandle.sibling(readString(buffer)).path()));
+			tilesetSource.setTransparentColorValue(readString(buffer));
+			final int totalProperties = buffer.getInt();
+			for (int i = 0; i < totalProperties; i++) {
+				tilesetSource.setProperty(readString(buffer), readString(buffer));
+			}
+			tileset = new Tileset(firstGid, tilesetSource);
+
+			final int totalTiles = buffer.getInt();
+			final Tile[] tiles = new Tile[totalTiles];
+			for (int i = 0; i < totalTiles; i++) {
+				final Tile tile = tilesetSource.getTile(buffer.getInt(), 0);
+				final int totalTileProperties = buffer.getInt();
+				for (int j = 0; j < totalTileProperties; j++) {
+					tile.setProperty(readString(buffer), readString(buffer));
+				}
+				final int totalFrames = buffer.getInt();
+				if (totalFrames > 0) {
+					final TileFrame[] frames = new TileFrame[totalFrames];
+					for (int j = 0; j < totalFrames; j++) {
+						final int tileId = buffer.getInt();
+						frames[j] = new TileFrame(buffer.getFloat(), tileId);
+					}
+					tile.setTileRenderer(new AnimatedTileRenderer(tilesetSource, frames));
+				}
+				tiles[i] = tile;
+			}
+			TiledParser.setStaticTileRenderers(tilesetSource);
+			for (int i = 0; i < totalTiles; i++) {
+				tiledParser.notifyTilePropertyParsed(tiles[i]);
+			}
+			break;
+		}
+		default:
+			throw new IOException("Unsupported tileset type " + type + " in " + fileHandle.path());
+		}
+
+		if (objectTemplateTileset) {
+			TiledMapData.OBJECT_TEMPLATE_TILESET_SOURCES.add(tileset.getSourceInternalUuid());
+		}
+		tiledParser.notifyTilesetParsed(tileset);
+	}
+
+	private Layer readLayer(ByteBuffer buffer, Layer[] layers) throws IOException {
+		final byte type = buffer.get();
+		final String name = readString(buffer);
+		final boolean visible = readBoolean(buffer);
+		final int totalProperties = buffer.getInt();
+		final String[] properties = new String[Math.max(0, totalProperties) * 2];
+		for (int i = 0; i < properties.length; i++) {
+			properties[i] = readString(buffer);
+		}
+
+		final Layer result;
+		switch (type) {
+		case TiledMapBinaryWriter.LAYER_TILE: {
+			final TileLayer tileLayer = new TileLayer(buffer.getInt(), buffer.getInt());
+			final int[] tiles = tileLayer.getRawTiles();
+			buffer.asIntBuffer().get(tiles);
+			buffer.position(buffer.position() + (tiles.length * 4));
+			result = tileLayer;
+			break;
+		}
+		case TiledMapBinaryWriter.LAYER_OBJECT_GROUP: {
+			final TiledObjectGroup objectGroup = new TiledObjectGroup();
+			objectGroup.setWidth(buffer.getInt());
+			objectGroup.setHeight(buffer.getInt());
+			final int totalObjects = buffer.getInt();
+			for (int i = 0; i < totalObjects; i++) {
+				objectGroup.getObjects().add(readObject(buffer));
+			}
+			result = objectGroup;
+			break;
+		}
+		case TiledMapBinaryWriter.LAYER_GROUP: {
+			final GroupLayer groupLayer = new GroupLayer();
+			final int totalChildren = buffer.getInt();
+			for (int i = 0; i < totalChildren; i++) {
+				groupLayer.getLayers().add(layers[buffer.getInt()]);
+			}
+			result = groupLayer;
+			break;
+		}
+		default:
+			throw new IOException("Unsupported layer type " + type);
+		}
+
+		result.setName(name);
+		result.setVisible(visible);
+		for (int i = 0; i < properties.length; i += 2) {
+			result.setProperty(properties[i], properties[i + 1]);
+		}
+
+		switch (type) {
+		case TiledMapBinaryWriter.LAYER_TILE:
+			tiledParser.notifyTileLayerParsed((TileLayer) result);
+			break;
+		case TiledMapBinaryWriter.LAYER_OBJECT_GROUP:
+			tiledParser.notifyObjectGroupParsed((TiledObjectGroup) result);
+			break;
+		default:
+			tiledParser.notifyGroupLayerParsed((GroupLayer) result);
+			break;
+		}
+		return result;
+	}
+
+	private TiledObject readObject(ByteBuffer buffer) throws IOException {
+		final TiledObject object = new TiledObject(buffer.getInt(), buffer.getFloat(), buffer.getFloat(),
+				buffer.getFloat(), buffer.getFloat());
+		object.setName(readString(buffer));
+		final String type = readString(buffer);
+		if (type != null) {
+			object.setType(type);
+		}
+		object.setVisible(readBoolean(buffer));
+		object.setGid(buffer.getInt());
+		object.setGidFlipHorizontally(readBoolean(buffer));
+		object.setGidFlipVertically(readBoolean(buffer));
+		object.setGidFlipDiagonally(readBoolean(buffer));
+		final int totalProperties = buffer.getInt();
+		for (int i = 0; i < totalProperties; i++) {
+			object.setProperty(readString(buffer), readString(buffer));
+		}
+
+		final TiledObjectShape objectShape = OBJECT_SHAPES[buffer.get()];
+		final int totalVertices = buffer.getInt();
+		float[] vertices = null;
+		if (totalVertices >= 0) {
+			vertices = new float[totalVertices];
+			for (int i = 0; i < totalVertices; i++) {
+				vertices[i] = buffer.getFloat();
+			}
+		}
+		object.setShape(objectShape, vertices);
+
+		final String text = readString(buffer);
+		final boolean wrapText = readBoolean(buffer);
+		if (objectShape == TiledObjectShape.TEXT) {
+			object.setAsText(text, wrapText);
+		}
+		return object;
+	}
+
+	private boolean readBoolean(ByteBuffer buffer) {
+		return buffer.get() != 0;
+	}
+
+	private String readString(ByteBuffer buffer) throws UnsupportedEncodingException {
+		final int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		final String result = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, "UTF-8");
+		buffer.position(buffer.position() + length);
+		return result;
+	}
+}
@@ -0,0 +1,314 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StreamUtils;
+import org.mini2Dx.tiled.renderer.AnimatedTileRenderer;
+import org.mini2Dx.tiled.renderer.TileFrame;
+import org.mini2Dx.tiled.tileset.ImageTilesetSource;
+import org.mini2Dx.tiled.tileset.TilesetSource;
+import org.mini2Dx.tiled.tileset.TsxTilesetSource;
+
+/**
+ * Writes {@link TiledMapData} to the mini2Dx binary map format. Binary maps
+ * are loaded by {@link TiledParser} without any XML parsing or layer data
+ * decoding. TSX tilesets are stored as references and shared between maps as
+ * with TMX files.
+ */
+public class TiledMapBinaryWriter {
+	/**
+	 * The file extension of binary maps
+	 */
+	public static final String FILE_EXTENSION = "tmxb";
+
+	static final int MAGIC = 0x4D445854;
+	static final int VERSION = 1;
+
+	static final byte TILESET_IMAGE = 0;
+	static final byte TILESET_TSX = 1;
+
+	static final byte LAYER_TILE = 0;
+	static final byte LAYER_OBJECT_GROUP = 1;
+	static final byte LAYER_GROUP = 2;
+
+	/**
+	 * Writes a map to a binary file
+	 * 
+	 * @param tiledMapData
+	 *            The {@link TiledMapData} to write
+	 * @param fileHandle
+	 *            The file to write to. Must be in the same directory as the
+	 *            original TMX file so that tileset paths resolve.
+	 * @throws IOException
+	 *             Thrown if the file could not be written
+	 */
+	public void write(TiledMapData tiledMapData, FileHandle fileHandle) throws IOException {
+		OutputStream outputStream = null;
+		try {
+			outputStream = fileHandle.write(false);
+			write(tiledMapData, outputStream);
+		} finally {
+			StreamUtils.closeQuietly(outputStream);
+		}
+	}
+
+	/**
+	 * Writes a map to an {@link OutputStream}. The stream is not closed.
+	 * 
+	 * @param tiledMapData
+	 *            The {@link TiledMapData} to write
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to
+	 * @throws IOException
+	 *             Thrown if the data could not be written
+	 */
+	public void write(TiledMapData tiledMapData, OutputStream outputStream) throws IOException {
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+		final String mapDirectory = tiledMapData.getFileHandle().parent().path();
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		writeString(out, tiledMapData.getOrientationValue());
+		writeString(out, tiledMapData.getStaggerAxis() != null ? tiledMapData.getStaggerAxis().name() : null);
+		writeString(out, tiledMapData.getStaggerIndex() != null ? tiledMapData.getStaggerIndex().name() : null);
+		final Color backgroundColor = tiledMapData.getBackgroundColor();
+		out.writeBoolean(backgroundColor != null);
+		if (backgroundColor != null) {
+			out.writeFloat(backgroundColor.r);
+			out.writeFloat(backgroundColor.g);
+			out.writeFloat(backgroundColor.b);
+			out.writeFloat(backgroundColor.a);
+		}
+		out.writeInt(tiledMapData.getWidth());
+		out.writeInt(tiledMapData.getHeight());
+		out.writeInt(tiledMapData.getTileWidth());
+		out.writeInt(tiledMapData.getTileHeight());
+		out.writeInt(tiledMapData.getSideLength());
+		writeProperties(out, tiledMapData.getProperties());
+
+		final Array<Tileset> tilesets = tiledMapData.getTilesets();
+		out.writeInt(tilesets.size);
+		for (int i = 0; i < tilesets.size; i++) {
+			writeTileset(out, tilesets.get(i), mapDirectory);
+		}
+
+		final Array<Layer> layers = tiledMapData.getLayers();
+		out.writeInt(layers.size);
+		for (int i = 0; i < layers.size; i++) {
+			writeLayer(out, layers.get(i), layers);
+		}
+		out.flush();
+	}
+
+	private void writeTileset(DataOutputStream out, Tileset tileset, String mapDirectory) throws IOException {
+		final TilesetSource tilesetSource = tileset.getTilesetSource();
+		out.writeInt(tileset.getFirstGid());
+
+		if (tilesetSource instanceof TsxTilesetSource) {
+			out.writeByte(TILESET_TSX);
+			out.writeBoolean(isObjectTemplateTileset(tileset));
+			writeString(out, relativise(mapDirectory, ((TsxTilesetSource) tilesetSource).getTsxPath()));
+			return;
+		}
+		if (!(tilesetSource instanceof ImageTilesetSource)) {
+			throw new IOException("Unsupported tileset source " + tilesetSource.getClass().getName());
+		}
+		final ImageTilesetSource imageTilesetSource = (ImageTilesetSource) tilesetSource;
+		out.writeByte(TILESET_IMAGE);
+		out.writeBoolean(isObjectTemplateTileset(tileset));
+		out.writeInt(imageTilesetSource.getWidth());
+		out.writeInt(imageTilesetSource.getHeight());
+		out.writeInt(imageTilesetSource.getTileWidth());
+		out.writeInt(imageTilesetSource.getTileHeight());
+		out.writeInt(imageTilesetSource.getSpacing());
+		out.writeInt(imageTilesetSource.getMargin());
+		writeString(out, imageTilesetSource.getName());
+		writeString(out, relativise(mapDirectory, imageTilesetSource.getTilesetImagePath()));
+		writeString(out, imageTilesetSource.getTransparentColorValue());
+		writeProperties(out, imageTilesetSource.getProperties());
+
+		final Array<Tile> tiles = new Array<Tile>();
+		for (int x = 0; x < imageTilesetSource.getWidthInTiles(); x++) {
+			for (int y = 0; y < imageTilesetSource.getHeightInTiles(); y++) {
+				final Tile tile = imageTilesetSource.getTileByPosition(x, y);
+				if (tile == null) {
+					continue;
+				}
+				if (tile.getProperties() == null && !(tile.getTileRenderer() instanceof AnimatedTileRenderer)) {
+					continue;
+				}
+				tiles.add(tile);
+			}
+		}
+		out.writeInt(tiles.size);
+		for (int i = 0; i < tiles.size; i++) {
+			final Tile tile = tiles.get(i);
+			out.writeInt(tile.getTileId());
+			writeProperties(out, tile.getProperties());
+
+			if (tile.getTileRenderer() instanceof AnimatedTileRenderer) {
+				final TileFrame[] frames = ((AnimatedTileRenderer) tile.getTileRenderer()).getFrames();
+				out.writeInt(frames.length);
+				for (TileFrame frame : frames) {
+					out.writeInt(frame.getTileId());
+					out.writeFloat(frame.getDuration());
+				}
+			} else {
+				out.writeInt(0);
+			}
+		}
+	}
+
+	private void writeLayer(DataOutputStream out, Layer layer, Array<Layer> layers) throws IOException {
+		switch (layer.getLayerType()) {
+		case TILE:
+			out.writeByte(LAYER_TILE);
+			break;
+		case OBJECT:
+			out.writeByte(LAYER_OBJECT_GROUP);
+			break;
+		case GROUP:
+			out.writeByte(LAYER_GROUP);
+			break;
+		default:
+			throw new IOException("Unsupported layer type " + layer.getLayerType());
+		}
+		writeString(out, layer.getName());
+		out.writeBoolean(layer.isVisible());
+		writeProperties(out, layer.getProperties());
+
+		switch (layer.getLayerType()) {
+		case TILE: {
+			final TileLayer tileLayer = (TileLayer) layer;
+			final int[] tiles = tileLayer.getRawTiles();
+			out.writeInt(tileLayer.getWidth());
+			out.writeInt(tileLayer.getHeight());
+
+			final ByteBuffer buffer = ByteBuffer.allocate(tiles.length * 4);
+			buffer.asIntBuffer().put(tiles);
+			out.write(buffer.array());
+			break;
+		}
+		case OBJECT: {
+			final TiledObjectGroup objectGroup = (TiledObjectGroup) layer;
+			out.writeInt(objectGroup.getWidth());
+			out.writeInt(objectGroup.getHeight());
+			out.writeInt(objectGroup.getObjects().size);
+			for (int i = 0; i < objectGroup.getObjects().size; i++) {
+				writeObject(out, objectGroup.getObjects().get(i));
+			}
+			break;
+		}
+		case GROUP: {
+			// Child layers are always parsed before their group
+			final Array<Layer> children = ((GroupLayer) layer).getLayers();
+			out.writeInt(children.size);
+			for (int i = 0; i < children.size; i++) {
+				out.writeInt(layers.indexOf(children.get(i), true));
+			}
+			break;
+		}
+		default:
+			break;
+		}
+	}
+
+	private void writeObject(DataOutputStream out, TiledObject object) throws IOException {
+		out.writeInt(object.getId());
+		out.writeFloat(object.getX());
+		out.writeFloat(object.getY());
+		out.writeFloat(object.getWidth());
+		out.writeFloat(object.getHeight());
+		writeString(out, object.getName());
+		writeString(out, object.getType());
+		out.writeBoolean(object.isVisible());
+		out.writeInt(object.getGid());
+		out.writeBoolean(object.isGidFlipHorizontally());
+		out.writeBoolean(object.isGidFlipVertically());
+		out.writeBoolean(object.isGidFlipDiagonally());
+		writeProperties(out, object.getProperties());
+
+		out.writeByte(object.getObjectShape().ordinal());
+		final float[] vertices = object.getVertices();
+		out.writeInt(vertices != null ? vertices.length : -1);
+		if (vertices != null) {
+			for (int i = 0; i < vertices.length; i++) {
+				out.writeFloat(vertices[i]);
+			}
+		}
+		writeString(out, object.getText());
+		out.writeBoolean(object.isWrapText());
+	}
+
+	private void writeProperties(DataOutputStream out, ObjectMap<String, String> properties) throws IOException {
+		if (properties == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(properties.size);
+		for (ObjectMap.Entry<String, String> entry : properties.entries()) {
+			writeString(out, entry.key);
+			writeString(out, entry.value);
+		}
+	}
+
+	private void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		final byte[] bytes = value.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private boolean isObjectTemplateTileset(Tileset tileset) {
+		return TiledMapData.OBJECT_TEMPLATE_TILESET_SOURCES.contains(tileset.getSourceInternalUuid());
+	}
+
+	/**
+	 * Returns a path relative to the map's directory
+	 */
+	static String relativise(String directory, String path) {
+		final String[] directorySegments = directory.isEmpty() ? new String[0] : directory.split("/");
+		final String[] pathSegments = path.split("/");
+
+		int commonSegments = 0;
+		while (commonSegments < directorySegments.length && commonSegments < pathSegments.length - 1
+				&& directorySegments[commonSegments].equals(pathSegments[commonSegments])) {
+			commonSegments++;
+		}
+
+		final StringBuilder result = new StringBuilder();
+		for (int i = commonSegments; i < directorySegments.length; i++) {
+			result.append("../");
+		}
+		for (int i = commonSegments; i < pathSegments.length; i++) {
+			if (i > commonSegments) {
+				result.append('/');
+			}
+			result.append(pathSegments[i]);
+		}
+		return result.toString();
+	}
+}
@@ -33,6 +33,7 @@ import java.io.IOException;
 public class TiledMapData implements TiledParserListener {
 	protected final FileHandle fileHandle;
 	static final ObjectSet<String> OBJECT_TEMPLATE_TILESET_SOURCES = new ObjectSet<String>();
+	private static final int MAX_TILE_LOOKUP_SIZE = 1 << 20;
 
 	protected final Array<Tileset> tilesets = new Array<Tileset>(true, 2, Tileset.class);
 	protected final IntSet tilesetGids = new IntSet();
@@ -48,6 +49,10 @@ public class TiledMapData implements TiledParserListener {
 	private Array<Tile> animatedTiles;
 	private ObjectMap<String, String> properties;
 
+	private Tileset[] tilesetLookup;
+	private Tile[] tileLookup;
+	private int tilesetLookupCount = -1;
+
 	/**
 	 * 
 	 * @param fileHandle
@@ -75,6 +80,31 @@ public class TiledMapData implements TiledParserListener {
 			throw new TiledParsingException(e);
 		}
 		tiledParser.removeListener(this);
+		buildTileLookup();
+	}
+
+	/**
+	 * Builds the tile ID indexed lookup tables for {@link Tileset}s and
+	 * {@link Tile}s. Tile IDs are assigned per tileset so the tables only
+	 * change when the tilesets change.
+	 */
+	private void buildTileLookup() {
+		int length = 1;
+		for (int i = 0; i < tilesets.size; i++) {
+			length = Math.max(length, Math.min(tilesets.get(i).getLastGid(), MAX_TILE_LOOKUP_SIZE - 1) + 1);
+		}
+		final Tileset[] lookup = new Tileset[length];
+		// Iterate in reverse so that the first matching tileset wins
+		for (int i = tilesets.size - 1; i >= 0; i--) {
+			final Tileset tileset = tilesets.get(i);
+			final int lastGid = Math.min(tileset.getLastGid(), length - 1);
+			for (int gid = Math.max(tileset.getFirstGid(), 0); gid <= lastGid; gid++) {
+				lookup[gid] = tileset;
+			}
+		}
+		tileLookup = new Tile[length];
+		tilesetLookup = lookup;
+		tilesetLookupCount = tilesets.size;
 	}
 
 	public Array<AssetDescriptor> getDependencies() {
@@ -417,9 +447,47 @@ public class TiledMapData implements TiledParserListener {
 	 * @return Null if there is no {@link Tile} with the given ID
 	 */
 	public Tile getTile(int tileId) {
+		if (tilesetLookupCount != tilesets.size) {
+			buildTileLookup();
+		}
+		if (tileId < 0) {
+			return null;
+		}
+		if (tileId < tileLookup.length) {
+			Tile result = tileLookup[tileId];
+			if (result == null && tilesetLookup[tileId] != null) {
+				result = tilesetLookup[tileId].getTile(tileId);
+				tileLookup[tileId] = result;
+			}
+			return result;
+		}
+		final Tileset tileset = getTileset(tileId);
+		if (tileset == null) {
+			return null;
+		}
+		return tileset.getTile(tileId);
+	}
+
+	/**
+	 * Returns the {@link Tileset} containing the given tile ID
+	 * 
+	 * @param tileId
+	 *            The tile ID to search for
+	 * @return Null if no {@link Tileset} contains the tile ID
+	 */
+	public Tileset getTileset(int tileId) {
+		if (tilesetLookupCount != tilesets.size) {
+			buildTileLookup();
+		}
+		if (tileId < 0) {
+			return null;
+		}
+		if (tileId < tilesetLookup.length) {
+			return tilesetLookup[tileId];
+		}
 		for (int i = 0; i < tilesets.size; i++) {
 			if (tilesets.get(i).contains(tileId)) {
-				return tilesets.get(i).getTile(tileId);
+				return tilesets.get(i);
 			}
 		}
 		return null;
@@ -574,6 +642,19 @@ public class TiledMapData implements TiledParserListener {
 		return layers.size;
 	}
 
+	/**
+	 * Returns the properties {@link ObjectMap} of the map
+	 * 
+	 * @return Null if there are no properties
+	 */
+	public ObjectMap<String, String> getProperties() {
+		return properties;
+	}
+
+	String getOrientationValue() {
+		return orientationValue;
+	}
+
 	/**
 	 * Returns the background {@link Color} of the map
 	 * 
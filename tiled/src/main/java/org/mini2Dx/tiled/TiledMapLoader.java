@@ -22,6 +22,7 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
 import org.mini2Dx.tiled.TiledMapLoader.TiledMapParameter;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -41,6 +42,21 @@ public class TiledMapLoader extends AsynchronousAssetLoader<TiledMap, TiledMapPa
 		super(resolver);
 	}
 
+	/**
+	 * Constructor that decodes tile layers and parses TSX tilesets of each map
+	 * concurrently
+	 * 
+	 * @param resolver
+	 *            The {@link FileHandleResolver} to resolve files with
+	 * @param executorService
+	 *            The {@link ExecutorService} to decode tile layers and parse
+	 *            TSX tilesets on. This is not shut down by the loader.
+	 */
+	public TiledMapLoader(FileHandleResolver resolver, ExecutorService executorService) {
+		this(resolver);
+		tiledParser.setExecutorService(executorService);
+	}
+
 	@Override
 	public void loadAsync(AssetManager manager, String fileName, FileHandle file, TiledMapParameter parameter) {
 		if(parameter == null) {
@@ -61,6 +77,11 @@ public class TiledMapLoader extends AsynchronousAssetLoader<TiledMap, TiledMapPa
 		final TiledMap result = loadNextTiledMap(fileName, file, parameter);
 		result.loadTilesetTextures(manager);
 		this.nextTiledMap = null;
+
+		//The AssetManager now owns the map, release the parsed data so unloading frees it
+		lock.writeLock().lock();
+		tiledMapData.remove(fileName);
+		lock.writeLock().unlock();
 		return result;
 	}
 
@@ -376,6 +376,15 @@ public class TiledObject {
 		return vertices;
 	}
 
+	/**
+	 * Restores the shape and vertices of this object as previously returned by
+	 * {@link #getObjectShape()} and {@link #getVertices()}
+	 */
+	void setShape(TiledObjectShape objectShape, float[] vertices) {
+		this.objectShape = objectShape;
+		this.vertices = vertices;
+	}
+
 	public String getText() {
 		return text;
 	}
@@ -23,11 +23,11 @@ import org.mini2Dx.tiled.tileset.ImageTilesetSource;
 import org.mini2Dx.tiled.tileset.TilesetSource;
 import org.mini2Dx.tiled.tileset.TsxTilesetSource;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.zip.DataFormatException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.Inflater;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Parses Tiled XML files and notifies {@link TiledParserListener}s of map data
@@ -41,8 +41,15 @@ public class TiledParser implements TiledParserNotifier {
 	protected static final int MASK_CLEAR = 0xE0000000;
 
 	private XmlReader xmlReader;
+	private StreamingTmxReader streamingTmxReader;
 	private Array<TiledParserListener> listeners;
 	private final ObjectMap<String, TiledObjectTemplate> objectTemplates;
+	private final ObjectMap<Element, TileLayer> streamedTileLayers = new ObjectMap<Element, TileLayer>();
+	private final ObjectMap<Element, Future<TileLayer>> pendingTileLayers = new ObjectMap<Element, Future<TileLayer>>();
+	private final ObjectMap<Element, Future<TsxTilesetSource>> pendingTsxTilesetSources = new ObjectMap<Element, Future<TsxTilesetSource>>();
+
+	private boolean streaming = false;
+	private ExecutorService executorService;
 
 	/**
 	 * Constructor
@@ -56,12 +63,14 @@ public class TiledParser implements TiledParserNotifier {
 		this.objectTemplates = objectTemplates;
 
 		xmlReader = new XmlReader();
+		streamingTmxReader = new StreamingTmxReader();
 		listeners = new Array<TiledParserListener>();
 	}
 
 	/**
 	 * Parses a TMX file and notifies any {@link TiledParserListener}s of
-	 * parsing results
+	 * parsing results. Binary maps written by {@link TiledMapBinaryWriter} are
+	 * also supported and are used in place of a TMX file that does not exist.
 	 * 
 	 * @param tmxFileHandle
 	 *            A {@link FileHandle} to a TMX file exported from Tiled
@@ -69,7 +78,186 @@ public class TiledParser implements TiledParserNotifier {
 	 *             Thrown if the map file could not be parsed
 	 */
 	public void parseTmx(FileHandle tmxFileHandle) throws IOException {
+		if (TiledMapBinaryReader.isBinaryMap(tmxFileHandle)) {
+			new TiledMapBinaryReader(this).read(tmxFileHandle);
+			return;
+		}
+		if (!tmxFileHandle.exists()) {
+			final FileHandle binaryFileHandle = tmxFileHandle
+					.sibling(tmxFileHandle.nameWithoutExtension() + "." + TiledMapBinaryWriter.FILE_EXTENSION);
+			if (binaryFileHandle.exists()) {
+				new TiledMapBinaryReader(this).read(binaryFileHandle);
+				return;
+			}
+		}
+		if (streaming) {
+			streamingTmxReader.parseTmx(tmxFileHandle);
+			return;
+		}
 		Element root = xmlReader.parse(tmxFileHandle);
+		if (executorService != null) {
+			submitParallelTasks(root, tmxFileHandle);
+		}
+		try {
+			loadMapAttributes(root);
+
+			Element properties = root.getChildByName("properties");
+			if (properties != null) {
+				loadMapProperties(properties);
+			}
+			Array<Element> tilesets = root.getChildrenByName("tileset");
+			for (Element element : tilesets) {
+				loadTileSet(element, tmxFileHandle);
+				root.removeChild(element);
+			}
+			for (int i = 0, j = root.getChildCount(); i < j; i++) {
+				Element element = root.getChild(i);
+				String name = element.getName();
+				if (name.equals("layer")) {
+					loadTileLayer(element);
+				} else if (name.equals("objectgroup")) {
+					loadObjectGroup(element, tmxFileHandle);
+				} else if (name.equals("group")) {
+					loadGroupLayer(element, tmxFileHandle);
+				}
+			}
+		} finally {
+			discardPendingResults();
+		}
+	}
+
+	/**
+	 * Cancels any parallel tasks whose results were not used, e.g. because
+	 * parsing failed, and disposes any {@link TsxTilesetSource} that was
+	 * already created so that its tileset reference is released
+	 */
+	private void discardPendingResults() {
+		for (Future<TileLayer> pendingTileLayer : pendingTileLayers.values()) {
+			pendingTileLayer.cancel(false);
+		}
+		pendingTileLayers.clear();
+
+		for (Future<TsxTilesetSource> pendingTilesetSource : pendingTsxTilesetSources.values()) {
+			if (pendingTilesetSource.cancel(false)) {
+				continue;
+			}
+			try {
+				pendingTilesetSource.get().dispose();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// The tileset failed to load so holds no reference
+			}
+		}
+		pendingTsxTilesetSources.clear();
+	}
+
+	/**
+	 * Submits the decoding of tile layer data and parsing of TSX tilesets to
+	 * the {@link ExecutorService}. The results are collected in document order
+	 * as the elements are loaded so listeners are notified in the same order as
+	 * when parsing sequentially.
+	 */
+	private void submitParallelTasks(Element parent, final FileHandle tmxFileHandle) {
+		for (int i = 0, j = parent.getChildCount(); i < j; i++) {
+			final Element element = parent.getChild(i);
+			final String name = element.getName();
+			if (name.equals("tileset")) {
+				final String source = element.getAttribute("source", null);
+				if (source == null) {
+					continue;
+				}
+				pendingTsxTilesetSources.put(element, executorService.submit(new Callable<TsxTilesetSource>() {
+					@Override
+					public TsxTilesetSource call() throws Exception {
+						return new TsxTilesetSource(tmxFileHandle, source);
+					}
+				}));
+			} else if (name.equals("layer")) {
+				final Element data = element.getChildByName("data");
+				if (data == null) {
+					continue;
+				}
+				final TileLayer layer = createTileLayer(element);
+				final String encoding = data.getAttribute("encoding", null);
+				final String compression = data.getAttribute("compression", null);
+				final String text = data.getText();
+				pendingTileLayers.put(element, executorService.submit(new Callable<TileLayer>() {
+					@Override
+					public TileLayer call() throws Exception {
+						TileLayerDataDecoder.decode(layer, encoding, compression, text);
+						return layer;
+					}
+				}));
+			} else if (name.equals("group")) {
+				submitParallelTasks(element, tmxFileHandle);
+			}
+		}
+	}
+
+	private static <T> T getResult(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GdxRuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new GdxRuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Returns if TMX files are parsed as a stream
+	 * 
+	 * @return True if TMX files are parsed element by element rather than
+	 *         loading the whole document first
+	 */
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * Sets if TMX files are parsed as a stream. When streaming, listeners are
+	 * notified as each top-level element is read and tile layer data is
+	 * decoded straight into {@link TileLayer}s, which significantly reduces
+	 * memory usage when loading large maps. Defaults to false.
+	 * 
+	 * @param streaming
+	 *            True if TMX files should be parsed as a stream
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Returns the {@link ExecutorService} used to decode tile layers and
+	 * parse TSX tilesets in parallel
+	 * 
+	 * @return Null if TMX files are parsed on a single thread
+	 */
+	public ExecutorService getExecutorService() {
+		return executorService;
+	}
+
+	/**
+	 * Sets the {@link ExecutorService} to decode tile layers and parse TSX
+	 * tilesets with. When set, these are processed concurrently and the
+	 * results assembled in document order, so listeners are still notified in
+	 * the same order. Only applies when not streaming. The
+	 * {@link ExecutorService} is not shut down by the parser.
+	 * 
+	 * @param executorService
+	 *            The {@link ExecutorService} to use or null to parse on a
+	 *            single thread
+	 */
+	public void setExecutorService(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	private void loadMapAttributes(Element root) {
 		String mapOrientation = root.getAttribute("orientation", null);
 		int mapWidth = root.getIntAttribute("width", 0);
 		int mapHeight = root.getIntAttribute("height", 0);
@@ -85,27 +273,6 @@ public class TiledParser implements TiledParserNotifier {
 		}
 
 		notifyBeginParsing(mapOrientation, staggerAxis, staggerIndex, backgroundColor, mapWidth, mapHeight, tileWidth, tileHeight, sideLength);
-
-		Element properties = root.getChildByName("properties");
-		if (properties != null) {
-			loadMapProperties(properties);
-		}
-		Array<Element> tilesets = root.getChildrenByName("tileset");
-		for (Element element : tilesets) {
-			loadTileSet(element, tmxFileHandle);
-			root.removeChild(element);
-		}
-		for (int i = 0, j = root.getChildCount(); i < j; i++) {
-			Element element = root.getChild(i);
-			String name = element.getName();
-			if (name.equals("layer")) {
-				loadTileLayer(element);
-			} else if (name.equals("objectgroup")) {
-				loadObjectGroup(element, tmxFileHandle);
-			} else if (name.equals("group")) {
-				loadGroupLayer(element, tmxFileHandle);
-			}
-		}
 	}
 
 	/**
@@ -211,25 +378,11 @@ public class TiledParser implements TiledParserNotifier {
 				}
 			} else {
 				// TSX tileset
-				TsxTilesetSource tilesetSource = new TsxTilesetSource(tmxFile, source);
+				Future<TsxTilesetSource> pendingTilesetSource = pendingTsxTilesetSources.remove(element);
+				TsxTilesetSource tilesetSource = pendingTilesetSource != null ? getResult(pendingTilesetSource)
+						: new TsxTilesetSource(tmxFile, source);
 				tileset = new Tileset(firstGid, tilesetSource);
-				
-				for(int x = 0; x < tilesetSource.getWidthInTiles(); x++) {
-					for(int y = 0; y < tilesetSource.getHeightInTiles(); y++) {
-						Tile tile = tilesetSource.getTileByPosition(x, y);
-						if (tile == null) {
-							continue;
-						}
-						if (tile.getTileRenderer() == null) {
-							continue;
-						}
-						if (tile.getTileRenderer() instanceof AnimatedTileRenderer) {
-							notifyTilePropertyParsed(tile);
-						} else if(tile.getProperties() != null) {
-							notifyTilePropertyParsed(tile);
-						}
-					}
-				}
+				notifyTsxTilePropertiesParsed(tilesetSource);
 			}
 
 			notifyTilesetParsed(tileset);
@@ -283,6 +436,13 @@ public class TiledParser implements TiledParserNotifier {
 			}
 		}
 		
+		setStaticTileRenderers(tilesetSource);
+	}
+
+	/**
+	 * Sets a {@link StaticTileRenderer} on all tiles that are not animated
+	 */
+	static void setStaticTileRenderers(TilesetSource tilesetSource) {
 		for(int x = 0; x < tilesetSource.getWidthInTiles(); x++) {
 			for(int y = 0; y < tilesetSource.getHeightInTiles(); y++) {
 				Tile tile = tilesetSource.getTileByPosition(x, y);
@@ -297,6 +457,29 @@ public class TiledParser implements TiledParserNotifier {
 		}
 	}
 
+	/**
+	 * Notifies listeners of the animated tiles and tiles with properties in a
+	 * {@link TsxTilesetSource}
+	 */
+	void notifyTsxTilePropertiesParsed(TsxTilesetSource tilesetSource) {
+		for(int x = 0; x < tilesetSource.getWidthInTiles(); x++) {
+			for(int y = 0; y < tilesetSource.getHeightInTiles(); y++) {
+				Tile tile = tilesetSource.getTileByPosition(x, y);
+				if (tile == null) {
+					continue;
+				}
+				if (tile.getTileRenderer() == null) {
+					continue;
+				}
+				if (tile.getTileRenderer() instanceof AnimatedTileRenderer) {
+					notifyTilePropertyParsed(tile);
+				} else if(tile.getProperties() != null) {
+					notifyTilePropertyParsed(tile);
+				}
+			}
+		}
+	}
+
 	protected GroupLayer loadGroupLayer(Element layerElement, FileHandle tmxFileHandle) {
 		if (!layerElement.getName().equals("group")) {
 			return null;
@@ -346,104 +529,19 @@ public class TiledParser implements TiledParserNotifier {
 
 	protected TileLayer loadTileLayer(Element element) {
 		if (element.getName().equals("layer")) {
-			String name = element.getAttribute("name", null);
-			int width = element.getIntAttribute("width", 0);
-			int height = element.getIntAttribute("height", 0);
-			boolean visible = element.getIntAttribute("visible", 1) == 1;
-			TileLayer layer = new TileLayer(width, height);
-			layer.setVisible(visible);
-			layer.setName(name);
-
-			Element data = element.getChildByName("data");
-			String encoding = data.getAttribute("encoding", null);
-			String compression = data.getAttribute("compression", null);
-			if (encoding == null) { // no 'encoding' attribute means that the
-									// encoding is XML
-				throw new GdxRuntimeException("Unsupported encoding (XML) for TMX Layer Data");
-			}
-			if (encoding.equals("csv")) {
-				String[] array = data.getText().split(",");
-				for (int y = 0; y < height; y++) {
-					for (int x = 0; x < width; x++) {
-						int id = (int) Long.parseLong(array[y * width + x].trim());
-						id = id & ~MASK_CLEAR;
-						layer.setTileId(x, y, id);
-					}
+			TileLayer layer = streamedTileLayers.remove(element);
+			if (layer == null) {
+				Future<TileLayer> pendingTileLayer = pendingTileLayers.remove(element);
+				if (pendingTileLayer != null) {
+					layer = getResult(pendingTileLayer);
 				}
-			} else {
-				if (encoding.equals("base64")) {
-					byte[] bytes = Base64Coder.decode(data.getText());
-					if (compression == null) {
-						int read = 0;
-						for (int y = 0; y < height; y++) {
-							for (int x = 0; x < width; x++) {
-
-								int id = unsignedByteToInt(bytes[read++]) | unsignedByteToInt(bytes[read++]) << 8
-										| unsignedByteToInt(bytes[read++]) << 16
-										| unsignedByteToInt(bytes[read++]) << 24;
-								boolean flipHorizontally = (id & FLAG_FLIP_HORIZONTALLY) != 0;
-							    boolean flipVertically = (id & FLAG_FLIP_VERTICALLY) != 0;
-							    boolean flipDiagonally = (id & FLAG_FLIP_DIAGONALLY) != 0;
-								id = id & ~MASK_CLEAR;
-								layer.setTileId(x, y, id, flipHorizontally, flipVertically, flipDiagonally);
-							}
-						}
-					} else if (compression.equals("gzip")) {
-						GZIPInputStream GZIS = null;
-						try {
-							GZIS = new GZIPInputStream(new ByteArrayInputStream(bytes), bytes.length);
-						} catch (IOException e) {
-							throw new GdxRuntimeException(
-									"Error Reading TMX Layer Data - IOException: " + e.getMessage());
-						}
+			}
+			if (layer == null) {
+				layer = createTileLayer(element);
 
-						byte[] temp = new byte[4];
-						for (int y = 0; y < height; y++) {
-							for (int x = 0; x < width; x++) {
-								try {
-									GZIS.read(temp, 0, 4);
-									int id = unsignedByteToInt(temp[0]) | unsignedByteToInt(temp[1]) << 8
-											| unsignedByteToInt(temp[2]) << 16 | unsignedByteToInt(temp[3]) << 24;
-									boolean flipHorizontally = (id & FLAG_FLIP_HORIZONTALLY) != 0;
-								    boolean flipVertically = (id & FLAG_FLIP_VERTICALLY) != 0;
-								    boolean flipDiagonally = (id & FLAG_FLIP_DIAGONALLY) != 0;
-									id = id & ~MASK_CLEAR;
-									layer.setTileId(x, y, id, flipHorizontally, flipVertically, flipDiagonally);
-								} catch (IOException e) {
-									throw new GdxRuntimeException("Error Reading TMX Layer Data.", e);
-								}
-							}
-						}
-					} else if (compression.equals("zlib")) {
-						Inflater zlib = new Inflater();
-
-						byte[] temp = new byte[4];
-
-						zlib.setInput(bytes, 0, bytes.length);
-
-						for (int y = 0; y < height; y++) {
-							for (int x = 0; x < width; x++) {
-								try {
-									zlib.inflate(temp, 0, 4);
-									int id = unsignedByteToInt(temp[0]) | unsignedByteToInt(temp[1]) << 8
-											| unsignedByteToInt(temp[2]) << 16 | unsignedByteToInt(temp[3]) << 24;
-									boolean flipHorizontally = (id & FLAG_FLIP_HORIZONTALLY) != 0;
-								    boolean flipVertically = (id & FLAG_FLIP_VERTICALLY) != 0;
-								    boolean flipDiagonally = (id & FLAG_FLIP_DIAGONALLY) != 0;
-									id = id & ~MASK_CLEAR;
-									layer.setTileId(x, y, id, flipHorizontally, flipVertically, flipDiagonally);
-
-								} catch (DataFormatException e) {
-									throw new GdxRuntimeException("Error Reading TMX Layer Data.", e);
-								}
-							}
-						}
-					}
-				} else {
-					// any other value of 'encoding' is one we're not aware of,
-					// probably a feature of a future version of Tiled
-					throw new GdxRuntimeException("Unrecognised encoding (" + encoding + ") for TMX Layer Data");
-				}
+				Element data = element.getChildByName("data");
+				TileLayerDataDecoder.decode(layer, data.getAttribute("encoding", null),
+						data.getAttribute("compression", null), data.getText());
 			}
 			Element properties = element.getChildByName("properties");
 			if (properties != null) {
@@ -462,6 +560,17 @@ public class TiledParser implements TiledParserNotifier {
 		return null;
 	}
 
+	private TileLayer createTileLayer(Element element) {
+		String name = element.getAttribute("name", null);
+		int width = element.getIntAttribute("width", 0);
+		int height = element.getIntAttribute("height", 0);
+		boolean visible = element.getIntAttribute("visible", 1) == 1;
+		TileLayer layer = new TileLayer(width, height);
+		layer.setVisible(visible);
+		layer.setName(name);
+		return layer;
+	}
+
 	protected TiledObjectGroup loadObjectGroup(Element element, FileHandle tmxFile) {
 		if (element.getName().equals("objectgroup")) {
 			String name = element.getAttribute("name", null);
@@ -726,4 +835,103 @@ public class TiledParser implements TiledParserNotifier {
 				(Integer.valueOf(hexColor.substring(3, 5), 16) / 255f),
 				(Integer.valueOf(hexColor.substring(5, 7), 16) / 255f), 0f);
 	}
+
+	/**
+	 * Reads a TMX file element by element. Tile layer data is decoded as soon
+	 * as it is read and each top-level element is discarded once it has been
+	 * loaded, so the full document tree is never held in memory.
+	 */
+	private class StreamingTmxReader extends XmlReader {
+		private final Array<Element> elements = new Array<Element>(8);
+
+		private FileHandle tmxFileHandle;
+		private Element root;
+		private boolean beganParsing;
+
+		public void parseTmx(FileHandle tmxFileHandle) throws IOException {
+			this.tmxFileHandle = tmxFileHandle;
+			try {
+				parse(tmxFileHandle);
+			} finally {
+				this.tmxFileHandle = null;
+				root = null;
+				beganParsing = false;
+				elements.clear();
+				streamedTileLayers.clear();
+			}
+		}
+
+		@Override
+		protected void open(String name) {
+			final Element parent = elements.size > 0 ? elements.peek() : null;
+			if (parent != null && parent == root) {
+				// All map attributes have been read once its first child opens
+				beginParsing();
+			}
+			final Element element = new Element(name, parent);
+			if (parent != null) {
+				parent.addChild(element);
+			} else {
+				root = element;
+			}
+			elements.add(element);
+		}
+
+		@Override
+		protected void attribute(String name, String value) {
+			elements.peek().setAttribute(name, value);
+		}
+
+		@Override
+		protected void text(String text) {
+			final Element element = elements.peek();
+			final Element parent = element.getParent();
+			if (parent != null && element.getName().equals("data") && parent.getName().equals("layer")) {
+				TileLayer layer = streamedTileLayers.get(parent);
+				if (layer == null) {
+					layer = createTileLayer(parent);
+					streamedTileLayers.put(parent, layer);
+				}
+				TileLayerDataDecoder.decode(layer, element.getAttribute("encoding", null),
+						element.getAttribute("compression", null), text);
+				return;
+			}
+			final String existing = element.getText();
+			element.setText(existing != null ? existing + text : text);
+		}
+
+		@Override
+		protected void close() {
+			final Element element = elements.pop();
+			if (element == root) {
+				beginParsing();
+				return;
+			}
+			if (element.getParent() != root) {
+				return;
+			}
+
+			final String name = element.getName();
+			if (name.equals("properties")) {
+				loadMapProperties(element);
+			} else if (name.equals("tileset")) {
+				loadTileSet(element, tmxFileHandle);
+			} else if (name.equals("layer")) {
+				loadTileLayer(element);
+			} else if (name.equals("objectgroup")) {
+				loadObjectGroup(element, tmxFileHandle);
+			} else if (name.equals("group")) {
+				loadGroupLayer(element, tmxFileHandle);
+			}
+			root.removeChild(element);
+		}
+
+		private void beginParsing() {
+			if (beganParsing) {
+				return;
+			}
+			beganParsing = true;
+			loadMapAttributes(root);
+		}
+	}
 }
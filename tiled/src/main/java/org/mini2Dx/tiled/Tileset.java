@@ -320,6 +320,19 @@ public class Tileset implements Disposable {
 		return firstGid;
 	}
 
+	/**
+	 * Returns the last GID contained in this tileset
+	 * 
+	 * @return
+	 */
+	public int getLastGid() {
+		return lastGid;
+	}
+
+	TilesetSource getTilesetSource() {
+		return tilesetSource;
+	}
+
 	/**
 	 * Returns the {@link TilesetSource} UUID generated by mini2Dx
 	 * @return A non-null String
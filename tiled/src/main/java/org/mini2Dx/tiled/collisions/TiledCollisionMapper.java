@@ -19,6 +19,7 @@ import org.mini2Dx.tiled.TileLayer;
 import org.mini2Dx.tiled.TiledMap;
 import org.mini2Dx.tiled.TiledObject;
 import org.mini2Dx.tiled.TiledObjectGroup;
+import org.mini2Dx.tiled.collisions.merger.AllCollisionMerger;
 import org.mini2Dx.tiled.collisions.merger.TileIdCollisionMerger;
 
 /**
@@ -814,6 +815,84 @@ public class TiledCollisionMapper<T extends Positionable> {
 		}
 	}
 
+	/**
+	 * Creates a {@link TiledCollisionMesh} that merges the collisions in a
+	 * {@link TiledMap} layer using a packed bitmap. Tiles are determined as
+	 * mergeable by the {@link TiledCollisionMerger} instance associated with
+	 * this {@link TiledCollisionMapper}. This is significantly faster than
+	 * {@link #mapAndMergeCollisionsByLayer(QuadTree, TiledMap, int)} for large
+	 * layers, especially with an {@link AllCollisionMerger}, and allows
+	 * changed tiles to be re-merged without rebuilding every collision.
+	 * 
+	 * @param tiledMap
+	 *            The {@link TiledMap} to extract collisions from
+	 * @param layerName
+	 *            The name of the layer to extract collisions from. Each tile drawn
+	 *            in the layer is treated as a collision.
+	 * @return Null if the layer does not exist
+	 */
+	public TiledCollisionMesh<T> createCollisionMesh(TiledMap tiledMap, String layerName) {
+		return createCollisionMesh(tiledMap, tiledMap.getLayerIndex(layerName));
+	}
+
+	/**
+	 * Creates a {@link TiledCollisionMesh} that merges the collisions in a
+	 * {@link TiledMap} layer using a packed bitmap. Tiles are determined as
+	 * mergeable by the {@link TiledCollisionMerger} instance associated with
+	 * this {@link TiledCollisionMapper}.
+	 * 
+	 * @param tiledMap
+	 *            The {@link TiledMap} to extract collisions from
+	 * @param layerIndex
+	 *            The index of the layer to extract collisions from. Each tile drawn
+	 *            in the layer is treated as a collision.
+	 * @return Null if the layer does not exist
+	 */
+	public TiledCollisionMesh<T> createCollisionMesh(TiledMap tiledMap, int layerIndex) {
+		return createMesh(tiledMap, layerIndex, false);
+	}
+
+	/**
+	 * Creates a {@link TiledCollisionMesh} that merges the empty spaces in a
+	 * {@link TiledMap} layer using a packed bitmap. Tiles are determined as
+	 * mergeable by the {@link TiledCollisionMerger} instance associated with
+	 * this {@link TiledCollisionMapper}.
+	 * 
+	 * @param tiledMap
+	 *            The {@link TiledMap} to extract empty spaces from
+	 * @param layerName
+	 *            The name of the layer to extract empty spaces from
+	 * @return Null if the layer does not exist
+	 */
+	public TiledCollisionMesh<T> createEmptySpaceMesh(TiledMap tiledMap, String layerName) {
+		return createEmptySpaceMesh(tiledMap, tiledMap.getLayerIndex(layerName));
+	}
+
+	/**
+	 * Creates a {@link TiledCollisionMesh} that merges the empty spaces in a
+	 * {@link TiledMap} layer using a packed bitmap. Tiles are determined as
+	 * mergeable by the {@link TiledCollisionMerger} instance associated with
+	 * this {@link TiledCollisionMapper}.
+	 * 
+	 * @param tiledMap
+	 *            The {@link TiledMap} to extract empty spaces from
+	 * @param layerIndex
+	 *            The index of the layer to extract empty spaces from
+	 * @return Null if the layer does not exist
+	 */
+	public TiledCollisionMesh<T> createEmptySpaceMesh(TiledMap tiledMap, int layerIndex) {
+		return createMesh(tiledMap, layerIndex, true);
+	}
+
+	private TiledCollisionMesh<T> createMesh(TiledMap tiledMap, int layerIndex, boolean emptySpaces) {
+		if (layerIndex < 0) {
+			return null;
+		}
+		final TiledCollisionMerger merger = collisionMerger instanceof AllCollisionMerger ? null : collisionMerger;
+		return new TiledCollisionMesh<T>(collisionFactory, merger, tiledMap, tiledMap.getTileLayer(layerIndex),
+				emptySpaces);
+	}
+
 	private T mergeCollisions(final int startX, final int startY, final int maxColumns, final int maxRows,
 			byte[][] collisions, TileLayer layer, TiledMap tiledMap) {
 		return mergeMode.merge(collisionFactory, collisionMerger, startX, startY, maxColumns, maxRows, collisions,
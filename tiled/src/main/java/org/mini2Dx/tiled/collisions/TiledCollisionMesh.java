@@ -0,0 +1,407 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled.collisions;
+
+import org.mini2Dx.core.collisions.QuadTree;
+import org.mini2Dx.core.engine.Positionable;
+import org.mini2Dx.tiled.Tile;
+import org.mini2Dx.tiled.TileLayer;
+import org.mini2Dx.tiled.TiledMap;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Merges the collisions (or empty spaces) of a {@link TileLayer} into
+ * rectangles using greedy meshing over a packed bitmap of the layer.
+ * 
+ * Rows are scanned top to bottom. Each unclaimed run of tiles in a row is
+ * widened as far as possible and then extended downwards while every tile
+ * below the run is also unclaimed. Runs are found 64 tiles at a time using
+ * bitwise operations.
+ * 
+ * After tiles are changed via {@link #setTileId(int, int, int)} or
+ * {@link #markDirty(int, int, int, int)}, {@link #update(QuadTree)} only
+ * re-merges the rectangles that overlap the changed area.
+ */
+public class TiledCollisionMesh<T extends Positionable> {
+	private static final int RECTANGLE_STRIDE = 4;
+
+	private final TiledCollisionFactory<T> collisionFactory;
+	private final TiledCollisionMerger collisionMerger;
+	private final TiledMap tiledMap;
+	private final TileLayer layer;
+	private final boolean emptySpaces;
+	private final int width, height, wordsPerRow;
+	/**
+	 * 1 if the tile is a collision (or an empty space)
+	 */
+	private final long[] bits;
+	/**
+	 * 1 if the tile needs to be merged into a new rectangle
+	 */
+	private final long[] pending;
+
+	private final Array<T> collisions = new Array<T>(false, 32);
+	/**
+	 * x, y, width, height of each collision in tiles
+	 */
+	private final IntArray rectangles = new IntArray(false, 32 * RECTANGLE_STRIDE);
+	private final Array<T> tmpRemoved = new Array<T>(false, 8);
+	private final Array<T> tmpAdded = new Array<T>(false, 8);
+
+	private int dirtyMinX = Integer.MAX_VALUE, dirtyMinY = Integer.MAX_VALUE;
+	private int dirtyMaxX = -1, dirtyMaxY = -1;
+
+	/**
+	 * Constructor. Merges the entire layer immediately.
+	 * 
+	 * @param collisionFactory
+	 *            The {@link TiledCollisionFactory} to create collisions with
+	 * @param collisionMerger
+	 *            The {@link TiledCollisionMerger} for determining if tiles can
+	 *            be merged. Null if all tiles can be merged which allows runs to
+	 *            be found with bitwise operations only.
+	 * @param tiledMap
+	 *            The {@link TiledMap} the layer belongs to
+	 * @param layer
+	 *            The {@link TileLayer} to merge
+	 * @param emptySpaces
+	 *            True if empty tiles should be merged instead of drawn tiles
+	 */
+	public TiledCollisionMesh(TiledCollisionFactory<T> collisionFactory, TiledCollisionMerger collisionMerger,
+			TiledMap tiledMap, TileLayer layer, boolean emptySpaces) {
+		this.collisionFactory = collisionFactory;
+		this.collisionMerger = collisionMerger;
+		this.tiledMap = tiledMap;
+		this.layer = layer;
+		this.emptySpaces = emptySpaces;
+		this.width = layer.getWidth();
+		this.height = layer.getHeight();
+		this.wordsPerRow = (width + 63) >>> 6;
+		this.bits = new long[wordsPerRow * height];
+		this.pending = new long[wordsPerRow * height];
+
+		markDirty(0, 0, width, height);
+		update(tmpRemoved, tmpAdded);
+		tmpAdded.clear();
+	}
+
+	/**
+	 * Sets the tile ID in the {@link TileLayer} and marks the tile as dirty
+	 * 
+	 * @param x
+	 *            The x coordinate of the tile
+	 * @param y
+	 *            The y coordinate of the tile
+	 * @param tileId
+	 *            The new tile ID
+	 */
+	public void setTileId(int x, int y, int tileId) {
+		layer.setTileId(x, y, tileId);
+		markDirty(x, y, 1, 1);
+	}
+
+	/**
+	 * Re-reads an area of the {@link TileLayer} after it was modified directly.
+	 * The area is re-merged on the next call to {@link #update(QuadTree)}.
+	 * 
+	 * @param x
+	 *            The x coordinate of the area (in tiles)
+	 * @param y
+	 *            The y coordinate of the area (in tiles)
+	 * @param areaWidth
+	 *            The width of the area (in tiles)
+	 * @param areaHeight
+	 *            The height of the area (in tiles)
+	 */
+	public void markDirty(int x, int y, int areaWidth, int areaHeight) {
+		final int minX = Math.max(0, x);
+		final int minY = Math.max(0, y);
+		final int maxX = Math.min(width, x + areaWidth) - 1;
+		final int maxY = Math.min(height, y + areaHeight) - 1;
+		if (maxX < minX || maxY < minY) {
+			return;
+		}
+		for (int ty = minY; ty <= maxY; ty++) {
+			final int rowOffset = ty * wordsPerRow;
+			for (int tx = minX; tx <= maxX; tx++) {
+				final long mask = 1L << (tx & 63);
+				if ((layer.getTileId(tx, ty) == 0) == emptySpaces) {
+					bits[rowOffset + (tx >>> 6)] |= mask;
+				} else {
+					bits[rowOffset + (tx >>> 6)] &= ~mask;
+				}
+			}
+		}
+		dirtyMinX = Math.min(dirtyMinX, minX);
+		dirtyMinY = Math.min(dirtyMinY, minY);
+		dirtyMaxX = Math.max(dirtyMaxX, maxX);
+		dirtyMaxY = Math.max(dirtyMaxY, maxY);
+	}
+
+	/**
+	 * Re-merges the dirty area and updates a {@link QuadTree} with the
+	 * removed and added collisions
+	 * 
+	 * @param quadTree
+	 *            The {@link QuadTree} containing this mesh's collisions
+	 */
+	public void update(QuadTree<T> quadTree) {
+		if (!isDirty()) {
+			return;
+		}
+		update(tmpRemoved, tmpAdded);
+		quadTree.removeAll(tmpRemoved);
+		quadTree.addAll(tmpAdded);
+		tmpRemoved.clear();
+		tmpAdded.clear();
+	}
+
+	/**
+	 * Re-merges the dirty area
+	 * 
+	 * @param removed
+	 *            The {@link Array} to add collisions that no longer exist to
+	 * @param added
+	 *            The {@link Array} to add new collisions to
+	 */
+	public void update(Array<T> removed, Array<T> added) {
+		if (!isDirty()) {
+			return;
+		}
+		int minX = dirtyMinX, minY = dirtyMinY, maxX = dirtyMaxX, maxY = dirtyMaxY;
+		markPending(dirtyMinX, dirtyMinY, dirtyMaxX + 1, dirtyMaxY + 1);
+
+		final int[] items = rectangles.items;
+		for (int i = collisions.size - 1; i >= 0; i--) {
+			final int offset = i * RECTANGLE_STRIDE;
+			final int rectX = items[offset];
+			final int rectY = items[offset + 1];
+			final int rectMaxX = rectX + items[offset + 2];
+			final int rectMaxY = rectY + items[offset + 3];
+			if (rectX > dirtyMaxX || rectY > dirtyMaxY || rectMaxX <= dirtyMinX || rectMaxY <= dirtyMinY) {
+				continue;
+			}
+			markPending(rectX, rectY, rectMaxX, rectMaxY);
+			minX = Math.min(minX, rectX);
+			minY = Math.min(minY, rectY);
+			maxX = Math.max(maxX, rectMaxX - 1);
+			maxY = Math.max(maxY, rectMaxY - 1);
+
+			removed.add(collisions.get(i));
+			removeRectangle(i);
+		}
+
+		dirtyMinX = Integer.MAX_VALUE;
+		dirtyMinY = Integer.MAX_VALUE;
+		dirtyMaxX = -1;
+		dirtyMaxY = -1;
+
+		merge(minX, minY, maxX, maxY, added);
+	}
+
+	private void merge(int minX, int minY, int maxX, int maxY, Array<T> added) {
+		for (int y = minY; y <= maxY; y++) {
+			final int rowOffset = y * wordsPerRow;
+			int x = nextSetBit(pending, rowOffset, minX, maxX);
+			while (x >= 0) {
+				final Tile startTile = tiledMap.getTile(layer.getTileId(x, y));
+				int endX = nextClearBit(pending, rowOffset, x, maxX);
+				if (collisionMerger != null) {
+					for (int tx = x + 1; tx < endX; tx++) {
+						if (!collisionMerger.isMergable(tiledMap, layer, startTile, x, y, tx, y)) {
+							endX = tx;
+							break;
+						}
+					}
+				}
+
+				int endY = y + 1;
+				while (endY <= maxY && isRangeSet(pending, endY * wordsPerRow, x, endX)
+						&& isRowMergable(startTile, x, y, endX, endY)) {
+					endY++;
+				}
+				for (int ty = y; ty < endY; ty++) {
+					clearRange(pending, ty * wordsPerRow, x, endX);
+				}
+				addRectangle(startTile, x, y, endX - x, endY - y, added);
+
+				x = endX > maxX ? -1 : nextSetBit(pending, rowOffset, endX, maxX);
+			}
+		}
+	}
+
+	private boolean isRowMergable(Tile startTile, int startX, int startY, int endX, int y) {
+		if (collisionMerger == null) {
+			return true;
+		}
+		for (int x = startX; x < endX; x++) {
+			if (!collisionMerger.isMergable(tiledMap, layer, startTile, startX, startY, x, y)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void addRectangle(Tile startTile, int x, int y, int widthInTiles, int heightInTiles, Array<T> added) {
+		final T collision = collisionFactory.createCollision(tiledMap, startTile, x * tiledMap.getTileWidth(),
+				y * tiledMap.getTileHeight(), widthInTiles * tiledMap.getTileWidth(),
+				heightInTiles * tiledMap.getTileHeight());
+		if (collision == null) {
+			return;
+		}
+		collisions.add(collision);
+		rectangles.add(x);
+		rectangles.add(y);
+		rectangles.add(widthInTiles);
+		rectangles.add(heightInTiles);
+		added.add(collision);
+	}
+
+	private void removeRectangle(int index) {
+		collisions.removeIndex(index);
+
+		final int[] items = rectangles.items;
+		final int lastOffset = rectangles.size - RECTANGLE_STRIDE;
+		System.arraycopy(items, lastOffset, items, index * RECTANGLE_STRIDE, RECTANGLE_STRIDE);
+		rectangles.size = lastOffset;
+	}
+
+	private void markPending(int minX, int minY, int maxXExclusive, int maxYExclusive) {
+		for (int y = minY; y < maxYExclusive; y++) {
+			final int rowOffset = y * wordsPerRow;
+			final int endWord = (maxXExclusive - 1) >>> 6;
+			for (int word = minX >>> 6; word <= endWord; word++) {
+				final long mask = rangeMask(word, minX, maxXExclusive);
+				pending[rowOffset + word] |= bits[rowOffset + word] & mask;
+			}
+		}
+	}
+
+	/**
+	 * Returns the bits of a word within [fromX, toX)
+	 */
+	static long rangeMask(int word, int fromX, int toX) {
+		final int wordStart = word << 6;
+		final int lo = Math.max(fromX, wordStart) - wordStart;
+		final int hi = Math.min(toX, wordStart + 64) - wordStart;
+		final long highMask = hi == 64 ? -1L : (1L << hi) - 1L;
+		return highMask & (-1L << lo);
+	}
+
+	/**
+	 * Returns the first set bit in [fromX, toX] of a row or -1 if there is none
+	 */
+	static int nextSetBit(long[] bits, int rowOffset, int fromX, int toX) {
+		int word = fromX >>> 6;
+		final int endWord = toX >>> 6;
+		long value = bits[rowOffset + word] & (-1L << (fromX & 63));
+		while (true) {
+			if (value != 0L) {
+				final int result = (word << 6) + Long.numberOfTrailingZeros(value);
+				return result <= toX ? result : -1;
+			}
+			word++;
+			if (word > endWord) {
+				return -1;
+			}
+			value = bits[rowOffset + word];
+		}
+	}
+
+	/**
+	 * Returns the first clear bit in [fromX, toX] of a row or toX + 1 if there
+	 * is none
+	 */
+	static int nextClearBit(long[] bits, int rowOffset, int fromX, int toX) {
+		int word = fromX >>> 6;
+		final int endWord = toX >>> 6;
+		long value = ~bits[rowOffset + word] & (-1L << (fromX & 63));
+		while (true) {
+			if (value != 0L) {
+				return Math.min(toX + 1, (word << 6) + Long.numberOfTrailingZeros(value));
+			}
+			word++;
+			if (word > endWord) {
+				return toX + 1;
+			}
+			value = ~bits[rowOffset + word];
+		}
+	}
+
+	/**
+	 * Returns if all bits in [fromX, toX) of a row are set
+	 */
+	static boolean isRangeSet(long[] bits, int rowOffset, int fromX, int toX) {
+		final int endWord = (toX - 1) >>> 6;
+		for (int word = fromX >>> 6; word <= endWord; word++) {
+			final long mask = rangeMask(word, fromX, toX);
+			if ((bits[rowOffset + word] & mask) != mask) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Clears all bits in [fromX, toX) of a row
+	 */
+	static void clearRange(long[] bits, int rowOffset, int fromX, int toX) {
+		final int endWord = (toX - 1) >>> 6;
+		for (int word = fromX >>> 6; word <= endWord; word++) {
+			bits[rowOffset + word] &= ~rangeMask(word, fromX, toX);
+		}
+	}
+
+	/**
+	 * Returns if a tile is a collision (or an empty space if this mesh merges
+	 * empty spaces) as of the last call to
+	 * {@link #markDirty(int, int, int, int)}
+	 * 
+	 * @param x
+	 *            The x coordinate of the tile
+	 * @param y
+	 *            The y coordinate of the tile
+	 * @return True if the tile is set
+	 */
+	public boolean isSet(int x, int y) {
+		return (bits[(y * wordsPerRow) + (x >>> 6)] & (1L << (x & 63))) != 0L;
+	}
+
+	/**
+	 * Returns if there are changes that have not been merged yet
+	 * 
+	 * @return True if {@link #update(QuadTree)} needs to be called
+	 */
+	public boolean isDirty() {
+		return dirtyMaxX >= 0;
+	}
+
+	/**
+	 * Returns the current collisions of this mesh
+	 * 
+	 * @return An {@link Array} of collisions in no particular order
+	 */
+	public Array<T> getCollisions() {
+		return collisions;
+	}
+
+	/**
+	 * Returns the {@link TileLayer} this mesh was created from
+	 * 
+	 * @return The {@link TileLayer}
+	 */
+	public TileLayer getLayer() {
+		return layer;
+	}
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled.collisions;
+
+import org.mini2Dx.core.collisions.QuadTree;
+import org.mini2Dx.core.engine.Positionable;
+import org.mini2Dx.tiled.TiledMap;
+import org.mini2Dx.tiled.world.TiledWorld;
+import org.mini2Dx.tiled.world.TiledWorldChunk;
+import org.mini2Dx.tiled.world.TiledWorldListener;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Maintains the collisions of a {@link TiledWorld} in a single {@link QuadTree}
+ * using world coordinates. Collisions are extracted with a
+ * {@link TiledCollisionMapper} when a chunk is loaded and removed when the
+ * chunk is unloaded.
+ */
+public class TiledWorldCollisionMapper<T extends Positionable> implements TiledWorldListener {
+	private final TiledCollisionMapper<T> collisionMapper;
+	private final QuadTree<T> quadTree;
+	private final Array<String> layerNames = new Array<String>(true, 2, String.class);
+	private final Array<String> objectGroupNames = new Array<String>(true, 2, String.class);
+	private final ObjectMap<TiledWorldChunk, Array<T>> chunkCollisions = new ObjectMap<TiledWorldChunk, Array<T>>();
+
+	private boolean mergeLayers = false;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param collisionMapper
+	 *            The {@link TiledCollisionMapper} to extract collisions with
+	 * @param quadTree
+	 *            The {@link QuadTree} covering the world to add collisions to
+	 */
+	public TiledWorldCollisionMapper(TiledCollisionMapper<T> collisionMapper, QuadTree<T> quadTree) {
+		this.collisionMapper = collisionMapper;
+		this.quadTree = quadTree;
+	}
+
+	/**
+	 * Adds a tile layer to extract collisions from. Each tile drawn in the layer
+	 * is treated as a collision.
+	 * 
+	 * @param layerName
+	 *            The name of the layer
+	 */
+	public void addLayer(String layerName) {
+		layerNames.add(layerName);
+	}
+
+	/**
+	 * Adds an object group to extract collisions from. Each object is treated as
+	 * a collision.
+	 * 
+	 * @param groupName
+	 *            The name of the object group
+	 */
+	public void addObjectGroup(String groupName) {
+		objectGroupNames.add(groupName);
+	}
+
+	@Override
+	public void onChunkLoaded(TiledWorld world, TiledWorldChunk chunk) {
+		final TiledMap tiledMap = chunk.getTiledMap();
+		final Array<T> collisions = new Array<T>();
+		for (int i = 0; i < layerNames.size; i++) {
+			if (mergeLayers) {
+				collisionMapper.mapAndMergeCollisionsByLayer(collisions, tiledMap, layerNames.get(i));
+			} else {
+				collisionMapper.mapCollisionsByLayer(collisions, tiledMap, layerNames.get(i));
+			}
+		}
+		for (int i = 0; i < objectGroupNames.size; i++) {
+			collisionMapper.mapCollisionsByObjectGroup(collisions, tiledMap, objectGroupNames.get(i));
+		}
+		for (int i = 0; i < collisions.size; i++) {
+			final T collision = collisions.get(i);
+			collision.setX(collision.getX() + chunk.getX());
+			collision.setY(collision.getY() + chunk.getY());
+		}
+		quadTree.addAll(collisions);
+		chunkCollisions.put(chunk, collisions);
+	}
+
+	@Override
+	public void onChunkUnloaded(TiledWorld world, TiledWorldChunk chunk) {
+		final Array<T> collisions = chunkCollisions.remove(chunk);
+		if (collisions == null) {
+			return;
+		}
+		quadTree.removeAll(collisions);
+	}
+
+	/**
+	 * Returns the collisions currently in the {@link QuadTree} for a chunk
+	 * 
+	 * @param chunk
+	 *            The {@link TiledWorldChunk}
+	 * @return Null if the chunk is not loaded
+	 */
+	public Array<T> getCollisions(TiledWorldChunk chunk) {
+		return chunkCollisions.get(chunk);
+	}
+
+	/**
+	 * Returns if collisions in tile layers are merged using the
+	 * {@link TiledCollisionMerger} of the {@link TiledCollisionMapper}
+	 * 
+	 * @return False by default
+	 */
+	public boolean isMergeLayers() {
+		return mergeLayers;
+	}
+
+	/**
+	 * Sets if collisions in tile layers are merged using the
+	 * {@link TiledCollisionMerger} of the {@link TiledCollisionMapper}
+	 * 
+	 * @param mergeLayers
+	 *            True if collisions should be merged
+	 */
+	public void setMergeLayers(boolean mergeLayers) {
+		this.mergeLayers = mergeLayers;
+	}
+}
@@ -33,6 +33,14 @@ public class AnimatedTileRenderer implements TileRenderer {
 		this.frames = frames;
 	}
 
+	/**
+	 * Returns the frames of the animation
+	 * @return The {@link TileFrame}s in playback order
+	 */
+	public TileFrame[] getFrames() {
+		return frames;
+	}
+
 	@Override
 	public void update(float delta) {
 		// Prevent duplicate updates per frame
@@ -11,16 +11,19 @@
  */
 package org.mini2Dx.tiled.renderer;
 
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.math.MathUtils;
 import org.mini2Dx.core.graphics.Graphics;
+import org.mini2Dx.tiled.Tile;
 import org.mini2Dx.tiled.TileLayer;
 import org.mini2Dx.tiled.TiledMap;
-import org.mini2Dx.tiled.Tileset;
 
 /**
  * Renders hexagonal {@link TileLayer}s
  */
 public class HexagonalTileLayerRenderer implements TileLayerRenderer {
+	private TileLayerChunkCache layerCache;
+
 	private final boolean cacheLayers;
 	private final TiledMap tiledMap;
 
@@ -51,12 +54,25 @@ public class HexagonalTileLayerRenderer implements TileLayerRenderer {
 		halfHexHeight = MathUtils.round(hexHeight * 0.5f);
 		threeQuarterHexWidth = MathUtils.round(hexWidth * 0.75f);
 		threeQuarterHexHeight = MathUtils.round(hexHeight * 0.75f);
+
+		if (cacheLayers) {
+			layerCache = new TileLayerChunkCache(new TileLayerChunkCache.ChunkBuilder() {
+				@Override
+				public int buildChunk(SpriteCache spriteCache, TileLayer layer, int startTileX, int startTileY,
+						int widthInTiles, int heightInTiles) {
+					return renderLayerToCache(spriteCache, layer, startTileX, startTileY, widthInTiles, heightInTiles);
+				}
+			});
+		}
 	}
 
 	@Override
 	public void drawLayer(Graphics g, TileLayer layer, int renderX, int renderY, int startTileX, int startTileY,
 			int widthInTiles, int heightInTiles) {
-		// TODO: Support caching
+		if (cacheLayers) {
+			renderCachedLayer(g, layer, renderX, renderY, startTileX, startTileY, widthInTiles, heightInTiles);
+			return;
+		}
 		switch (tiledMap.getStaggerAxis()) {
 		case X:
 			drawStaggeredXLayer(g, layer, renderX, renderY, startTileX, startTileY, widthInTiles, heightInTiles);
@@ -162,19 +178,126 @@ public class HexagonalTileLayerRenderer implements TileLayerRenderer {
 		}
 	}
 
-	private void renderTile(Graphics g, int tileId, int tileRenderX, int tileRenderY) {
-		for (int i = 0; i < tiledMap.getTilesets().size; i++) {
-			Tileset tileset = tiledMap.getTilesets().get(i);
-			if (tileset.contains(tileId)) {
-				tileset.getTile(tileId).draw(g, tileRenderX, tileRenderY);
+	/**
+	 * Draws the chunks intersecting the requested area. Chunks are drawn whole
+	 * so tiles outside the area may also be drawn.
+	 */
+	private void renderCachedLayer(Graphics g, TileLayer layer, int renderX, int renderY, int startTileX,
+			int startTileY, int widthInTiles, int heightInTiles) {
+		final int endTileX = Math.min(startTileX + widthInTiles, layer.getWidth()) - 1;
+		final int endTileY = Math.min(startTileY + heightInTiles, layer.getHeight()) - 1;
+		if (endTileX < 0 || endTileY < 0) {
+			return;
+		}
+		final int chunkSize = layerCache.getChunkSize();
+		final int startChunkX = Math.max(0, startTileX) / chunkSize;
+		final int startChunkY = Math.max(0, startTileY) / chunkSize;
+		final int endChunkX = endTileX / chunkSize;
+		final int endChunkY = endTileY / chunkSize;
+
+		final int translateX, translateY;
+		switch (tiledMap.getStaggerAxis()) {
+		case X:
+			translateX = renderX - (startTileX * threeQuarterHexWidth);
+			translateY = renderY - (startTileY * hexHeight);
+			break;
+		case Y:
+		default:
+			translateX = renderX - (startTileX * hexWidth);
+			translateY = renderY - (startTileY * threeQuarterHexHeight);
+			break;
+		}
+		g.translate(-translateX, -translateY);
+
+		for (int chunkY = startChunkY; chunkY <= endChunkY; chunkY++) {
+			for (int chunkX = startChunkX; chunkX <= endChunkX; chunkX++) {
+				layerCache.drawChunk(g, layer, chunkX, chunkY);
+			}
+		}
+
+		g.translate(translateX, translateY);
+	}
+
+	private int renderLayerToCache(SpriteCache spriteCache, TileLayer layer, int startTileX, int startTileY,
+			int widthInTiles, int heightInTiles) {
+		int result = 0;
+		for (int y = startTileY; y < startTileY + heightInTiles; y++) {
+			switch (tiledMap.getStaggerAxis()) {
+			case X: {
+				// Unstaggered columns are drawn before staggered columns
+				final int staggeredColumn = isStaggered(1) ? 1 : 0;
+				result += renderRowToCache(spriteCache, layer, startTileX, widthInTiles, y, 1 - staggeredColumn);
+				result += renderRowToCache(spriteCache, layer, startTileX, widthInTiles, y, staggeredColumn);
+				break;
+			}
+			case Y:
+			default:
+				for (int x = startTileX; x < startTileX + widthInTiles; x++) {
+					int tileId = layer.getTileId(x, y);
+					if (tileId < 1) {
+						continue;
+					}
+					int tileRenderX = (x * hexWidth) + (isStaggered(y) ? halfHexWidth : 0);
+					int tileRenderY = y * threeQuarterHexHeight;
+					result += renderTileToCache(spriteCache, tileId, tileRenderX, tileRenderY);
+				}
 				break;
 			}
 		}
+		return result;
+	}
+
+	private int renderRowToCache(SpriteCache spriteCache, TileLayer layer, int startTileX, int widthInTiles, int y,
+			int columnParity) {
+		int result = 0;
+		for (int x = startTileX + ((startTileX + columnParity) % 2); x < startTileX + widthInTiles; x += 2) {
+			int tileId = layer.getTileId(x, y);
+			if (tileId < 1) {
+				continue;
+			}
+			int tileRenderX = x * threeQuarterHexWidth;
+			int tileRenderY = (y * hexHeight) + (isStaggered(x) ? halfHexHeight : 0);
+			result += renderTileToCache(spriteCache, tileId, tileRenderX, tileRenderY);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns if a column (stagger axis X) or row (stagger axis Y) is offset
+	 * by half a hex
+	 */
+	private boolean isStaggered(int index) {
+		switch (tiledMap.getStaggerIndex()) {
+		case EVEN:
+			return index % 2 == 0;
+		case ODD:
+		default:
+			return index % 2 == 1;
+		}
+	}
+
+	private int renderTileToCache(SpriteCache spriteCache, int tileId, int tileRenderX, int tileRenderY) {
+		final Tile tile = tiledMap.getTile(tileId);
+		if (tile == null) {
+			return 0;
+		}
+		spriteCache.add(tile.getTileRenderer().getCurrentTileImage(), tileRenderX, tileRenderY);
+		return 1;
+	}
+
+	private void renderTile(Graphics g, int tileId, int tileRenderX, int tileRenderY) {
+		final Tile tile = tiledMap.getTile(tileId);
+		if (tile != null) {
+			tile.draw(g, tileRenderX, tileRenderY);
+		}
 	}
 
 	@Override
 	public void dispose() {
-
+		if (layerCache == null) {
+			return;
+		}
+		layerCache.dispose();
 	}
 
 }
@@ -11,18 +11,19 @@
  */
 package org.mini2Dx.tiled.renderer;
 
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.math.MathUtils;
 import org.mini2Dx.core.graphics.Graphics;
+import org.mini2Dx.tiled.Tile;
 import org.mini2Dx.tiled.TileLayer;
 import org.mini2Dx.tiled.TiledMap;
-import org.mini2Dx.tiled.Tileset;
 
 /**
  * Renders isometric {@link TileLayer}s
  */
 public class IsometricTileLayerRenderer implements TileLayerRenderer {
-	private TiledMapRenderArea mapClip, tmpClip;
-	
+	private TileLayerChunkCache layerCache;
+
 	private final boolean cacheLayers;
 	private final TiledMap tiledMap;
 	private final float halfTileWidth, halfTileHeight;
@@ -34,15 +35,85 @@ public class IsometricTileLayerRenderer implements TileLayerRenderer {
 		
 		this.halfTileWidth = tiledMap.getTileWidth() / 2f;
 		this.halfTileHeight = tiledMap.getTileHeight() / 2f;
+
+		if (cacheLayers) {
+			layerCache = new TileLayerChunkCache(new TileLayerChunkCache.ChunkBuilder() {
+				@Override
+				public int buildChunk(SpriteCache spriteCache, TileLayer layer, int startTileX, int startTileY,
+						int widthInTiles, int heightInTiles) {
+					return renderLayerToCache(spriteCache, layer, startTileX, startTileY, widthInTiles, heightInTiles);
+				}
+			});
+		}
 	}
 
 	@Override
 	public void drawLayer(Graphics g, TileLayer layer, int renderX, int renderY, int startTileX, int startTileY,
 			int widthInTiles, int heightInTiles) {
-		
-		//TODO: Support cached layers through SpriteCache
-		renderLayer(g, layer, renderX, renderY, startTileX,
-				startTileY, widthInTiles, heightInTiles);
+		if (cacheLayers) {
+			renderCachedLayer(g, layer, renderX, renderY, startTileX, startTileY, widthInTiles, heightInTiles);
+		} else {
+			renderLayer(g, layer, renderX, renderY, startTileX, startTileY, widthInTiles, heightInTiles);
+		}
+	}
+
+	/**
+	 * Draws the chunks intersecting the requested area. Chunks are drawn whole
+	 * and back to front so tiles outside the area may also be drawn.
+	 */
+	private void renderCachedLayer(Graphics g, TileLayer layer, int renderX, int renderY, int startTileX,
+			int startTileY, int widthInTiles, int heightInTiles) {
+		final int endTileX = Math.min(startTileX + widthInTiles, layer.getWidth()) - 1;
+		final int endTileY = Math.min(startTileY + heightInTiles, layer.getHeight()) - 1;
+		if (endTileX < 0 || endTileY < 0) {
+			return;
+		}
+		final int chunkSize = layerCache.getChunkSize();
+		final int startChunkX = Math.max(0, startTileX) / chunkSize;
+		final int startChunkY = Math.max(0, startTileY) / chunkSize;
+		final int endChunkX = endTileX / chunkSize;
+		final int endChunkY = endTileY / chunkSize;
+
+		final int translateX = MathUtils.round(renderX - ((startTileX - startTileY) * halfTileWidth));
+		final int translateY = MathUtils.round(renderY - ((startTileX + startTileY) * halfTileHeight));
+		g.translate(-translateX, -translateY);
+
+		for (int diagonal = startChunkX + startChunkY; diagonal <= endChunkX + endChunkY; diagonal++) {
+			for (int chunkX = Math.max(startChunkX, diagonal - endChunkY); chunkX <= Math.min(endChunkX,
+					diagonal - startChunkY); chunkX++) {
+				layerCache.drawChunk(g, layer, chunkX, diagonal - chunkX);
+			}
+		}
+
+		g.translate(translateX, translateY);
+	}
+
+	private int renderLayerToCache(SpriteCache spriteCache, TileLayer layer, int startTileX, int startTileY,
+			int widthInTiles, int heightInTiles) {
+		final int endTileX = startTileX + widthInTiles - 1;
+		final int endTileY = startTileY + heightInTiles - 1;
+
+		int result = 0;
+		for (int diagonal = startTileX + startTileY; diagonal <= endTileX + endTileY; diagonal++) {
+			for (int x = Math.max(startTileX, diagonal - endTileY); x <= Math.min(endTileX,
+					diagonal - startTileY); x++) {
+				final int y = diagonal - x;
+				int tileId = layer.getTileId(x, y);
+				if (tileId < 1) {
+					continue;
+				}
+
+				int tileRenderX = MathUtils.round((x - y) * halfTileWidth);
+				int tileRenderY = MathUtils.round((x + y) * halfTileHeight);
+
+				final Tile tile = tiledMap.getTile(tileId);
+				if (tile != null) {
+					spriteCache.add(tile.getTileRenderer().getCurrentTileImage(), tileRenderX, tileRenderY);
+					result++;
+				}
+			}
+		}
+		return result;
 	}
 	
 	private void renderLayer(Graphics g, TileLayer layer, int renderX,
@@ -68,12 +139,9 @@ public class IsometricTileLayerRenderer implements TileLayerRenderer {
 				int tileRenderX = MathUtils.round(renderX + ((relativeTileX - relativeTileY) * halfTileWidth));
 				int tileRenderY = MathUtils.round(renderY + ((relativeTileX + relativeTileY) * halfTileHeight));
 				
-				for (int i = 0; i < tiledMap.getTilesets().size; i++) {
-					Tileset tileset = tiledMap.getTilesets().get(i);
-					if (tileset.contains(tileId)) {
-						tileset.getTile(tileId).draw(g, tileRenderX, tileRenderY);
-						break;
-					}
+				final Tile tile = tiledMap.getTile(tileId);
+				if (tile != null) {
+					tile.draw(g, tileRenderX, tileRenderY);
 				}
 			}
 		}
@@ -105,7 +173,10 @@ public class IsometricTileLayerRenderer implements TileLayerRenderer {
 	
 	@Override
 	public void dispose() {
-		
+		if (layerCache == null) {
+			return;
+		}
+		layerCache.dispose();
 	}
 
 }
@@ -17,7 +17,6 @@ import org.mini2Dx.core.graphics.Graphics;
 import org.mini2Dx.tiled.Tile;
 import org.mini2Dx.tiled.TileLayer;
 import org.mini2Dx.tiled.TiledMap;
-import org.mini2Dx.tiled.Tileset;
 
 /**
  * Optimises CPU time (at cost of memory) for rendering orthogonal {@link TileLayer}s
@@ -76,13 +75,7 @@ public class OrthogonalEmptyTileLayerRenderer implements TileLayerRenderer {
 			}
 
 			if(tileRef.tile == null) {
-				for (int i = 0; i < tiledMap.getTilesets().size; i++) {
-					Tileset tileset = tiledMap.getTilesets().get(i);
-					if (tileset.contains(tileRef.tileId)) {
-						tileRef.tile = tileset.getTile(tileRef.tileId);
-						break;
-					}
-				}
+				tileRef.tile = tiledMap.getTile(tileRef.tileId);
 			}
 			if(tileRef.tile != null) {
 				boolean flipHorizontally = layer.isFlippedHorizontally(tileRef.x, tileRef.y);
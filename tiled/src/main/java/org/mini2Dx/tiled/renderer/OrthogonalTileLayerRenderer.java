@@ -13,7 +13,6 @@ package org.mini2Dx.tiled.renderer;
 
 import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.utils.IntIntMap;
 import com.badlogic.gdx.utils.IntMap;
 import org.mini2Dx.core.geom.Rectangle;
 import org.mini2Dx.core.graphics.Graphics;
@@ -23,9 +22,7 @@ import org.mini2Dx.tiled.*;
  * Renders orthogonal {@link TileLayer}s
  */
 public class OrthogonalTileLayerRenderer implements TileLayerRenderer {
-	private TiledMapRenderArea mapClip, tmpClip;
-	private SpriteCache layerCache;
-	private IntIntMap layerCacheIds;
+	private TileLayerChunkCache layerCache;
 	private IntMap<OrthogonalEmptyTileLayerRenderer> emptyTileLayerRenderers;
 
 	private final boolean cacheLayers;
@@ -38,11 +35,14 @@ public class OrthogonalTileLayerRenderer implements TileLayerRenderer {
 		this.tiledMap = tiledMap;
 
 		if (cacheLayers) {
-			layerCache = new SpriteCache(5000, true);
-			layerCacheIds = new IntIntMap();
+			layerCache = new TileLayerChunkCache(new TileLayerChunkCache.ChunkBuilder() {
+				@Override
+				public int buildChunk(SpriteCache spriteCache, TileLayer layer, int startTileX, int startTileY,
+						int widthInTiles, int heightInTiles) {
+					return renderLayerToCache(spriteCache, layer, startTileX, startTileY, widthInTiles, heightInTiles);
+				}
+			});
 		}
-		mapClip = new TiledMapRenderArea();
-		tmpClip = new TiledMapRenderArea();
 
 		if(TiledMap.FAST_RENDER_EMPTY_LAYERS && !cacheLayers) {
 			emptyTileLayerRenderers = new IntMap<OrthogonalEmptyTileLayerRenderer>();
@@ -111,7 +111,7 @@ public class OrthogonalTileLayerRenderer implements TileLayerRenderer {
 			g.setClip(graphicsClip);
 		}
 
-		renderCachedLayer(g, layer, 0, 0, startTileX, startTileY, widthInTiles, heightInTiles);
+		renderCachedLayer(g, layer, startTileX, startTileY, widthInTiles, heightInTiles);
 
 		g.removeClip();
 		g.translate(tileRenderX, tileRenderY);
@@ -121,23 +121,24 @@ public class OrthogonalTileLayerRenderer implements TileLayerRenderer {
 		}
 	}
 
-	private void renderCachedLayer(Graphics g, TileLayer layer, int renderX, int renderY, int startTileX,
-			int startTileY, int widthInTiles, int heightInTiles) {
-		tmpClip.set(startTileX, startTileY, widthInTiles, heightInTiles);
-		if (!mapClip.equals(tmpClip)) {
-			layerCache.clear();
-			layerCacheIds.clear();
-			mapClip.set(startTileX, startTileY, widthInTiles, heightInTiles);
-		}
-		if (!layerCacheIds.containsKey(layer.getIndex())) {
-			renderLayerToCache(g, layer, renderX, renderY, startTileX, startTileY, widthInTiles, heightInTiles);
-		}
-
-		int cacheId = layerCacheIds.get(layer.getIndex(), -1);
-		if(cacheId < 0) {
+	private void renderCachedLayer(Graphics g, TileLayer layer, int startTileX, int startTileY, int widthInTiles,
+			int heightInTiles) {
+		final int endTileX = Math.min(startTileX + widthInTiles, layer.getWidth()) - 1;
+		final int endTileY = Math.min(startTileY + heightInTiles, layer.getHeight()) - 1;
+		if (endTileX < 0 || endTileY < 0) {
 			return;
 		}
-		g.drawSpriteCache(layerCache, cacheId);
+		final int chunkSize = layerCache.getChunkSize();
+		final int startChunkX = Math.max(0, startTileX) / chunkSize;
+		final int startChunkY = Math.max(0, startTileY) / chunkSize;
+		final int endChunkX = endTileX / chunkSize;
+		final int endChunkY = endTileY / chunkSize;
+
+		for (int chunkY = startChunkY; chunkY <= endChunkY; chunkY++) {
+			for (int chunkX = startChunkX; chunkX <= endChunkX; chunkX++) {
+				layerCache.drawChunk(g, layer, chunkX, chunkY);
+			}
+		}
 	}
 
 	private void renderLayer(Graphics g, TileLayer layer, int renderX, int renderY, int startTileX, int startTileY,
@@ -169,20 +170,17 @@ public class OrthogonalTileLayerRenderer implements TileLayerRenderer {
 					continue;
 				}
 
-				for (int i = 0; i < tiledMap.getTilesets().size; i++) {
-					Tileset tileset = tiledMap.getTilesets().get(i);
-					if (tileset.contains(tileId)) {
-						tileset.getTile(tileId).draw(g, tileRenderX, tileRenderY, flipHorizontally, flipVertically, flipDiagonally);
-						break;
-					}
+				final Tile tile = tiledMap.getTile(tileId);
+				if (tile != null) {
+					tile.draw(g, tileRenderX, tileRenderY, flipHorizontally, flipVertically, flipDiagonally);
 				}
 			}
 		}
 	}
 
-	private void renderLayerToCache(Graphics g, TileLayer layer, int renderX, int renderY, int startTileX,
-			int startTileY, int widthInTiles, int heightInTiles) {
-		layerCache.beginCache();
+	private int renderLayerToCache(SpriteCache spriteCache, TileLayer layer, int startTileX, int startTileY,
+			int widthInTiles, int heightInTiles) {
+		int result = 0;
 		for (int y = startTileY; y < startTileY + heightInTiles && y < layer.getHeight(); y++) {
 			for (int x = startTileX; x < startTileX + widthInTiles && x < layer.getWidth(); x++) {
 				int tileId = layer.getTileId(x, y);
@@ -190,25 +188,18 @@ public class OrthogonalTileLayerRenderer implements TileLayerRenderer {
 				if (tileId < 1) {
 					continue;
 				}
-				
-				boolean flipHorizontally = layer.isFlippedHorizontally(x, y);
-				boolean flipVertically = layer.isFlippedVertically(x, y);
-				boolean flipDiagonally = layer.isFlippedDiagonally(x, y);
-				
-				int tileRenderX = renderX + (x * tiledMap.getTileWidth());
-				int tileRenderY = renderY + (y * tiledMap.getTileHeight());
 
-				for (int i = 0; i < tiledMap.getTilesets().size; i++) {
-					Tileset tileset = tiledMap.getTilesets().get(i);
-					if (tileset.contains(tileId)) {
-						layerCache.add(tileset.getTile(tileId).getTileRenderer().getCurrentTileImage(), tileRenderX,
-								tileRenderY);
-						break;
-					}
+				int tileRenderX = x * tiledMap.getTileWidth();
+				int tileRenderY = y * tiledMap.getTileHeight();
+
+				final Tile tile = tiledMap.getTile(tileId);
+				if (tile != null) {
+					spriteCache.add(tile.getTileRenderer().getCurrentTileImage(), tileRenderX, tileRenderY);
+					result++;
 				}
 			}
 		}
-		layerCacheIds.put(layer.getIndex(), layerCache.endCache());
+		return result;
 	}
 
 	@Override
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled.renderer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import org.mini2Dx.core.graphics.Graphics;
+import org.mini2Dx.tiled.TileLayer;
+import org.mini2Dx.tiled.TiledMap;
+
+/**
+ * Caches {@link TileLayer}s as fixed-size chunks of tiles, each stored in its
+ * own {@link SpriteCache}. Chunks are built the first time they are drawn and
+ * rebuilt when their layer is modified. Once the memory budget is reached, the
+ * least recently drawn chunks are recycled. This allows the camera to scroll
+ * without rebuilding the whole cache.
+ */
+public class TileLayerChunkCache implements Disposable {
+	/**
+	 * Approximate memory used by a {@link SpriteCache} per tile (vertices and
+	 * indices)
+	 */
+	public static final int BYTES_PER_TILE = 92;
+	/**
+	 * {@link SpriteCache} uses short indices so a chunk can contain at most
+	 * this many tiles
+	 */
+	private static final int MAX_TILES_PER_CHUNK = 8191;
+	private static final int MIN_CACHED_CHUNKS = 16;
+
+	private final ChunkBuilder chunkBuilder;
+	private final int chunkSize, maxChunks;
+	private final LinkedHashMap<Long, Chunk> chunks = new LinkedHashMap<Long, Chunk>(16, 0.75f, true);
+	private final Array<SpriteCache> spriteCachePool = new Array<SpriteCache>();
+
+	/**
+	 * Constructor using {@link TiledMap#CACHED_CHUNK_SIZE} and
+	 * {@link TiledMap#CACHED_CHUNK_MEMORY_BUDGET}
+	 * 
+	 * @param chunkBuilder
+	 *            The {@link ChunkBuilder} to add tiles to chunks with
+	 */
+	public TileLayerChunkCache(ChunkBuilder chunkBuilder) {
+		this(chunkBuilder, TiledMap.CACHED_CHUNK_SIZE, TiledMap.CACHED_CHUNK_MEMORY_BUDGET);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param chunkBuilder
+	 *            The {@link ChunkBuilder} to add tiles to chunks with
+	 * @param chunkSize
+	 *            The width and height of each chunk in tiles
+	 * @param memoryBudget
+	 *            The approximate maximum memory (in bytes) to use for cached
+	 *            chunks
+	 */
+	public TileLayerChunkCache(ChunkBuilder chunkBuilder, int chunkSize, int memoryBudget) {
+		this.chunkBuilder = chunkBuilder;
+		this.chunkSize = Math.max(1, Math.min(chunkSize, (int) Math.sqrt(MAX_TILES_PER_CHUNK)));
+		this.maxChunks = Math.max(MIN_CACHED_CHUNKS,
+				memoryBudget / (this.chunkSize * this.chunkSize * BYTES_PER_TILE));
+	}
+
+	/**
+	 * Draws a chunk of a {@link TileLayer}, building it first if it is not
+	 * cached or the layer has been modified since it was built
+	 * 
+	 * @param g
+	 *            The {@link Graphics} context
+	 * @param layer
+	 *            The {@link TileLayer} the chunk belongs to
+	 * @param chunkX
+	 *            The x coordinate of the chunk (in chunks)
+	 * @param chunkY
+	 *            The y coordinate of the chunk (in chunks)
+	 */
+	public void drawChunk(Graphics g, TileLayer layer, int chunkX, int chunkY) {
+		final Chunk chunk = getChunk(layer, chunkX, chunkY);
+		if (chunk.spriteCache == null) {
+			return;
+		}
+		g.drawSpriteCache(chunk.spriteCache, chunk.cacheId);
+	}
+
+	private Chunk getChunk(TileLayer layer, int chunkX, int chunkY) {
+		final Long key = getKey(layer.getIndex(), chunkX, chunkY);
+		Chunk chunk = chunks.get(key);
+		if (chunk == null) {
+			chunk = new Chunk();
+			chunks.put(key, chunk);
+			evictChunks();
+		} else if (chunk.modificationCount == layer.getModificationCount()) {
+			return chunk;
+		}
+		buildChunk(chunk, layer, chunkX, chunkY);
+		return chunk;
+	}
+
+	private void buildChunk(Chunk chunk, TileLayer layer, int chunkX, int chunkY) {
+		final int startTileX = chunkX * chunkSize;
+		final int startTileY = chunkY * chunkSize;
+		final int widthInTiles = Math.min(chunkSize, layer.getWidth() - startTileX);
+		final int heightInTiles = Math.min(chunkSize, layer.getHeight() - startTileY);
+
+		final SpriteCache spriteCache = chunk.spriteCache != null ? chunk.spriteCache : obtainSpriteCache();
+		spriteCache.clear();
+		spriteCache.beginCache();
+		final int totalTiles = chunkBuilder.buildChunk(spriteCache, layer, startTileX, startTileY, widthInTiles,
+				heightInTiles);
+		final int cacheId = spriteCache.endCache();
+
+		chunk.modificationCount = layer.getModificationCount();
+		if (totalTiles > 0) {
+			chunk.spriteCache = spriteCache;
+			chunk.cacheId = cacheId;
+		} else {
+			chunk.spriteCache = null;
+			spriteCachePool.add(spriteCache);
+		}
+	}
+
+	private void evictChunks() {
+		final Iterator<Map.Entry<Long, Chunk>> iterator = chunks.entrySet().iterator();
+		while (chunks.size() > maxChunks && iterator.hasNext()) {
+			final Chunk chunk = iterator.next().getValue();
+			iterator.remove();
+			if (chunk.spriteCache != null) {
+				spriteCachePool.add(chunk.spriteCache);
+			}
+		}
+	}
+
+	private SpriteCache obtainSpriteCache() {
+		if (spriteCachePool.size > 0) {
+			return spriteCachePool.pop();
+		}
+		return createSpriteCache(chunkSize * chunkSize);
+	}
+
+	SpriteCache createSpriteCache(int size) {
+		return new SpriteCache(size, true);
+	}
+
+	/**
+	 * Returns the width and height of each chunk in tiles
+	 * 
+	 * @return The chunk size
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Returns the maximum amount of chunks that will be cached
+	 * 
+	 * @return The maximum chunk count
+	 */
+	public int getMaxChunks() {
+		return maxChunks;
+	}
+
+	/**
+	 * Returns the amount of chunks currently cached (including empty chunks)
+	 * 
+	 * @return The cached chunk count
+	 */
+	public int getTotalCachedChunks() {
+		return chunks.size();
+	}
+
+	/**
+	 * Returns the key a chunk is stored under
+	 * 
+	 * @param layerIndex
+	 *            The index of the layer
+	 * @param chunkX
+	 *            The x coordinate of the chunk (in chunks)
+	 * @param chunkY
+	 *            The y coordinate of the chunk (in chunks)
+	 * @return The chunk key
+	 */
+	static long getKey(int layerIndex, int chunkX, int chunkY) {
+		return ((long) layerIndex << 42) | ((long) (chunkX & 0x1FFFFF) << 21) | (chunkY & 0x1FFFFF);
+	}
+
+	@Override
+	public void dispose() {
+		for (Chunk chunk : chunks.values()) {
+			if (chunk.spriteCache != null) {
+				chunk.spriteCache.dispose();
+			}
+		}
+		chunks.clear();
+		for (SpriteCache spriteCache : spriteCachePool) {
+			spriteCache.dispose();
+		}
+		spriteCachePool.clear();
+	}
+
+	/**
+	 * Adds the tiles of a chunk to a {@link SpriteCache}. Tiles must be added at
+	 * positions relative to tile 0,0 of the map so that chunks line up with each
+	 * other.
+	 */
+	public interface ChunkBuilder {
+		/**
+		 * Adds the tiles within an area of a {@link TileLayer} to a
+		 * {@link SpriteCache}. {@link SpriteCache#beginCache()} has already
+		 * been called.
+		 * 
+		 * @param spriteCache
+		 *            The {@link SpriteCache} to add tiles to
+		 * @param layer
+		 *            The {@link TileLayer} to read tiles from
+		 * @param startTileX
+		 *            The x coordinate of the first tile of the chunk
+		 * @param startTileY
+		 *            The y coordinate of the first tile of the chunk
+		 * @param widthInTiles
+		 *            The width of the chunk in tiles
+		 * @param heightInTiles
+		 *            The height of the chunk in tiles
+		 * @return The amount of tiles added
+		 */
+		public int buildChunk(SpriteCache spriteCache, TileLayer layer, int startTileX, int startTileY,
+				int widthInTiles, int heightInTiles);
+	}
+
+	private static class Chunk {
+		SpriteCache spriteCache;
+		int cacheId;
+		int modificationCount;
+	}
+}
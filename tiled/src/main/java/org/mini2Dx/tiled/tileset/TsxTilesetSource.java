@@ -35,7 +35,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class TsxTilesetSource extends TilesetSource {
 	private static final String LOGGING_TAG = TsxTilesetSource.class.getSimpleName();
 
-	private static final TiledParser TSX_PARSER = new TiledParser();
 	private static final ObjectMap<String, ImageTilesetSource> TILESETS = new ObjectMap<String, ImageTilesetSource>();
 	private static final ObjectMap<String, AtomicInteger> TILESET_REFS = new ObjectMap<String, AtomicInteger>();
 
@@ -46,18 +45,41 @@ public class TsxTilesetSource extends TilesetSource {
 		super();
 		final FileHandle tsxFileHandle = tmxPath.sibling(tsxPath);
 		this.tsxPath = FileHandleUtils.normalise(tsxFileHandle.path());
+		this.tileset = obtainTileset(tsxFileHandle, this.tsxPath);
+	}
+
+	/**
+	 * Returns the shared {@link ImageTilesetSource} for a TSX file, parsing it
+	 * if it has not been loaded yet. TSX files are parsed outside of the lock
+	 * so that different tilesets can be loaded concurrently.
+	 */
+	private static ImageTilesetSource obtainTileset(FileHandle tsxFileHandle, String tsxPath) {
+		synchronized (TILESETS) {
+			if (TILESETS.containsKey(tsxPath)) {
+				TILESET_REFS.get(tsxPath).incrementAndGet();
+				return TILESETS.get(tsxPath);
+			}
+		}
+
+		ImageTilesetSource result;
+		try {
+			result = new TiledParser().parseTsx(tsxFileHandle);
+		} catch (IOException e) {
+			Gdx.app.error(LOGGING_TAG, "Could not parse " + tsxPath + ". " + e.getMessage(), e);
+			result = null;
+		}
 
-		if (!TILESETS.containsKey(this.tsxPath)) {
-			try {
-				TILESETS.put(this.tsxPath, TSX_PARSER.parseTsx(tsxFileHandle));
-			} catch (IOException e) {
-				Gdx.app.error(LOGGING_TAG, "Could not parse " + tsxPath + ". " + e.getMessage(), e);
-				TILESETS.put(this.tsxPath, null);
+		synchronized (TILESETS) {
+			if (!TILESETS.containsKey(tsxPath)) {
+				TILESETS.put(tsxPath, result);
+				TILESET_REFS.put(tsxPath, new AtomicInteger(0));
+			} else if (result != null) {
+				// Another thread finished parsing the same file first
+				result.dispose();
 			}
-			TILESET_REFS.put(this.tsxPath, new AtomicInteger(0));
+			TILESET_REFS.get(tsxPath).incrementAndGet();
+			return TILESETS.get(tsxPath);
 		}
-		tileset = TILESETS.get(this.tsxPath);
-		TILESET_REFS.get(this.tsxPath).incrementAndGet();
 	}
 	
 	@Override
@@ -181,11 +203,14 @@ public class TsxTilesetSource extends TilesetSource {
 
 	@Override
 	public void dispose() {
-		int remainingRefs = TILESET_REFS.get(tsxPath).decrementAndGet();
-		if (remainingRefs > 0) {
-			return;
+		final ImageTilesetSource tilesetSource;
+		synchronized (TILESETS) {
+			int remainingRefs = TILESET_REFS.get(tsxPath).decrementAndGet();
+			if (remainingRefs > 0) {
+				return;
+			}
+			tilesetSource = TILESETS.remove(tsxPath);
 		}
-		ImageTilesetSource tilesetSource = TILESETS.remove(tsxPath);
 		if (tilesetSource == null) {
 			return;
 		}
@@ -0,0 +1,461 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled.world;
+
+import org.mini2Dx.core.graphics.Graphics;
+import org.mini2Dx.tiled.Orientation;
+import org.mini2Dx.tiled.Tile;
+import org.mini2Dx.tiled.TiledMap;
+import org.mini2Dx.tiled.TiledMapLoader;
+import org.mini2Dx.tiled.TiledMapLoader.TiledMapParameter;
+import org.mini2Dx.tiled.exception.TiledException;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * Presents multiple {@link TiledMap} files as a single seamless world, e.g. a
+ * Tiled .world file. Maps are loaded asynchronously via an
+ * {@link AssetManager} as the camera approaches them and evicted, farthest
+ * first, once the estimated memory of resident maps exceeds a budget.
+ * 
+ * A {@link TiledMapLoader} must be registered with the {@link AssetManager}
+ * and the {@link AssetManager} must be updated by the game as usual.
+ */
+public class TiledWorld implements Disposable {
+	/**
+	 * The default memory budget (in bytes) for resident maps
+	 */
+	public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024L * 1024L;
+	/**
+	 * The default distance (in pixels) around the view area that maps are
+	 * loaded within
+	 */
+	public static final float DEFAULT_LOAD_DISTANCE = 512f;
+
+	private final AssetManager assetManager;
+	private final Array<TiledWorldChunk> chunks = new Array<TiledWorldChunk>(true, 16, TiledWorldChunk.class);
+	private final Array<TiledWorldListener> listeners = new Array<TiledWorldListener>(true, 2,
+			TiledWorldListener.class);
+
+	private TiledMapParameter mapParameters;
+	private float loadDistance = DEFAULT_LOAD_DISTANCE;
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private long residentMemory;
+
+	/**
+	 * Constructor for worlds built via
+	 * {@link #addChunk(String, int, int, int, int)}
+	 * 
+	 * @param assetManager
+	 *            The {@link AssetManager} to load maps with
+	 */
+	public TiledWorld(AssetManager assetManager) {
+		this.assetManager = assetManager;
+	}
+
+	/**
+	 * Constructor for Tiled .world files. Map file names are resolved relative
+	 * to the .world file.
+	 * 
+	 * @param assetManager
+	 *            The {@link AssetManager} to load maps with
+	 * @param worldFile
+	 *            The .world file
+	 * @throws TiledException
+	 *             Thrown if the file does not contain a list of maps
+	 */
+	public TiledWorld(AssetManager assetManager, FileHandle worldFile) throws TiledException {
+		this(assetManager);
+
+		final JsonValue root = new JsonReader().parse(worldFile);
+		final JsonValue maps = root.get("maps");
+		if (maps == null || !maps.isArray()) {
+			throw new TiledException(worldFile.path() + " does not contain a list of maps");
+		}
+		final FileHandle directory = worldFile.parent();
+		for (JsonValue map = maps.child; map != null; map = map.next) {
+			addChunk(directory.child(map.getString("fileName")).path(), map.getInt("x", 0), map.getInt("y", 0),
+					map.getInt("width"), map.getInt("height"));
+		}
+	}
+
+	/**
+	 * Adds a map to this world
+	 * 
+	 * @param fileName
+	 *            The path of the map as understood by the {@link AssetManager}
+	 * @param x
+	 *            The x coordinate of the map in world space (in pixels)
+	 * @param y
+	 *            The y coordinate of the map in world space (in pixels)
+	 * @param width
+	 *            The width of the map (in pixels)
+	 * @param height
+	 *            The height of the map (in pixels)
+	 * @return The new {@link TiledWorldChunk}
+	 */
+	public TiledWorldChunk addChunk(String fileName, int x, int y, int width, int height) {
+		final TiledWorldChunk result = new TiledWorldChunk(fileName, x, y, width, height);
+		chunks.add(result);
+		return result;
+	}
+
+	/**
+	 * Queues maps near the view area for loading, updates animated tiles of
+	 * resident maps and evicts distant maps if over the memory budget. Maps
+	 * that the {@link AssetManager} failed to load are marked via
+	 * {@link TiledWorldChunk#isLoadFailed()} and not queued again.
+	 * 
+	 * @param delta
+	 *            The time since the last frame (in seconds)
+	 * @param viewX
+	 *            The x coordinate of the view area in world space
+	 * @param viewY
+	 *            The y coordinate of the view area in world space
+	 * @param viewWidth
+	 *            The width of the view area
+	 * @param viewHeight
+	 *            The height of the view area
+	 */
+	public void update(float delta, float viewX, float viewY, float viewWidth, float viewHeight) {
+		final float loadX = viewX - loadDistance;
+		final float loadY = viewY - loadDistance;
+		final float loadWidth = viewWidth + (loadDistance * 2f);
+		final float loadHeight = viewHeight + (loadDistance * 2f);
+
+		for (int i = 0; i < chunks.size; i++) {
+			final TiledWorldChunk chunk = chunks.get(i);
+			if (chunk.loading) {
+				if (assetManager.isLoaded(chunk.getFileName(), TiledMap.class)) {
+					onChunkLoaded(chunk);
+				} else if (!assetManager.contains(chunk.getFileName())) {
+					// The AssetManager drops assets that failed to load
+					chunk.loading = false;
+					chunk.loadFailed = true;
+				}
+			} else if (chunk.tiledMap == null && !chunk.loadFailed
+					&& chunk.intersects(loadX, loadY, loadWidth, loadHeight)) {
+				assetManager.load(chunk.getFileName(), TiledMap.class, mapParameters);
+				chunk.loading = true;
+			}
+			if (chunk.tiledMap != null) {
+				chunk.tiledMap.update(delta);
+			}
+		}
+
+		final float centerX = viewX + (viewWidth * 0.5f);
+		final float centerY = viewY + (viewHeight * 0.5f);
+		while (residentMemory > memoryBudget) {
+			TiledWorldChunk farthest = null;
+			float farthestDistance = -1f;
+			for (int i = 0; i < chunks.size; i++) {
+				final TiledWorldChunk chunk = chunks.get(i);
+				if (chunk.tiledMap == null) {
+					continue;
+				}
+				if (chunk.intersects(loadX, loadY, loadWidth, loadHeight)) {
+					continue;
+				}
+				final float distance = chunk.getDistanceSquared(centerX, centerY);
+				if (distance > farthestDistance) {
+					farthest = chunk;
+					farthestDistance = distance;
+				}
+			}
+			if (farthest == null) {
+				break;
+			}
+			unloadChunk(farthest);
+		}
+	}
+
+	private void onChunkLoaded(TiledWorldChunk chunk) {
+		chunk.tiledMap = assetManager.get(chunk.getFileName(), TiledMap.class);
+		chunk.loading = false;
+		chunk.estimatedMemoryUsage = TiledWorldChunk.estimateMemoryUsage(chunk.tiledMap);
+		residentMemory += chunk.estimatedMemoryUsage;
+
+		for (int i = listeners.size - 1; i >= 0; i--) {
+			listeners.get(i).onChunkLoaded(this, chunk);
+		}
+	}
+
+	private void unloadChunk(TiledWorldChunk chunk) {
+		for (int i = listeners.size - 1; i >= 0; i--) {
+			listeners.get(i).onChunkUnloaded(this, chunk);
+		}
+		residentMemory -= chunk.estimatedMemoryUsage;
+		chunk.estimatedMemoryUsage = 0L;
+		chunk.tiledMap = null;
+		assetManager.unload(chunk.getFileName());
+	}
+
+	/**
+	 * Draws all layers of the resident maps that overlap the view area at their
+	 * world coordinates
+	 * 
+	 * @param g
+	 *            The {@link Graphics} context available for rendering
+	 * @param viewX
+	 *            The x coordinate of the view area in world space
+	 * @param viewY
+	 *            The y coordinate of the view area in world space
+	 * @param viewWidth
+	 *            The width of the view area
+	 * @param viewHeight
+	 *            The height of the view area
+	 */
+	public void draw(Graphics g, float viewX, float viewY, float viewWidth, float viewHeight) {
+		for (int i = 0; i < chunks.size; i++) {
+			drawChunk(g, chunks.get(i), viewX, viewY, viewWidth, viewHeight, -1);
+		}
+	}
+
+	/**
+	 * Draws a layer of the resident maps that overlap the view area at their
+	 * world coordinates. Drawing layer by layer avoids tiles in lower layers of
+	 * one map covering higher layers of its neighbour.
+	 * 
+	 * @param g
+	 *            The {@link Graphics} context available for rendering
+	 * @param viewX
+	 *            The x coordinate of the view area in world space
+	 * @param viewY
+	 *            The y coordinate of the view area in world space
+	 * @param viewWidth
+	 *            The width of the view area
+	 * @param viewHeight
+	 *            The height of the view area
+	 * @param layerName
+	 *            The name of the layer to draw. Maps without the layer are
+	 *            skipped.
+	 */
+	public void draw(Graphics g, float viewX, float viewY, float viewWidth, float viewHeight, String layerName) {
+		for (int i = 0; i < chunks.size; i++) {
+			final TiledWorldChunk chunk = chunks.get(i);
+			if (chunk.tiledMap == null) {
+				continue;
+			}
+			final int layerIndex = chunk.tiledMap.getLayerIndex(layerName);
+			if (layerIndex < 0) {
+				continue;
+			}
+			drawChunk(g, chunk, viewX, viewY, viewWidth, viewHeight, layerIndex);
+		}
+	}
+
+	private void drawChunk(Graphics g, TiledWorldChunk chunk, float viewX, float viewY, float viewWidth,
+			float viewHeight, int layer) {
+		final TiledMap tiledMap = chunk.tiledMap;
+		if (tiledMap == null) {
+			return;
+		}
+		if (!chunk.intersects(viewX, viewY, viewWidth, viewHeight)) {
+			return;
+		}
+		if (!tiledMap.getOrientation().equals(Orientation.ORTHOGONAL)) {
+			if (layer < 0) {
+				tiledMap.draw(g, chunk.getX(), chunk.getY());
+			} else {
+				tiledMap.draw(g, chunk.getX(), chunk.getY(), layer);
+			}
+			return;
+		}
+		final int tileWidth = tiledMap.getTileWidth();
+		final int tileHeight = tiledMap.getTileHeight();
+		final int startTileX = Math.max(0, (int) Math.floor((viewX - chunk.getX()) / tileWidth));
+		final int startTileY = Math.max(0, (int) Math.floor((viewY - chunk.getY()) / tileHeight));
+		final int endTileX = Math.min(tiledMap.getWidth(),
+				(int) Math.ceil((viewX + viewWidth - chunk.getX()) / tileWidth));
+		final int endTileY = Math.min(tiledMap.getHeight(),
+				(int) Math.ceil((viewY + viewHeight - chunk.getY()) / tileHeight));
+		if (endTileX <= startTileX || endTileY <= startTileY) {
+			return;
+		}
+		final int renderX = chunk.getX() + (startTileX * tileWidth);
+		final int renderY = chunk.getY() + (startTileY * tileHeight);
+		if (layer < 0) {
+			tiledMap.draw(g, renderX, renderY, startTileX, startTileY, endTileX - startTileX,
+					endTileY - startTileY);
+		} else {
+			tiledMap.draw(g, renderX, renderY, startTileX, startTileY, endTileX - startTileX,
+					endTileY - startTileY, layer);
+		}
+	}
+
+	/**
+	 * Returns the chunk containing a point in world space
+	 * 
+	 * @param worldX
+	 *            The x coordinate (in pixels)
+	 * @param worldY
+	 *            The y coordinate (in pixels)
+	 * @return Null if no chunk contains the point
+	 */
+	public TiledWorldChunk getChunkAt(float worldX, float worldY) {
+		for (int i = 0; i < chunks.size; i++) {
+			final TiledWorldChunk chunk = chunks.get(i);
+			if (chunk.contains(worldX, worldY)) {
+				return chunk;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the {@link Tile} at a point in world space
+	 * 
+	 * @param worldX
+	 *            The x coordinate (in pixels)
+	 * @param worldY
+	 *            The y coordinate (in pixels)
+	 * @param layerName
+	 *            The name of the tile layer
+	 * @return Null if there is no tile or the map at the point is not loaded
+	 */
+	public Tile getTile(float worldX, float worldY, String layerName) {
+		final TiledWorldChunk chunk = getChunkAt(worldX, worldY);
+		if (chunk == null || chunk.tiledMap == null) {
+			return null;
+		}
+		final TiledMap tiledMap = chunk.tiledMap;
+		final int layerIndex = tiledMap.getLayerIndex(layerName);
+		if (layerIndex < 0) {
+			return null;
+		}
+		final int tileX = (int) ((worldX - chunk.getX()) / tiledMap.getTileWidth());
+		final int tileY = (int) ((worldY - chunk.getY()) / tiledMap.getTileHeight());
+		if (tileX >= tiledMap.getWidth() || tileY >= tiledMap.getHeight()) {
+			return null;
+		}
+		return tiledMap.getTile(tileX, tileY, layerIndex);
+	}
+
+	/**
+	 * Unloads all resident maps and cancels any queued maps
+	 */
+	@Override
+	public void dispose() {
+		for (int i = 0; i < chunks.size; i++) {
+			final TiledWorldChunk chunk = chunks.get(i);
+			if (chunk.tiledMap != null) {
+				unloadChunk(chunk);
+			} else if (chunk.loading) {
+				chunk.loading = false;
+				assetManager.unload(chunk.getFileName());
+			}
+		}
+	}
+
+	/**
+	 * Adds a {@link TiledWorldListener} to be notified of loaded and unloaded
+	 * chunks
+	 * 
+	 * @param listener
+	 *            The {@link TiledWorldListener} to add
+	 */
+	public void addListener(TiledWorldListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a {@link TiledWorldListener}
+	 * 
+	 * @param listener
+	 *            The {@link TiledWorldListener} to remove
+	 */
+	public void removeListener(TiledWorldListener listener) {
+		listeners.removeValue(listener, true);
+	}
+
+	/**
+	 * Returns all chunks in this world
+	 * 
+	 * @return An {@link Array} of {@link TiledWorldChunk}
+	 */
+	public Array<TiledWorldChunk> getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * Returns the {@link TiledMapParameter} used when loading maps
+	 * 
+	 * @return Null if defaults are used
+	 */
+	public TiledMapParameter getMapParameters() {
+		return mapParameters;
+	}
+
+	/**
+	 * Sets the {@link TiledMapParameter} used when loading maps
+	 * 
+	 * @param mapParameters
+	 *            Null to use the {@link TiledMapLoader} defaults
+	 */
+	public void setMapParameters(TiledMapParameter mapParameters) {
+		this.mapParameters = mapParameters;
+	}
+
+	/**
+	 * Returns the distance around the view area that maps are loaded within
+	 * 
+	 * @return The distance in pixels
+	 */
+	public float getLoadDistance() {
+		return loadDistance;
+	}
+
+	/**
+	 * Sets the distance around the view area that maps are loaded within.
+	 * Maps within this distance are never evicted.
+	 * 
+	 * @param loadDistance
+	 *            The distance in pixels
+	 */
+	public void setLoadDistance(float loadDistance) {
+		this.loadDistance = loadDistance;
+	}
+
+	/**
+	 * Returns the memory budget for resident maps
+	 * 
+	 * @return The budget in bytes
+	 */
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Sets the memory budget for resident maps. Maps outside the load distance
+	 * are evicted while the estimated memory usage exceeds this budget.
+	 * 
+	 * @param memoryBudget
+	 *            The budget in bytes
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Returns the estimated memory used by all resident maps
+	 * 
+	 * @return The memory usage in bytes
+	 */
+	public long getResidentMemory() {
+		return residentMemory;
+	}
+}
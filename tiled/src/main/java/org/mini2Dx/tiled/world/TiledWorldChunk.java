@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled.world;
+
+import org.mini2Dx.tiled.Layer;
+import org.mini2Dx.tiled.TileLayer;
+import org.mini2Dx.tiled.TiledMap;
+import org.mini2Dx.tiled.TiledObjectGroup;
+
+import com.badlogic.gdx.assets.AssetManager;
+
+/**
+ * A region of a {@link TiledWorld} backed by a single {@link TiledMap} file.
+ * The {@link TiledMap} is only resident while the region is near the camera.
+ */
+public class TiledWorldChunk {
+	/**
+	 * Estimated bytes used by a single {@link org.mini2Dx.tiled.TiledObject}
+	 * including its properties
+	 */
+	public static final int BYTES_PER_OBJECT = 256;
+
+	private final String fileName;
+	private final int x, y, width, height;
+
+	TiledMap tiledMap;
+	boolean loading;
+	boolean loadFailed;
+	long estimatedMemoryUsage;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param fileName
+	 *            The path of the {@link TiledMap} file as understood by the
+	 *            {@link com.badlogic.gdx.assets.AssetManager}
+	 * @param x
+	 *            The x coordinate of the map in world space (in pixels)
+	 * @param y
+	 *            The y coordinate of the map in world space (in pixels)
+	 * @param width
+	 *            The width of the map (in pixels)
+	 * @param height
+	 *            The height of the map (in pixels)
+	 */
+	public TiledWorldChunk(String fileName, int x, int y, int width, int height) {
+		this.fileName = fileName;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Returns if this chunk overlaps an area of the world
+	 * 
+	 * @param areaX
+	 *            The x coordinate of the area (in pixels)
+	 * @param areaY
+	 *            The y coordinate of the area (in pixels)
+	 * @param areaWidth
+	 *            The width of the area (in pixels)
+	 * @param areaHeight
+	 *            The height of the area (in pixels)
+	 * @return True if the area overlaps this chunk
+	 */
+	public boolean intersects(float areaX, float areaY, float areaWidth, float areaHeight) {
+		return areaX < x + width && areaX + areaWidth > x && areaY < y + height && areaY + areaHeight > y;
+	}
+
+	/**
+	 * Returns if a point in the world is inside this chunk
+	 * 
+	 * @param worldX
+	 *            The x coordinate (in pixels)
+	 * @param worldY
+	 *            The y coordinate (in pixels)
+	 * @return True if the point is inside this chunk
+	 */
+	public boolean contains(float worldX, float worldY) {
+		return worldX >= x && worldX < x + width && worldY >= y && worldY < y + height;
+	}
+
+	/**
+	 * Returns the squared distance between a point and the nearest edge of this
+	 * chunk
+	 * 
+	 * @param worldX
+	 *            The x coordinate (in pixels)
+	 * @param worldY
+	 *            The y coordinate (in pixels)
+	 * @return 0 if the point is inside this chunk
+	 */
+	public float getDistanceSquared(float worldX, float worldY) {
+		final float dx = Math.max(Math.max(x - worldX, 0f), worldX - (x + width));
+		final float dy = Math.max(Math.max(y - worldY, 0f), worldY - (y + height));
+		return (dx * dx) + (dy * dy);
+	}
+
+	/**
+	 * Estimates the amount of heap memory used by a {@link TiledMap}'s layers
+	 * 
+	 * @param tiledMap
+	 *            The {@link TiledMap} to estimate
+	 * @return The estimated memory usage in bytes
+	 */
+	public static long estimateMemoryUsage(TiledMap tiledMap) {
+		long result = 0L;
+		for (int i = 0; i < tiledMap.getLayers().size; i++) {
+			final Layer layer = tiledMap.getLayers().get(i);
+			switch (layer.getLayerType()) {
+			case TILE:
+				final TileLayer tileLayer = (TileLayer) layer;
+				result += 4L * tileLayer.getWidth() * tileLayer.getHeight();
+				break;
+			case OBJECT:
+				result += (long) BYTES_PER_OBJECT * ((TiledObjectGroup) layer).getObjects().size;
+				break;
+			default:
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the path of the {@link TiledMap} file
+	 * 
+	 * @return The file path
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Returns the x coordinate of this chunk in world space
+	 * 
+	 * @return The x coordinate in pixels
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * Returns the y coordinate of this chunk in world space
+	 * 
+	 * @return The y coordinate in pixels
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * Returns the width of this chunk
+	 * 
+	 * @return The width in pixels
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of this chunk
+	 * 
+	 * @return The height in pixels
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns if the {@link TiledMap} for this chunk is resident
+	 * 
+	 * @return True if {@link #getTiledMap()} is available
+	 */
+	public boolean isLoaded() {
+		return tiledMap != null;
+	}
+
+	/**
+	 * Returns if the {@link TiledMap} for this chunk is queued or being loaded
+	 * 
+	 * @return True if loading is in progress
+	 */
+	public boolean isLoading() {
+		return loading;
+	}
+
+	/**
+	 * Returns if the {@link AssetManager} failed to load the {@link TiledMap}
+	 * for this chunk. Failed chunks are not queued for loading again.
+	 * 
+	 * @return True if loading failed
+	 */
+	public boolean isLoadFailed() {
+		return loadFailed;
+	}
+
+	/**
+	 * Returns the {@link TiledMap} for this chunk
+	 * 
+	 * @return Null if the chunk is not loaded
+	 */
+	public TiledMap getTiledMap() {
+		return tiledMap;
+	}
+
+	/**
+	 * Returns the estimated memory used by this chunk's {@link TiledMap}
+	 * 
+	 * @return 0 if the chunk is not loaded
+	 */
+	public long getEstimatedMemoryUsage() {
+		return estimatedMemoryUsage;
+	}
+
+	@Override
+	public String toString() {
+		return "TiledWorldChunk [fileName=" + fileName + ", x=" + x + ", y=" + y + ", width=" + width + ", height="
+				+ height + "]";
+	}
+}
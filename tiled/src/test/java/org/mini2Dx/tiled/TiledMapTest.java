@@ -58,6 +58,87 @@ public class TiledMapTest {
 		Assert.assertEquals("SUCCESS", tiledMap.getTilesets().get(0).getTile(0, 0).getProperty("testTileProperty"));
 	}
 
+	@Test
+	public void testGetTileByIdMatchesTilesets() {
+		int maxGid = 0;
+		for (int i = 0; i < tiledMap.getTilesets().size; i++) {
+			maxGid = Math.max(maxGid, tiledMap.getTilesets().get(i).getLastGid());
+		}
+		Assert.assertNull(tiledMap.getTileset(0));
+		Assert.assertNull(tiledMap.getTile(0));
+		Assert.assertNull(tiledMap.getTileset(maxGid + 1));
+		for (int tileId = 1; tileId <= maxGid; tileId++) {
+			Tileset expected = null;
+			for (int i = 0; i < tiledMap.getTilesets().size; i++) {
+				if (tiledMap.getTilesets().get(i).contains(tileId)) {
+					expected = tiledMap.getTilesets().get(i);
+					break;
+				}
+			}
+			Assert.assertSame(expected, tiledMap.getTileset(tileId));
+			if (expected != null) {
+				Assert.assertSame(expected.getTile(tileId), tiledMap.getTile(tileId));
+			}
+		}
+	}
+
+	@Test
+	public void testTileLayerModificationCount() {
+		TileLayer tileLayer = new TileLayer(4, 4);
+		Assert.assertEquals(0, tileLayer.getModificationCount());
+		tileLayer.setTileId(1, 1, 5);
+		Assert.assertEquals(1, tileLayer.getModificationCount());
+		tileLayer.setFlippedHorizontally(1, 1, true);
+		Assert.assertEquals(2, tileLayer.getModificationCount());
+		tileLayer.getTileId(1, 1);
+		tileLayer.isFlippedHorizontally(1, 1);
+		Assert.assertEquals(2, tileLayer.getModificationCount());
+	}
+
+	@Test
+	public void testTileLayerFlipFlags() {
+		TileLayer tileLayer = new TileLayer(3, 2);
+		tileLayer.setTileId(2, 1, 7, true, false, true);
+		Assert.assertEquals(7, tileLayer.getTileId(2, 1));
+		Assert.assertEquals(true, tileLayer.isFlippedHorizontally(2, 1));
+		Assert.assertEquals(false, tileLayer.isFlippedVertically(2, 1));
+		Assert.assertEquals(true, tileLayer.isFlippedDiagonally(2, 1));
+		Assert.assertEquals(0, tileLayer.getTileId(1, 1));
+		Assert.assertEquals(false, tileLayer.isFlippedHorizontally(1, 1));
+
+		tileLayer.setTileId(2, 1, 9);
+		Assert.assertEquals(9, tileLayer.getTileId(2, 1));
+		Assert.assertEquals(true, tileLayer.isFlippedHorizontally(2, 1));
+
+		tileLayer.setFlippedHorizontally(2, 1, false);
+		tileLayer.setFlippedVertically(2, 1, true);
+		Assert.assertEquals(9, tileLayer.getTileId(2, 1));
+		Assert.assertEquals(false, tileLayer.isFlippedHorizontally(2, 1));
+		Assert.assertEquals(true, tileLayer.isFlippedVertically(2, 1));
+		Assert.assertEquals(1, tileLayer.getTotalFilledTiles());
+		Assert.assertEquals(5, tileLayer.getTotalEmptyTiles());
+	}
+
+	@Test
+	public void testTileLayerOutOfBounds() {
+		TileLayer tileLayer = new TileLayer(3, 2);
+		int[][] coordinates = new int[][] { { 3, 0 }, { -1, 1 }, { 0, 2 }, { 0, -1 } };
+		for (int[] coordinate : coordinates) {
+			try {
+				tileLayer.getTileId(coordinate[0], coordinate[1]);
+				Assert.fail("Expected IndexOutOfBoundsException for " + coordinate[0] + "," + coordinate[1]);
+			} catch (IndexOutOfBoundsException e) {
+			}
+			try {
+				tileLayer.setTileId(coordinate[0], coordinate[1], 1);
+				Assert.fail("Expected IndexOutOfBoundsException for " + coordinate[0] + "," + coordinate[1]);
+			} catch (IndexOutOfBoundsException e) {
+			}
+		}
+		Assert.assertEquals(0, tileLayer.getTotalFilledTiles());
+		Assert.assertEquals(0, tileLayer.getModificationCount());
+	}
+
 	@Test
 	public void testGetOrientation() {
 		Assert.assertEquals(Orientation.ORTHOGONAL, tiledMap.getOrientation());
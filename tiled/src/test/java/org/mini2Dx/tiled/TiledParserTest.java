@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.mini2Dx.tiled.exception.TiledException;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Base64Coder;
+
+/**
+ * Unit tests for {@link TiledParser}
+ */
+public class TiledParserTest {
+
+	@Test
+	public void testStreamingOrthogonal() throws TiledException {
+		assertStreamingMatchesDocument("orthogonal.tmx");
+	}
+
+	@Test
+	public void testStreamingIsometric() throws TiledException {
+		assertStreamingMatchesDocument("isometric.tmx");
+	}
+
+	@Test
+	public void testStreamingHexagonalCsv() throws TiledException {
+		assertStreamingMatchesDocument("hexagonal_x.tmx");
+		assertStreamingMatchesDocument("hexagonal_y.tmx");
+	}
+
+	@Test
+	public void testParallel() throws TiledException {
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			TiledParser parser = new TiledParser();
+			parser.setExecutorService(executorService);
+			assertMatchesDocument("orthogonal.tmx", parser);
+			assertMatchesDocument("orthogonal_tsx.tmx", parser);
+			assertMatchesDocument("hexagonal_x.tmx", parser);
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void testBinary() throws IOException {
+		assertBinaryMatchesDocument("orthogonal.tmx");
+		assertBinaryMatchesDocument("orthogonal_tsx.tmx");
+		assertBinaryMatchesDocument("isometric.tmx");
+		assertBinaryMatchesDocument("hexagonal_x.tmx");
+	}
+
+	@Test
+	public void testDecodeCsv() {
+		TileLayer layer = new TileLayer(3, 2);
+		TileLayerDataDecoder.decode(layer, "csv", null, "\n1,2,0,\n0,3," + (0x80000000L | 4L) + "\n");
+		Assert.assertEquals(1, layer.getTileId(0, 0));
+		Assert.assertEquals(2, layer.getTileId(1, 0));
+		Assert.assertEquals(0, layer.getTileId(2, 0));
+		Assert.assertEquals(3, layer.getTileId(1, 1));
+		Assert.assertEquals(4, layer.getTileId(2, 1));
+		Assert.assertEquals(true, layer.isFlippedHorizontally(2, 1));
+		Assert.assertEquals(false, layer.isFlippedHorizontally(1, 1));
+	}
+
+	@Test
+	public void testDecodeBase64() throws IOException {
+		int[] tiles = new int[] { 1, 0, 5, 0x40000000 | 7, 2, 3 };
+		byte[] bytes = toBytes(tiles);
+
+		TileLayer layer = new TileLayer(3, 2);
+		TileLayerDataDecoder.decode(layer, "base64", null, "  " + new String(Base64Coder.encode(bytes)) + "\n");
+		assertTiles(tiles, layer);
+
+		ByteArrayOutputStream gzipBytes = new ByteArrayOutputStream();
+		GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipBytes);
+		gzipOutputStream.write(bytes);
+		gzipOutputStream.close();
+
+		layer = new TileLayer(3, 2);
+		TileLayerDataDecoder.decode(layer, "base64", "gzip", new String(Base64Coder.encode(gzipBytes.toByteArray())));
+		assertTiles(tiles, layer);
+	}
+
+	private void assertTiles(int[] expected, TileLayer layer) {
+		for (int i = 0; i < expected.length; i++) {
+			int x = i % layer.getWidth();
+			int y = i / layer.getWidth();
+			Assert.assertEquals(expected[i] & ~TiledParser.MASK_CLEAR, layer.getTileId(x, y));
+			Assert.assertEquals((expected[i] & TiledParser.FLAG_FLIP_VERTICALLY) != 0, layer.isFlippedVertically(x, y));
+		}
+	}
+
+	private byte[] toBytes(int[] tiles) {
+		byte[] result = new byte[tiles.length * 4];
+		for (int i = 0; i < tiles.length; i++) {
+			result[i * 4] = (byte) tiles[i];
+			result[(i * 4) + 1] = (byte) (tiles[i] >> 8);
+			result[(i * 4) + 2] = (byte) (tiles[i] >> 16);
+			result[(i * 4) + 3] = (byte) (tiles[i] >> 24);
+		}
+		return result;
+	}
+
+	private void assertBinaryMatchesDocument(String filename) throws IOException {
+		FileHandle file = new FileHandle(Thread.currentThread().getContextClassLoader().getResource(filename).getFile());
+		FileHandle binaryFile = TiledMapBinaryConverter.convert(file);
+		try {
+			TiledMap expected = new TiledMap(new TiledParser(), file, false, false);
+			TiledMap result = new TiledMap(new TiledParser(), binaryFile, false, false);
+			assertMapsEqual(expected, result);
+			Assert.assertEquals(expected.getTileWidth(), result.getTileWidth());
+			Assert.assertEquals(expected.getProperty("testMapProperty"), result.getProperty("testMapProperty"));
+			Assert.assertEquals(expected.getTilesets().get(0).getFirstGid(), result.getTilesets().get(0).getFirstGid());
+			Assert.assertEquals(expected.getTilesets().get(0).getSourceInternalUuid(),
+					result.getTilesets().get(0).getSourceInternalUuid());
+			Assert.assertEquals(expected.containsAnimatedTiles(), result.containsAnimatedTiles());
+		} finally {
+			binaryFile.delete();
+		}
+	}
+
+	private void assertStreamingMatchesDocument(String filename) throws TiledException {
+		TiledParser streamingParser = new TiledParser();
+		streamingParser.setStreaming(true);
+		assertMatchesDocument(filename, streamingParser);
+	}
+
+	private void assertMatchesDocument(String filename, TiledParser parser) throws TiledException {
+		FileHandle file = new FileHandle(Thread.currentThread().getContextClassLoader().getResource(filename).getFile());
+
+		TiledMap expected = new TiledMap(new TiledParser(), file, false, false);
+		TiledMap result = new TiledMap(parser, file, false, false);
+		assertMapsEqual(expected, result);
+	}
+
+	private void assertMapsEqual(TiledMap expected, TiledMap result) {
+
+		Assert.assertEquals(expected.getOrientation(), result.getOrientation());
+		Assert.assertEquals(expected.getWidth(), result.getWidth());
+		Assert.assertEquals(expected.getHeight(), result.getHeight());
+		Assert.assertEquals(expected.getTilesets().size, result.getTilesets().size);
+		Assert.assertEquals(expected.getLayers().size, result.getLayers().size);
+
+		for (int i = 0; i < expected.getLayers().size; i++) {
+			Layer expectedLayer = expected.getLayers().get(i);
+			Layer resultLayer = result.getLayers().get(i);
+			Assert.assertEquals(expectedLayer.getName(), resultLayer.getName());
+			Assert.assertEquals(expectedLayer.getLayerType(), resultLayer.getLayerType());
+			if (!(expectedLayer instanceof TileLayer)) {
+				continue;
+			}
+			TileLayer expectedTileLayer = (TileLayer) expectedLayer;
+			TileLayer resultTileLayer = (TileLayer) resultLayer;
+			for (int x = 0; x < expectedTileLayer.getWidth(); x++) {
+				for (int y = 0; y < expectedTileLayer.getHeight(); y++) {
+					Assert.assertEquals(expectedTileLayer.getTileId(x, y), resultTileLayer.getTileId(x, y));
+					Assert.assertEquals(expectedTileLayer.isFlippedHorizontally(x, y),
+							resultTileLayer.isFlippedHorizontally(x, y));
+				}
+			}
+		}
+		for (TiledObjectGroup objectGroup : expected.getObjectGroups()) {
+			TiledObjectGroup resultObjectGroup = result.getObjectGroup(objectGroup.getName());
+			Assert.assertEquals(objectGroup.getObjects().size, resultObjectGroup.getObjects().size);
+			for (int i = 0; i < objectGroup.getObjects().size; i++) {
+				TiledObject expectedObject = objectGroup.getObjects().get(i);
+				TiledObject resultObject = resultObjectGroup.getObjects().get(i);
+				Assert.assertEquals(expectedObject.getId(), resultObject.getId());
+				Assert.assertEquals(expectedObject.getName(), resultObject.getName());
+				Assert.assertEquals(expectedObject.getX(), resultObject.getX());
+				Assert.assertEquals(expectedObject.getY(), resultObject.getY());
+				Assert.assertEquals(expectedObject.getGid(), resultObject.getGid());
+				Assert.assertEquals(expectedObject.getObjectShape(), resultObject.getObjectShape());
+				if (expectedObject.getProperties() == null) {
+					Assert.assertNull(resultObject.getProperties());
+					continue;
+				}
+				for (String key : expectedObject.getProperties().keys()) {
+					Assert.assertEquals(expectedObject.getProperty(key), resultObject.getProperty(key));
+				}
+			}
+		}
+	}
+}
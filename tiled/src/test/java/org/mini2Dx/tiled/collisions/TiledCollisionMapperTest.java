@@ -213,6 +213,61 @@ public class TiledCollisionMapperTest {
 		Assert.assertEquals(19, collisions.size);
 	}
 
+	@Test
+	public void testCreateCollisionMesh() throws TiledException {
+		TiledMap tiledMap = new TiledMap(new FileHandle(
+				Thread.currentThread().getContextClassLoader().getResource("orthogonal.tmx").getFile()), false, false);
+		RegionQuadTree<CollisionBox> quadTree = new RegionQuadTree<CollisionBox>(8, 0f, 0f,
+				tiledMap.getWidth() * tiledMap.getTileWidth(), tiledMap.getHeight() * tiledMap.getTileHeight());
+
+		TiledCollisionMesh<CollisionBox> mesh = collisionBoxMapper.createCollisionMesh(tiledMap, "Collisions");
+		quadTree.addAll(mesh.getCollisions());
+		Assert.assertEquals(3, quadTree.getElementsWithinArea(quadTree).size);
+		Assert.assertEquals(false, mesh.isDirty());
+
+		CollisionBox collision = getCollisionAt(1, 5, quadTree, tiledMap);
+		Assert.assertEquals(tiledMap.getTileWidth() * 2f, collision.getWidth());
+		Assert.assertEquals(tiledMap.getTileHeight() * 2f, collision.getHeight());
+
+		collision = getCollisionAt(6, 3, quadTree, tiledMap);
+		Assert.assertEquals(tiledMap.getTileWidth() * 1f, collision.getWidth());
+		Assert.assertEquals(tiledMap.getTileHeight() * 2f, collision.getHeight());
+
+		mesh.setTileId(5, 4, 0);
+		mesh.setTileId(7, 3, 166);
+		Assert.assertEquals(true, mesh.isDirty());
+		mesh.update(quadTree);
+		Assert.assertEquals(false, mesh.isDirty());
+		Assert.assertEquals(3, quadTree.getElementsWithinArea(quadTree).size);
+		Assert.assertEquals(3, mesh.getCollisions().size);
+		Assert.assertEquals(false, mesh.isSet(5, 4));
+		Assert.assertEquals(true, mesh.isSet(7, 3));
+
+		collision = getCollisionAt(6, 3, quadTree, tiledMap);
+		Assert.assertEquals(tiledMap.getTileWidth() * 2f, collision.getWidth());
+		Assert.assertEquals(tiledMap.getTileHeight() * 1f, collision.getHeight());
+		collision = getCollisionAt(6, 4, quadTree, tiledMap);
+		Assert.assertEquals(tiledMap.getTileWidth() * 1f, collision.getWidth());
+		Assert.assertEquals(tiledMap.getTileHeight() * 1f, collision.getHeight());
+		collision = getCollisionAt(2, 6, quadTree, tiledMap);
+		Assert.assertEquals(tiledMap.getTileWidth() * 2f, collision.getWidth());
+		Assert.assertEquals(tiledMap.getTileHeight() * 2f, collision.getHeight());
+	}
+
+	@Test
+	public void testCreateEmptySpaceMesh() {
+		collisionBoxMapper = new TiledCollisionMapper<>(new TiledCollisionBoxFactory(), new AllCollisionMerger());
+		TiledCollisionMesh<CollisionBox> mesh = collisionBoxMapper.createEmptySpaceMesh(tiledMap, "Collisions");
+
+		float totalArea = 0f;
+		for (CollisionBox collision : mesh.getCollisions()) {
+			totalArea += collision.getWidth() * collision.getHeight();
+		}
+		Assert.assertEquals((tiledMap.getWidth() * tiledMap.getHeight() - 7f) * tiledMap.getTileWidth()
+				* tiledMap.getTileHeight(), totalArea);
+		Assert.assertEquals(null, collisionBoxMapper.createEmptySpaceMesh(tiledMap, "NonExistingLayer"));
+	}
+
 	private void assertCollisionAt(int tileX, int tileY, QuadTree<?> quadTree, TiledMap tiledMap) {
 		Array<?> collisions = quadTree.getElementsWithinArea(new Rectangle(tileX * tiledMap.getTileWidth(),
 				tileY * tiledMap.getTileHeight(), tiledMap.getTileWidth() - 1f, tiledMap.getTileHeight() - 1f));
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2018 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled.collisions;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.jmock.lib.legacy.ClassImposteriser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.core.collisions.PointQuadTree;
+import org.mini2Dx.core.collisions.QuadTree;
+import org.mini2Dx.core.engine.geom.CollisionBox;
+import org.mini2Dx.tiled.TiledMap;
+import org.mini2Dx.tiled.TiledMapLoader.TiledMapParameter;
+import org.mini2Dx.tiled.exception.TiledException;
+import org.mini2Dx.tiled.world.TiledWorld;
+import org.mini2Dx.tiled.world.TiledWorldChunk;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import junit.framework.Assert;
+
+/**
+ * Unit tests for {@link TiledWorldCollisionMapper}
+ */
+public class TiledWorldCollisionMapperTest {
+	private static final int CHUNK_X = 320;
+	private static final int CHUNK_Y = 64;
+
+	private final Mockery mockery = new Mockery();
+
+	private AssetManager assetManager;
+	private TiledMap tiledMap;
+	private TiledWorld tiledWorld;
+	private TiledWorldChunk chunk;
+	private QuadTree<CollisionBox> quadTree;
+	private TiledWorldCollisionMapper<CollisionBox> worldCollisionMapper;
+
+	@Before
+	public void setUp() throws TiledException {
+		mockery.setImposteriser(ClassImposteriser.INSTANCE);
+		assetManager = mockery.mock(AssetManager.class);
+
+		FileHandle file = new FileHandle(
+				Thread.currentThread().getContextClassLoader().getResource("orthogonal.tmx").getFile());
+		tiledMap = new TiledMap(file, false, false);
+
+		tiledWorld = new TiledWorld(assetManager);
+		tiledWorld.setLoadDistance(0f);
+		chunk = tiledWorld.addChunk("orthogonal.tmx", CHUNK_X, CHUNK_Y, tiledMap.getPixelWidth(),
+				tiledMap.getPixelHeight());
+
+		quadTree = new PointQuadTree<CollisionBox>(8, 0f, 0f, 2048f, 2048f);
+		worldCollisionMapper = new TiledWorldCollisionMapper<CollisionBox>(
+				new TiledCollisionMapper<CollisionBox>(new TiledCollisionBoxFactory()), quadTree);
+		worldCollisionMapper.addLayer("Collisions");
+		worldCollisionMapper.addObjectGroup("Objects");
+		tiledWorld.addListener(worldCollisionMapper);
+	}
+
+	@After
+	public void teardown() {
+		mockery.assertIsSatisfied();
+	}
+
+	@Test
+	public void testCollisionsOffsetToChunk() {
+		loadChunk();
+
+		Array<CollisionBox> expected = new Array<CollisionBox>();
+		TiledCollisionMapper<CollisionBox> collisionMapper = new TiledCollisionMapper<CollisionBox>(
+				new TiledCollisionBoxFactory());
+		collisionMapper.mapCollisionsByLayer(expected, tiledMap, "Collisions");
+		collisionMapper.mapCollisionsByObjectGroup(expected, tiledMap, "Objects");
+		Assert.assertEquals(10, expected.size);
+
+		Array<CollisionBox> collisions = worldCollisionMapper.getCollisions(chunk);
+		Assert.assertEquals(expected.size, collisions.size);
+		Assert.assertEquals(expected.size, quadTree.getTotalElements());
+		for (int i = 0; i < expected.size; i++) {
+			Assert.assertEquals(expected.get(i).getX() + CHUNK_X, collisions.get(i).getX());
+			Assert.assertEquals(expected.get(i).getY() + CHUNK_Y, collisions.get(i).getY());
+			Assert.assertEquals(expected.get(i).getWidth(), collisions.get(i).getWidth());
+			Assert.assertEquals(expected.get(i).getHeight(), collisions.get(i).getHeight());
+		}
+	}
+
+	@Test
+	public void testCollisionsRemovedWithChunk() {
+		loadChunk();
+		Assert.assertEquals(10, quadTree.getTotalElements());
+
+		tiledWorld.setMemoryBudget(0L);
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).unload("orthogonal.tmx");
+			}
+		});
+		tiledWorld.update(0.1f, 1024f, 1024f, 100f, 100f);
+
+		Assert.assertEquals(false, chunk.isLoaded());
+		Assert.assertEquals(null, worldCollisionMapper.getCollisions(chunk));
+		Assert.assertEquals(0, quadTree.getTotalElements());
+	}
+
+	private void loadChunk() {
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).load("orthogonal.tmx", TiledMap.class, (TiledMapParameter) null);
+			}
+		});
+		tiledWorld.update(0.1f, CHUNK_X, CHUNK_Y, 100f, 100f);
+
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).isLoaded("orthogonal.tmx", TiledMap.class);
+				will(returnValue(true));
+				oneOf(assetManager).get("orthogonal.tmx", TiledMap.class);
+				will(returnValue(tiledMap));
+			}
+		});
+		tiledWorld.update(0.1f, CHUNK_X, CHUNK_Y, 100f, 100f);
+		Assert.assertEquals(true, chunk.isLoaded());
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled.renderer;
+
+import junit.framework.Assert;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.jmock.lib.legacy.ClassImposteriser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.core.graphics.Graphics;
+import org.mini2Dx.tiled.TileLayer;
+
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+
+/**
+ * Unit tests for {@link TileLayerChunkCache}
+ */
+public class TileLayerChunkCacheTest {
+	private static final int CHUNK_SIZE = 4;
+
+	private Mockery mockery;
+	private Graphics g;
+	private TileLayer layer;
+	private CountingChunkBuilder chunkBuilder;
+	private MockTileLayerChunkCache chunkCache;
+
+	@Before
+	public void setUp() {
+		mockery = new Mockery();
+		mockery.setImposteriser(ClassImposteriser.INSTANCE);
+		g = mockery.mock(Graphics.class);
+		mockery.checking(new Expectations() {
+			{
+				ignoring(g);
+			}
+		});
+
+		layer = new TileLayer(CHUNK_SIZE * 32, CHUNK_SIZE);
+		chunkBuilder = new CountingChunkBuilder();
+		chunkCache = new MockTileLayerChunkCache(chunkBuilder);
+	}
+
+	@After
+	public void teardown() {
+		mockery.assertIsSatisfied();
+	}
+
+	@Test
+	public void testGetKey() {
+		Assert.assertEquals(false, TileLayerChunkCache.getKey(0, 1, 0) == TileLayerChunkCache.getKey(0, 0, 1));
+		Assert.assertEquals(false, TileLayerChunkCache.getKey(0, 0, 0) == TileLayerChunkCache.getKey(1, 0, 0));
+		Assert.assertEquals(false, TileLayerChunkCache.getKey(0, -1, 0) == TileLayerChunkCache.getKey(0, 0, -1));
+		Assert.assertEquals(false, TileLayerChunkCache.getKey(0, -1, 0) == TileLayerChunkCache.getKey(1, 0, 0));
+		Assert.assertEquals(TileLayerChunkCache.getKey(2, 5, 7), TileLayerChunkCache.getKey(2, 5, 7));
+	}
+
+	@Test
+	public void testChunkIsBuiltOnceUntilModified() {
+		chunkCache.drawChunk(g, layer, 0, 0);
+		chunkCache.drawChunk(g, layer, 0, 0);
+		Assert.assertEquals(1, chunkBuilder.totalBuilds);
+		Assert.assertEquals(1, chunkCache.totalCreated);
+
+		layer.setTileId(0, 0, 1);
+		chunkCache.drawChunk(g, layer, 0, 0);
+		Assert.assertEquals(2, chunkBuilder.totalBuilds);
+		Assert.assertEquals(1, chunkCache.totalCreated);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		final int maxChunks = chunkCache.getMaxChunks();
+		for (int i = 0; i < maxChunks; i++) {
+			chunkCache.drawChunk(g, layer, i, 0);
+		}
+		Assert.assertEquals(maxChunks, chunkCache.getTotalCachedChunks());
+		Assert.assertEquals(maxChunks, chunkBuilder.totalBuilds);
+
+		// Touch chunk 0 so chunk 1 becomes the least recently used
+		chunkCache.drawChunk(g, layer, 0, 0);
+		chunkCache.drawChunk(g, layer, maxChunks, 0);
+		Assert.assertEquals(maxChunks, chunkCache.getTotalCachedChunks());
+		Assert.assertEquals(maxChunks + 1, chunkBuilder.totalBuilds);
+
+		chunkCache.drawChunk(g, layer, 0, 0);
+		Assert.assertEquals(maxChunks + 1, chunkBuilder.totalBuilds);
+
+		chunkCache.drawChunk(g, layer, 1, 0);
+		Assert.assertEquals(maxChunks + 2, chunkBuilder.totalBuilds);
+	}
+
+	@Test
+	public void testEvictedSpriteCachesArePooled() {
+		final int maxChunks = chunkCache.getMaxChunks();
+		for (int i = 0; i < maxChunks * 2; i++) {
+			chunkCache.drawChunk(g, layer, i, 0);
+		}
+		Assert.assertEquals(maxChunks, chunkCache.getTotalCachedChunks());
+		Assert.assertEquals(maxChunks, chunkCache.totalCreated);
+	}
+
+	@Test
+	public void testEmptyChunkReturnsSpriteCacheToPool() {
+		chunkBuilder.tilesPerChunk = 0;
+		chunkCache.drawChunk(g, layer, 0, 0);
+		chunkCache.drawChunk(g, layer, 1, 0);
+		Assert.assertEquals(2, chunkCache.getTotalCachedChunks());
+		Assert.assertEquals(1, chunkCache.totalCreated);
+	}
+
+	private class MockTileLayerChunkCache extends TileLayerChunkCache {
+		private int totalCreated;
+
+		public MockTileLayerChunkCache(ChunkBuilder chunkBuilder) {
+			super(chunkBuilder, CHUNK_SIZE, 0);
+		}
+
+		@Override
+		SpriteCache createSpriteCache(int size) {
+			final SpriteCache result = mockery.mock(SpriteCache.class, "spriteCache" + totalCreated);
+			mockery.checking(new Expectations() {
+				{
+					ignoring(result);
+				}
+			});
+			totalCreated++;
+			return result;
+		}
+	}
+
+	private static class CountingChunkBuilder implements TileLayerChunkCache.ChunkBuilder {
+		private int tilesPerChunk = 1;
+		private int totalBuilds;
+
+		@Override
+		public int buildChunk(SpriteCache spriteCache, TileLayer layer, int startTileX, int startTileY,
+				int widthInTiles, int heightInTiles) {
+			totalBuilds++;
+			return tilesPerChunk;
+		}
+	}
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2015 See AUTHORS file
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ * Neither the name of the mini2Dx nor the names of its contributors may be used to endorse or promote products derived from this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.mini2Dx.tiled.world;
+
+import junit.framework.Assert;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.jmock.Sequence;
+import org.jmock.lib.legacy.ClassImposteriser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mini2Dx.tiled.TiledMap;
+import org.mini2Dx.tiled.TiledMapLoader.TiledMapParameter;
+import org.mini2Dx.tiled.exception.TiledException;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Unit tests for {@link TiledWorld}
+ */
+public class TiledWorldTest {
+	private final Mockery mockery = new Mockery();
+
+	private TiledWorld tiledWorld;
+	private AssetManager assetManager;
+	private TiledWorldListener listener;
+	private TiledMap tiledMap;
+
+	private TiledWorld streamingWorld;
+	private TiledWorldChunk first, second, third;
+
+	@Before
+	public void setUp() throws TiledException {
+		tiledWorld = new TiledWorld(null, getFile("test.world"));
+
+		mockery.setImposteriser(ClassImposteriser.INSTANCE);
+		assetManager = mockery.mock(AssetManager.class);
+		listener = mockery.mock(TiledWorldListener.class);
+		tiledMap = new TiledMap(getFile("orthogonal.tmx"), false, false);
+
+		streamingWorld = new TiledWorld(assetManager);
+		streamingWorld.setLoadDistance(0f);
+		streamingWorld.addListener(listener);
+		first = streamingWorld.addChunk("first.tmx", 0, 0, 320, 256);
+		second = streamingWorld.addChunk("second.tmx", 320, 0, 320, 256);
+		third = streamingWorld.addChunk("third.tmx", 640, 0, 320, 256);
+	}
+
+	@After
+	public void teardown() {
+		mockery.assertIsSatisfied();
+	}
+
+	@Test
+	public void testParseWorldFile() {
+		Assert.assertEquals(2, tiledWorld.getChunks().size);
+
+		TiledWorldChunk first = tiledWorld.getChunks().get(0);
+		Assert.assertEquals(true, first.getFileName().endsWith("orthogonal.tmx"));
+		Assert.assertEquals(0, first.getX());
+		Assert.assertEquals(0, first.getY());
+		Assert.assertEquals(320, first.getWidth());
+		Assert.assertEquals(256, first.getHeight());
+		Assert.assertEquals(false, first.isLoaded());
+		Assert.assertEquals(false, first.isLoading());
+
+		TiledWorldChunk second = tiledWorld.getChunks().get(1);
+		Assert.assertEquals(true, second.getFileName().endsWith("orthogonal_no_cache.tmx"));
+		Assert.assertEquals(320, second.getX());
+		Assert.assertEquals(0, second.getY());
+	}
+
+	@Test
+	public void testGetChunkAt() {
+		Assert.assertEquals(tiledWorld.getChunks().get(0), tiledWorld.getChunkAt(0f, 0f));
+		Assert.assertEquals(tiledWorld.getChunks().get(0), tiledWorld.getChunkAt(319f, 255f));
+		Assert.assertEquals(tiledWorld.getChunks().get(1), tiledWorld.getChunkAt(320f, 0f));
+		Assert.assertEquals(null, tiledWorld.getChunkAt(640f, 0f));
+		Assert.assertEquals(null, tiledWorld.getChunkAt(0f, 256f));
+		Assert.assertEquals(null, tiledWorld.getTile(32f, 32f, "Ground"));
+	}
+
+	@Test
+	public void testChunkDistance() {
+		TiledWorldChunk chunk = tiledWorld.getChunks().get(1);
+		Assert.assertEquals(0f, chunk.getDistanceSquared(400f, 100f));
+		Assert.assertEquals(100f * 100f, chunk.getDistanceSquared(220f, 100f));
+		Assert.assertEquals((30f * 30f) + (40f * 40f), chunk.getDistanceSquared(670f, 296f));
+
+		Assert.assertEquals(true, chunk.intersects(300f, 0f, 21f, 10f));
+		Assert.assertEquals(false, chunk.intersects(300f, 0f, 20f, 10f));
+	}
+
+	@Test
+	public void testEstimateMemoryUsage() throws TiledException {
+		TiledMap tiledMap = new TiledMap(getFile("orthogonal.tmx"), false, false);
+		int totalObjects = tiledMap.getObjectGroup("Objects").getObjects().size
+				+ tiledMap.getObjectGroup("Shapes").getObjects().size;
+		Assert.assertEquals((4L * 10L * 8L * 4L) + (TiledWorldChunk.BYTES_PER_OBJECT * totalObjects),
+				TiledWorldChunk.estimateMemoryUsage(tiledMap));
+	}
+
+	@Test
+	public void testUpdateQueuesChunksNearView() {
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).load("first.tmx", TiledMap.class, (TiledMapParameter) null);
+			}
+		});
+		streamingWorld.update(0.1f, 0f, 0f, 100f, 100f);
+		Assert.assertEquals(true, first.isLoading());
+		Assert.assertEquals(false, second.isLoading());
+		Assert.assertEquals(false, third.isLoading());
+
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).isLoaded("first.tmx", TiledMap.class);
+				will(returnValue(false));
+				oneOf(assetManager).contains("first.tmx");
+				will(returnValue(true));
+			}
+		});
+		streamingWorld.update(0.1f, 0f, 0f, 100f, 100f);
+		Assert.assertEquals(true, first.isLoading());
+		Assert.assertEquals(false, first.isLoaded());
+
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).isLoaded("first.tmx", TiledMap.class);
+				will(returnValue(true));
+				oneOf(assetManager).get("first.tmx", TiledMap.class);
+				will(returnValue(tiledMap));
+				oneOf(listener).onChunkLoaded(streamingWorld, first);
+			}
+		});
+		streamingWorld.update(0.1f, 0f, 0f, 100f, 100f);
+		Assert.assertEquals(false, first.isLoading());
+		Assert.assertEquals(true, first.isLoaded());
+		Assert.assertSame(tiledMap, first.getTiledMap());
+		Assert.assertEquals(TiledWorldChunk.estimateMemoryUsage(tiledMap), streamingWorld.getResidentMemory());
+	}
+
+	@Test
+	public void testMemoryBudgetEvictsFarthestChunksFirst() {
+		loadAllChunks();
+		final long mapMemory = TiledWorldChunk.estimateMemoryUsage(tiledMap);
+		Assert.assertEquals(mapMemory * 3L, streamingWorld.getResidentMemory());
+
+		streamingWorld.setMemoryBudget(mapMemory);
+		final Sequence evictions = mockery.sequence("evictions");
+		mockery.checking(new Expectations() {
+			{
+				oneOf(listener).onChunkUnloaded(streamingWorld, first);
+				inSequence(evictions);
+				oneOf(assetManager).unload("first.tmx");
+				inSequence(evictions);
+				oneOf(listener).onChunkUnloaded(streamingWorld, second);
+				inSequence(evictions);
+				oneOf(assetManager).unload("second.tmx");
+				inSequence(evictions);
+			}
+		});
+		streamingWorld.update(0.1f, 700f, 0f, 100f, 100f);
+		Assert.assertEquals(false, first.isLoaded());
+		Assert.assertEquals(false, second.isLoaded());
+		Assert.assertEquals(true, third.isLoaded());
+		Assert.assertEquals(mapMemory, streamingWorld.getResidentMemory());
+	}
+
+	@Test
+	public void testMemoryBudgetKeepsChunksNearView() {
+		loadAllChunks();
+		streamingWorld.setMemoryBudget(0L);
+		streamingWorld.update(0.1f, 0f, 0f, 960f, 256f);
+		Assert.assertEquals(true, first.isLoaded());
+		Assert.assertEquals(true, second.isLoaded());
+		Assert.assertEquals(true, third.isLoaded());
+	}
+
+	@Test
+	public void testFailedLoadClearsLoadingFlag() {
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).load("first.tmx", TiledMap.class, (TiledMapParameter) null);
+			}
+		});
+		streamingWorld.update(0.1f, 0f, 0f, 100f, 100f);
+		Assert.assertEquals(true, first.isLoading());
+
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).isLoaded("first.tmx", TiledMap.class);
+				will(returnValue(false));
+				oneOf(assetManager).contains("first.tmx");
+				will(returnValue(false));
+			}
+		});
+		streamingWorld.update(0.1f, 0f, 0f, 100f, 100f);
+		Assert.assertEquals(false, first.isLoading());
+		Assert.assertEquals(false, first.isLoaded());
+		Assert.assertEquals(true, first.isLoadFailed());
+
+		streamingWorld.update(0.1f, 0f, 0f, 100f, 100f);
+		Assert.assertEquals(false, first.isLoading());
+		Assert.assertEquals(0L, streamingWorld.getResidentMemory());
+	}
+
+	private void loadAllChunks() {
+		mockery.checking(new Expectations() {
+			{
+				oneOf(assetManager).load("first.tmx", TiledMap.class, (TiledMapParameter) null);
+				oneOf(assetManager).load("second.tmx", TiledMap.class, (TiledMapParameter) null);
+				oneOf(assetManager).load("third.tmx", TiledMap.class, (TiledMapParameter) null);
+			}
+		});
+		streamingWorld.update(0.1f, 0f, 0f, 960f, 256f);
+
+		mockery.checking(new Expectations() {
+			{
+				for (String fileName : new String[] { "first.tmx", "second.tmx", "third.tmx" }) {
+					oneOf(assetManager).isLoaded(fileName, TiledMap.class);
+					will(returnValue(true));
+					oneOf(assetManager).get(fileName, TiledMap.class);
+					will(returnValue(tiledMap));
+				}
+				oneOf(listener).onChunkLoaded(streamingWorld, first);
+				oneOf(listener).onChunkLoaded(streamingWorld, second);
+				oneOf(listener).onChunkLoaded(streamingWorld, third);
+			}
+		});
+		streamingWorld.update(0.1f, 0f, 0f, 960f, 256f);
+	}
+
+	private FileHandle getFile(String filename) {
+		return new FileHandle(Thread.currentThread().getContextClassLoader().getResource(filename).getFile());
+	}
+}